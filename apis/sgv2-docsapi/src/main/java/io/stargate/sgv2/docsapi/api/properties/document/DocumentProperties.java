@@ -32,6 +32,27 @@ public interface DocumentProperties {
   /** @return Defines the Cassandra search page size when fetching documents. */
   int maxSearchPageSize();
 
+  /** @return Defines how many search pages can be fetched ahead of the consumption at most. */
+  int maxSearchPrefetchPages();
+
+  /** @return Defines the maximum size in bytes of the search pages fetched ahead. */
+  long maxSearchPrefetchBytes();
+
+  /** @return Defines how many rows are requested ahead from each query of a multi-query search. */
+  int maxSearchMergePrefetch();
+
+  /** @return Defines how many queries of a multi-query search are started at the same time. */
+  int maxSearchMergeConcurrency();
+
+  /** @return Defines how many candidate documents are filtered with a single query. */
+  int maxSearchFilterBatchSize();
+
+  /** @return Defines that one in how many read documents is sampled into the search statistics. */
+  int searchStatisticsSampleRate();
+
+  /** @return Defines if document updates write only the rows that differ from the existing ones. */
+  boolean diffUpdatesEnabled();
+
   /** @return Properties for a table where documents are stored. */
   DocumentTableProperties tableProperties();
 
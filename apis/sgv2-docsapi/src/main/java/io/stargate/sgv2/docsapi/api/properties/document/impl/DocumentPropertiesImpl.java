@@ -32,6 +32,13 @@ public record DocumentPropertiesImpl(
     int maxArrayLength,
     int maxPageSize,
     int maxSearchPageSize,
+    int maxSearchPrefetchPages,
+    long maxSearchPrefetchBytes,
+    int maxSearchMergePrefetch,
+    int maxSearchMergeConcurrency,
+    int maxSearchFilterBatchSize,
+    int searchStatisticsSampleRate,
+    boolean diffUpdatesEnabled,
     DocumentTableProperties tableProperties,
     DocumentTableColumns tableColumns)
     implements DocumentProperties {
@@ -42,6 +49,13 @@ public record DocumentPropertiesImpl(
         documentConfig.maxArrayLength(),
         documentConfig.maxPageSize(),
         documentConfig.maxSearchPageSize(),
+        documentConfig.maxSearchPrefetchPages(),
+        documentConfig.maxSearchPrefetchBytes(),
+        documentConfig.maxSearchMergePrefetch(),
+        documentConfig.maxSearchMergeConcurrency(),
+        documentConfig.maxSearchFilterBatchSize(),
+        documentConfig.searchStatisticsSampleRate(),
+        documentConfig.diffUpdatesEnabled(),
         new DocumentTablePropertiesImpl(documentConfig),
         DocumentTableColumnsImpl.of(documentConfig, numericBooleans));
   }
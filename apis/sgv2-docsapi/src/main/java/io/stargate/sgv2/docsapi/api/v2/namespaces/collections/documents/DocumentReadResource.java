@@ -167,7 +167,7 @@ public class DocumentReadResource {
               Paginator paginator = new Paginator(pageState, pageSizeFinal);
 
               return readDocumentsService
-                  .findDocuments(namespace, collection, where, fields, paginator, context)
+                  .findDocuments(namespace, collection, where, fields, paginator, context, true)
 
                   // note that find documents always returns the result
                   .map(rawHandler(raw));
@@ -365,7 +365,7 @@ public class DocumentReadResource {
                         });
               } else {
                 return readDocumentsService
-                    .getDocument(namespace, collection, id, pathStrings, fields, context)
+                    .getDocument(namespace, collection, id, pathStrings, fields, context, true)
                     .map(
                         result -> {
                           if (null != result) {
@@ -27,6 +27,7 @@ import io.stargate.sgv2.docsapi.config.constants.OpenApiConstants;
 import io.stargate.sgv2.docsapi.service.ExecutionContext;
 import io.stargate.sgv2.docsapi.service.schema.CollectionManager;
 import io.stargate.sgv2.docsapi.service.write.WriteDocumentsService;
+import java.io.InputStream;
 import java.net.URI;
 import javax.inject.Inject;
 import javax.validation.constraints.Min;
@@ -136,7 +137,7 @@ public class DocumentWriteResource {
       @QueryParam("ttl") @Min(value = 1, message = "TTL value must be a positive integer")
           Integer ttl,
       @QueryParam("profile") boolean profile,
-      @NotNull(message = "payload must not be empty") JsonNode body) {
+      @NotNull(message = "payload must not be empty") InputStream body) {
     ExecutionContext context = ExecutionContext.create(profile);
     Uni<Schema.CqlTable> table = collectionManager.ensureValidDocumentTable(namespace, collection);
     return documentWriteService
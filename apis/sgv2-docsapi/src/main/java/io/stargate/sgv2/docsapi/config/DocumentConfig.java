@@ -24,6 +24,7 @@ import io.stargate.sgv2.docsapi.config.constants.Constants;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 /**
  * Configuration for the documents.
@@ -61,6 +62,73 @@ public interface DocumentConfig {
   @WithDefault("1000")
   int maxSearchPageSize();
 
+  /**
+   * @return Defines how many search pages can be fetched ahead of the consumption at most, defaults
+   *     to <code>4</code>. The actual number of prefetched pages adapts to how fast the pages are
+   *     consumed, <code>0</code> disables prefetching.
+   */
+  @Max(64)
+  @PositiveOrZero
+  @WithDefault("4")
+  int maxSearchPrefetchPages();
+
+  /**
+   * @return Defines the maximum size in bytes of the search pages fetched ahead, defaults to <code>
+   *     8388608</code> (8MB). No more pages are prefetched while above this size.
+   */
+  @Positive
+  @WithDefault("8388608")
+  long maxSearchPrefetchBytes();
+
+  /**
+   * @return Defines how many rows are requested ahead from each query when merging the results of a
+   *     multi-query search, defaults to <code>256</code>.
+   */
+  @Max(10000)
+  @Positive
+  @WithDefault("256")
+  int maxSearchMergePrefetch();
+
+  /**
+   * @return Defines how many queries of a multi-query search can wait for their first results at
+   *     the same time, defaults to <code>16</code>.
+   */
+  @Max(1000)
+  @Positive
+  @WithDefault("16")
+  int maxSearchMergeConcurrency();
+
+  /**
+   * @return Defines how many candidate documents are filtered with a single query when a search
+   *     combines multiple filters, defaults to <code>20</code>. Use <code>1</code> to filter each
+   *     candidate with its own query.
+   */
+  @Max(100)
+  @Positive
+  @WithDefault("20")
+  int maxSearchFilterBatchSize();
+
+  /**
+   * @return Defines that one in how many fully read documents is sampled into the statistics used
+   *     for ordering the search filters, defaults to <code>10</code>. Use <code>0</code> to disable
+   *     the statistics and keep the filters in the order given by the user. Only the documents of
+   *     unfiltered searches and of document gets are sampled, as the results of filtered searches
+   *     are skewed towards their filters. Collections that are only searched with filters thus keep
+   *     the order given by the user. The order picked for the first page of a search is kept in its
+   *     page state, so the next pages run the same queries.
+   */
+  @PositiveOrZero
+  @WithDefault("10")
+  int searchStatisticsSampleRate();
+
+  /**
+   * @return Defines if document updates read the existing document first and write only the rows
+   *     that changed, instead of deleting and re-writing the whole document, defaults to <code>
+   *     false</code>. Updates with a TTL always re-write the whole document.
+   */
+  @WithDefault("false")
+  boolean diffUpdatesEnabled();
+
   /** {@inheritDoc} */
   DocumentTableConfig table();
 
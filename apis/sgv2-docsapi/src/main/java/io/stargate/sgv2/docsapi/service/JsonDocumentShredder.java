@@ -17,7 +17,10 @@
 
 package io.stargate.sgv2.docsapi.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.opentelemetry.extension.annotations.WithSpan;
@@ -26,9 +29,13 @@ import io.stargate.sgv2.docsapi.api.exception.ErrorCodeRuntimeException;
 import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
 import io.stargate.sgv2.docsapi.config.constants.Constants;
 import io.stargate.sgv2.docsapi.service.util.DocsApiUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -39,6 +46,12 @@ import javax.inject.Inject;
 @ApplicationScoped
 public class JsonDocumentShredder {
 
+  private static final String EMPTY_ROOT =
+      "Updating a key with just an empty object or an empty array is not allowed. Hint: update the parent path with a defined object instead.";
+
+  private static final String PRIMITIVE_ROOT =
+      "Updating a key with just a JSON primitive is not allowed. Hint: update the parent path with a defined object instead.";
+
   private final DocumentProperties properties;
   private final ObjectMapper objectMapper;
 
@@ -52,23 +65,102 @@ public class JsonDocumentShredder {
    * Shreds the JSON payload and returns the list of {@link JsonShreddedRow} for each value that
    * should be stored in the data store.
    *
+   * <p>The payload is shredded while streaming its tokens, without building the {@link JsonNode}
+   * tree first. If the payload contains duplicate field names, the last value wins.
+   *
    * @param payload JSON payload as string
    * @param subDocumentPath Prefix path to use. Note that paths are added to each row path as they
    *     are given, without any modifications.
    * @return List of shredded rows
+   * @throws JsonParseException If the payload is not a valid JSON.
+   * @throws ErrorCodeRuntimeException If the payload can not be processed for other reasons (f.e. a
+   *     number out of range).
    */
-  public List<JsonShreddedRow> shred(String payload, List<String> subDocumentPath) {
+  @WithSpan
+  public List<JsonShreddedRow> shred(String payload, List<String> subDocumentPath)
+      throws JsonParseException {
+    JsonParser parser;
     try {
-      JsonNode node = objectMapper.readTree(payload);
-      return shred(node, subDocumentPath);
+      parser = objectMapper.getFactory().createParser(payload);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return shred(parser, subDocumentPath);
+  }
+
+  /**
+   * Shreds the JSON payload read from the stream, see {@link #shred(String, List)}. The stream is
+   * closed when done.
+   *
+   * @param payload JSON payload as stream
+   * @param subDocumentPath Prefix path to use. Note that paths are added to each row path as they
+   *     are given, without any modifications.
+   * @return List of shredded rows
+   * @throws JsonParseException If the payload is not a valid JSON.
+   * @throws ErrorCodeRuntimeException If the payload can not be processed for other reasons (f.e. a
+   *     number out of range).
+   */
+  @WithSpan
+  public List<JsonShreddedRow> shred(InputStream payload, List<String> subDocumentPath)
+      throws JsonParseException {
+    JsonParser parser;
+    try {
+      parser = objectMapper.getFactory().createParser(payload);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return shred(parser, subDocumentPath);
+  }
+
+  private List<JsonShreddedRow> shred(JsonParser jsonParser, List<String> subDocumentPath)
+      throws JsonParseException {
+    try (JsonParser parser = jsonParser) {
+      JsonToken token = parser.nextToken();
+      if (null == token) {
+        throw emptyPayload();
+      }
+
+      // check if this is a valid root, scalars not allowed
+      // empty object and arrays are checked when processed, as tokens can not be peeked
+      boolean root = subDocumentPath.isEmpty();
+      if (root && token.isScalarValue()) {
+        throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, PRIMITIVE_ROOT);
+      }
+
+      List<String> path = new ArrayList<>(subDocumentPath);
+      List<JsonShreddedRow> result = new ArrayList<>();
+      processToken(parser, path, root, result);
+      return result;
+    } catch (JsonParseException e) {
+      // reported as a bad request by the JsonParseExceptionMapper
+      throw e;
     } catch (JsonProcessingException e) {
-      throw new ErrorCodeRuntimeException(
-          ErrorCode.DOCS_API_INVALID_JSON_VALUE,
-          "Malformed JSON object found during shredding.",
-          e);
+      throw invalidJson(e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
   }
 
+  /** @return ErrorCodeRuntimeException for a payload without any JSON value */
+  public static ErrorCodeRuntimeException emptyPayload() {
+    return new ErrorCodeRuntimeException(
+        ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, "Payload must not be empty.");
+  }
+
+  /**
+   * Maps a {@link JsonProcessingException} that is not a {@link JsonParseException} (those are
+   * handled by the JsonParseExceptionMapper) to the {@link ErrorCodeRuntimeException}.
+   *
+   * @param e Exception processing the JSON payload
+   * @return ErrorCodeRuntimeException with the {@link ErrorCode#DOCS_API_INVALID_JSON_VALUE}
+   */
+  public static ErrorCodeRuntimeException invalidJson(JsonProcessingException e) {
+    return new ErrorCodeRuntimeException(
+        ErrorCode.DOCS_API_INVALID_JSON_VALUE,
+        "Unable to process JSON: %s.".formatted(e.getOriginalMessage()),
+        e);
+  }
+
   /**
    * Shreds the {@link JsonNode} and returns the list of {@link JsonShreddedRow} for each value that
    * should be stored in the data store.
@@ -138,16 +230,12 @@ public class JsonDocumentShredder {
   private void checkRoot(JsonNode root) {
     // empty object and arrays not allowed
     if (root.isContainerNode() && root.isEmpty()) {
-      String msg =
-          "Updating a key with just an empty object or an empty array is not allowed. Hint: update the parent path with a defined object instead.";
-      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, msg);
+      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, EMPTY_ROOT);
     }
 
     // scalars not allowed
     if (root.isValueNode()) {
-      String msg =
-          "Updating a key with just a JSON primitive is not allowed. Hint: update the parent path with a defined object instead.";
-      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, msg);
+      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, PRIMITIVE_ROOT);
     }
   }
 
@@ -212,23 +300,7 @@ public class JsonDocumentShredder {
         .forEachRemaining(
             field -> {
               String fieldName = field.getKey();
-
-              if (fieldName.isEmpty()) {
-                String msg =
-                    "JSON objects containing empty field names are not supported at the moment.";
-                throw new ErrorCodeRuntimeException(
-                    ErrorCode.DOCS_API_GENERAL_INVALID_FIELD_NAME, msg);
-              }
-
-              // check for valid field name
-              if (DocsApiUtils.containsIllegalSequences(fieldName)) {
-                String msg =
-                    String.format(
-                        "Array paths contained in square brackets, periods, single quotes, and backslash are not allowed in field names, invalid field %s",
-                        fieldName);
-                throw new ErrorCodeRuntimeException(
-                    ErrorCode.DOCS_API_GENERAL_INVALID_FIELD_NAME, msg);
-              }
+              checkFieldName(fieldName);
 
               // escape the field path
               // then create new next row builder
@@ -260,4 +332,149 @@ public class JsonDocumentShredder {
     ImmutableJsonShreddedRow row = builder.build();
     result.add(row);
   }
+
+  private void processToken(
+      JsonParser parser, List<String> path, boolean root, List<JsonShreddedRow> result)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_ARRAY) {
+      processArray(parser, path, root, result);
+    } else if (token == JsonToken.START_OBJECT) {
+      processObject(parser, path, root, result);
+    } else {
+      processValue(parser, path, result);
+    }
+  }
+
+  private void processArray(
+      JsonParser parser, List<String> path, boolean root, List<JsonShreddedRow> result)
+      throws IOException {
+    JsonToken token = parser.nextToken();
+
+    // empty array, simply create a reference to empty node and return
+    if (token == JsonToken.END_ARRAY) {
+      if (root) {
+        throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, EMPTY_ROOT);
+      }
+
+      result.add(rowBuilder(path).stringValue(Constants.EMPTY_ARRAY_MARKER).build());
+      return;
+    }
+
+    // otherwise, iterate all elements
+    int idx = 0;
+    while (token != JsonToken.END_ARRAY) {
+      // make sure we are not overflowing the array
+      if (idx >= properties.maxArrayLength()) {
+        throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GENERAL_ARRAY_LENGTH_EXCEEDED);
+      }
+
+      // convert the array index into path
+      String arrayPath = "[" + DocsApiUtils.leftPadTo6(String.valueOf(idx)) + "]";
+      pushPath(path, arrayPath);
+
+      // process inner element and increase the index
+      processToken(parser, path, false, result);
+      path.remove(path.size() - 1);
+      idx++;
+      token = parser.nextToken();
+    }
+  }
+
+  private void processObject(
+      JsonParser parser, List<String> path, boolean root, List<JsonShreddedRow> result)
+      throws IOException {
+    String fieldName = parser.nextFieldName();
+
+    // empty object, simply create a reference to empty node and return
+    if (null == fieldName) {
+      if (root) {
+        throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID, EMPTY_ROOT);
+      }
+
+      result.add(rowBuilder(path).stringValue(Constants.EMPTY_OBJECT_MARKER).build());
+      return;
+    }
+
+    // index of the first row of each field, in the field order
+    Map<String, Integer> fieldRows = new LinkedHashMap<>();
+    while (null != fieldName) {
+      checkFieldName(fieldName);
+
+      // rows of the duplicated field were already emitted, the last value wins
+      Integer firstRow = fieldRows.remove(fieldName);
+      if (null != firstRow) {
+        removeFieldRows(fieldRows, firstRow, result);
+      }
+      fieldRows.put(fieldName, result.size());
+
+      // escape the field path
+      String fieldPath = DocsApiUtils.convertEscapedCharacters(fieldName);
+      pushPath(path, fieldPath);
+
+      // process the field value
+      parser.nextToken();
+      processToken(parser, path, false, result);
+      path.remove(path.size() - 1);
+      fieldName = parser.nextFieldName();
+    }
+  }
+
+  private void processValue(JsonParser parser, List<String> path, List<JsonShreddedRow> result)
+      throws IOException {
+    ImmutableJsonShreddedRow.Builder builder = rowBuilder(path);
+
+    // depending on the value type set values
+    JsonToken token = parser.currentToken();
+    if (token.isBoolean()) {
+      builder.booleanValue(parser.getBooleanValue());
+    } else if (token.isNumeric()) {
+      builder.doubleValue(parser.getDoubleValue());
+    } else if (token != JsonToken.VALUE_NULL) {
+      builder.stringValue(parser.getText());
+    }
+
+    // build and add to the results
+    result.add(builder.build());
+  }
+
+  // every nested value ends with a row, so fail as soon as the path is too deep
+  private void pushPath(List<String> path, String segment) {
+    path.add(segment);
+    if (path.size() > properties.maxDepth()) {
+      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GENERAL_DEPTH_EXCEEDED);
+    }
+  }
+
+  private ImmutableJsonShreddedRow.Builder rowBuilder(List<String> path) {
+    return ImmutableJsonShreddedRow.builder().maxDepth(properties.maxDepth()).addAllPath(path);
+  }
+
+  private void checkFieldName(String fieldName) {
+    if (fieldName.isEmpty()) {
+      String msg = "JSON objects containing empty field names are not supported at the moment.";
+      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GENERAL_INVALID_FIELD_NAME, msg);
+    }
+
+    // check for valid field name
+    if (DocsApiUtils.containsIllegalSequences(fieldName)) {
+      String msg =
+          String.format(
+              "Array paths contained in square brackets, periods, single quotes, and backslash are not allowed in field names, invalid field %s",
+              fieldName);
+      throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GENERAL_INVALID_FIELD_NAME, msg);
+    }
+  }
+
+  // removes the rows of the field starting at the first row, until the start of the next field
+  private void removeFieldRows(
+      Map<String, Integer> fieldRows, int firstRow, List<JsonShreddedRow> result) {
+    int lastRow =
+        fieldRows.values().stream().filter(row -> row > firstRow).findFirst().orElse(result.size());
+    result.subList(firstRow, lastRow).clear();
+
+    // fields after the removed one move up
+    int removed = lastRow - firstRow;
+    fieldRows.replaceAll((field, row) -> row > firstRow ? row - removed : row);
+  }
 }
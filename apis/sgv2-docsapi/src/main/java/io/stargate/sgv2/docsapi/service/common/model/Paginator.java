@@ -18,7 +18,10 @@ package io.stargate.sgv2.docsapi.service.common.model;
 import io.stargate.sgv2.api.common.util.ByteBufferUtils;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class is in charge of keeping the data of the Docs API pagination process. It's not only a
@@ -26,12 +29,21 @@ import java.util.List;
  * passed through to the DocumentService that is in charge of its changes. After being populated its
  * `documentPageState` can be passed by the REST layer to the client as a JSON string.
  *
+ * <p>When a search orders its filters by the collection statistics, the selectivity estimates it
+ * used are kept in the external paging state as well (before a {@code .}, which is not part of the
+ * base64 URL alphabet), so that the following pages run the same queries even if the statistics
+ * have changed in the meantime.
+ *
  * @author Dmitri Bourlatchkov
  */
 public class Paginator {
 
+  private static final char PLAN_SEPARATOR = '.';
+
   public final int docPageSize;
   private ByteBuffer currentPageState; // keeps track of the DB page state while querying the DB
+  // selectivity estimates by filter expression the search was planned with, if any
+  private Map<Integer, Double> plan;
 
   public Paginator(String pageState, int pageSize) {
     if (pageSize <= 0) {
@@ -41,6 +53,11 @@ public class Paginator {
     docPageSize = pageSize;
 
     if (pageState != null && !pageState.isEmpty()) {
+      int separator = pageState.indexOf(PLAN_SEPARATOR);
+      if (separator >= 0) {
+        this.plan = decodePlan(pageState.substring(0, separator));
+        pageState = pageState.substring(separator + 1);
+      }
       this.currentPageState = ByteBufferUtils.fromBase64UrlParam(pageState);
     }
   }
@@ -60,7 +77,7 @@ public class Paginator {
       RawDocument lastDoc = docs.get(docs.size() - 1);
       ByteBuffer byteBuffer = lastDoc.makePagingState();
       if (null != byteBuffer) {
-        return ByteBufferUtils.toBase64ForUrl(byteBuffer);
+        return paginator.toExternalPagingState(byteBuffer);
       }
     }
     return null;
@@ -71,7 +88,49 @@ public class Paginator {
       return null;
     }
 
-    return ByteBufferUtils.toBase64ForUrl(currentPageState);
+    return toExternalPagingState(currentPageState);
+  }
+
+  /**
+   * @return The selectivity estimates by filter expression that the search was planned with, or
+   *     <code>null</code> if the filters were ordered by the user hints only.
+   */
+  public Map<Integer, Double> getPlan() {
+    return plan;
+  }
+
+  /**
+   * Pins the plan of the search, so that it's used again for the next pages.
+   *
+   * @param plan Selectivity estimates by filter expression, <code>null</code> or empty if the
+   *     filters were ordered by the user hints only.
+   */
+  public void setPlan(Map<Integer, Double> plan) {
+    this.plan = plan == null || plan.isEmpty() ? null : Collections.unmodifiableMap(plan);
+  }
+
+  private String toExternalPagingState(ByteBuffer pageState) {
+    String external = ByteBufferUtils.toBase64ForUrl(pageState);
+    if (plan == null) {
+      return external;
+    }
+    return encodePlan(plan) + PLAN_SEPARATOR + external;
+  }
+
+  private static String encodePlan(Map<Integer, Double> plan) {
+    ByteBuffer buffer = ByteBuffer.allocate(plan.size() * (Integer.BYTES + Double.BYTES));
+    plan.forEach((index, selectivity) -> buffer.putInt(index).putDouble(selectivity));
+    buffer.flip();
+    return ByteBufferUtils.toBase64ForUrl(buffer);
+  }
+
+  private static Map<Integer, Double> decodePlan(String encoded) {
+    ByteBuffer buffer = ByteBufferUtils.fromBase64UrlParam(encoded);
+    Map<Integer, Double> plan = new HashMap<>();
+    while (buffer.remaining() >= Integer.BYTES + Double.BYTES) {
+      plan.put(buffer.getInt(), buffer.getDouble());
+    }
+    return plan.isEmpty() ? null : Collections.unmodifiableMap(plan);
   }
 
   public void clearDocumentPageState() {
@@ -16,20 +16,26 @@
  */
 package io.stargate.sgv2.docsapi.service.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.BooleanNode;
 import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.fasterxml.jackson.databind.node.LongNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import io.opentelemetry.extension.annotations.WithSpan;
 import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
 import io.stargate.sgv2.docsapi.config.constants.Constants;
 import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.util.DocsApiUtils;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -81,10 +87,271 @@ public class JsonConverter {
       DeadLeafCollector collector,
       boolean writeAllPathsAsObjects,
       boolean numericBooleans) {
-    int maxDepth = docsProperties.maxDepth();
+    int maxDepth = pathDepth(rows);
     return convertToJsonDoc(rows, collector, writeAllPathsAsObjects, numericBooleans, maxDepth);
   }
 
+  // resolves the number of path columns available in the rows,
+  // as reads can select less path columns than the max depth
+  private int pathDepth(List<RowWrapper> rows) {
+    int maxDepth = docsProperties.maxDepth();
+    if (rows.isEmpty()) {
+      return maxDepth;
+    }
+
+    RowWrapper row = rows.get(0);
+    for (int i = 0; i < maxDepth; i++) {
+      if (!row.columnExists(docsProperties.tableProperties().pathColumnName(i))) {
+        return i;
+      }
+    }
+    return maxDepth;
+  }
+
+  /**
+   * Converts a List of rows into a Jackson JsonNode that writes the rows straight to the {@link
+   * JsonGenerator} when serialized, without building the intermediate tree. Only rows that are
+   * {@link #isStreamable(List)} are written this way, others fall back to the tree conversion using
+   * the given collector. The returned node should only be serialized, as it can not be navigated.
+   *
+   * @param rows The List of RowWrapper objects
+   * @param collector a DeadLeafCollector that can be used to collect unreachable information that
+   *     can be deleted, only used on the fallback conversion.
+   * @param numericBooleans `true` if booleans should be treated as numbers
+   * @return the JSON representation of the data
+   */
+  public JsonNode convertToStreamingJsonDoc(
+      List<RowWrapper> rows, DeadLeafCollector collector, boolean numericBooleans) {
+    if (!isStreamable(rows)) {
+      return convertToJsonDoc(rows, collector, false, numericBooleans);
+    }
+
+    return new POJONode(new StreamingJsonDoc(rows, numericBooleans));
+  }
+
+  /**
+   * Resolves if the rows can be written straight to the generator. This is the case when the rows
+   * are sorted by path and represent a single version of the document, so that no path is written
+   * twice, no leaf is a container at the same time and all children of a container are either array
+   * elements or fields. For such rows the tree conversion would find no dead leaves.
+   *
+   * @param rows RowWrapper objects
+   * @return if rows can be streamed
+   */
+  public boolean isStreamable(List<RowWrapper> rows) {
+    int maxDepth = pathDepth(rows);
+    String[] previous = new String[maxDepth];
+    String[] current = new String[maxDepth];
+    int previousLength = 0;
+    Long rootArrayWriteTime = null;
+
+    for (RowWrapper row : rows) {
+      String rowLeaf = row.getString(docsProperties.tableProperties().leafColumnName());
+      if (rowLeaf.equals(Constants.ROOT_DOC_MARKER)) {
+        continue;
+      }
+
+      int length = readPath(row, current, maxDepth);
+      if (length == 0) {
+        return false;
+      }
+
+      Long rowWriteTime = row.getLong(docsProperties.tableProperties().writetimeColumnName());
+      if (previousLength == 0) {
+        // tree conversion drops older rows in case root array is created by a leaf
+        if (length == 1 && current[0].startsWith("[")) {
+          rootArrayWriteTime = rowWriteTime;
+        }
+      } else {
+        if (null != rootArrayWriteTime && rootArrayWriteTime > rowWriteTime) {
+          return false;
+        }
+
+        // paths must diverge, and the diverging segments must be of the same kind and ordered
+        int common = commonPrefix(previous, previousLength, current, length);
+        if (common == length || common == previousLength) {
+          return false;
+        }
+
+        String before = previous[common];
+        String after = current[common];
+        boolean isArray = before.startsWith("[");
+        if (isArray != after.startsWith("[")) {
+          return false;
+        }
+
+        int compare =
+            isArray
+                ? Integer.compare(arrayIndex(before), arrayIndex(after))
+                : before.compareTo(after);
+        if (compare >= 0) {
+          return false;
+        }
+      }
+
+      String[] swap = previous;
+      previous = current;
+      current = swap;
+      previousLength = length;
+    }
+
+    return true;
+  }
+
+  /**
+   * Writes the rows to the generator, opening and closing objects and arrays as the path prefixes
+   * change. Expects the rows to be {@link #isStreamable(List)}.
+   *
+   * @param rows RowWrapper objects
+   * @param generator JsonGenerator to write to
+   * @param numericBooleans If these rows do not support boolean values and are using tinyint
+   *     instead
+   * @throws IOException If writing to the generator fails
+   */
+  public void writeJsonDoc(List<RowWrapper> rows, JsonGenerator generator, boolean numericBooleans)
+      throws IOException {
+    int maxDepth = pathDepth(rows);
+    String[] previous = new String[maxDepth];
+    String[] current = new String[maxDepth];
+    int[] nextIndex = new int[maxDepth];
+    int previousLength = 0;
+
+    for (RowWrapper row : rows) {
+      String rowLeaf = row.getString(docsProperties.tableProperties().leafColumnName());
+      if (rowLeaf.equals(Constants.ROOT_DOC_MARKER)) {
+        continue;
+      }
+
+      int length = readPath(row, current, maxDepth);
+      int common;
+      if (previousLength == 0) {
+        writeStart(generator, current[0]);
+        common = 0;
+      } else {
+        common = commonPrefix(previous, previousLength, current, length);
+
+        // close containers of the previous path that are not shared
+        for (int i = previousLength - 1; i > common; i--) {
+          writeEnd(generator, previous[i]);
+        }
+      }
+
+      for (int i = common; i < length; i++) {
+        String p = current[i];
+        if (p.startsWith("[")) {
+          int index = arrayIndex(p);
+          for (int k = nextIndex[i]; k < index; k++) {
+            generator.writeNull();
+          }
+          nextIndex[i] = index + 1;
+        } else {
+          generator.writeFieldName(p);
+        }
+
+        if (i < length - 1) {
+          writeStart(generator, current[i + 1]);
+          nextIndex[i + 1] = 0;
+        } else {
+          writeLeaf(generator, row, numericBooleans);
+        }
+      }
+
+      String[] swap = previous;
+      previous = current;
+      current = swap;
+      previousLength = length;
+    }
+
+    if (previousLength == 0) {
+      generator.writeStartObject();
+      generator.writeEndObject();
+      return;
+    }
+
+    for (int i = previousLength - 1; i >= 0; i--) {
+      writeEnd(generator, previous[i]);
+    }
+  }
+
+  // reads the path of the row to the given array, returns the path length
+  private int readPath(RowWrapper row, String[] path, int maxDepth) {
+    for (int i = 0; i < maxDepth; i++) {
+      String p = row.getString(docsProperties.tableProperties().pathColumnName(i));
+      if (p.isEmpty()) {
+        return i;
+      }
+      path[i] = p;
+    }
+    return maxDepth;
+  }
+
+  private int commonPrefix(String[] first, int firstLength, String[] second, int secondLength) {
+    int common = 0;
+    while (common < firstLength && common < secondLength && first[common].equals(second[common])) {
+      common++;
+    }
+    return common;
+  }
+
+  private int arrayIndex(String p) {
+    return Integer.parseInt(p.substring(1, p.length() - 1));
+  }
+
+  // starts the container holding the given child path segment
+  private void writeStart(JsonGenerator generator, String child) throws IOException {
+    if (child.startsWith("[")) {
+      generator.writeStartArray();
+    } else {
+      generator.writeStartObject();
+    }
+  }
+
+  // ends the container holding the given child path segment
+  private void writeEnd(JsonGenerator generator, String child) throws IOException {
+    if (child.startsWith("[")) {
+      generator.writeEndArray();
+    } else {
+      generator.writeEndObject();
+    }
+  }
+
+  // same value resolution as the #writeLeafIfNewer
+  private void writeLeaf(JsonGenerator generator, RowWrapper row, boolean numericBooleans)
+      throws IOException {
+    String stringValue = DocsApiUtils.getStringFromRow(row, docsProperties);
+    if (stringValue != null) {
+      if (stringValue.equals(Constants.EMPTY_OBJECT_MARKER)) {
+        generator.writeStartObject();
+        generator.writeEndObject();
+      } else if (stringValue.equals(Constants.EMPTY_ARRAY_MARKER)) {
+        generator.writeStartArray();
+        generator.writeEndArray();
+      } else {
+        generator.writeString(stringValue);
+      }
+      return;
+    }
+
+    Boolean booleanValue = DocsApiUtils.getBooleanFromRow(row, docsProperties, numericBooleans);
+    if (booleanValue != null) {
+      generator.writeBoolean(booleanValue);
+      return;
+    }
+
+    Double doubleValue = DocsApiUtils.getDoubleFromRow(row, docsProperties);
+    if (doubleValue != null) {
+      long lv = (long) doubleValue.doubleValue();
+      if ((double) lv == doubleValue) {
+        generator.writeNumber(lv);
+      } else {
+        generator.writeNumber(doubleValue);
+      }
+      return;
+    }
+
+    generator.writeNull();
+  }
+
   /**
    * Takes a List of rows from a documents table, iterating over it and constructing a JSON object
    * (or array) that is represented by those rows. Note: Because the system avoids
@@ -396,4 +663,29 @@ public class JsonConverter {
       pathWriteTimes.put(parentPath + "." + leaf, rowWriteTime);
     }
   }
+
+  /** Serializes the rows of a document using the {@link #writeJsonDoc}. */
+  private class StreamingJsonDoc extends JsonSerializable.Base {
+
+    private final List<RowWrapper> rows;
+
+    private final boolean numericBooleans;
+
+    StreamingJsonDoc(List<RowWrapper> rows, boolean numericBooleans) {
+      this.rows = rows;
+      this.numericBooleans = numericBooleans;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+      writeJsonDoc(rows, gen, numericBooleans);
+    }
+
+    @Override
+    public void serializeWithType(
+        JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+        throws IOException {
+      serialize(gen, serializers);
+    }
+  }
 }
@@ -24,6 +24,7 @@ import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.stargate.bridge.grpc.Values;
 import io.stargate.bridge.proto.QueryOuterClass;
+import io.stargate.sgv2.api.common.cql.builder.QueryBuilderImpl;
 import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
 import io.stargate.sgv2.docsapi.service.ExecutionContext;
 import io.stargate.sgv2.docsapi.service.common.model.Paginator;
@@ -36,6 +37,9 @@ import io.stargate.sgv2.docsapi.service.query.search.db.impl.SubDocumentSearchQu
 import io.stargate.sgv2.docsapi.service.query.search.resolver.BaseResolver;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.DocumentsResolver;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.impl.SubDocumentsResolver;
+import io.stargate.sgv2.docsapi.service.query.search.weight.impl.StatisticsWeightResolver;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionDepthManager;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionStatisticsManager;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
@@ -49,6 +53,10 @@ public class ReadBridgeService {
 
   @Inject DocumentProperties documentProperties;
 
+  @Inject CollectionStatisticsManager statisticsManager;
+
+  @Inject CollectionDepthManager depthManager;
+
   /**
    * Searches a complete collection in order to find the documents that match the given expression.
    * Starts the search for the given {@link Paginator} state.
@@ -77,28 +85,69 @@ public class ReadBridgeService {
       }
 
       // fetch docs, no need to populate as all rows are taken
-      return fullSearch(keyspace, collection, paginator, nestedFullSearch(context))
+      Multi<RawDocument> documents =
+          fullSearch(keyspace, collection, paginator, nestedFullSearch(context))
 
-          // load only for the page size
-          .select()
-          .first(paginator.docPageSize);
-    } else {
-      // otherwise resolve the expression
+              // load only for the page size
+              .select()
+              .first(paginator.docPageSize);
+
+      // unfiltered documents are a fair sample for the statistics
+      return statisticsManager.recordDocuments(keyspace, collection, documents);
+    } else if (!statisticsManager.isEnabled()) {
+      // otherwise resolve the expression in the user order
       DocumentsResolver documentsResolver =
           BaseResolver.resolve(expression, context, documentProperties);
+      return searchCandidates(documentsResolver, keyspace, collection, paginator, context);
+    } else if (null != paginator.getPlan()) {
+      // next page of a search ordered by the statistics, the paging state is only valid for the
+      // same queries, so replay the plan of the first page
+      StatisticsWeightResolver weightResolver = new StatisticsWeightResolver(paginator.getPlan());
+      DocumentsResolver documentsResolver =
+          BaseResolver.resolve(expression, context, null, weightResolver, documentProperties);
+      return searchCandidates(documentsResolver, keyspace, collection, paginator, context);
+    } else if (null != paginator.getCurrentDbPageState()) {
+      // next page of a search that was planned in the user order
+      DocumentsResolver documentsResolver =
+          BaseResolver.resolve(expression, context, documentProperties);
+      return searchCandidates(documentsResolver, keyspace, collection, paginator, context);
+    } else {
+      // or order the expressions by the collection statistics
+      return statisticsManager
+          .getStatistics(keyspace, collection)
+          .onItem()
+          .transformToMulti(
+              statistics -> {
+                StatisticsWeightResolver weightResolver = new StatisticsWeightResolver(statistics);
+                DocumentsResolver documentsResolver =
+                    BaseResolver.resolve(
+                        expression, context, null, weightResolver, documentProperties);
+
+                // pin the plan, so the next pages run the same queries
+                paginator.setPlan(weightResolver.getPlan());
+                return searchCandidates(
+                    documentsResolver, keyspace, collection, paginator, context);
+              });
+    }
+  }
 
-      // load the candidates
-      Multi<RawDocument> candidates =
-          documentsResolver
-              .getDocuments(queryExecutor, keyspace, collection, paginator)
+  private Multi<RawDocument> searchCandidates(
+      DocumentsResolver documentsResolver,
+      String keyspace,
+      String collection,
+      Paginator paginator,
+      ExecutionContext context) {
+    // load the candidates
+    Multi<RawDocument> candidates =
+        documentsResolver
+            .getDocuments(queryExecutor, keyspace, collection, paginator)
 
-              // limit to requested page size only to stop fetching extra docs
-              .select()
-              .first(paginator.docPageSize);
+            // limit to requested page size only to stop fetching extra docs
+            .select()
+            .first(paginator.docPageSize);
 
-      // then populate
-      return populateCandidates(candidates, keyspace, collection, nestedPopulate(context));
-    }
+    // then populate
+    return populateCandidates(candidates, keyspace, collection, nestedPopulate(context));
   }
 
   /**
@@ -163,12 +212,19 @@ public class ReadBridgeService {
       List<String> subDocumentPath,
       ExecutionContext context) {
 
-    return fullDocument(
-            keyspace, collection, documentId, subDocumentPath, nestedFullDocument(context))
+    Multi<RawDocument> document =
+        fullDocument(keyspace, collection, documentId, subDocumentPath, nestedFullDocument(context))
 
-        // take one, as there can be only one document
-        .select()
-        .first();
+            // take one, as there can be only one document
+            .select()
+            .first();
+
+    // only whole documents go to the statistics
+    if (subDocumentPath.isEmpty()) {
+      return statisticsManager.recordDocuments(keyspace, collection, document);
+    } else {
+      return document;
+    }
   }
 
   /**
@@ -187,6 +243,65 @@ public class ReadBridgeService {
     return documentTtl(keyspace, collection, documentId, context).select().first().toUni();
   }
 
+  /**
+   * Gets all rows of a single document optionally limited to the #subDocumentPath, with the TTL
+   * data in each row. All path columns are read regardless of the known depth of the collection,
+   * and the document is not recorded in the statistics.
+   *
+   * @param keyspace Keyspace to search in.
+   * @param collection Collection to search in.
+   * @param documentId Document ID to search in
+   * @param subDocumentPath Path where to find the document
+   * @param context Context for recording profiling information
+   * @return Uni with a single {@link RawDocument} representing a document's rows with TTL as a
+   *     column, or null if document not found
+   */
+  @WithSpan
+  public Uni<RawDocument> getDocumentWithTtlInfo(
+      String keyspace,
+      String collection,
+      String documentId,
+      List<String> subDocumentPath,
+      ExecutionContext context) {
+
+    // build and bind first
+    return Uni.createFrom()
+        .item(
+            () -> {
+              String[] columns = documentProperties.tableColumns().allColumnNamesArray();
+              List<QueryBuilderImpl.FunctionCall> ttlFunction =
+                  List.of(
+                      QueryBuilderImpl.FunctionCall.ttl(
+                          documentProperties.tableProperties().leafColumnName()));
+
+              SubDocumentSearchQueryBuilder queryBuilder =
+                  new SubDocumentSearchQueryBuilder(
+                      documentProperties, documentId, subDocumentPath);
+              QueryOuterClass.Query query =
+                  queryBuilder.buildQuery(keyspace, collection, null, ttlFunction, columns);
+              return queryBuilder.bind(query);
+            })
+        .onItem()
+        .transformToMulti(
+            query -> {
+              // same as for the full document, row paging only needed for the sub-documents
+              int keyDepth = subDocumentPath.size() + 1;
+              boolean fetchRowPaging = keyDepth > 1;
+
+              return queryExecutor.queryDocs(
+                  keyDepth,
+                  query,
+                  documentProperties.maxSearchPageSize(),
+                  false,
+                  null,
+                  fetchRowPaging,
+                  nestedFullDocument(context));
+            })
+        .select()
+        .first()
+        .toUni();
+  }
+
   private Multi<RawDocument> fullSearch(
       String keyspace, String collection, Paginator paginator, ExecutionContext context) {
 
@@ -241,11 +356,56 @@ public class ReadBridgeService {
       List<String> subDocumentPath,
       ExecutionContext context) {
 
+    // select only the path columns needed for the known depth of the collection,
+    // but at least the ones of the sub-path plus one for the keys below it
+    int maxDepth = documentProperties.maxDepth();
+    int minDepth = Math.min(subDocumentPath.size() + 1, maxDepth);
+    return depthManager
+        .getDepth(keyspace, collection)
+        .onItem()
+        .transformToMulti(
+            depth -> {
+              int projectionDepth = Math.max(depth.projectionDepth(), minDepth);
+              return fullDocument(
+                      keyspace, collection, documentId, subDocumentPath, projectionDepth, context)
+                  .onItem()
+                  .transformToMultiAndConcatenate(
+                      document -> {
+                        if (depth.record(document, projectionDepth)) {
+                          return Multi.createFrom().item(document);
+                        }
+
+                        // document might be truncated, read again with all path columns
+                        return fullDocument(
+                                keyspace,
+                                collection,
+                                documentId,
+                                subDocumentPath,
+                                maxDepth,
+                                context)
+                            .onItem()
+                            .invoke(d -> depth.record(d, maxDepth));
+                      });
+            });
+  }
+
+  private Multi<RawDocument> fullDocument(
+      String keyspace,
+      String collection,
+      String documentId,
+      List<String> subDocumentPath,
+      int projectionDepth,
+      ExecutionContext context) {
+
     // build and bind first
     return Uni.createFrom()
         .item(
             () -> {
-              String[] columns = documentProperties.tableColumns().allColumnNamesArray();
+              String[] columns =
+                  documentProperties
+                      .tableColumns()
+                      .allColumnNamesWithPathDepth(projectionDepth)
+                      .toArray(String[]::new);
 
               SubDocumentSearchQueryBuilder queryBuilder =
                   new SubDocumentSearchQueryBuilder(
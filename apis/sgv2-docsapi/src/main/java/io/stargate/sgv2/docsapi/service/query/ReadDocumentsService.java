@@ -44,6 +44,7 @@ import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.json.DeadLeafCollector;
 import io.stargate.sgv2.docsapi.service.json.DeadLeafCollectorImpl;
 import io.stargate.sgv2.docsapi.service.json.JsonConverter;
+import io.stargate.sgv2.docsapi.service.json.NoOpDeadLeafCollector;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
 import io.stargate.sgv2.docsapi.service.util.DocsApiUtils;
 import io.stargate.sgv2.docsapi.service.util.TimeSource;
@@ -105,6 +106,24 @@ public class ReadDocumentsService {
       String fields,
       Paginator paginator,
       ExecutionContext context) {
+    return findDocuments(namespace, collection, where, fields, paginator, context, false);
+  }
+
+  /**
+   * See {@link #findDocuments(String, String, String, String, Paginator, ExecutionContext)}
+   *
+   * @param streaming If the returned data is only going to be serialized. In this case documents
+   *     are written straight from their rows on serialization when no fields are given, and the
+   *     returned document nodes can not be navigated.
+   */
+  public Uni<DocumentResponseWrapper<JsonNode>> findDocuments(
+      String namespace,
+      String collection,
+      String where,
+      String fields,
+      Paginator paginator,
+      ExecutionContext context,
+      boolean streaming) {
 
     // everything in the reactive sequence
     return Uni.createFrom()
@@ -135,7 +154,8 @@ public class ReadDocumentsService {
                         if (!rawDocuments.isEmpty()) {
                           String state = Paginator.makeExternalPagingState(paginator, rawDocuments);
 
-                          ObjectNode docsResult = createJsonMap(rawDocuments, fieldPaths, false);
+                          ObjectNode docsResult =
+                              createJsonMap(rawDocuments, fieldPaths, false, streaming);
                           return new DocumentResponseWrapper<>(null, state, docsResult, profile);
                         } else {
                           ObjectNode emptyNode = objectMapper.createObjectNode();
@@ -172,7 +192,26 @@ public class ReadDocumentsService {
       List<String> subDocumentPath,
       String fields,
       ExecutionContext context) {
-    return getDocumentInternal(namespace, collection, documentId, subDocumentPath, fields, context)
+    return getDocument(namespace, collection, documentId, subDocumentPath, fields, context, false);
+  }
+
+  /**
+   * See {@link #getDocument(String, String, String, List, String, ExecutionContext)}
+   *
+   * @param streaming If the returned data is only going to be serialized. In this case a complete
+   *     document without fields is written straight from its rows on serialization, and the
+   *     returned node can not be navigated.
+   */
+  public Uni<DocumentResponseWrapper<JsonNode>> getDocument(
+      String namespace,
+      String collection,
+      String documentId,
+      List<String> subDocumentPath,
+      String fields,
+      ExecutionContext context,
+      boolean streaming) {
+    return getDocumentInternal(
+            namespace, collection, documentId, subDocumentPath, fields, context, streaming)
 
         // map only if internal returns something
         .onItem()
@@ -181,7 +220,7 @@ public class ReadDocumentsService {
   }
 
   /**
-   * See {@link #getDocument(String, String, String, List, String, ExecutionContext)}
+   * See {@link #getDocument(String, String, String, List, String, ExecutionContext, boolean)}
    *
    * @return a Uni pair of the {@link DocumentResponseWrapper}, and a {@link Cancellable} for a
    *     potentially issued "dead leaf" deletion batch.
@@ -193,7 +232,8 @@ public class ReadDocumentsService {
       String documentId,
       List<String> subDocumentPath,
       String fields,
-      ExecutionContext context) {
+      ExecutionContext context,
+      boolean streaming) {
 
     long now = timeSource.currentTimeMicros();
     Metadata metadata = metadataResolver.getMetadata(requestInfo);
@@ -228,8 +268,16 @@ public class ReadDocumentsService {
                   .flatMap(
                       document -> {
                         DeadLeafCollectorImpl collector = new DeadLeafCollectorImpl();
-                        JsonNode docsResult =
-                            documentToNode(document, fieldPathsFinal, collector, false);
+                        JsonNode docsResult;
+                        if (streaming && subDocumentPath.isEmpty() && fieldPathsFinal.isEmpty()) {
+                          docsResult =
+                              jsonConverter.convertToStreamingJsonDoc(
+                                  document.rows(),
+                                  collector,
+                                  dataStoreProperties.treatBooleansAsNumeric());
+                        } else {
+                          docsResult = documentToNode(document, fieldPathsFinal, collector, false);
+                        }
 
                         Cancellable deleteBatch = () -> {};
 
@@ -459,12 +507,25 @@ public class ReadDocumentsService {
   /////////////////////
 
   private ObjectNode createJsonMap(
-      List<RawDocument> docs, Collection<List<String>> fieldPaths, boolean writeAllPathsAsObjects) {
+      List<RawDocument> docs,
+      Collection<List<String>> fieldPaths,
+      boolean writeAllPathsAsObjects,
+      boolean streaming) {
     ObjectNode docsResult = objectMapper.createObjectNode();
 
     for (RawDocument doc : docs) {
       // create document node and set to result
-      JsonNode node = documentToNode(doc, fieldPaths, writeAllPathsAsObjects);
+      // without fields, the document is written from the rows only when serialized
+      JsonNode node;
+      if (streaming && fieldPaths.isEmpty() && !writeAllPathsAsObjects) {
+        node =
+            jsonConverter.convertToStreamingJsonDoc(
+                doc.rows(),
+                new NoOpDeadLeafCollector(),
+                dataStoreProperties.treatBooleansAsNumeric());
+      } else {
+        node = documentToNode(doc, fieldPaths, writeAllPathsAsObjects);
+      }
       docsResult.set(doc.id(), node);
     }
 
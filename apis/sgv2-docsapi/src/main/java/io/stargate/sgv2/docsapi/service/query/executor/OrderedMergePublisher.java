@@ -0,0 +1,328 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.executor;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Merges already ordered sources into a single ordered stream.
+ *
+ * <p>The next item is the smallest of the current head items of all sources, kept in a heap, so
+ * each item costs <code>O(log n)</code> for <code>n</code> sources. Equal items are emitted in the
+ * order of their sources, making the output deterministic.
+ *
+ * <p>Sources are consumed in parallel:
+ *
+ * <ul>
+ *   <li>each source has up to {@code prefetch} items requested ahead, so that it can move on to its
+ *       next page while the merge still consumes the current one
+ *   <li>at most {@code maxConcurrency} sources are waiting for their first item at the same time,
+ *       the next sources are subscribed as soon as previous ones deliver their first item or
+ *       complete
+ * </ul>
+ *
+ * <p>The first failure of any source cancels all other sources and fails the stream.
+ *
+ * @param <T> Type of the items.
+ */
+class OrderedMergePublisher<T> implements Publisher<T> {
+
+  private final List<? extends Publisher<? extends T>> sources;
+
+  private final Comparator<? super T> comparator;
+
+  private final int prefetch;
+
+  private final int maxConcurrency;
+
+  /**
+   * @param sources Sources to merge, each must be ordered by the comparator.
+   * @param comparator Comparator of the items.
+   * @param prefetch Items to request ahead from each source.
+   * @param maxConcurrency Max sources waiting for their first item at the same time.
+   */
+  OrderedMergePublisher(
+      List<? extends Publisher<? extends T>> sources,
+      Comparator<? super T> comparator,
+      int prefetch,
+      int maxConcurrency) {
+    this.sources = sources;
+    this.comparator = comparator;
+    this.prefetch = Math.max(1, prefetch);
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    MergeSubscription subscription = new MergeSubscription(subscriber);
+    subscriber.onSubscribe(subscription);
+    subscription.drain();
+  }
+
+  // head item of a source, ordered by the item, then by the source index
+  private record Head<T>(T item, int index) {}
+
+  private class MergeSubscription implements Subscription {
+
+    private final Subscriber<? super T> downstream;
+
+    private final List<SourceSubscriber> inners;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final AtomicLong requested = new AtomicLong();
+
+    // serializes the drain loop, which is the only place emitting and subscribing
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // sources subscribed, but without any item or completion yet
+    private final AtomicInteger awaitingFirst = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    // only accessed in the drain loop
+    private final PriorityQueue<Head<T>> heap;
+
+    // sources that have no item in the heap
+    private final Queue<SourceSubscriber> missing;
+
+    private int subscribed;
+
+    private boolean terminated;
+
+    private MergeSubscription(Subscriber<? super T> downstream) {
+      this.downstream = downstream;
+      this.inners = IntStream.range(0, sources.size()).mapToObj(SourceSubscriber::new).toList();
+      this.heap =
+          new PriorityQueue<>(
+              Math.max(1, sources.size()),
+              Comparator.<Head<T>, T>comparing(Head::item, comparator)
+                  .thenComparingInt(Head::index));
+      this.missing = new ArrayDeque<>(inners);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        onSourceFailure(new IllegalArgumentException("Requested items must be positive, was " + n));
+        return;
+      }
+
+      // add with cap
+      requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+      drain();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void cancel() {
+      cancelled = true;
+      inners.forEach(SourceSubscriber::cancel);
+      drain();
+    }
+
+    private void onSourceFailure(Throwable throwable) {
+      if (failure.compareAndSet(null, throwable)) {
+        inners.forEach(SourceSubscriber::cancel);
+      }
+      drain();
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+
+      int missed = 1;
+      do {
+        if (cancelled || terminated) {
+          heap.clear();
+          inners.forEach(inner -> inner.queue.clear());
+        } else {
+          subscribeNext();
+          emit();
+        }
+
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void subscribeNext() {
+      while (subscribed < inners.size() && awaitingFirst.get() < maxConcurrency && !cancelled) {
+        int index = subscribed++;
+        awaitingFirst.incrementAndGet();
+        sources.get(index).subscribe(inners.get(index));
+      }
+    }
+
+    private void emit() {
+      long demand = requested.get();
+      long count = 0;
+      while (!cancelled) {
+        Throwable throwable = failure.get();
+        if (null != throwable) {
+          terminated = true;
+          downstream.onError(throwable);
+          return;
+        }
+
+        // all sources need a head item, unless they are done
+        while (!missing.isEmpty()) {
+          SourceSubscriber inner = missing.peek();
+          boolean done = inner.done;
+          T item = inner.queue.poll();
+          if (null != item) {
+            heap.offer(new Head<>(item, inner.index));
+            missing.poll();
+          } else if (done) {
+            missing.poll();
+          } else {
+            break;
+          }
+        }
+
+        if (!missing.isEmpty()) {
+          break;
+        }
+
+        if (heap.isEmpty()) {
+          terminated = true;
+          downstream.onComplete();
+          return;
+        }
+
+        if (count == demand) {
+          break;
+        }
+
+        Head<T> head = heap.poll();
+        SourceSubscriber inner = inners.get(head.index());
+        missing.offer(inner);
+        inner.consumed();
+
+        count++;
+        downstream.onNext(head.item());
+      }
+
+      if (count > 0 && demand != Long.MAX_VALUE) {
+        requested.addAndGet(-count);
+      }
+    }
+
+    private class SourceSubscriber implements Subscriber<T> {
+
+      private final int index;
+
+      private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+      private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+      private volatile boolean done;
+
+      private boolean first = true;
+
+      // only accessed in the drain loop, replenish in batches
+      private int consumed;
+
+      private SourceSubscriber(int index) {
+        this.index = index;
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        if (upstream.compareAndSet(null, subscription)) {
+          subscription.request(prefetch);
+        } else {
+          subscription.cancel();
+        }
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      public void onNext(T item) {
+        queue.offer(item);
+        started();
+        drain();
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      public void onError(Throwable throwable) {
+        done = true;
+        started();
+        onSourceFailure(throwable);
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      public void onComplete() {
+        done = true;
+        started();
+        drain();
+      }
+
+      // signals are serialized per source, so no need for atomics here
+      private void started() {
+        if (first) {
+          first = false;
+          awaitingFirst.decrementAndGet();
+        }
+      }
+
+      private void consumed() {
+        int limit = prefetch - (prefetch >> 2);
+        if (++consumed == limit) {
+          consumed = 0;
+          upstream.get().request(limit);
+        }
+      }
+
+      private void cancel() {
+        Subscription subscription = upstream.getAndSet(CANCELLED);
+        if (null != subscription && CANCELLED != subscription) {
+          subscription.cancel();
+        }
+      }
+    }
+  }
+
+  // marks the cancelled sources, so that a late subscription is cancelled right away
+  private static final Subscription CANCELLED =
+      new Subscription() {
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+      };
+}
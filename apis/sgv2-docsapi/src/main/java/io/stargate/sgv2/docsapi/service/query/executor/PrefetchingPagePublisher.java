@@ -0,0 +1,279 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.executor;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.stargate.bridge.proto.QueryOuterClass;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Pages through a single query on the bridge, emitting one {@link QueryOuterClass.ResultSet} per
+ * page, and fetching the next pages ahead of the downstream demand.
+ *
+ * <p>Each page needs the paging state of the previous one, so pages are always fetched one after
+ * the other. The lookahead is the number of pages fetched before they are requested:
+ *
+ * <ul>
+ *   <li>it starts at zero, so a consumer that only needs the first page (for example because of a
+ *       limit) never causes any extra query
+ *   <li>it grows by one, up to {@code maxPrefetchPages}, each time the consumer has to wait for a
+ *       page after the first one
+ *   <li>it shrinks by one each time the consumer finds more pages waiting than the lookahead, as
+ *       the consumer is slower than the bridge then
+ *   <li>no page is fetched ahead while the pages waiting in the buffer take more than {@code
+ *       maxPrefetchBytes}
+ * </ul>
+ *
+ * <p>Cancelling the subscription cancels the in-flight page and drops the buffered ones.
+ */
+class PrefetchingPagePublisher implements Publisher<QueryOuterClass.ResultSet> {
+
+  private final QueryState initialState;
+
+  private final Function<QueryState, Uni<QueryOuterClass.ResultSet>> pageFetcher;
+
+  private final BiFunction<QueryState, QueryOuterClass.ResultSet, QueryState> nextState;
+
+  private final int maxPrefetchPages;
+
+  private final long maxPrefetchBytes;
+
+  /**
+   * @param initialState State for fetching the first page.
+   * @param pageFetcher Fetches the page for a state.
+   * @param nextState Resolves the state for the next page, called only if the page has a paging
+   *     state.
+   * @param maxPrefetchPages Max lookahead, <code>0</code> disables prefetching.
+   * @param maxPrefetchBytes Max serialized size of the pages that are waiting to be emitted, above
+   *     which nothing is fetched ahead.
+   */
+  PrefetchingPagePublisher(
+      QueryState initialState,
+      Function<QueryState, Uni<QueryOuterClass.ResultSet>> pageFetcher,
+      BiFunction<QueryState, QueryOuterClass.ResultSet, QueryState> nextState,
+      int maxPrefetchPages,
+      long maxPrefetchBytes) {
+    this.initialState = initialState;
+    this.pageFetcher = pageFetcher;
+    this.nextState = nextState;
+    this.maxPrefetchPages = Math.max(0, maxPrefetchPages);
+    this.maxPrefetchBytes = maxPrefetchBytes;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void subscribe(Subscriber<? super QueryOuterClass.ResultSet> subscriber) {
+    PageSubscription subscription = new PageSubscription(subscriber, initialState);
+    subscriber.onSubscribe(subscription);
+  }
+
+  private class PageSubscription implements Subscription {
+
+    private final Subscriber<? super QueryOuterClass.ResultSet> downstream;
+
+    // pages fetched, but not emitted yet
+    private final Queue<QueryOuterClass.ResultSet> buffer = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger bufferedPages = new AtomicInteger();
+
+    private final AtomicLong bufferedBytes = new AtomicLong();
+
+    private final AtomicLong requested = new AtomicLong();
+
+    // serializes the drain loop, which is the only place emitting and fetching
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    private volatile boolean fetching;
+
+    private volatile boolean exhausted;
+
+    private volatile Throwable failure;
+
+    private volatile Cancellable inFlight;
+
+    // state of the next page, only updated by the fetch callbacks while fetching
+    private QueryState state;
+
+    // only accessed in the drain loop
+    private int lookahead;
+
+    private long emitted;
+
+    private boolean waiting;
+
+    private boolean terminated;
+
+    private PageSubscription(
+        Subscriber<? super QueryOuterClass.ResultSet> downstream, QueryState initialState) {
+      this.downstream = downstream;
+      this.state = initialState;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancel();
+        downstream.onError(
+            new IllegalArgumentException("Requested items must be positive, was " + n));
+        return;
+      }
+
+      // add with cap
+      requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+      drain();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void cancel() {
+      cancelled = true;
+      Cancellable page = inFlight;
+      if (null != page) {
+        page.cancel();
+      }
+      drain();
+    }
+
+    private void onPage(QueryOuterClass.ResultSet page) {
+      boolean hasMore = page.hasPagingState();
+      if (hasMore) {
+        state = nextState.apply(state, page);
+      }
+
+      // buffer before marking as exhausted, so the last page is never missed
+      bufferedBytes.addAndGet(page.getSerializedSize());
+      buffer.offer(page);
+      bufferedPages.incrementAndGet();
+      exhausted = !hasMore;
+
+      fetching = false;
+      drain();
+    }
+
+    private void onPageFailure(Throwable throwable) {
+      failure = throwable;
+      fetching = false;
+      drain();
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+
+      int missed = 1;
+      do {
+        if (cancelled || terminated) {
+          buffer.clear();
+        } else {
+          emit();
+          if (!terminated) {
+            fetch();
+          }
+        }
+
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    // emits the buffered pages while there is demand, then completes if done
+    private void emit() {
+      long demand = requested.get();
+      long count = 0;
+      while (count != demand && !cancelled) {
+        QueryOuterClass.ResultSet page = buffer.poll();
+        if (null == page) {
+          break;
+        }
+
+        // more pages were ready than needed, the consumer is the slower side
+        if (bufferedPages.getAndDecrement() > lookahead && lookahead > 1) {
+          lookahead--;
+        }
+        bufferedBytes.addAndGet(-page.getSerializedSize());
+
+        waiting = false;
+        emitted++;
+        count++;
+        downstream.onNext(page);
+      }
+
+      if (count > 0 && demand != Long.MAX_VALUE) {
+        requested.addAndGet(-count);
+      }
+
+      if (cancelled || bufferedPages.get() > 0) {
+        return;
+      }
+
+      Throwable throwable = failure;
+      if (null != throwable) {
+        terminated = true;
+        downstream.onError(throwable);
+      } else if (exhausted) {
+        terminated = true;
+        downstream.onComplete();
+      } else if (requested.get() > 0 && emitted > 0 && !waiting) {
+        // the consumer is waiting for a page, fetch further ahead
+        waiting = true;
+        lookahead = Math.min(lookahead + 1, maxPrefetchPages);
+      }
+    }
+
+    // fetches the next page if it's requested, or if it's within the lookahead
+    private void fetch() {
+      if (fetching || exhausted || null != failure || cancelled) {
+        return;
+      }
+
+      int buffered = bufferedPages.get();
+      boolean onDemand = buffered == 0 && requested.get() > 0;
+      boolean ahead = buffered < lookahead && bufferedBytes.get() < maxPrefetchBytes;
+      if (!onDemand && !ahead) {
+        return;
+      }
+
+      fetching = true;
+      Uni<QueryOuterClass.ResultSet> page;
+      try {
+        page = pageFetcher.apply(state);
+      } catch (Throwable throwable) {
+        onPageFailure(throwable);
+        return;
+      }
+
+      // callbacks can run synchronously, they only re-trigger the drain loop
+      inFlight = page.subscribe().with(this::onPage, this::onPageFailure);
+      if (cancelled) {
+        inFlight.cancel();
+      }
+    }
+  }
+}
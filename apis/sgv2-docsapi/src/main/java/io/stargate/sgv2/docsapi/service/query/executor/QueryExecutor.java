@@ -22,10 +22,7 @@ import com.google.common.collect.Streams;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.BytesValue;
 import com.google.protobuf.Int32Value;
-import hu.akarnokd.rxjava3.operators.Flowables;
-import io.reactivex.rxjava3.core.Flowable;
 import io.smallrye.mutiny.Multi;
-import io.smallrye.mutiny.converters.multi.MultiRx3Converters;
 import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.bridge.proto.StargateBridge;
 import io.stargate.sgv2.api.common.StargateRequestInfo;
@@ -44,7 +41,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
@@ -340,7 +336,7 @@ public class QueryExecutor {
       ExecutionContext context) {
 
     // for each query
-    List<Flowable<DocumentProperty>> allDocuments =
+    List<Multi<DocumentProperty>> allDocuments =
         Streams.mapWithIndex(
                 queries.stream(),
                 (query, index) -> {
@@ -367,20 +363,20 @@ public class QueryExecutor {
                       .onItem()
                       .transformToMultiAndConcatenate(
                           rs ->
-                              Multi.createFrom().iterable(properties(intIndex, query, rs, context)))
-
-                      // convert to rx-java3, as mutiny does not support ordered merge
-                      // see https://github.com/smallrye/smallrye-mutiny/discussions/938
-                      .convert()
-                      .with(MultiRx3Converters.toFlowable());
+                              Multi.createFrom()
+                                  .iterable(properties(intIndex, query, rs, context)));
                 })
             .toList();
 
-    // do order merge with prefetch 1
-    Flowable<DocumentProperty> orderedPublisher =
-        Flowables.orderedMerge(allDocuments, comparator, false, 1);
+    // do ordered merge, as mutiny does not support it
+    // see https://github.com/smallrye/smallrye-mutiny/discussions/938
+    OrderedMergePublisher<DocumentProperty> orderedPublisher =
+        new OrderedMergePublisher<>(
+            allDocuments,
+            comparator,
+            documentProperties.maxSearchMergePrefetch(),
+            documentProperties.maxSearchMergeConcurrency());
 
-    // transform back to the multi
     return Multi.createFrom().publisher(orderedPublisher);
   }
 
@@ -406,13 +402,12 @@ public class QueryExecutor {
             : null;
     QueryState initialState = ImmutableQueryState.of(pageSize, pagingStateValue);
 
-    return Multi.createBy()
-        .repeating()
-        .uni(
-            () -> new AtomicReference<>(initialState),
-            stateRef -> {
-              QueryState state = stateRef.get();
-
+    // pages are fetched one after the other, until there is no paging state
+    // the next ones are prefetched if the down stream keeps waiting for them
+    PrefetchingPagePublisher pages =
+        new PrefetchingPagePublisher(
+            initialState,
+            state -> {
               // create params, ensure:
               // 1. read consistency
               // 2. needed page size
@@ -446,24 +441,19 @@ public class QueryExecutor {
               // execute
               return stargateBridge
                   .executeQuery(finalQuery)
-                  .map(
-                      response -> {
-                        // update next state
-                        QueryOuterClass.ResultSet resultSet = response.getResultSet();
-                        QueryState nextState =
-                            state.next(
-                                resultSet.getPagingState(),
-                                exponentPageSize,
-                                documentProperties.maxSearchPageSize());
-                        stateRef.set(nextState);
-
-                        return resultSet;
-                      });
-            })
-
-        // and do fetch results until we have a paging state
-        // if necessary of course, handled by the down stream
-        .whilst(QueryOuterClass.ResultSet::hasPagingState);
+                  .map(QueryOuterClass.Response::getResultSet);
+            },
+
+            // update next state
+            (state, resultSet) ->
+                state.next(
+                    resultSet.getPagingState(),
+                    exponentPageSize,
+                    documentProperties.maxSearchPageSize()),
+            documentProperties.maxSearchPrefetchPages(),
+            documentProperties.maxSearchPrefetchBytes());
+
+    return Multi.createFrom().publisher(pages);
   }
 
   /**
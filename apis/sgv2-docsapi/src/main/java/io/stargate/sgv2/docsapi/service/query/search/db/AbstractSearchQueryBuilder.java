@@ -55,6 +55,11 @@ public abstract class AbstractSearchQueryBuilder {
   /** @return Should <code>ALLOW FILTERING</code> be used. */
   protected abstract boolean allowFiltering();
 
+  /** @return The <code>PER PARTITION LIMIT</code> to use, <code>null</code> for none. */
+  protected Integer getPerPartitionLimit() {
+    return null;
+  }
+
   /**
    * Builds the query without limit (no functions).
    *
@@ -100,6 +105,7 @@ public abstract class AbstractSearchQueryBuilder {
             .from(keyspace, table)
             .where(getPredicates())
             .where(getBindPredicates())
+            .perPartitionLimit(getPerPartitionLimit())
             .limit(limit);
 
     // resolve allow limit
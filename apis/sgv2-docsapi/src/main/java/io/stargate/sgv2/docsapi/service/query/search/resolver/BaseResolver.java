@@ -24,6 +24,8 @@ import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
 import io.stargate.sgv2.docsapi.service.ExecutionContext;
 import io.stargate.sgv2.docsapi.service.query.FilterExpression;
 import io.stargate.sgv2.docsapi.service.query.rules.ExpressionUtils;
+import io.stargate.sgv2.docsapi.service.query.search.weight.ExpressionWeightResolver;
+import io.stargate.sgv2.docsapi.service.query.search.weight.impl.UserOrderWeightResolver;
 
 /**
  * Base resolver knows what {@link DocumentsResolver} should be created for the given {@link
@@ -47,11 +49,28 @@ public final class BaseResolver {
     return resolve(expression, context, null, documentProperties);
   }
 
+  /**
+   * Resolves the document resolver with optional parent, keeping the user order of the expressions.
+   *
+   * @param expression {@link Expression}
+   * @param parent parent or <code>null</code>
+   * @param documentProperties {@link DocumentProperties}
+   * @return DocumentsResolver
+   */
+  public static DocumentsResolver resolve(
+      Expression<FilterExpression> expression,
+      ExecutionContext context,
+      DocumentsResolver parent,
+      DocumentProperties documentProperties) {
+    return resolve(expression, context, parent, UserOrderWeightResolver.of(), documentProperties);
+  }
+
   /**
    * Resolves the document resolver with optional parent.
    *
    * @param expression {@link Expression}
    * @param parent parent or <code>null</code>
+   * @param weightResolver {@link ExpressionWeightResolver} deciding the order of the expressions
    * @param documentProperties {@link DocumentProperties}
    * @return DocumentsResolver
    */
@@ -59,6 +78,7 @@ public final class BaseResolver {
       Expression<FilterExpression> expression,
       ExecutionContext context,
       DocumentsResolver parent,
+      ExpressionWeightResolver<FilterExpression> weightResolver,
       DocumentProperties documentProperties) {
     // if we are hitting the literal TRUE, then return parent
     if (Literal.EXPR_TYPE.equals(expression.getExprType())) {
@@ -71,10 +91,10 @@ public final class BaseResolver {
     // since this will simplify as well, check if we have And
     // if we have And proceed to the CNF resolver
     if (And.EXPR_TYPE.equals(cnf.getExprType())) {
-      return CnfResolver.resolve(cnf, context, parent, documentProperties);
+      return CnfResolver.resolve(cnf, context, parent, weightResolver, documentProperties);
     } else {
       // otherwise wrap to AND, and forward to the CNF
-      return CnfResolver.resolve(And.of(cnf), context, parent, documentProperties);
+      return CnfResolver.resolve(And.of(cnf), context, parent, weightResolver, documentProperties);
     }
   }
 }
@@ -90,12 +90,29 @@ public final class CnfResolver {
       ExecutionContext context,
       DocumentsResolver parent,
       DocumentProperties documentProperties) {
+    return resolve(expression, context, parent, UserOrderWeightResolver.of(), documentProperties);
+  }
+
+  /**
+   * Returns a document resolver for a single {@link And} expression in CNF form.
+   *
+   * @param expression {@link FilterExpression}
+   * @param context {@link ExecutionContext}
+   * @param parent parent resolver or <code>null</code>
+   * @param weightResolver {@link ExpressionWeightResolver} deciding the order of the expressions
+   * @param documentProperties {@link DocumentProperties}
+   * @return DocumentsResolver
+   */
+  public static DocumentsResolver resolve(
+      Expression<FilterExpression> expression,
+      ExecutionContext context,
+      DocumentsResolver parent,
+      ExpressionWeightResolver<FilterExpression> weightResolver,
+      DocumentProperties documentProperties) {
     // from the children inside and
     And<FilterExpression> andExpression = (And<FilterExpression>) expression;
     List<Expression<FilterExpression>> children = andExpression.getChildren();
 
-    UserOrderWeightResolver weightResolver = UserOrderWeightResolver.of();
-
     // try to get the next persistence resolver
     return nextPersistenceResolver(
             expression, children, weightResolver, context, parent, documentProperties)
@@ -150,7 +167,8 @@ public final class CnfResolver {
                 Expression<FilterExpression> simplified =
                     simplifyCnfExpression(root, ImmutableList.copyOf(selected));
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current, documentProperties);
+                return BaseResolver.resolve(
+                    simplified, context, current, weightResolver, documentProperties);
               } else {
                 // if we have candidates, then do all memory filters at once
                 List<Function<ExecutionContext, CandidatesFilter>> all =
@@ -160,14 +178,17 @@ public final class CnfResolver {
                                 PersistenceCandidatesFilter.forExpressions(
                                     value, documentProperties))
                         .collect(Collectors.toList());
-                DocumentsResolver current = new AllFiltersResolver(all, context, parent);
+                DocumentsResolver current =
+                    new AllFiltersResolver(
+                        all, context, parent, documentProperties.maxSearchFilterBatchSize());
 
                 // then simplify root
                 Expression<FilterExpression> simplified =
                     simplifyCnfExpression(root, ImmutableList.copyOf(nextExpressions));
 
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current, documentProperties);
+                return BaseResolver.resolve(
+                    simplified, context, current, weightResolver, documentProperties);
               }
             });
   }
@@ -199,7 +220,8 @@ public final class CnfResolver {
                 Expression<FilterExpression> simplified =
                     simplifyCnfExpression(root, ImmutableList.copyOf(selected));
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current, documentProperties);
+                return BaseResolver.resolve(
+                    simplified, context, current, weightResolver, documentProperties);
               } else {
                 // if we have candidates, then do all memory filters at once
                 List<Function<ExecutionContext, CandidatesFilter>> all =
@@ -208,13 +230,16 @@ public final class CnfResolver {
                             value ->
                                 InMemoryCandidatesFilter.forExpressions(value, documentProperties))
                         .collect(Collectors.toList());
-                DocumentsResolver current = new AllFiltersResolver(all, context, parent);
+                DocumentsResolver current =
+                    new AllFiltersResolver(
+                        all, context, parent, documentProperties.maxSearchFilterBatchSize());
 
                 // then simplify root
                 Expression<FilterExpression> simplified =
                     simplifyCnfExpression(root, ImmutableList.copyOf(inMemoryExpressions));
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current, documentProperties);
+                return BaseResolver.resolve(
+                    simplified, context, current, weightResolver, documentProperties);
               }
             });
   }
@@ -243,7 +268,8 @@ public final class CnfResolver {
                     new OrExpressionDocumentsResolver(or, context, documentProperties);
 
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current, documentProperties);
+                return BaseResolver.resolve(
+                    simplified, context, current, weightResolver, documentProperties);
               } else {
                 // collect all children
                 Set<FilterExpression> expressions = new HashSet<>();
@@ -265,10 +291,13 @@ public final class CnfResolver {
                         .collect(Collectors.toList());
 
                 // create the resolver
-                AnyFiltersResolver current = new AnyFiltersResolver(input, context, parent);
+                AnyFiltersResolver current =
+                    new AnyFiltersResolver(
+                        input, context, parent, documentProperties.maxSearchFilterBatchSize());
 
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current, documentProperties);
+                return BaseResolver.resolve(
+                    simplified, context, current, weightResolver, documentProperties);
               }
             });
   }
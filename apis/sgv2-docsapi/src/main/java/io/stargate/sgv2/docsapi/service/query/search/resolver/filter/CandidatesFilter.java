@@ -17,10 +17,12 @@
 
 package io.stargate.sgv2.docsapi.service.query.search.resolver.filter;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.sgv2.docsapi.service.query.executor.QueryExecutor;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import java.util.List;
 
 /** Interface for candidates filtering. */
 public interface CandidatesFilter {
@@ -47,4 +49,40 @@ public interface CandidatesFilter {
    */
   Uni<Boolean> bindAndFilter(
       QueryExecutor queryExecutor, QueryOuterClass.Query preparedQuery, RawDocument document);
+
+  /**
+   * Returns uni that emits the built, but not bound, query that this filter needs for filtering
+   * multiple documents at once. Defaults to the {@link #prepareQuery(String, String)}.
+   *
+   * @param keyspace Keyspace
+   * @param collection Collection
+   * @return Uni emitting the prepared batch query
+   */
+  default Uni<QueryOuterClass.Query> prepareBatchQuery(String keyspace, String collection) {
+    return prepareQuery(keyspace, collection);
+  }
+
+  /**
+   * Executes a filter for all given {@link RawDocument}s, operating with the query that was
+   * supplied in the {@link #prepareBatchQuery(String, String)}. Defaults to filtering each document
+   * with {@link #bindAndFilter(QueryExecutor, QueryOuterClass.Query, RawDocument)}.
+   *
+   * <p>Returns the Uni that emits the filter results in the order of the given documents.
+   *
+   * @param preparedBatchQuery Query provided as part of the {@link #prepareBatchQuery(String,
+   *     String)}
+   * @param documents Documents to filter
+   * @return Uni, emitting for each document if the filter is considered as passed
+   */
+  default Uni<List<Boolean>> bindAndFilter(
+      QueryExecutor queryExecutor,
+      QueryOuterClass.Query preparedBatchQuery,
+      List<RawDocument> documents) {
+    return Multi.createFrom()
+        .iterable(documents)
+        .onItem()
+        .transformToUniAndConcatenate(d -> bindAndFilter(queryExecutor, preparedBatchQuery, d))
+        .collect()
+        .asList();
+  }
 }
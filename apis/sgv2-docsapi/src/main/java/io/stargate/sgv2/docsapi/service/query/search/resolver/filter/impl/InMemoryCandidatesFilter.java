@@ -28,6 +28,7 @@ import io.stargate.sgv2.docsapi.service.query.FilterExpression;
 import io.stargate.sgv2.docsapi.service.query.FilterPath;
 import io.stargate.sgv2.docsapi.service.query.executor.QueryExecutor;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.service.query.search.db.impl.DocumentBatchSearchQueryBuilder;
 import io.stargate.sgv2.docsapi.service.query.search.db.impl.DocumentSearchQueryBuilder;
 import io.stargate.sgv2.docsapi.service.query.search.db.impl.FilterPathSearchQueryBuilder;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.filter.CandidatesFilter;
@@ -48,6 +49,8 @@ public class InMemoryCandidatesFilter implements CandidatesFilter {
 
   private final FilterPathSearchQueryBuilder queryBuilder;
 
+  private final DocumentBatchSearchQueryBuilder batchQueryBuilder;
+
   private final ExecutionContext context;
 
   private final DocumentProperties documentProperties;
@@ -66,6 +69,7 @@ public class InMemoryCandidatesFilter implements CandidatesFilter {
 
     this.expressions = expressions;
     this.queryBuilder = new DocumentSearchQueryBuilder(documentProperties, expressions);
+    this.batchQueryBuilder = new DocumentBatchSearchQueryBuilder(documentProperties, expressions);
     this.context = createContext(context, expressions);
     this.documentProperties = documentProperties;
   }
@@ -99,6 +103,22 @@ public class InMemoryCandidatesFilter implements CandidatesFilter {
         .indefinitely();
   }
 
+  @Override
+  public Uni<QueryOuterClass.Query> prepareBatchQuery(String keyspace, String collection) {
+    FilterPath filterPath = batchQueryBuilder.getFilterPath();
+    String[] neededColumns =
+        documentProperties
+            .tableColumns()
+            .allColumnNamesWithPathDepth(filterPath.getPath().size() + 1)
+            .toArray(String[]::new);
+
+    // limit per document is given by the builder
+    return Uni.createFrom()
+        .item(() -> batchQueryBuilder.buildQuery(keyspace, collection, neededColumns))
+        .memoize()
+        .indefinitely();
+  }
+
   @Override
   public Uni<Boolean> bindAndFilter(
       QueryExecutor queryExecutor, QueryOuterClass.Query preparedQuery, RawDocument document) {
@@ -124,29 +144,54 @@ public class InMemoryCandidatesFilter implements CandidatesFilter {
         // handle case with no results
         .onCompletion()
         .ifEmpty()
-        .switchTo(
-            Multi.createFrom()
-                .deferred(
-                    () -> {
-                      // check if we might have only evaluate on missing
-                      boolean allEvalOnMissing =
-                          expressions.stream()
-                              .allMatch(e -> e.getCondition().isEvaluateOnMissingFields());
-
-                      // if so, pass empty row list here, so we test against this
-                      // otherwise keep empty
-                      if (allEvalOnMissing) {
-                        boolean test = matchAll(expressions).test(Collections.emptyList());
-                        return Multi.createFrom().items(test);
-                      } else {
-                        return Multi.createFrom().items(false);
-                      }
-                    }))
+        .switchTo(Multi.createFrom().deferred(() -> Multi.createFrom().items(testMissing())))
 
         // and then convert to uni that will always emit
         .toUni();
   }
 
+  @Override
+  public Uni<List<Boolean>> bindAndFilter(
+      QueryExecutor queryExecutor,
+      QueryOuterClass.Query preparedBatchQuery,
+      List<RawDocument> documents) {
+    List<QueryOuterClass.Value> ids = documents.stream().map(d -> Values.of(d.id())).toList();
+    QueryOuterClass.Query query =
+        batchQueryBuilder.bindWithValues(preparedBatchQuery, Values.of(ids));
+
+    // single query for all the documents, rows are grouped by the document
+    int pageSize = documentProperties.maxSearchPageSize();
+    return queryExecutor
+        .queryDocs(query, pageSize, false, null, false, context)
+        .collect()
+        .asMap(RawDocument::id, RawDocument::rows)
+
+        // then test each document against its rows
+        .map(
+            rowsById ->
+                documents.stream()
+                    .map(
+                        d -> {
+                          List<RowWrapper> rows = rowsById.get(d.id());
+                          return null != rows ? matchAll(expressions).test(rows) : testMissing();
+                        })
+                    .toList());
+  }
+
+  // result for a document that has no rows on the filter path
+  private boolean testMissing() {
+    // check if we might have only evaluate on missing
+    boolean allEvalOnMissing =
+        expressions.stream().allMatch(e -> e.getCondition().isEvaluateOnMissingFields());
+
+    // if so, test against the empty row list, otherwise not passed
+    if (allEvalOnMissing) {
+      return matchAll(expressions).test(Collections.emptyList());
+    } else {
+      return false;
+    }
+  }
+
   private Predicate<? super List<RowWrapper>> matchAll(Collection<FilterExpression> expressions) {
     return documentRows -> {
       for (FilterExpression expression : expressions) {
@@ -27,10 +27,12 @@ import io.stargate.sgv2.docsapi.service.query.FilterExpression;
 import io.stargate.sgv2.docsapi.service.query.FilterPath;
 import io.stargate.sgv2.docsapi.service.query.executor.QueryExecutor;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.service.query.search.db.impl.DocumentBatchSearchQueryBuilder;
 import io.stargate.sgv2.docsapi.service.query.search.db.impl.DocumentSearchQueryBuilder;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.filter.CandidatesFilter;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -42,6 +44,8 @@ public class PersistenceCandidatesFilter implements CandidatesFilter {
 
   private final DocumentSearchQueryBuilder queryBuilder;
 
+  private final DocumentBatchSearchQueryBuilder batchQueryBuilder;
+
   private final ExecutionContext context;
 
   private final DocumentProperties documentProperties;
@@ -59,6 +63,7 @@ public class PersistenceCandidatesFilter implements CandidatesFilter {
     }
 
     this.queryBuilder = new DocumentSearchQueryBuilder(documentProperties, expressions);
+    this.batchQueryBuilder = new DocumentBatchSearchQueryBuilder(documentProperties, expressions);
     this.context = createContext(context, expressions);
     this.documentProperties = documentProperties;
   }
@@ -93,6 +98,20 @@ public class PersistenceCandidatesFilter implements CandidatesFilter {
         .indefinitely();
   }
 
+  @Override
+  public Uni<QueryOuterClass.Query> prepareBatchQuery(String keyspace, String collection) {
+    DocumentTableProperties tableProps = documentProperties.tableProperties();
+
+    // limit per document is given by the builder
+    return Uni.createFrom()
+        .item(
+            () ->
+                batchQueryBuilder.buildQuery(
+                    keyspace, collection, tableProps.keyColumnName(), tableProps.leafColumnName()))
+        .memoize()
+        .indefinitely();
+  }
+
   @Override
   public Uni<Boolean> bindAndFilter(
       QueryExecutor queryExecutor, QueryOuterClass.Query preparedQuery, RawDocument document) {
@@ -122,6 +141,25 @@ public class PersistenceCandidatesFilter implements CandidatesFilter {
         .toUni();
   }
 
+  @Override
+  public Uni<List<Boolean>> bindAndFilter(
+      QueryExecutor queryExecutor,
+      QueryOuterClass.Query preparedBatchQuery,
+      List<RawDocument> documents) {
+    List<QueryOuterClass.Value> ids = documents.stream().map(d -> Values.of(d.id())).toList();
+    QueryOuterClass.Query query =
+        batchQueryBuilder.bindWithValues(preparedBatchQuery, Values.of(ids));
+
+    // single query for all the documents, any document returned passes
+    int pageSize = documentProperties.maxSearchPageSize();
+    return queryExecutor
+        .queryDocs(query, pageSize, false, null, false, context)
+        .map(RawDocument::id)
+        .collect()
+        .asSet()
+        .map(passed -> documents.stream().map(d -> passed.contains(d.id())).toList());
+  }
+
   private ExecutionContext createContext(
       ExecutionContext context, Collection<FilterExpression> expressions) {
     String expressionDesc =
@@ -27,6 +27,7 @@ import io.stargate.sgv2.docsapi.service.query.search.resolver.DocumentsResolver;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.filter.CandidatesFilter;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -49,27 +50,25 @@ public abstract class AbstractFiltersResolver implements DocumentsResolver {
    */
   protected abstract Uni<Boolean> resolveSources(List<Uni<Boolean>> sources);
 
+  /**
+   * @return Max amount of candidates to filter at once, see {@link
+   *     CandidatesFilter#bindAndFilter(QueryExecutor, QueryOuterClass.Query, List)}. If <code>1
+   *     </code> each candidate is filtered on its own.
+   */
+  protected abstract int getBatchSize();
+
   @Override
   public Multi<RawDocument> getDocuments(
       QueryExecutor queryExecutor, String keyspace, String collection, Paginator paginator) {
     Multi<RawDocument> candidates =
         getCandidatesResolver().getDocuments(queryExecutor, keyspace, collection, paginator);
 
-    Uni<List<Pair<QueryOuterClass.Query, CandidatesFilter>>> queriesToCandidates =
-        Multi.createFrom()
-            .iterable(getCandidatesFilters())
-            .onItem()
-            .transformToUniAndMerge(
-                filter ->
-                    filter.prepareQuery(keyspace, collection).map(built -> Pair.of(built, filter)))
-
-            // collect as list
-            .collect()
-            .asList()
+    if (getBatchSize() > 1) {
+      return getDocumentsBatched(queryExecutor, keyspace, collection, candidates);
+    }
 
-            // cache
-            .memoize()
-            .indefinitely();
+    Uni<List<Pair<QueryOuterClass.Query, CandidatesFilter>>> queriesToCandidates =
+        prepareQueries(filter -> filter.prepareQuery(keyspace, collection));
 
     return candidates
 
@@ -93,19 +92,98 @@ public abstract class AbstractFiltersResolver implements DocumentsResolver {
                           })
                       .collect(Collectors.toList());
 
-              // only if resolving filters emits an item, return the doc
-              return resolveSources(sources)
+              return resolve(doc, sources);
+            });
+  }
 
-                  // only emit the document if the result of resolving is true
+  // groups the candidates, so that each filter needs one query per group
+  private Multi<RawDocument> getDocumentsBatched(
+      QueryExecutor queryExecutor,
+      String keyspace,
+      String collection,
+      Multi<RawDocument> candidates) {
+    Uni<List<Pair<QueryOuterClass.Query, CandidatesFilter>>> queriesToCandidates =
+        prepareQueries(filter -> filter.prepareBatchQuery(keyspace, collection));
+
+    return candidates
+
+        // group, keeping the order of incoming docs
+        .group()
+        .intoLists()
+        .of(getBatchSize())
+        .onItem()
+        .transformToUniAndConcatenate(
+            docs -> queriesToCandidates.map(prepared -> Pair.of(docs, prepared)))
+
+        // execute all filters for the whole group
+        .onItem()
+        .transformToUniAndConcatenate(
+            pair -> {
+              List<RawDocument> docs = pair.getLeft();
+              List<Uni<List<Boolean>>> results =
+                  pair.getRight().stream()
+                      .map(
+                          queryToFilter -> {
+                            CandidatesFilter filter = queryToFilter.getRight();
+                            QueryOuterClass.Query query = queryToFilter.getLeft();
+                            return filter.bindAndFilter(queryExecutor, query, docs);
+                          })
+                      .collect(Collectors.toList());
+
+              return Uni.join().all(results).andFailFast().map(all -> Pair.of(docs, all));
+            })
+
+        // then resolve each doc with its own results, keeping the order of the resolved docs
+        .onItem()
+        .transformToMultiAndConcatenate(
+            pair -> {
+              List<RawDocument> docs = pair.getLeft();
+              List<List<Boolean>> results = pair.getRight();
+              return Multi.createFrom()
+                  .range(0, docs.size())
                   .onItem()
-                  .transformToMulti(
-                      result -> {
-                        if (Boolean.TRUE.equals(result)) {
-                          return Multi.createFrom().items(doc);
-                        } else {
-                          return Multi.createFrom().empty();
-                        }
+                  .transformToMultiAndConcatenate(
+                      index -> {
+                        List<Uni<Boolean>> sources =
+                            results.stream()
+                                .map(result -> Uni.createFrom().item(result.get(index)))
+                                .collect(Collectors.toList());
+
+                        return resolve(docs.get(index), sources);
                       });
             });
   }
+
+  private Uni<List<Pair<QueryOuterClass.Query, CandidatesFilter>>> prepareQueries(
+      Function<CandidatesFilter, Uni<QueryOuterClass.Query>> preparer) {
+    return Multi.createFrom()
+        .iterable(getCandidatesFilters())
+        .onItem()
+        .transformToUniAndMerge(
+            filter -> preparer.apply(filter).map(built -> Pair.of(built, filter)))
+
+        // collect as list
+        .collect()
+        .asList()
+
+        // cache
+        .memoize()
+        .indefinitely();
+  }
+
+  private Multi<RawDocument> resolve(RawDocument doc, List<Uni<Boolean>> sources) {
+    // only if resolving filters emits an item, return the doc
+    return resolveSources(sources)
+
+        // only emit the document if the result of resolving is true
+        .onItem()
+        .transformToMulti(
+            result -> {
+              if (Boolean.TRUE.equals(result)) {
+                return Multi.createFrom().items(doc);
+              } else {
+                return Multi.createFrom().empty();
+              }
+            });
+  }
 }
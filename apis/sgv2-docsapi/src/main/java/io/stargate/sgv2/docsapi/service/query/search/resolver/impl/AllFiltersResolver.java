@@ -33,6 +33,8 @@ public class AllFiltersResolver extends AbstractFiltersResolver {
 
   private final DocumentsResolver candidatesResolver;
 
+  private final int batchSize;
+
   public AllFiltersResolver(
       Function<ExecutionContext, CandidatesFilter> candidatesFilterSupplier,
       ExecutionContext context,
@@ -44,10 +46,19 @@ public class AllFiltersResolver extends AbstractFiltersResolver {
       Collection<Function<ExecutionContext, CandidatesFilter>> candidatesFilterSuppliers,
       ExecutionContext context,
       DocumentsResolver candidatesResolver) {
+    this(candidatesFilterSuppliers, context, candidatesResolver, 1);
+  }
+
+  public AllFiltersResolver(
+      Collection<Function<ExecutionContext, CandidatesFilter>> candidatesFilterSuppliers,
+      ExecutionContext context,
+      DocumentsResolver candidatesResolver,
+      int batchSize) {
     ExecutionContext nested = context.nested("PARALLEL [ALL OF]");
     this.candidatesFilters =
         candidatesFilterSuppliers.stream().map(s -> s.apply(nested)).collect(Collectors.toList());
     this.candidatesResolver = candidatesResolver;
+    this.batchSize = batchSize;
   }
 
   /** {@inheritDoc} */
@@ -62,6 +73,12 @@ public class AllFiltersResolver extends AbstractFiltersResolver {
     return candidatesResolver;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected int getBatchSize() {
+    return batchSize;
+  }
+
   /** {@inheritDoc} */
   @Override
   protected Uni<Boolean> resolveSources(List<Uni<Boolean>> sources) {
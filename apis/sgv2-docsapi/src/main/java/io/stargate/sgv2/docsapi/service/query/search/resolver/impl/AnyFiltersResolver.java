@@ -34,6 +34,8 @@ public class AnyFiltersResolver extends AbstractFiltersResolver {
 
   private final DocumentsResolver candidatesResolver;
 
+  private final int batchSize;
+
   public AnyFiltersResolver(
       Function<ExecutionContext, CandidatesFilter> candidatesFilterSupplier,
       ExecutionContext context,
@@ -45,10 +47,19 @@ public class AnyFiltersResolver extends AbstractFiltersResolver {
       Collection<Function<ExecutionContext, CandidatesFilter>> candidatesFilterSuppliers,
       ExecutionContext context,
       DocumentsResolver candidatesResolver) {
+    this(candidatesFilterSuppliers, context, candidatesResolver, 1);
+  }
+
+  public AnyFiltersResolver(
+      Collection<Function<ExecutionContext, CandidatesFilter>> candidatesFilterSuppliers,
+      ExecutionContext context,
+      DocumentsResolver candidatesResolver,
+      int batchSize) {
     ExecutionContext nested = context.nested("PARALLEL [ANY OF]");
     this.candidatesFilters =
         candidatesFilterSuppliers.stream().map(s -> s.apply(nested)).collect(Collectors.toList());
     this.candidatesResolver = candidatesResolver;
+    this.batchSize = batchSize;
   }
 
   /** {@inheritDoc} */
@@ -63,6 +74,12 @@ public class AnyFiltersResolver extends AbstractFiltersResolver {
     return candidatesFilters;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected int getBatchSize() {
+    return batchSize;
+  }
+
   /** {@inheritDoc} */
   @Override
   protected Uni<Boolean> resolveSources(List<Uni<Boolean>> sources) {
@@ -0,0 +1,94 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.search.weight.impl;
+
+import io.stargate.sgv2.docsapi.service.query.FilterExpression;
+import io.stargate.sgv2.docsapi.service.query.search.weight.ExpressionWeightResolver;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionStatistics;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link ExpressionWeightResolver} that orders the expressions by their selectivity estimated
+ * from the {@link CollectionStatistics}, so that the most selective ones are executed first.
+ *
+ * <p>Persistence conditions still go before the in-memory ones. A selectivity hint given by the
+ * user always wins over the estimate. Expressions that can not be estimated get the worst
+ * selectivity, and ties are resolved by the user order.
+ *
+ * <p>Estimates are cached, so an instance should be used for a single search only. The estimates
+ * that were used can be obtained with {@link #getPlan()} and replayed with {@link
+ * #StatisticsWeightResolver(Map)}, so that the next pages of the search get the same order even if
+ * the statistics have changed.
+ */
+public class StatisticsWeightResolver extends UserOrderWeightResolver {
+
+  private final CollectionStatistics statistics;
+
+  private final Map<Integer, Double> estimates;
+
+  public StatisticsWeightResolver(CollectionStatistics statistics) {
+    this.statistics = statistics;
+    this.estimates = new HashMap<>();
+  }
+
+  /**
+   * Creates a resolver that replays a previous plan, without consulting any statistics.
+   *
+   * @param plan Selectivity estimates by {@link #planKey(FilterExpression)}, as returned by {@link
+   *     #getPlan()}.
+   */
+  public StatisticsWeightResolver(Map<Integer, Double> plan) {
+    this.statistics = null;
+    this.estimates = new HashMap<>(plan);
+  }
+
+  /**
+   * @param expression Filter expression
+   * @return Key of the expression in the plan, stable for the same query.
+   */
+  public static int planKey(FilterExpression expression) {
+    return 31 * expression.getOrderIndex() + expression.getDescription().hashCode();
+  }
+
+  /**
+   * @return Selectivity estimates that differ from the user hints, by {@link
+   *     #planKey(FilterExpression)}. Empty if the expressions were ordered as the user gave them.
+   */
+  public Map<Integer, Double> getPlan() {
+    Map<Integer, Double> plan = new HashMap<>(estimates);
+    plan.values().removeIf(selectivity -> selectivity >= 1.0);
+    return plan;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected double getSelectivity(FilterExpression expression) {
+    double hint = expression.getSelectivity();
+    if (hint < 1.0) {
+      return hint;
+    }
+
+    if (null == statistics) {
+      return estimates.getOrDefault(planKey(expression), hint);
+    }
+
+    return estimates.computeIfAbsent(
+        planKey(expression), key -> statistics.estimateSelectivity(expression).orElse(hint));
+  }
+}
@@ -30,6 +30,8 @@ public class UserOrderWeightResolver implements ExpressionWeightResolver<FilterE
     return INSTANCE;
   }
 
+  protected UserOrderWeightResolver() {}
+
   /** {@inheritDoc} */
   @Override
   public int compare(FilterExpression o1, FilterExpression o2) {
@@ -38,7 +40,7 @@ public class UserOrderWeightResolver implements ExpressionWeightResolver<FilterE
       return result;
     }
 
-    result = Double.compare(o1.getSelectivity(), o2.getSelectivity());
+    result = Double.compare(getSelectivity(o1), getSelectivity(o2));
     if (result != 0) {
       return result;
     }
@@ -62,6 +64,14 @@ public class UserOrderWeightResolver implements ExpressionWeightResolver<FilterE
     return Integer.compare(lowestIndex(c1), lowestIndex(c2));
   }
 
+  /**
+   * @param expression Filter expression
+   * @return Selectivity used for ordering, by default the one given by the user.
+   */
+  protected double getSelectivity(FilterExpression expression) {
+    return expression.getSelectivity();
+  }
+
   private int lowestIndex(Collection<FilterExpression> collection) {
     return collection.stream()
         .mapToInt(FilterExpression::getOrderIndex)
@@ -70,9 +80,6 @@ public class UserOrderWeightResolver implements ExpressionWeightResolver<FilterE
   }
 
   private double lowestSelectivity(Collection<FilterExpression> collection) {
-    return collection.stream()
-        .mapToDouble(FilterExpression::getSelectivity)
-        .min()
-        .orElse(Double.MAX_VALUE);
+    return collection.stream().mapToDouble(this::getSelectivity).min().orElse(Double.MAX_VALUE);
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentTableProperties;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
+import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The maximum known depth of the documents in a single collection, used for narrowing the path
+ * columns selected when reading full documents.
+ *
+ * <p>The depth is only a hint, as documents can be written by other instances. Thus, reads select
+ * one path column more than the known depth. If any row has a value in that extra column, the
+ * document could be truncated and must be read again with all the path columns.
+ */
+public class CollectionDepth {
+
+  private final DocumentProperties documentProperties;
+
+  // zero if not known
+  private final AtomicInteger depth = new AtomicInteger();
+
+  /** @param documentProperties {@link DocumentProperties} */
+  public CollectionDepth(DocumentProperties documentProperties) {
+    this.documentProperties = documentProperties;
+  }
+
+  /**
+   * @return Number of path columns to select when reading full documents, the max depth if the
+   *     depth of the collection is not known.
+   */
+  public int projectionDepth() {
+    int maxDepth = documentProperties.maxDepth();
+    int known = depth.get();
+    if (known <= 0) {
+      return maxDepth;
+    }
+
+    // one more for detecting the deeper documents
+    return Math.min(known + 1, maxDepth);
+  }
+
+  /**
+   * Records that a document with the given depth exists in the collection.
+   *
+   * @param documentDepth Depth of the document, as number of path segments.
+   */
+  public void record(int documentDepth) {
+    depth.accumulateAndGet(documentDepth, Math::max);
+  }
+
+  /**
+   * Records the depth of the document read with the given projection depth.
+   *
+   * @param document Document, containing all its rows.
+   * @param projectionDepth Number of path columns the document was read with.
+   * @return <code>false</code> if the document could have rows deeper than the projection depth,
+   *     and must be read again with all the path columns, <code>true</code> otherwise.
+   */
+  public boolean record(RawDocument document, int projectionDepth) {
+    int documentDepth = documentDepth(document.rows());
+    if (documentDepth >= projectionDepth && projectionDepth < documentProperties.maxDepth()) {
+      return false;
+    }
+
+    record(documentDepth);
+    return true;
+  }
+
+  // resolves the number of non-empty path columns of the deepest row
+  private int documentDepth(List<RowWrapper> rows) {
+    DocumentTableProperties tableProperties = documentProperties.tableProperties();
+    int maxDepth = documentProperties.maxDepth();
+
+    int result = 0;
+    for (RowWrapper row : rows) {
+      for (int i = result; i < maxDepth; i++) {
+        String column = tableProperties.pathColumnName(i);
+        if (!row.columnExists(column)) {
+          break;
+        }
+
+        String segment = row.getString(column);
+        if (null == segment || segment.isEmpty()) {
+          break;
+        }
+        result = i + 1;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.smallrye.mutiny.Uni;
+import io.stargate.sgv2.api.common.StargateRequestInfo;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.service.JsonShreddedRow;
+import java.util.List;
+import java.util.Optional;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Keeps the {@link CollectionDepth} of the collections, per tenant. Depths are held in memory only,
+ * learned from the documents written and read by this instance.
+ */
+@ApplicationScoped
+public class CollectionDepthManager {
+
+  @Inject
+  @CacheName("collection-depth-cache")
+  Cache depthCache;
+
+  @Inject StargateRequestInfo requestInfo;
+
+  @Inject DocumentProperties documentProperties;
+
+  /**
+   * Gets the depth of a collection, creating an unknown one if it does not exist.
+   *
+   * @param keyspace Keyspace of the collection.
+   * @param collection Collection name.
+   * @return Uni emitting the {@link CollectionDepth}
+   */
+  public Uni<CollectionDepth> getDepth(String keyspace, String collection) {
+    DepthKey key = new DepthKey(requestInfo.getTenantId(), keyspace, collection);
+    return depthCache.get(key, k -> new CollectionDepth(documentProperties));
+  }
+
+  /**
+   * Records the depth of the rows written to a collection.
+   *
+   * @param keyspace Keyspace of the collection.
+   * @param collection Collection name.
+   * @param rows Written rows.
+   * @return Uni completing once recorded
+   */
+  public Uni<Void> recordRows(String keyspace, String collection, List<JsonShreddedRow> rows) {
+    int depth = rows.stream().mapToInt(row -> row.getPath().size()).max().orElse(0);
+    return getDepth(keyspace, collection).invoke(d -> d.record(depth)).replaceWithVoid();
+  }
+
+  private record DepthKey(Optional<String> tenantId, String keyspace, String collection) {}
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentTableProperties;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
+import io.stargate.sgv2.docsapi.service.query.FilterExpression;
+import io.stargate.sgv2.docsapi.service.query.FilterPath;
+import io.stargate.sgv2.docsapi.service.query.condition.BaseCondition;
+import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.service.util.DocsApiUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a single collection, used for estimating the selectivity of the search filters.
+ *
+ * <p>The statistics are built from a sample of the fully read documents, in windows of {@value
+ * #WINDOW_DOCUMENTS} sampled documents. For each path found in a window they keep:
+ *
+ * <ul>
+ *   <li>the number of documents having the path
+ *   <li>a HyperLogLog sketch of the distinct values on the path
+ *   <li>a random sample of the rows on the path, that serves as the value histogram, as any filter
+ *       condition can be tested against it
+ * </ul>
+ *
+ * <p>Estimates are given from the last published snapshot of a window. The window in progress is
+ * published once it has {@value #MIN_DOCUMENTS} documents and then each time this number doubles.
+ * When full, a fresh window is started, so that the statistics follow the changes in the
+ * collection. Recording is cheap and never blocks the searches on the statistics.
+ */
+public class CollectionStatistics {
+
+  static final int WINDOW_DOCUMENTS = 256;
+
+  static final int MIN_DOCUMENTS = 16;
+
+  static final int MAX_PATHS = 128;
+
+  static final int SAMPLED_ROWS = 16;
+
+  private final DocumentProperties documentProperties;
+
+  private final int sampleRate;
+
+  private final List<String> valueColumns;
+
+  private final AtomicLong seen = new AtomicLong();
+
+  // guarded by this
+  private Window window = new Window();
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * @param documentProperties {@link DocumentProperties}
+   * @param sampleRate Records one in this many documents, <code>0</code> disables recording.
+   */
+  public CollectionStatistics(DocumentProperties documentProperties, int sampleRate) {
+    DocumentTableProperties tableProperties = documentProperties.tableProperties();
+    this.documentProperties = documentProperties;
+    this.sampleRate = sampleRate;
+    this.valueColumns =
+        List.of(
+            tableProperties.stringValueColumnName(),
+            tableProperties.doubleValueColumnName(),
+            tableProperties.booleanValueColumnName());
+  }
+
+  /**
+   * Records a document into the statistics, if it's sampled.
+   *
+   * @param document Document with all its rows.
+   */
+  public void record(RawDocument document) {
+    if (sampleRate <= 0 || seen.getAndIncrement() % sampleRate != 0) {
+      return;
+    }
+
+    // resolve paths outside of the lock
+    Map<List<String>, List<RowWrapper>> rowsByPath = groupByPath(document.rows());
+
+    synchronized (this) {
+      window.add(rowsByPath);
+
+      int documents = window.documents;
+      if (documents >= MIN_DOCUMENTS && Integer.bitCount(documents) == 1) {
+        snapshot = window.snapshot();
+      }
+      if (documents >= WINDOW_DOCUMENTS) {
+        window = new Window();
+      }
+    }
+  }
+
+  /**
+   * Estimates the selectivity of the expression, meaning the part of the collection documents that
+   * the expression matches.
+   *
+   * @param expression {@link FilterExpression}
+   * @return Value between 0 and 1, or empty if there are no statistics yet, or if the expression
+   *     can not be estimated (f.e. paths with globs).
+   */
+  public OptionalDouble estimateSelectivity(FilterExpression expression) {
+    Snapshot current = snapshot;
+    FilterPath filterPath = expression.getFilterPath();
+    if (null == current || !isSinglePath(filterPath)) {
+      return OptionalDouble.empty();
+    }
+
+    List<String> path = DocsApiUtils.convertEscapedCharacters(filterPath.getPath());
+    PathStatistics statistics = current.paths().get(path);
+
+    // path not in the window, but maybe only because of too many paths
+    if (null == statistics && current.truncated()) {
+      return OptionalDouble.empty();
+    }
+
+    BaseCondition condition = expression.getCondition();
+    double present = 0d;
+    double matching = 0d;
+    if (null != statistics) {
+      present = (double) statistics.documents() / current.documents();
+
+      // sampled rows may miss the value, so take at least one distinct value
+      long passing = statistics.sampledRows().stream().filter(condition).count();
+      matching =
+          Math.max(
+              (double) passing / statistics.sampledRows().size(), 1d / statistics.distinctValues());
+    }
+
+    double selectivity = present * matching;
+    if (condition.isEvaluateOnMissingFields()) {
+      selectivity += 1d - present;
+    }
+
+    // never estimate that nothing matches, documents can be outside of the sample
+    double minimum = 1d / (current.documents() + 1);
+    return OptionalDouble.of(Math.min(1d, Math.max(minimum, selectivity)));
+  }
+
+  // only fixed paths without the multiple path segments can be estimated
+  private boolean isSinglePath(FilterPath filterPath) {
+    return filterPath.isFixed()
+        && filterPath.getPath().stream()
+            .noneMatch(p -> DocsApiUtils.COMMA_PATTERN.matcher(p).find());
+  }
+
+  private Map<List<String>, List<RowWrapper>> groupByPath(List<RowWrapper> rows) {
+    DocumentTableProperties tableProperties = documentProperties.tableProperties();
+    int maxDepth = documentProperties.maxDepth();
+
+    Map<List<String>, List<RowWrapper>> result = new HashMap<>();
+    for (RowWrapper row : rows) {
+      List<String> path = new ArrayList<>();
+      for (int i = 0; i < maxDepth; i++) {
+        String column = tableProperties.pathColumnName(i);
+        if (!row.columnExists(column)) {
+          break;
+        }
+
+        String segment = row.getString(column);
+        if (null == segment || segment.isEmpty()) {
+          break;
+        }
+        path.add(segment);
+      }
+
+      if (!path.isEmpty()) {
+        result.computeIfAbsent(path, k -> new ArrayList<>()).add(row);
+      }
+    }
+    return result;
+  }
+
+  private long valueHash(RowWrapper row) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (String column : valueColumns) {
+      Integer index = row.columnIndexMap().get(column);
+      if (null != index) {
+        hasher.putBytes(row.row().getValues(index).toByteArray());
+      }
+    }
+    return hasher.hash().asLong();
+  }
+
+  // published statistics of a window
+  private record Snapshot(
+      int documents, Map<List<String>, PathStatistics> paths, boolean truncated) {}
+
+  private record PathStatistics(int documents, long distinctValues, List<RowWrapper> sampledRows) {}
+
+  private class Window {
+
+    private final Map<List<String>, PathAccumulator> paths = new HashMap<>();
+
+    private int documents;
+
+    private boolean truncated;
+
+    private void add(Map<List<String>, List<RowWrapper>> rowsByPath) {
+      documents++;
+      rowsByPath.forEach(
+          (path, rows) -> {
+            PathAccumulator accumulator = paths.get(path);
+            if (null == accumulator) {
+              if (paths.size() >= MAX_PATHS) {
+                truncated = true;
+                return;
+              }
+
+              accumulator = new PathAccumulator();
+              paths.put(path, accumulator);
+            }
+            accumulator.add(rows);
+          });
+    }
+
+    private Snapshot snapshot() {
+      Map<List<String>, PathStatistics> result = new HashMap<>();
+      paths.forEach((path, accumulator) -> result.put(path, accumulator.toStatistics()));
+      return new Snapshot(documents, result, truncated);
+    }
+  }
+
+  private class PathAccumulator {
+
+    private final HyperLogLog distinctValues = new HyperLogLog();
+
+    private final List<RowWrapper> sampledRows = new ArrayList<>(SAMPLED_ROWS);
+
+    private int documents;
+
+    private long rows;
+
+    private void add(List<RowWrapper> documentRows) {
+      documents++;
+      for (RowWrapper row : documentRows) {
+        rows++;
+        distinctValues.add(valueHash(row));
+
+        // reservoir sampling, each row on the path has the same chance to be kept
+        if (sampledRows.size() < SAMPLED_ROWS) {
+          sampledRows.add(row);
+        } else {
+          long index = ThreadLocalRandom.current().nextLong(rows);
+          if (index < SAMPLED_ROWS) {
+            sampledRows.set((int) index, row);
+          }
+        }
+      }
+    }
+
+    private PathStatistics toStatistics() {
+      long distinct = Math.max(1, distinctValues.estimate());
+      return new PathStatistics(documents, distinct, List.copyOf(sampledRows));
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.stargate.sgv2.api.common.StargateRequestInfo;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import java.util.Optional;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Keeps the {@link CollectionStatistics} of the collections, per tenant. Statistics are held in
+ * memory only, so they are local to this instance and rebuilt after a restart.
+ */
+@ApplicationScoped
+public class CollectionStatisticsManager {
+
+  @Inject
+  @CacheName("collection-statistics-cache")
+  Cache statisticsCache;
+
+  @Inject StargateRequestInfo requestInfo;
+
+  @Inject DocumentProperties documentProperties;
+
+  /** @return If the statistics are enabled. */
+  public boolean isEnabled() {
+    return documentProperties.searchStatisticsSampleRate() > 0;
+  }
+
+  /**
+   * Gets the statistics of a collection, creating empty ones if they don't exist.
+   *
+   * @param keyspace Keyspace of the collection.
+   * @param collection Collection name.
+   * @return Uni emitting the {@link CollectionStatistics}
+   */
+  public Uni<CollectionStatistics> getStatistics(String keyspace, String collection) {
+    StatisticsKey key = new StatisticsKey(requestInfo.getTenantId(), keyspace, collection);
+    int sampleRate = documentProperties.searchStatisticsSampleRate();
+    return statisticsCache.get(key, k -> new CollectionStatistics(documentProperties, sampleRate));
+  }
+
+  /**
+   * Records the documents into the statistics of a collection as they are emitted.
+   *
+   * @param keyspace Keyspace of the collection.
+   * @param collection Collection name.
+   * @param documents Documents, each must contain all its rows.
+   * @return Multi emitting the same documents
+   */
+  public Multi<RawDocument> recordDocuments(
+      String keyspace, String collection, Multi<RawDocument> documents) {
+    if (!isEnabled()) {
+      return documents;
+    }
+
+    return getStatistics(keyspace, collection)
+        .onItem()
+        .transformToMulti(statistics -> documents.onItem().invoke(statistics::record));
+  }
+
+  private record StatisticsKey(Optional<String> tenantId, String keyspace, String collection) {}
+}
@@ -22,7 +22,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.smallrye.mutiny.Uni;
 import io.stargate.bridge.proto.Schema;
 import io.stargate.bridge.proto.StargateBridge;
@@ -53,6 +56,10 @@ public class JsonSchemaManager {
 
   @Inject StargateRequestInfo requestInfo;
 
+  @Inject
+  @CacheName("json-schema-cache")
+  Cache jsonSchemaCache;
+
   private final JsonSchemaFactory jsonSchemaFactory = JsonSchemaFactory.byDefault();
 
   /**
@@ -62,24 +69,7 @@ public class JsonSchemaManager {
    * @return Uni containing the JsonNode representing the schema
    */
   public Uni<JsonNode> getJsonSchema(Uni<Schema.CqlTable> table) {
-    // This properly handles authz based on which TableManager is provided
-    return table
-        .onItem()
-        .ifNotNull()
-        .transform(
-            t -> {
-              String comment = t.getOptionsMap().getOrDefault("comment", null);
-              if (comment == null || comment.isEmpty()) {
-                return null;
-              }
-
-              try {
-                return objectMapper.readTree(comment).get("schema");
-              } catch (JsonProcessingException e) {
-                logger.warn("Document table has comment, but it's not a valid JSON.");
-                return null;
-              }
-            });
+    return getCompiledJsonSchema(table).onItem().ifNotNull().transform(CompiledJsonSchema::schema);
   }
 
   /**
@@ -126,11 +116,11 @@ public class JsonSchemaManager {
    */
   public Uni<Boolean> validateJsonDocument(
       Uni<Schema.CqlTable> table, JsonNode document, boolean subDocument) {
-    return getJsonSchema(table)
+    return getCompiledJsonSchema(table)
         .onItem()
         .transform(
-            jsonSchema -> {
-              if (jsonSchema == null) {
+            compiled -> {
+              if (compiled == null || compiled.schema() == null) {
                 // If there is no valid JSON schema, then the document is valid
                 return true;
               } else if (subDocument) {
@@ -139,7 +129,7 @@ public class JsonSchemaManager {
               }
 
               try {
-                validate(jsonSchema, document);
+                validate(compiled, document);
               } catch (ProcessingException e) {
                 throw new ErrorCodeRuntimeException(
                     ErrorCode.DOCS_API_JSON_SCHEMA_PROCESSING_FAILED);
@@ -148,8 +138,52 @@ public class JsonSchemaManager {
             });
   }
 
-  private void validate(JsonNode schema, JsonNode jsonValue) throws ProcessingException {
-    ProcessingReport result = jsonSchemaFactory.getValidator().validate(schema, jsonValue);
+  // gets the JSON schema of the table compiled for validation
+  // cached by the table comment, so that an attached schema is only parsed and compiled once
+  private Uni<CompiledJsonSchema> getCompiledJsonSchema(Uni<Schema.CqlTable> table) {
+    // This properly handles authz based on which TableManager is provided
+    return table
+        .onItem()
+        .ifNotNull()
+        .transformToUni(
+            t -> {
+              String comment = t.getOptionsMap().getOrDefault("comment", null);
+              if (comment == null || comment.isEmpty()) {
+                return Uni.createFrom().nullItem();
+              }
+
+              return jsonSchemaCache.get(comment, this::compileJsonSchema);
+            });
+  }
+
+  private CompiledJsonSchema compileJsonSchema(String comment) {
+    JsonNode schema;
+    try {
+      schema = objectMapper.readTree(comment).get("schema");
+    } catch (JsonProcessingException e) {
+      logger.warn("Document table has comment, but it's not a valid JSON.");
+      return new CompiledJsonSchema(null, null);
+    }
+
+    if (schema == null) {
+      return new CompiledJsonSchema(null, null);
+    }
+
+    // keep the schema even if it can not be compiled, validation reports the failure
+    try {
+      return new CompiledJsonSchema(schema, jsonSchemaFactory.getJsonSchema(schema));
+    } catch (ProcessingException e) {
+      logger.warn("Document table has a JSON schema that can not be processed.", e);
+      return new CompiledJsonSchema(schema, null);
+    }
+  }
+
+  private void validate(CompiledJsonSchema compiled, JsonNode jsonValue)
+      throws ProcessingException {
+    ProcessingReport result =
+        compiled.validator() != null
+            ? compiled.validator().validate(jsonValue)
+            : jsonSchemaFactory.getValidator().validate(compiled.schema(), jsonValue);
     if (!result.isSuccess()) {
       List<String> messages = new ArrayList<>();
       result.forEach(msg -> messages.add(msg.getMessage()));
@@ -157,4 +191,7 @@ public class JsonSchemaManager {
           ErrorCode.DOCS_API_INVALID_JSON_VALUE, "Invalid JSON: " + messages);
     }
   }
+
+  // parsed JSON schema of a table, with the compiled validator, both null if there is no schema
+  private record CompiledJsonSchema(JsonNode schema, JsonSchema validator) {}
 }
@@ -18,6 +18,7 @@
 package io.stargate.sgv2.docsapi.service.write;
 
 import com.google.common.base.Splitter;
+import com.google.protobuf.Int32Value;
 import io.grpc.Metadata;
 import io.opentelemetry.extension.annotations.WithSpan;
 import io.quarkus.grpc.GrpcClient;
@@ -34,6 +35,7 @@ import io.stargate.sgv2.docsapi.api.exception.ErrorCodeRuntimeException;
 import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
 import io.stargate.sgv2.docsapi.service.ExecutionContext;
 import io.stargate.sgv2.docsapi.service.JsonShreddedRow;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.json.DeadLeaf;
 import io.stargate.sgv2.docsapi.service.util.DocsApiUtils;
 import io.stargate.sgv2.docsapi.service.util.TimeSource;
@@ -45,6 +47,7 @@ import io.stargate.sgv2.docsapi.service.write.db.DeleteSubDocumentPathQueryBuild
 import io.stargate.sgv2.docsapi.service.write.db.InsertQueryBuilder;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -64,6 +67,7 @@ public class WriteBridgeService {
   private final InsertQueryBuilder insertQueryBuilder;
   private final boolean useLoggedBatches;
   private final boolean treatBooleansAsNumeric;
+  private final boolean batchQueryCqlIndexSupported;
   private final DocumentProperties documentProperties;
   private final QueriesConfig queriesConfig;
 
@@ -79,6 +83,7 @@ public class WriteBridgeService {
     this.timeSource = timeSource;
     this.useLoggedBatches = dataStoreProperties.loggedBatchesEnabled();
     this.treatBooleansAsNumeric = dataStoreProperties.treatBooleansAsNumeric();
+    this.batchQueryCqlIndexSupported = dataStoreProperties.batchQueryCqlIndexSupported();
     this.documentProperties = documentProperties;
     this.queriesConfig = queriesConfig;
   }
@@ -108,18 +113,9 @@ public class WriteBridgeService {
         .item(
             () -> {
               long timestamp = timeSource.currentTimeMicros();
-              return rows.stream()
-                  .map(
-                      row ->
-                          insertQueryBuilder.buildAndBind(
-                              keyspace,
-                              collection,
-                              ttl,
-                              documentId,
-                              row,
-                              timestamp,
-                              treatBooleansAsNumeric))
-                  .toList();
+              List<QueryOuterClass.BatchQuery> queries = new ArrayList<>(rows.size());
+              addInsertQueries(queries, keyspace, collection, documentId, rows, ttl, timestamp);
+              return queries;
             })
         .flatMap(
             boundQueries -> executeBatch(bridge, boundQueries, context.nested("ASYNC INSERT")));
@@ -206,23 +202,90 @@ public class WriteBridgeService {
                   deleteQueryBuilder.buildAndBind(keyspace, collection, documentId, timestamp - 1));
 
               // then insert new one
-              rows.forEach(
-                  row ->
-                      queries.add(
-                          insertQueryBuilder.buildAndBind(
-                              keyspace,
-                              collection,
-                              ttl,
-                              documentId,
-                              row,
-                              timestamp,
-                              treatBooleansAsNumeric)));
+              addInsertQueries(queries, keyspace, collection, documentId, rows, ttl, timestamp);
               return queries;
             })
         .flatMap(
             boundQueries -> executeBatch(bridge, boundQueries, context.nested("ASYNC UPDATE")));
   }
 
+  /**
+   * Updates a single document at the given sub-path by writing only the difference to the existing
+   * rows. Existing rows that are not part of the update are deleted one by one, and only the new or
+   * changed rows are inserted. Unchanged rows are not touched, thus no range tombstone is created.
+   *
+   * <p>The existing rows must contain all the rows of the document at the given sub-path, and the
+   * TTL of each row if available, as read by the {@link
+   * io.stargate.sgv2.docsapi.service.query.ReadBridgeService#getDocumentWithTtlInfo}. An existing
+   * row with a TTL is always re-written.
+   *
+   * @param keyspace Keyspace to store document in.
+   * @param collection Collection the document belongs to.
+   * @param documentId Document ID.
+   * @param subDocumentPath The sub-document path to update. Empty updates the whole document.
+   * @param rows Rows of this document.
+   * @param existingRows Existing rows of this document at the sub-document path.
+   * @param ttl the time-to-live of the rows (seconds), only <code>null</code> or <code>0</code>
+   * @param context Execution content for profiling.
+   * @return Uni containing the {@link ResultSet} of the batch execution.
+   */
+  @WithSpan
+  public Uni<ResultSet> updateDocumentDiff(
+      String keyspace,
+      String collection,
+      String documentId,
+      List<String> subDocumentPath,
+      List<JsonShreddedRow> rows,
+      List<RowWrapper> existingRows,
+      Integer ttl,
+      ExecutionContext context) {
+
+    return Uni.createFrom()
+        .item(
+            () -> {
+              checkPathMatchesRows(subDocumentPath, rows);
+
+              // index existing rows by path, what remains after matching is to be deleted
+              Map<List<String>, RowWrapper> existingByPath = new HashMap<>(existingRows.size());
+              for (RowWrapper existingRow : existingRows) {
+                existingByPath.put(getPath(existingRow), existingRow);
+              }
+
+              List<JsonShreddedRow> changedRows = new ArrayList<>(rows.size());
+              for (JsonShreddedRow row : rows) {
+                RowWrapper existingRow = existingByPath.remove(row.getPath());
+                if (null == existingRow || !isSameRow(row, existingRow)) {
+                  changedRows.add(row);
+                }
+              }
+
+              long timestamp = timeSource.currentTimeMicros();
+              List<QueryOuterClass.BatchQuery> queries =
+                  new ArrayList<>(changedRows.size() + existingByPath.size());
+
+              // delete removed rows by their exact path
+              for (List<String> path : existingByPath.keySet()) {
+                queries.add(
+                    new DeleteSubDocumentPathQueryBuilder(path, true, documentProperties)
+                        .buildAndBind(keyspace, collection, documentId, timestamp - 1));
+              }
+
+              // then insert new and changed ones
+              addInsertQueries(
+                  queries, keyspace, collection, documentId, changedRows, ttl, timestamp);
+              return queries;
+            })
+        .flatMap(
+            boundQueries -> {
+              // nothing changed
+              if (boundQueries.isEmpty()) {
+                return Uni.createFrom().item(ResultSet.getDefaultInstance());
+              }
+
+              return executeBatch(bridge, boundQueries, context.nested("ASYNC UPDATE"));
+            });
+  }
+
   /**
    * Patches a single document at root, ensuring that:
    *
@@ -333,17 +396,7 @@ public class WriteBridgeService {
                       .buildAndBind(keyspace, collection, documentId, timestamp - 1));
 
               // Finally, insert the new data.
-              rows.forEach(
-                  row ->
-                      queries.add(
-                          insertQueryBuilder.buildAndBind(
-                              keyspace,
-                              collection,
-                              ttl,
-                              documentId,
-                              row,
-                              timestamp,
-                              treatBooleansAsNumeric)));
+              addInsertQueries(queries, keyspace, collection, documentId, rows, ttl, timestamp);
 
               return queries;
             })
@@ -386,17 +439,7 @@ public class WriteBridgeService {
                               .buildAndBind(keyspace, collection, documentId, timestamp - 1)));
 
               // Finally, insert the new data.
-              rows.forEach(
-                  row ->
-                      queries.add(
-                          insertQueryBuilder.buildAndBind(
-                              keyspace,
-                              collection,
-                              ttl,
-                              documentId,
-                              row,
-                              timestamp,
-                              treatBooleansAsNumeric)));
+              addInsertQueries(queries, keyspace, collection, documentId, rows, ttl, timestamp);
               return queries;
             })
         .flatMap(boundQueries -> executeBatch(bridge, boundQueries, context.nested("ASYNC SET")));
@@ -514,6 +557,31 @@ public class WriteBridgeService {
             });
   }
 
+  // builds the insert query once and binds it for each row, so all rows share the encoded CQL
+  // (when the bridge supports it, only the first row sends the CQL, the others refer to its index)
+  private void addInsertQueries(
+      List<QueryOuterClass.BatchQuery> queries,
+      String keyspace,
+      String collection,
+      String documentId,
+      List<JsonShreddedRow> rows,
+      Integer ttl,
+      long timestamp) {
+    QueryOuterClass.BatchQuery insertQuery =
+        insertQueryBuilder.buildQuery(keyspace, collection, ttl);
+    for (JsonShreddedRow row : rows) {
+      queries.add(
+          insertQueryBuilder.bind(
+              insertQuery, documentId, row, ttl, timestamp, treatBooleansAsNumeric));
+      if (batchQueryCqlIndexSupported && !insertQuery.hasCqlIndex()) {
+        insertQuery =
+            QueryOuterClass.BatchQuery.newBuilder()
+                .setCqlIndex(Int32Value.of(queries.size() - 1))
+                .build();
+      }
+    }
+  }
+
   // creates needed query builders for one path of dead leaves
   private List<AbstractDeleteQueryBuilder> getDeadLeavesQueryBuilders(
       String path, Set<DeadLeaf> leaves) {
@@ -572,7 +640,12 @@ public class WriteBridgeService {
       ExecutionContext context) {
 
     // trace queries in context
-    batchQueries.forEach(q -> context.traceDeferredDml(q.getCql()));
+    batchQueries.forEach(
+        q ->
+            context.traceDeferredDml(
+                q.hasCqlIndex()
+                    ? batchQueries.get(q.getCqlIndex().getValue()).getCql()
+                    : q.getCql()));
 
     // then execute batch
     Batch.Type type = useLoggedBatches ? Batch.Type.LOGGED : Batch.Type.UNLOGGED;
@@ -608,6 +681,41 @@ public class WriteBridgeService {
     return bridge.executeQuery(singleQuery).map(QueryOuterClass.Response::getResultSet);
   }
 
+  // resolves the path of an existing row
+  private List<String> getPath(RowWrapper row) {
+    List<String> path = new ArrayList<>();
+    for (int i = 0; i < documentProperties.maxDepth(); i++) {
+      String column = documentProperties.tableProperties().pathColumnName(i);
+      if (!row.columnExists(column) || row.isNull(column)) {
+        break;
+      }
+
+      String segment = row.getString(column);
+      if (segment.isEmpty()) {
+        break;
+      }
+      path.add(segment);
+    }
+    return path;
+  }
+
+  // checks if the existing row holds the same value as the new row, and does not expire
+  private boolean isSameRow(JsonShreddedRow row, RowWrapper existingRow) {
+    String ttlColumn = "ttl(%s)".formatted(documentProperties.tableProperties().leafColumnName());
+    if (existingRow.columnExists(ttlColumn) && !existingRow.isNull(ttlColumn)) {
+      return false;
+    }
+
+    return Objects.equals(
+            row.getStringValue(), DocsApiUtils.getStringFromRow(existingRow, documentProperties))
+        && Objects.equals(
+            row.getDoubleValue(), DocsApiUtils.getDoubleFromRow(existingRow, documentProperties))
+        && Objects.equals(
+            row.getBooleanValue(),
+            DocsApiUtils.getBooleanFromRow(
+                existingRow, documentProperties, treatBooleansAsNumeric));
+  }
+
   // makes sure that any row starts with the given sub-document path
   private void checkPathMatchesRows(List<String> subDocumentPath, List<JsonShreddedRow> rows) {
     if (!subDocumentPath.isEmpty()) {
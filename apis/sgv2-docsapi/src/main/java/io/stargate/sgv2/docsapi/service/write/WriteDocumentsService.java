@@ -16,10 +16,14 @@
  */
 package io.stargate.sgv2.docsapi.service.write;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.stargate.bridge.proto.QueryOuterClass.ResultSet;
 import io.stargate.bridge.proto.Schema;
 import io.stargate.sgv2.docsapi.api.exception.ErrorCode;
 import io.stargate.sgv2.docsapi.api.exception.ErrorCodeRuntimeException;
@@ -31,8 +35,12 @@ import io.stargate.sgv2.docsapi.service.JsonDocumentShredder;
 import io.stargate.sgv2.docsapi.service.JsonShreddedRow;
 import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.query.ReadBridgeService;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionDepthManager;
 import io.stargate.sgv2.docsapi.service.schema.JsonSchemaManager;
 import io.stargate.sgv2.docsapi.service.util.DocsApiUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -63,13 +71,18 @@ public class WriteDocumentsService {
 
   @Inject DocumentConfig configuration;
 
+  @Inject ObjectMapper objectMapper;
+
+  @Inject CollectionDepthManager depthManager;
+
   /**
-   * Writes a document in the given namespace and collection using the randomly generated ID.
+   * Writes a document in the given namespace and collection using the randomly generated ID. The
+   * payload is shredded without building the JSON tree, unless the collection has a JSON schema.
    *
    * @param table a CqlTable to be used for schema/validity checks
    * @param namespace Namespace
    * @param collection Collection name
-   * @param document Document represented as JSON node
+   * @param payload Document represented as JSON stream
    * @param ttl the time-to-live for the document (seconds)
    * @param context Execution content
    * @return Document response wrapper containing the generated ID.
@@ -78,25 +91,22 @@ public class WriteDocumentsService {
       Uni<Schema.CqlTable> table,
       String namespace,
       String collection,
-      JsonNode document,
+      InputStream payload,
       Integer ttl,
       ExecutionContext context) {
     // generate the document id
     final String documentId = UUID.randomUUID().toString();
-    return jsonSchemaManager
-        .validateJsonDocument(table, document, false)
+    return shredPayload(table, payload, Collections.emptyList())
         .onItem()
         .transformToUni(
-            __ -> {
-              List<JsonShreddedRow> rows =
-                  documentShredder.shred(document, Collections.emptyList());
-              return writeBridgeService
-                  .writeDocument(namespace, collection, documentId, rows, ttl, context)
-                  .map(
-                      result ->
-                          new DocumentResponseWrapper<>(
-                              documentId, null, null, context.toProfile()));
-            });
+            rows ->
+                writeBridgeService
+                    .writeDocument(namespace, collection, documentId, rows, ttl, context)
+                    .call(() -> depthManager.recordRows(namespace, collection, rows))
+                    .map(
+                        result ->
+                            new DocumentResponseWrapper<>(
+                                documentId, null, null, context.toProfile())));
   }
 
   /**
@@ -158,8 +168,20 @@ public class WriteDocumentsService {
                         List<JsonShreddedRow> rows =
                             documentShredder.shred(json, Collections.emptyList());
                         if (useUpdate) {
-                          return writeBridgeService
-                              .updateDocument(namespace, collection, documentId, rows, ttl, context)
+                          Uni<ResultSet> update =
+                              diffUpdateEnabled(ttl)
+                                  ? diffUpdateDocument(
+                                      namespace,
+                                      collection,
+                                      documentId,
+                                      Collections.emptyList(),
+                                      rows,
+                                      ttl,
+                                      context)
+                                  : writeBridgeService.updateDocument(
+                                      namespace, collection, documentId, rows, ttl, context);
+                          return update
+                              .call(() -> depthManager.recordRows(namespace, collection, rows))
                               .onItemOrFailure()
                               .transform(
                                   (resultSet, failure) -> {
@@ -175,6 +197,7 @@ public class WriteDocumentsService {
                         } else {
                           return writeBridgeService
                               .writeDocument(namespace, collection, documentId, rows, ttl, context)
+                              .call(() -> depthManager.recordRows(namespace, collection, rows))
                               .onItemOrFailure()
                               .transform(
                                   (resultSet, failure) -> {
@@ -202,13 +225,14 @@ public class WriteDocumentsService {
 
   /**
    * Updates a document with given ID in the given namespace and collection. Any previously existing
-   * document with the same ID will be overwritten.
+   * document with the same ID will be overwritten. The payload is shredded without building the
+   * JSON tree, unless the collection has a JSON schema.
    *
    * @param table a CqlTable to be used for schema/validity checks
    * @param namespace Namespace
    * @param collection Collection name
    * @param documentId The ID of the document to update
-   * @param payload Document represented as JSON node
+   * @param payload Document represented as JSON stream
    * @param ttl the time-to-live of the document (seconds)
    * @param context Execution content
    * @return Document response wrapper containing the generated ID.
@@ -218,11 +242,32 @@ public class WriteDocumentsService {
       String namespace,
       String collection,
       String documentId,
-      JsonNode payload,
+      InputStream payload,
       Integer ttl,
       ExecutionContext context) {
-    return updateDocumentInternal(
-        table, namespace, collection, documentId, Collections.emptyList(), payload, ttl, context);
+    return shredPayload(table, payload, Collections.emptyList())
+        .onItem()
+        .transformToUni(
+            rows -> {
+              Uni<ResultSet> update =
+                  diffUpdateEnabled(ttl)
+                      ? diffUpdateDocument(
+                          namespace,
+                          collection,
+                          documentId,
+                          Collections.emptyList(),
+                          rows,
+                          ttl,
+                          context)
+                      : writeBridgeService.updateDocument(
+                          namespace, collection, documentId, rows, ttl, context);
+              return update
+                  .call(() -> depthManager.recordRows(namespace, collection, rows))
+                  .map(
+                      result ->
+                          new DocumentResponseWrapper<>(
+                              documentId, null, null, context.toProfile()));
+            });
   }
 
   /**
@@ -292,9 +337,14 @@ public class WriteDocumentsService {
               List<JsonShreddedRow> rows = documentShredder.shred(document, subPathProcessed);
 
               // call update document
-              return writeBridgeService
-                  .updateDocument(
-                      namespace, collection, documentId, subPathProcessed, rows, ttl, context)
+              Uni<ResultSet> update =
+                  diffUpdateEnabled(ttl)
+                      ? diffUpdateDocument(
+                          namespace, collection, documentId, subPathProcessed, rows, ttl, context)
+                      : writeBridgeService.updateDocument(
+                          namespace, collection, documentId, subPathProcessed, rows, ttl, context);
+              return update
+                  .call(() -> depthManager.recordRows(namespace, collection, rows))
                   .map(
                       result ->
                           new DocumentResponseWrapper<>(
@@ -416,6 +466,7 @@ public class WriteDocumentsService {
               return writeBridgeService
                   .patchDocument(
                       namespace, collection, documentId, subPathProcessed, rows, ttl, context)
+                  .call(() -> depthManager.recordRows(namespace, collection, rows))
                   .map(
                       result ->
                           new DocumentResponseWrapper<>(
@@ -498,6 +549,7 @@ public class WriteDocumentsService {
               return writeBridgeService
                   .setPathsOnDocument(
                       namespace, collection, documentId, setPaths, rows, ttl, context)
+                  .call(() -> depthManager.recordRows(namespace, collection, rows))
                   .map(
                       result ->
                           new DocumentResponseWrapper<>(
@@ -547,6 +599,66 @@ public class WriteDocumentsService {
         .transform(__ -> true);
   }
 
+  // diff updates are only possible when rows are written without a TTL
+  private boolean diffUpdateEnabled(Integer ttl) {
+    return configuration.diffUpdatesEnabled() && (null == ttl || ttl == 0);
+  }
+
+  // reads the existing rows at the sub-path and writes only the ones that changed
+  private Uni<ResultSet> diffUpdateDocument(
+      String namespace,
+      String collection,
+      String documentId,
+      List<String> subPath,
+      List<JsonShreddedRow> rows,
+      Integer ttl,
+      ExecutionContext context) {
+    return readBridgeService
+        .getDocumentWithTtlInfo(namespace, collection, documentId, subPath, context)
+        .onItem()
+        .transformToUni(
+            existing -> {
+              List<RowWrapper> existingRows =
+                  null == existing ? Collections.emptyList() : existing.rows();
+              return writeBridgeService.updateDocumentDiff(
+                  namespace, collection, documentId, subPath, rows, existingRows, ttl, context);
+            });
+  }
+
+  // shreds the JSON payload straight from the stream
+  // the JSON tree is only built if the collection has a JSON schema to validate against
+  private Uni<List<JsonShreddedRow>> shredPayload(
+      Uni<Schema.CqlTable> table, InputStream payload, List<String> subPath) {
+    Uni<Schema.CqlTable> tableMemoized = table.memoize().indefinitely();
+    return jsonSchemaManager
+        .getJsonSchema(tableMemoized)
+        .onItem()
+        .transformToUni(
+            schema -> {
+              try {
+                if (null == schema) {
+                  List<JsonShreddedRow> rows = documentShredder.shred(payload, subPath);
+                  return Uni.createFrom().item(rows);
+                }
+
+                JsonNode document = objectMapper.readTree(payload);
+                if (null == document || document.isMissingNode()) {
+                  return Uni.createFrom().failure(JsonDocumentShredder.emptyPayload());
+                }
+
+                return jsonSchemaManager
+                    .validateJsonDocument(tableMemoized, document, !subPath.isEmpty())
+                    .map(__ -> documentShredder.shred(document, subPath));
+              } catch (JsonParseException e) {
+                return Uni.createFrom().failure(e);
+              } catch (JsonProcessingException e) {
+                return Uni.createFrom().failure(JsonDocumentShredder.invalidJson(e));
+              } catch (IOException e) {
+                return Uni.createFrom().failure(new UncheckedIOException(e));
+              }
+            });
+  }
+
   // we need to transform the stuff to support array elements
   private List<String> processSubDocumentPath(List<String> subDocumentPath) {
     return subDocumentPath.stream()
@@ -124,7 +124,8 @@ public class InsertQueryBuilder {
     // respect the timestamp
     values.addValues(Values.of(timestamp));
 
-    return BatchQuery.newBuilder(builtQuery).setValues(values).build();
+    // keep the encoded CQL (or the CQL index) of the built query, so all bound queries share it
+    return builtQuery.toBuilder().setValues(values).build();
   }
 
   private Value convertToBackendBooleanValue(Boolean value, boolean numericBooleans) {
@@ -42,6 +42,13 @@ class DefaultDocumentPropertiesConfigurationTest {
     assertThat(documentProperties.maxArrayLength()).isEqualTo(1_000_000);
     assertThat(documentProperties.maxPageSize()).isEqualTo(20);
     assertThat(documentProperties.maxSearchPageSize()).isEqualTo(1_000);
+    assertThat(documentProperties.maxSearchPrefetchPages()).isEqualTo(4);
+    assertThat(documentProperties.maxSearchPrefetchBytes()).isEqualTo(8_388_608L);
+    assertThat(documentProperties.maxSearchMergePrefetch()).isEqualTo(256);
+    assertThat(documentProperties.maxSearchMergeConcurrency()).isEqualTo(16);
+    assertThat(documentProperties.maxSearchFilterBatchSize()).isEqualTo(20);
+    assertThat(documentProperties.searchStatisticsSampleRate()).isEqualTo(10);
+    assertThat(documentProperties.diffUpdatesEnabled()).isFalse();
   }
 
   @Nested
@@ -410,7 +410,7 @@ class DocumentUpdateResourceIntegrationTest extends DocsApiIntegrationTest {
           .then()
           .statusCode(400)
           .body("code", is(400))
-          .body("description", is("Request invalid: payload must not be empty."));
+          .body("description", is("Payload must not be empty."));
     }
 
     @Test
@@ -304,7 +304,7 @@ class DocumentWriteResourceIntegrationTest extends DocsApiIntegrationTest {
           .then()
           .statusCode(400)
           .body("code", equalTo(400))
-          .body("description", equalTo("Request invalid: payload must not be empty."));
+          .body("description", equalTo("Payload must not be empty."));
     }
 
     @Test
@@ -74,8 +74,17 @@ public class ValidatingStargateBridge implements StargateBridge {
     return batch.getQueriesList().stream()
         .map(
             query -> {
+              String cql = query.getCql();
+              // resolve the CQL of the referenced query, like the bridge does
+              if (query.hasCqlIndex()) {
+                assertThat(cql).isEmpty();
+                QueryOuterClass.BatchQuery referenced =
+                    batch.getQueries(query.getCqlIndex().getValue());
+                assertThat(referenced.hasCqlIndex()).isFalse();
+                cql = referenced.getCql();
+              }
               QueryExpectation expectation =
-                  findQueryExpectation(query.getCql(), query.getValues().getValuesList());
+                  findQueryExpectation(cql, query.getValues().getValuesList());
               return expectation.execute(batch.getParameters(), batch.getType());
             })
         // Return the last result
@@ -0,0 +1,138 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the allocation of shredding a document write payload, when the body is given to the
+ * {@link JsonDocumentShredder} as a string (decoded from the request bytes first), as a stream of
+ * the request bytes, or as a tree. The payload is an array of objects with a few values each, use a
+ * non-Latin text to see the cost of the UTF-16 string.
+ *
+ * <p>This is not run as part of the build. To run it locally:
+ *
+ * <pre>
+ * mvn test -Dtest=JsonDocumentShredderBenchmarkTest -Dstargate.document.benchmark=true \
+ *   [-Dstargate.document.benchmark.objects=20000] [-Dstargate.document.benchmark.iterations=50] \
+ *   [-Dstargate.document.benchmark.text=value]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "stargate.document.benchmark", matches = "true")
+public class JsonDocumentShredderBenchmarkTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(JsonDocumentShredderBenchmarkTest.class);
+
+  private static final int OBJECTS =
+      Integer.getInteger("stargate.document.benchmark.objects", 20_000);
+  private static final String TEXT =
+      System.getProperty("stargate.document.benchmark.text", "value ");
+  private static final int ITERATIONS =
+      Integer.getInteger("stargate.document.benchmark.iterations", 50);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void compareBodyTypes() throws Exception {
+    DocumentProperties properties = mock(DocumentProperties.class);
+    when(properties.maxDepth()).thenReturn(64);
+    when(properties.maxArrayLength()).thenReturn(1_000_000);
+    JsonDocumentShredder shredder = new JsonDocumentShredder(properties, objectMapper);
+    byte[] body = payload().getBytes(StandardCharsets.UTF_8);
+
+    Shred string =
+        bytes -> shredder.shred(new String(bytes, StandardCharsets.UTF_8), Collections.emptyList());
+    Shred stream =
+        bytes -> shredder.shred(new ByteArrayInputStream(bytes), Collections.emptyList());
+    Shred tree = bytes -> shredder.shred(objectMapper.readTree(bytes), Collections.emptyList());
+    assertThat(stream.apply(body)).isEqualTo(string.apply(body));
+
+    logger.info(
+        "Shredding a {} KB payload ({} objects, {} iterations):{}",
+        body.length / 1024,
+        OBJECTS,
+        ITERATIONS,
+        String.format(
+            "%n  %s%n  %s%n  %s",
+            run("string", string, body), run("stream", stream, body), run("tree", tree, body)));
+  }
+
+  private String run(String name, Shred shred, byte[] body) throws Exception {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    // warm up
+    for (int i = 0; i < ITERATIONS; i++) {
+      shred.apply(body);
+    }
+
+    long allocated = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      shred.apply(body);
+    }
+    long nanos = System.nanoTime() - start;
+    allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+    return String.format(
+        "%-6s %,10.1f KB/op  %,8.2f ms/op",
+        name, allocated / 1024d / ITERATIONS, nanos / 1_000_000d / ITERATIONS);
+  }
+
+  // array of objects with a few values each
+  private String payload() {
+    StringBuilder payload = new StringBuilder("{\"items\":[");
+    for (int i = 0; i < OBJECTS; i++) {
+      if (i > 0) {
+        payload.append(',');
+      }
+      payload
+          .append("{\"text\":\"")
+          .append(TEXT)
+          .append(i)
+          .append("\",\"number\":")
+          .append(i)
+          .append(",\"flag\":")
+          .append(i % 2 == 0)
+          .append(",\"list\":[\"a\",\"b\"]}");
+    }
+    return payload.append("]}").toString();
+  }
+
+  @FunctionalInterface
+  private interface Shred {
+
+    List<JsonShreddedRow> apply(byte[] body) throws Exception;
+  }
+}
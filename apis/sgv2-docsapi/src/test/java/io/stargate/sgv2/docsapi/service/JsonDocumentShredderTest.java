@@ -33,6 +33,8 @@ import io.stargate.sgv2.docsapi.api.exception.ErrorCode;
 import io.stargate.sgv2.docsapi.api.exception.ErrorCodeRuntimeException;
 import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
 import io.stargate.sgv2.docsapi.config.constants.Constants;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -414,6 +416,147 @@ class JsonDocumentShredderTest {
     }
   }
 
+  @Nested
+  class ShredPayload {
+
+    @Test
+    public void sameAsTree() throws JsonProcessingException {
+      String payload =
+          "{\"a\": {\"b\": \"text\", \"c\": [1.5, true]}, \"d\": {}, \"e\": [], \"f\\\\.\": null}";
+
+      List<JsonShreddedRow> result = shredder.shred(payload, Collections.emptyList());
+
+      List<JsonShreddedRow> expected =
+          shredder.shred(objectMapper.readTree(payload), Collections.emptyList());
+      assertThat(result).isEqualTo(expected).hasSize(6);
+    }
+
+    @Test
+    public void duplicateFieldLastWins() throws JsonProcessingException {
+      String payload = "{\"field\": 1, \"field\": {\"nested\": \"text\"}}";
+
+      List<JsonShreddedRow> result = shredder.shred(payload, Collections.emptyList());
+
+      assertThat(result)
+          .singleElement()
+          .satisfies(
+              row -> {
+                assertThat(row.getPath()).containsExactly("field", "nested");
+                assertThat(row.getStringValue()).isEqualTo("text");
+                assertThat(row.getDoubleValue()).isNull();
+                assertThat(row.getBooleanValue()).isNull();
+              });
+    }
+
+    @Test
+    public void duplicateFieldNotLast() throws JsonProcessingException {
+      String payload =
+          "{\"a\": {\"x\": 1, \"y\": 2}, \"b\": 3, \"a\": [true], \"c\": {\"d\": 1, \"d\": 2}}";
+
+      List<JsonShreddedRow> result = shredder.shred(payload, Collections.emptyList());
+
+      List<JsonShreddedRow> expected =
+          shredder.shred(objectMapper.readTree(payload), Collections.emptyList());
+      assertThat(result).containsExactlyInAnyOrderElementsOf(expected).hasSize(3);
+    }
+
+    @Test
+    public void stream() throws JsonProcessingException {
+      String payload = "{\"a\": {\"b\": \"t\u00e9xt\", \"c\": [1.5, true]}, \"d\": {}}";
+
+      List<JsonShreddedRow> result =
+          shredder.shred(
+              new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)),
+              Collections.emptyList());
+
+      assertThat(result).isEqualTo(shredder.shred(payload, Collections.emptyList())).hasSize(4);
+    }
+
+    @Test
+    public void emptyStream() {
+      Throwable result =
+          catchThrowable(
+              () -> shredder.shred(new ByteArrayInputStream(new byte[0]), Collections.emptyList()));
+
+      assertThat(result)
+          .isInstanceOf(ErrorCodeRuntimeException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID);
+    }
+
+    @Test
+    public void primitiveRoot() {
+      Throwable result = catchThrowable(() -> shredder.shred("22", Collections.emptyList()));
+
+      assertThat(result)
+          .isInstanceOf(ErrorCodeRuntimeException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID);
+    }
+
+    @Test
+    public void emptyObjectRoot() {
+      Throwable result = catchThrowable(() -> shredder.shred("{}", Collections.emptyList()));
+
+      assertThat(result)
+          .isInstanceOf(ErrorCodeRuntimeException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DOCS_API_PUT_PAYLOAD_INVALID);
+    }
+
+    @Test
+    public void emptyArrayWithPrependPath() throws JsonProcessingException {
+      List<JsonShreddedRow> result = shredder.shred("[]", Collections.singletonList("field"));
+
+      assertThat(result)
+          .singleElement()
+          .satisfies(
+              row -> {
+                assertThat(row.getPath()).containsExactly("field");
+                assertThat(row.getStringValue()).isEqualTo(Constants.EMPTY_ARRAY_MARKER);
+              });
+    }
+
+    @Test
+    public void withArrayOverflow() {
+      String payload = "{\"field\": [\"first\", \"second\", \"third\"]}";
+
+      Throwable result = catchThrowable(() -> shredder.shred(payload, Collections.emptyList()));
+
+      assertThat(result)
+          .isInstanceOf(ErrorCodeRuntimeException.class)
+          .hasFieldOrPropertyWithValue(
+              "errorCode", ErrorCode.DOCS_API_GENERAL_ARRAY_LENGTH_EXCEEDED);
+    }
+
+    @Test
+    public void withInvalidFields() {
+      String payload = "{\"period.\": \"text\"}";
+
+      Throwable result = catchThrowable(() -> shredder.shred(payload, Collections.emptyList()));
+
+      assertThat(result)
+          .isInstanceOf(ErrorCodeRuntimeException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DOCS_API_GENERAL_INVALID_FIELD_NAME);
+    }
+
+    @Test
+    public void maxDepthExceeded() {
+      String payload = "{\"a\": {\"b\": {\"c\": {\"d\": 1}}}}";
+
+      Throwable result = catchThrowable(() -> shredder.shred(payload, Collections.emptyList()));
+
+      assertThat(result)
+          .isInstanceOf(ErrorCodeRuntimeException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DOCS_API_GENERAL_DEPTH_EXCEEDED);
+    }
+
+    @Test
+    public void malformed() {
+      Throwable result =
+          catchThrowable(() -> shredder.shred("{\"field\": ", Collections.emptyList()));
+
+      assertThat(result).isInstanceOf(JsonProcessingException.class);
+    }
+  }
+
   @Nested
   class ShredFromPaths {
     @Test
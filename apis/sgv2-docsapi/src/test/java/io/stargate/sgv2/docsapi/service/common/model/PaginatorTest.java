@@ -0,0 +1,69 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.common.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PaginatorTest {
+
+  @Nested
+  class ExternalPagingState {
+
+    @Test
+    public void withoutPlan() {
+      // base64 of bytes 1, 2, 3
+      Paginator paginator = new Paginator("AQID", 10);
+
+      String external = paginator.makeExternalPagingState();
+      Paginator next = new Paginator(external, 10);
+
+      assertThat(external).doesNotContain(".");
+      assertThat(next.getPlan()).isNull();
+      assertThat(next.getCurrentDbPageState()).isEqualTo(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    public void withPlan() {
+      // base64 of bytes 1, 2, 3
+      Paginator paginator = new Paginator("AQID", 10);
+      paginator.setPlan(Map.of(7, 0.25, -11, 0.5));
+
+      String external = paginator.makeExternalPagingState();
+      Paginator next = new Paginator(external, 10);
+
+      assertThat(next.getPlan()).containsOnly(Map.entry(7, 0.25), Map.entry(-11, 0.5));
+      assertThat(next.getCurrentDbPageState()).isEqualTo(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+      assertThat(next.makeExternalPagingState()).isEqualTo(external);
+    }
+
+    @Test
+    public void emptyPlanNotKept() {
+      // base64 of bytes 1, 2, 3
+      Paginator paginator = new Paginator("AQID", 10);
+      paginator.setPlan(Map.of());
+
+      assertThat(paginator.getPlan()).isNull();
+      assertThat(paginator.makeExternalPagingState()).doesNotContain(".");
+    }
+  }
+}
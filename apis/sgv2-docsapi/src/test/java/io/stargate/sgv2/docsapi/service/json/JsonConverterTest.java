@@ -33,6 +33,7 @@ import io.stargate.sgv2.common.testprofiles.NoGlobalResourcesTestProfile;
 import io.stargate.sgv2.docsapi.config.constants.Constants;
 import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -374,6 +375,114 @@ public class JsonConverterTest {
         .isEqualTo(mapper.readTree("{\"a\":{\"b\":{\"c\":{}}}}").toString());
   }
 
+  @Test
+  public void convertToJsonDoc_narrowedPathColumns() throws JsonProcessingException {
+    List<ColumnSpec> columns =
+        columns().stream()
+            .filter(c -> !Set.of("p2", "p3", "p4", "p5").contains(c.getName()))
+            .collect(Collectors.toList());
+
+    Row.Builder data0 = Row.newBuilder();
+    data0.addValues(Value.newBuilder().setString("1").build());
+    data0.addValues(Value.newBuilder().setInt(0L).build());
+    data0.addValues(Value.newBuilder().setString("a").build());
+    data0.addValues(Value.newBuilder().setString("").build());
+    data0.addValues(Value.newBuilder().setString("a").build());
+    data0.addValues(Value.newBuilder().setNull(Value.Null.getDefaultInstance()).build());
+    data0.addValues(Value.newBuilder().setNull(Value.Null.getDefaultInstance()).build());
+    data0.addValues(Value.newBuilder().setString("abc").build());
+
+    Row.Builder data1 = Row.newBuilder();
+    data1.addValues(Value.newBuilder().setString("1").build());
+    data1.addValues(Value.newBuilder().setInt(0L).build());
+    data1.addValues(Value.newBuilder().setString("b").build());
+    data1.addValues(Value.newBuilder().setString("").build());
+    data1.addValues(Value.newBuilder().setString("b").build());
+    data1.addValues(Value.newBuilder().setDouble(1.23).build());
+    data1.addValues(Value.newBuilder().setNull(Value.Null.getDefaultInstance()).build());
+    data1.addValues(Value.newBuilder().setNull(Value.Null.getDefaultInstance()).build());
+
+    List<RowWrapper> rowWrappers =
+        createRowWrappers(List.of(data0.build(), data1.build()), columns);
+    JsonNode result = service.convertToJsonDoc(rowWrappers, false, false);
+
+    assertThat(result.toString())
+        .isEqualTo(mapper.readTree("{\"a\": \"abc\", \"b\": 1.23}").toString());
+  }
+
+  @Test
+  public void convertToStreamingJsonDoc_sameAsTree() throws JsonProcessingException {
+    List<RowWrapper> rowWrappers = createRowWrappers(sorted(makeInitialRowData(false)), columns());
+    DeadLeafCollectorImpl collector = new DeadLeafCollectorImpl();
+    JsonNode result = service.convertToStreamingJsonDoc(rowWrappers, collector, false);
+
+    assertThat(service.isStreamable(rowWrappers)).isTrue();
+    assertThat(mapper.writeValueAsString(result))
+        .isEqualTo(service.convertToJsonDoc(rowWrappers, false, false).toString())
+        .isEqualTo(
+            "{\"a\":{\"b\":{\"c\":true}},\"d\":{\"e\":[3]},\"f\":\"abc\",\"g\":{\"h\":\"something\"}}");
+    assertThat(collector.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void convertToStreamingJsonDoc_numericBools() throws JsonProcessingException {
+    List<RowWrapper> rowWrappers = createRowWrappers(sorted(makeInitialRowData(true)), columns());
+    JsonNode result =
+        service.convertToStreamingJsonDoc(rowWrappers, new DeadLeafCollectorImpl(), true);
+
+    assertThat(mapper.writeValueAsString(result))
+        .isEqualTo(service.convertToJsonDoc(rowWrappers, false, true).toString());
+  }
+
+  @Test
+  public void convertToStreamingJsonDoc_nested() throws JsonProcessingException {
+    List<RowWrapper> rowWrappers = createRowWrappers(sorted(makeInitialRowData(false)), columns());
+    ObjectNode docs = mapper.createObjectNode();
+    docs.set(
+        "1", service.convertToStreamingJsonDoc(rowWrappers, new NoOpDeadLeafCollector(), false));
+
+    JsonNode result = mapper.valueToTree(docs);
+
+    assertThat(result.get("1")).isEqualTo(service.convertToJsonDoc(rowWrappers, false, false));
+  }
+
+  @Test
+  public void convertToStreamingJsonDoc_fallbackOnDeadLeaves() throws JsonProcessingException {
+    List<Row> rows = makeInitialRowData(false);
+    rows.addAll(makeSecondRowData(false));
+    List<RowWrapper> rowWrappers = createRowWrappers(sorted(rows), columns());
+    DeadLeafCollectorImpl collector = new DeadLeafCollectorImpl();
+    JsonNode result = service.convertToStreamingJsonDoc(rowWrappers, collector, false);
+
+    assertThat(service.isStreamable(rowWrappers)).isFalse();
+    assertThat(result.toString())
+        .isEqualTo(
+            mapper
+                .readTree(
+                    "{\"a\":{\"b\":{\"c\":{\"d\":\"replaced\"}}},\"d\":{\"e\":{\"f\":{\"g\":\"replaced\"}}},\"f\":\"abc\",\"g\":{\"h\": [\"replaced\"]}}")
+                .toString());
+    assertThat(collector.getLeaves()).hasSize(3);
+  }
+
+  @Test
+  public void convertToStreamingJsonDoc_empty() throws JsonProcessingException {
+    JsonNode result =
+        service.convertToStreamingJsonDoc(new ArrayList<>(), new DeadLeafCollectorImpl(), false);
+
+    assertThat(mapper.writeValueAsString(result)).isEqualTo("{}");
+  }
+
+  private List<Row> sorted(List<Row> rows) {
+    int first = indexOfCol("p0");
+    Comparator<Row> comparator = Comparator.comparing(row -> row.getValues(first).getString());
+    for (int i = 1; i < 6; i++) {
+      int index = indexOfCol("p" + i);
+      comparator = comparator.thenComparing(row -> row.getValues(index).getString());
+    }
+    rows.sort(comparator);
+    return rows;
+  }
+
   public static List<Row> makeInitialRowData(boolean numericBooleans) {
     List<Row> rows = new ArrayList<>();
     Row.Builder data0 = Row.newBuilder();
@@ -18,10 +18,13 @@
 package io.stargate.sgv2.docsapi.service.query;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.bpodgursky.jbool_expressions.And;
 import com.bpodgursky.jbool_expressions.Expression;
 import com.bpodgursky.jbool_expressions.Literal;
+import com.google.common.collect.ImmutableMap;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import io.smallrye.mutiny.helpers.test.AssertSubscriber;
@@ -30,16 +33,22 @@ import io.stargate.bridge.grpc.Values;
 import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.sgv2.docsapi.DocsApiTestSchemaProvider;
 import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentTableProperties;
 import io.stargate.sgv2.docsapi.api.v2.model.dto.ExecutionProfile;
 import io.stargate.sgv2.docsapi.bridge.AbstractValidatingStargateBridgeTest;
 import io.stargate.sgv2.docsapi.bridge.ValidatingStargateBridge;
 import io.stargate.sgv2.docsapi.service.ExecutionContext;
 import io.stargate.sgv2.docsapi.service.common.model.Paginator;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.query.condition.BaseCondition;
 import io.stargate.sgv2.docsapi.service.query.condition.impl.ImmutableStringCondition;
 import io.stargate.sgv2.docsapi.service.query.filter.operation.impl.EqFilterOperation;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionDepthManager;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionStatistics;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionStatisticsManager;
 import io.stargate.sgv2.docsapi.testprofiles.MaxDepth4TestProfile;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -61,6 +70,10 @@ class ReadBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
 
   @Inject DocsApiTestSchemaProvider schemaProvider;
 
+  @Inject CollectionDepthManager depthManager;
+
+  @Inject CollectionStatisticsManager statisticsManager;
+
   @Nested
   class SearchDocuments {
 
@@ -977,6 +990,147 @@ class ReadBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
                         });
               });
     }
+
+    @Test
+    public void narrowedToKnownDepth() {
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      List<String> subPath = Collections.singletonList("field");
+      depthManager.getDepth(KEYSPACE_NAME, collection).await().indefinitely().record(2);
+
+      String cql =
+          "SELECT key, p0, p1, p2, leaf, text_value, dbl_value, bool_value, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND key = ? ALLOW FILTERING"
+              .formatted(KEYSPACE_NAME, collection);
+      ValidatingStargateBridge.QueryAssert cqlAssert =
+          withQuery(cql, Values.of("field"), Values.of(documentId))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .withResumeMode(QueryOuterClass.ResumeMode.NEXT_ROW)
+              .enriched()
+              .withColumnSpec(schemaProvider.allColumnSpecForPathDepth(3))
+              .returning(
+                  List.of(
+                      List.of(
+                          Values.of(documentId),
+                          Values.of("field"),
+                          Values.of("k1"),
+                          Values.of(""),
+                          Values.of("k1"),
+                          Values.of("v1"),
+                          Values.NULL,
+                          Values.NULL),
+                      List.of(
+                          Values.of(documentId),
+                          Values.of("field"),
+                          Values.of("k2"),
+                          Values.of(""),
+                          Values.of("k2"),
+                          Values.of("v2"),
+                          Values.NULL,
+                          Values.NULL)));
+
+      List<RawDocument> result =
+          service
+              .getDocument(KEYSPACE_NAME, collection, documentId, subPath, context)
+              .subscribe()
+              .withSubscriber(AssertSubscriber.create(100))
+              .awaitItems(1)
+              .awaitCompletion()
+              .assertCompleted()
+              .getItems();
+
+      // assert results
+      assertThat(result)
+          .singleElement()
+          .satisfies(
+              doc -> {
+                assertThat(doc.id()).isEqualTo(documentId);
+                assertThat(doc.rows()).hasSize(2);
+              });
+
+      // assert queries execution
+      cqlAssert.assertExecuteCount().isEqualTo(1);
+    }
+
+    @Test
+    public void deeperThanKnownDepth() {
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      List<String> subPath = Collections.singletonList("field");
+      depthManager.getDepth(KEYSPACE_NAME, collection).await().indefinitely().record(1);
+
+      String narrowedCql =
+          "SELECT key, p0, p1, leaf, text_value, dbl_value, bool_value, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND key = ? ALLOW FILTERING"
+              .formatted(KEYSPACE_NAME, collection);
+      ValidatingStargateBridge.QueryAssert narrowedAssert =
+          withQuery(narrowedCql, Values.of("field"), Values.of(documentId))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .withResumeMode(QueryOuterClass.ResumeMode.NEXT_ROW)
+              .enriched()
+              .withColumnSpec(schemaProvider.allColumnSpecForPathDepth(2))
+              .returning(
+                  List.of(
+                      List.of(
+                          Values.of(documentId),
+                          Values.of("field"),
+                          Values.of("k1"),
+                          Values.of("k2"),
+                          Values.of("v1"),
+                          Values.NULL,
+                          Values.NULL)));
+      String fullCql =
+          "SELECT key, p0, p1, p2, p3, leaf, text_value, dbl_value, bool_value, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND key = ? ALLOW FILTERING"
+              .formatted(KEYSPACE_NAME, collection);
+      ValidatingStargateBridge.QueryAssert fullAssert =
+          withQuery(fullCql, Values.of("field"), Values.of(documentId))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .withResumeMode(QueryOuterClass.ResumeMode.NEXT_ROW)
+              .enriched()
+              .withColumnSpec(schemaProvider.allColumnSpec())
+              .returning(
+                  List.of(
+                      List.of(
+                          Values.of(documentId),
+                          Values.of("field"),
+                          Values.of("k1"),
+                          Values.of("k2"),
+                          Values.of(""),
+                          Values.of("k2"),
+                          Values.of("v1"),
+                          Values.NULL,
+                          Values.NULL)));
+
+      List<RawDocument> result =
+          service
+              .getDocument(KEYSPACE_NAME, collection, documentId, subPath, context)
+              .subscribe()
+              .withSubscriber(AssertSubscriber.create(100))
+              .awaitItems(1)
+              .awaitCompletion()
+              .assertCompleted()
+              .getItems();
+
+      // assert results, read again with all the path columns
+      assertThat(result)
+          .singleElement()
+          .satisfies(
+              doc -> {
+                assertThat(doc.id()).isEqualTo(documentId);
+                assertThat(doc.rows())
+                    .singleElement()
+                    .satisfies(row -> assertThat(row.getString("p2")).isEqualTo("k2"));
+              });
+
+      // assert queries execution
+      narrowedAssert.assertExecuteCount().isEqualTo(1);
+      fullAssert.assertExecuteCount().isEqualTo(1);
+
+      // depth learned
+      int projectionDepth =
+          depthManager.getDepth(KEYSPACE_NAME, collection).await().indefinitely().projectionDepth();
+      assertThat(projectionDepth).isEqualTo(documentProperties.maxDepth());
+    }
   }
 
   @Nested
@@ -1032,6 +1186,100 @@ class ReadBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
     }
   }
 
+  @Nested
+  class GetDocumentWithTtlInfo {
+
+    @Test
+    public void happyPath() {
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+
+      String cql =
+          "SELECT key, p0, p1, p2, p3, leaf, text_value, dbl_value, bool_value, TTL(leaf), WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE key = ?"
+              .formatted(KEYSPACE_NAME, COLLECTION_NAME);
+      List<QueryOuterClass.ColumnSpec> columns = new ArrayList<>(schemaProvider.allColumnSpec());
+      columns.add(QueryOuterClass.ColumnSpec.newBuilder().setName("ttl(leaf)").build());
+      ValidatingStargateBridge.QueryAssert cqlAssert =
+          withQuery(cql, Values.of(documentId))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .withColumnSpec(columns)
+              .returning(
+                  List.of(
+                      List.of(
+                          Values.of(documentId),
+                          Values.of("field"),
+                          Values.of(""),
+                          Values.of(""),
+                          Values.of(""),
+                          Values.of("field"),
+                          Values.of("value"),
+                          Values.NULL,
+                          Values.NULL,
+                          Values.of(100)),
+                      List.of(
+                          Values.of(documentId),
+                          Values.of("other"),
+                          Values.of(""),
+                          Values.of(""),
+                          Values.of(""),
+                          Values.of("other"),
+                          Values.of("value"),
+                          Values.NULL,
+                          Values.NULL,
+                          Values.NULL)));
+
+      RawDocument result =
+          service
+              .getDocumentWithTtlInfo(
+                  KEYSPACE_NAME, COLLECTION_NAME, documentId, Collections.emptyList(), context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      // assert results
+      assertThat(result)
+          .satisfies(
+              doc -> {
+                assertThat(doc.id()).isEqualTo(documentId);
+                assertThat(doc.rows()).hasSize(2);
+                assertThat(doc.rows().get(0).getLong("ttl(leaf)")).isEqualTo(100L);
+                assertThat(doc.rows().get(1).isNull("ttl(leaf)")).isTrue();
+              });
+
+      // assert queries execution
+      cqlAssert.assertExecuteCount().isEqualTo(1);
+    }
+
+    @Test
+    public void notFound() {
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+
+      String cql =
+          "SELECT key, p0, p1, p2, p3, leaf, text_value, dbl_value, bool_value, TTL(leaf), WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE key = ?"
+              .formatted(KEYSPACE_NAME, COLLECTION_NAME);
+      ValidatingStargateBridge.QueryAssert cqlAssert =
+          withQuery(cql, Values.of(documentId))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .returningNothing();
+
+      RawDocument result =
+          service
+              .getDocumentWithTtlInfo(
+                  KEYSPACE_NAME, COLLECTION_NAME, documentId, Collections.emptyList(), context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result).isNull();
+      cqlAssert.assertExecuteCount().isEqualTo(1);
+    }
+  }
+
   @Nested
   class SelectivityHints {
 
@@ -1066,8 +1314,9 @@ class ReadBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
           .withColumnSpec(schemaProvider.allColumnSpec())
           .returning(Collections.singletonList(List.of(Values.of("1"))));
 
+      // candidates are filtered in batches
       String filterCql =
-          "SELECT key, leaf, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND p1 = ? AND leaf = ? AND p2 = ? AND text_value = ? AND key = ? LIMIT 1 ALLOW FILTERING"
+          "SELECT key, leaf, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND p1 = ? AND leaf = ? AND p2 = ? AND text_value = ? AND key IN ? PER PARTITION LIMIT 1 ALLOW FILTERING"
               .formatted(KEYSPACE_NAME, COLLECTION_NAME);
       withQuery(
               filterCql,
@@ -1076,7 +1325,8 @@ class ReadBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
               Values.of("field2"),
               Values.of(""),
               Values.of("find-me"),
-              Values.of("1"))
+              Values.of(List.of(Values.of("1"))))
+          .withPageSize(documentProperties.maxSearchPageSize())
           .withColumnSpec(schemaProvider.allColumnSpec())
           .returning(Collections.singletonList(List.of(Values.of("1"))));
 
@@ -1186,4 +1436,185 @@ class ReadBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
               });
     }
   }
+
+  @Nested
+  class StatisticsOrder {
+
+    @Test
+    public void predicateOrderFromStatistics() {
+      // own collection, so that other tests don't add to its statistics
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      FilterExpression status = eq(0, "active", "status");
+      FilterExpression code = eq(1, "code-3", "code");
+      Expression<FilterExpression> expression = And.of(status, code);
+
+      // without statistics the filters keep the user order
+      ExecutionContext context = search(collection, expression, status, code);
+      assertThat(context.toProfile().nested())
+          .element(0)
+          .satisfies(c -> assertThat(c.description()).isEqualTo("FILTER: status EQ active"));
+      resetExpectations();
+
+      // sample documents with unique codes and all with the same status
+      sample(collection, code);
+
+      // then the more selective filter on the code goes first
+      context = search(collection, expression, code, status);
+      assertThat(context.toProfile().nested())
+          .element(0)
+          .satisfies(c -> assertThat(c.description()).isEqualTo("FILTER: code EQ code-3"));
+      assertThat(context.toProfile().nested())
+          .element(1)
+          .satisfies(
+              c ->
+                  assertThat(c.nested())
+                      .singleElement()
+                      .satisfies(
+                          c1 ->
+                              assertThat(c1.description()).isEqualTo("FILTER: status EQ active")));
+    }
+
+    @Test
+    public void predicateOrderPinnedInPaginator() {
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      FilterExpression status = eq(0, "active", "status");
+      FilterExpression code = eq(1, "code-3", "code");
+      Expression<FilterExpression> expression = And.of(status, code);
+      sample(collection, code);
+
+      // the plan of the first page is kept
+      Paginator paginator = new Paginator(null, 20);
+      search(collection, paginator, expression, code, status);
+      assertThat(paginator.getPlan()).isNotEmpty();
+      resetExpectations();
+
+      // and replayed for the next page, even without the statistics
+      String otherCollection = RandomStringUtils.randomAlphanumeric(16);
+      Paginator nextPage = new Paginator(null, 20);
+      nextPage.setPlan(paginator.getPlan());
+      ExecutionContext context = search(otherCollection, nextPage, expression, code, status);
+      assertThat(context.toProfile().nested())
+          .element(0)
+          .satisfies(c -> assertThat(c.description()).isEqualTo("FILTER: code EQ code-3"));
+    }
+
+    // records documents with unique codes and all with the same status
+    void sample(String collection, FilterExpression code) {
+      CollectionStatistics statistics =
+          statisticsManager.getStatistics(KEYSPACE_NAME, collection).await().indefinitely();
+      for (int i = 0; statistics.estimateSelectivity(code).isEmpty(); i++) {
+        RawDocument document = mock(RawDocument.class);
+        when(document.rows())
+            .thenReturn(List.of(row("code-" + i, "code"), row("active", "status")));
+        statistics.record(document);
+      }
+    }
+
+    ExecutionContext search(
+        String collection,
+        Expression<FilterExpression> expression,
+        FilterExpression candidates,
+        FilterExpression filter) {
+      return search(collection, new Paginator(null, 20), expression, candidates, filter);
+    }
+
+    // expects the candidates from the first expression, filtered by the second one
+    ExecutionContext search(
+        String collection,
+        Paginator paginator,
+        Expression<FilterExpression> expression,
+        FilterExpression candidates,
+        FilterExpression filter) {
+      ExecutionContext context = ExecutionContext.create(true);
+
+      String candidatesField = candidates.getFilterPath().getField();
+      withQuery(
+              "SELECT key, leaf, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? ALLOW FILTERING"
+                  .formatted(KEYSPACE_NAME, collection),
+              Values.of(candidatesField),
+              Values.of(candidatesField),
+              Values.of(""),
+              Values.of(value(candidates)))
+          .withPageSize(paginator.docPageSize + 1)
+          .withResumeMode(QueryOuterClass.ResumeMode.NEXT_PARTITION)
+          .enriched()
+          .withColumnSpec(schemaProvider.allColumnSpec())
+          .returning(Collections.singletonList(List.of(Values.of("3"))));
+
+      String filterField = filter.getFilterPath().getField();
+      withQuery(
+              "SELECT key, leaf, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? AND key IN ? PER PARTITION LIMIT 1 ALLOW FILTERING"
+                  .formatted(KEYSPACE_NAME, collection),
+              Values.of(filterField),
+              Values.of(filterField),
+              Values.of(""),
+              Values.of(value(filter)),
+              Values.of(List.of(Values.of("3"))))
+          .withPageSize(documentProperties.maxSearchPageSize())
+          .withColumnSpec(schemaProvider.allColumnSpec())
+          .returning(Collections.singletonList(List.of(Values.of("3"))));
+
+      withQuery(
+              "SELECT key, p0, p1, p2, p3, leaf, text_value, dbl_value, bool_value, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE key = ?"
+                  .formatted(KEYSPACE_NAME, collection),
+              Values.of("3"))
+          .withPageSize(documentProperties.maxSearchPageSize())
+          .withColumnSpec(schemaProvider.allColumnSpec())
+          .returning(
+              Arrays.asList(
+                  List.of(
+                      Values.of("3"),
+                      Values.of("code"),
+                      Values.of(""),
+                      Values.of(""),
+                      Values.of(""),
+                      Values.of("code"),
+                      Values.of("code-3"),
+                      Values.NULL,
+                      Values.NULL),
+                  List.of(
+                      Values.of("3"),
+                      Values.of("status"),
+                      Values.of(""),
+                      Values.of(""),
+                      Values.of(""),
+                      Values.of("status"),
+                      Values.of("active"),
+                      Values.NULL,
+                      Values.NULL)));
+
+      service
+          .searchDocuments(KEYSPACE_NAME, collection, expression, paginator, context)
+          .subscribe()
+          .withSubscriber(AssertSubscriber.create(100))
+          .awaitItems(1)
+          .awaitCompletion()
+          .assertCompleted();
+      return context;
+    }
+
+    FilterExpression eq(int orderIndex, String value, String field) {
+      BaseCondition condition =
+          ImmutableStringCondition.of(EqFilterOperation.of(), value, documentProperties);
+      return FilterExpression.of(
+          ImmutableFilterPath.of(List.of(field)), condition, orderIndex, 1.0);
+    }
+
+    String value(FilterExpression expression) {
+      return (String) expression.getCondition().getQueryValue();
+    }
+
+    RowWrapper row(String value, String field) {
+      DocumentTableProperties tableProperties = documentProperties.tableProperties();
+      ImmutableMap.Builder<String, QueryOuterClass.Value> values = ImmutableMap.builder();
+      for (int i = 0; i < documentProperties.maxDepth(); i++) {
+        values.put(tableProperties.pathColumnName(i), Values.of(i == 0 ? field : ""));
+      }
+      values.put(tableProperties.leafColumnName(), Values.of(field));
+      values.put(tableProperties.stringValueColumnName(), Values.of(value));
+      values.put(tableProperties.doubleValueColumnName(), Values.NULL);
+      values.put(tableProperties.booleanValueColumnName(), Values.NULL);
+      return schemaProvider.getRow(values.build());
+    }
+  }
 }
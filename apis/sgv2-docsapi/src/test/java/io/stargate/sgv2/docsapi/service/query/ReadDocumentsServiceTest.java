@@ -26,7 +26,9 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.grpc.Metadata;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
@@ -81,6 +83,8 @@ class ReadDocumentsServiceTest {
 
   @Inject DocumentProperties documentProperties;
 
+  @Inject ObjectMapper objectMapper;
+
   @InjectMock ReadBridgeService readBridgeService;
 
   @InjectMock WriteBridgeService writeBridgeService;
@@ -277,6 +281,49 @@ class ReadDocumentsServiceTest {
       verifyNoMoreInteractions(readBridgeService, writeBridgeService);
     }
 
+    @Test
+    public void happyPathNoFieldsStreaming() throws JsonProcessingException {
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      Paginator paginator = new Paginator(null, 1);
+
+      String where = "{}";
+      byte[] pageState = RandomUtils.nextBytes(64);
+      Multi<RawDocument> docs = Multi.createFrom().item(rawDocument);
+
+      when(readBridgeService.searchDocuments(
+              eq(namespace), eq(collection), any(), eq(paginator), eq(context)))
+          .thenReturn(docs);
+
+      QueryOuterClass.Row row = rowFor(documentId, "value", "otherField");
+      RowWrapper rowWrapper = wrapperFunction.apply(row);
+      when(rawDocument.id()).thenReturn(documentId);
+      when(rawDocument.rows()).thenReturn(Collections.singletonList(rowWrapper));
+      when(rawDocument.makePagingState()).thenReturn(ByteBuffer.wrap(pageState));
+
+      DocumentResponseWrapper<? extends JsonNode> wrapper =
+          service
+              .findDocuments(namespace, collection, where, null, paginator, context, true)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(wrapper.documentId()).isNull();
+      assertThat(objectMapper.writeValueAsString(wrapper.data()))
+          .isEqualTo("{\"%s\":{\"otherField\":\"value\"}}".formatted(documentId));
+      assertThat(wrapper.profile()).isEqualTo(context.toProfile());
+      assertThat(ByteBufferUtils.fromBase64UrlParam(wrapper.pageState()).array())
+          .isEqualTo(pageState);
+
+      verify(readBridgeService)
+          .searchDocuments(eq(namespace), eq(collection), any(), eq(paginator), eq(context));
+      verifyNoMoreInteractions(readBridgeService, writeBridgeService);
+    }
+
     @Test
     public void paginatorExhausted() {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
@@ -452,6 +499,54 @@ class ReadDocumentsServiceTest {
       assertThat(wrapper.pageState()).isNull();
     }
 
+    @Test
+    public void streaming() throws JsonProcessingException {
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+
+      Multi<RawDocument> docs = Multi.createFrom().items(rawDocument);
+
+      when(readBridgeService.getDocument(
+              eq(namespace),
+              eq(collection),
+              eq(documentId),
+              eq(Collections.emptyList()),
+              eq(context)))
+          .thenReturn(docs);
+
+      QueryOuterClass.Row row = rowFor(documentId, "value", "prePath", "myField");
+      RowWrapper rowWrapper = wrapperFunction.apply(row);
+      when(rawDocument.id()).thenReturn(documentId);
+      when(rawDocument.rows()).thenReturn(Collections.singletonList(rowWrapper));
+
+      DocumentResponseWrapper<? extends JsonNode> wrapper =
+          service
+              .getDocument(
+                  namespace, collection, documentId, Collections.emptyList(), null, context, true)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(wrapper.documentId()).isEqualTo(documentId);
+      assertThat(objectMapper.writeValueAsString(wrapper.data()))
+          .isEqualTo("{\"prePath\":{\"myField\":\"value\"}}");
+      assertThat(wrapper.profile()).isEqualTo(context.toProfile());
+      assertThat(wrapper.pageState()).isNull();
+
+      verify(readBridgeService)
+          .getDocument(
+              eq(namespace),
+              eq(collection),
+              eq(documentId),
+              eq(Collections.emptyList()),
+              eq(context));
+      verifyNoMoreInteractions(readBridgeService, writeBridgeService);
+    }
+
     @Test
     public void withPrePath() {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
@@ -0,0 +1,204 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.stargate.sgv2.docsapi.service.query.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class OrderedMergePublisherTest {
+
+  <T> AssertSubscriber<T> merge(
+      List<Multi<T>> sources, Comparator<T> comparator, int prefetch, int concurrency) {
+    OrderedMergePublisher<T> publisher =
+        new OrderedMergePublisher<>(sources, comparator, prefetch, concurrency);
+
+    return Multi.createFrom()
+        .publisher(publisher)
+        .subscribe()
+        .withSubscriber(AssertSubscriber.create());
+  }
+
+  @Nested
+  class Merge {
+
+    @Test
+    public void ordered() {
+      List<Multi<Integer>> sources =
+          List.of(
+              Multi.createFrom().items(1, 4, 7),
+              Multi.createFrom().items(2, 5, 8, 9),
+              Multi.createFrom().items(3, 6));
+
+      AssertSubscriber<Integer> subscriber =
+          merge(sources, Comparator.naturalOrder(), 1, 16).request(Long.MAX_VALUE);
+
+      subscriber.assertCompleted().assertItems(1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void equalItemsInSourceOrder() {
+      // compare only the keys
+      List<Multi<Map.Entry<Integer, String>>> sources =
+          List.of(
+              Multi.createFrom().items(Map.entry(1, "a1"), Map.entry(2, "a2")),
+              Multi.createFrom().items(Map.entry(1, "b1"), Map.entry(3, "b3")),
+              Multi.createFrom().items(Map.entry(1, "c1"), Map.entry(2, "c2")));
+
+      AssertSubscriber<Map.Entry<Integer, String>> subscriber =
+          merge(sources, Map.Entry.comparingByKey(), 2, 16).request(Long.MAX_VALUE);
+
+      subscriber.assertCompleted();
+      assertThat(subscriber.getItems())
+          .extracting(Map.Entry::getValue)
+          .containsExactly("a1", "b1", "c1", "a2", "c2", "b3");
+    }
+
+    @Test
+    public void emptySources() {
+      List<Multi<Integer>> sources =
+          List.of(
+              Multi.createFrom().empty(), Multi.createFrom().items(1), Multi.createFrom().empty());
+
+      AssertSubscriber<Integer> subscriber =
+          merge(sources, Comparator.naturalOrder(), 1, 16).request(Long.MAX_VALUE);
+
+      subscriber.assertCompleted().assertItems(1);
+    }
+
+    @Test
+    public void respectsDemand() {
+      List<Multi<Integer>> sources =
+          List.of(Multi.createFrom().items(1, 3), Multi.createFrom().items(2, 4));
+
+      AssertSubscriber<Integer> subscriber = merge(sources, Comparator.naturalOrder(), 1, 16);
+
+      subscriber.request(3);
+      subscriber.assertItems(1, 2, 3).assertNotTerminated();
+
+      subscriber.request(1);
+      subscriber.assertCompleted().assertItems(1, 2, 3, 4);
+    }
+  }
+
+  @Nested
+  class Prefetch {
+
+    @Test
+    public void requestsAheadFromEachSource() {
+      AtomicInteger requested1 = new AtomicInteger();
+      AtomicInteger requested2 = new AtomicInteger();
+      List<Multi<Integer>> sources =
+          List.of(
+              Multi.createFrom()
+                  .range(0, 100)
+                  .onRequest()
+                  .invoke(n -> requested1.addAndGet(Math.toIntExact(n))),
+              Multi.createFrom()
+                  .range(100, 200)
+                  .onRequest()
+                  .invoke(n -> requested2.addAndGet(Math.toIntExact(n))));
+
+      AssertSubscriber<Integer> subscriber = merge(sources, Comparator.naturalOrder(), 8, 16);
+      subscriber.request(1);
+
+      // all sources are started right away, with the full prefetch
+      subscriber.assertItems(0);
+      assertThat(requested1.get()).isEqualTo(8);
+      assertThat(requested2.get()).isEqualTo(8);
+
+      // replenished in batches of three quarters of the prefetch
+      subscriber.request(5);
+      assertThat(requested1.get()).isEqualTo(14);
+      assertThat(requested2.get()).isEqualTo(8);
+    }
+  }
+
+  @Nested
+  class Concurrency {
+
+    @Test
+    public void limitsSourcesAwaitingFirstItem() {
+      UnicastProcessor<Integer> source1 = UnicastProcessor.create();
+      UnicastProcessor<Integer> source2 = UnicastProcessor.create();
+      AtomicInteger subscribed3 = new AtomicInteger();
+      Multi<Integer> source3 =
+          Multi.createFrom().items(3).onSubscription().invoke(s -> subscribed3.incrementAndGet());
+
+      List<Multi<Integer>> sources = List.of(source1, source2, source3);
+
+      AssertSubscriber<Integer> subscriber = merge(sources, Comparator.naturalOrder(), 4, 2);
+      subscriber.request(Long.MAX_VALUE);
+      assertThat(subscribed3.get()).isZero();
+
+      // once a source delivers, the next one is subscribed
+      source1.onNext(1);
+      assertThat(subscribed3.get()).isEqualTo(1);
+      subscriber.assertHasNotReceivedAnyItem();
+
+      source2.onNext(2);
+      source1.onComplete();
+      source2.onComplete();
+      subscriber.assertCompleted().assertItems(1, 2, 3);
+    }
+  }
+
+  @Nested
+  class Termination {
+
+    @Test
+    public void sourceFailure() {
+      UnicastProcessor<Integer> source = UnicastProcessor.create();
+      AtomicInteger cancelled = new AtomicInteger();
+      List<Multi<Integer>> sources =
+          List.of(
+              source.onCancellation().invoke(cancelled::incrementAndGet),
+              Multi.createFrom().failure(new IllegalStateException("Query failed.")));
+
+      AssertSubscriber<Integer> subscriber =
+          merge(sources, Comparator.naturalOrder(), 1, 16).request(Long.MAX_VALUE);
+
+      subscriber.assertFailedWith(IllegalStateException.class, "Query failed.");
+      assertThat(cancelled.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancelled() {
+      UnicastProcessor<Integer> source = UnicastProcessor.create();
+      AtomicInteger cancelled = new AtomicInteger();
+      List<Multi<Integer>> sources =
+          List.of(
+              source.onCancellation().invoke(cancelled::incrementAndGet),
+              Multi.createFrom().items(1, 2));
+
+      AssertSubscriber<Integer> subscriber =
+          merge(sources, Comparator.naturalOrder(), 1, 16).request(Long.MAX_VALUE);
+      subscriber.cancel();
+
+      assertThat(cancelled.get()).isEqualTo(1);
+      subscriber.assertHasNotReceivedAnyItem().assertNotTerminated();
+    }
+  }
+}
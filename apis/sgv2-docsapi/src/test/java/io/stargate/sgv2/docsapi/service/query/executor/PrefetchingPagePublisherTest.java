@@ -0,0 +1,208 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.stargate.sgv2.docsapi.service.query.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.BytesValue;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.stargate.bridge.proto.QueryOuterClass;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingPagePublisherTest {
+
+  // emitters of the fetched pages, completed manually
+  List<UniEmitter<? super QueryOuterClass.ResultSet>> fetches = new ArrayList<>();
+
+  AtomicInteger terminatedFetches = new AtomicInteger();
+
+  AssertSubscriber<QueryOuterClass.ResultSet> subscribe(int maxPages, long maxBytes) {
+    PrefetchingPagePublisher publisher =
+        new PrefetchingPagePublisher(
+            ImmutableQueryState.of(10, null),
+            state ->
+                Uni.createFrom()
+                    .emitter(
+                        emitter -> {
+                          emitter.onTermination(terminatedFetches::incrementAndGet);
+                          fetches.add(emitter);
+                        }),
+            (state, rs) -> ImmutableQueryState.of(state.pageSize(), rs.getPagingState()),
+            maxPages,
+            maxBytes);
+
+    return Multi.createFrom()
+        .publisher(publisher)
+        .subscribe()
+        .withSubscriber(AssertSubscriber.create());
+  }
+
+  QueryOuterClass.ResultSet page(boolean hasMore) {
+    QueryOuterClass.ResultSet.Builder builder = QueryOuterClass.ResultSet.newBuilder();
+    if (hasMore) {
+      builder.setPagingState(BytesValue.newBuilder().build());
+    }
+    return builder.build();
+  }
+
+  void completeFetch(int index, boolean hasMore) {
+    fetches.get(index).complete(page(hasMore));
+  }
+
+  @Nested
+  class Prefetching {
+
+    @Test
+    public void firstPageOnly() {
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(4, Long.MAX_VALUE);
+
+      subscriber.request(1);
+      assertThat(fetches).hasSize(1);
+      completeFetch(0, true);
+
+      // nothing is fetched ahead before the consumer waits for a page
+      subscriber.assertItems(page(true)).assertNotTerminated();
+      assertThat(fetches).hasSize(1);
+    }
+
+    @Test
+    public void growsWhenConsumerWaits() {
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(4, Long.MAX_VALUE);
+
+      subscriber.request(1);
+      completeFetch(0, true);
+
+      // consumer waits for the second page, so the third one is fetched ahead
+      subscriber.request(1);
+      assertThat(fetches).hasSize(2);
+      completeFetch(1, true);
+      assertThat(subscriber.getItems()).hasSize(2);
+      assertThat(fetches).hasSize(3);
+      completeFetch(2, true);
+      assertThat(fetches).hasSize(3);
+
+      // third page is ready, consumer waits for the fourth, so two pages are fetched ahead now
+      subscriber.request(2);
+      assertThat(subscriber.getItems()).hasSize(3);
+      assertThat(fetches).hasSize(4);
+      completeFetch(3, true);
+      assertThat(subscriber.getItems()).hasSize(4);
+      assertThat(fetches).hasSize(5);
+      completeFetch(4, true);
+      assertThat(fetches).hasSize(6);
+      completeFetch(5, false);
+
+      // last page is never fetched past
+      subscriber.request(Long.MAX_VALUE);
+      subscriber.assertCompleted();
+      assertThat(subscriber.getItems()).hasSize(6);
+      assertThat(fetches).hasSize(6);
+    }
+
+    @Test
+    public void disabled() {
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(0, Long.MAX_VALUE);
+
+      subscriber.request(1);
+      completeFetch(0, true);
+      subscriber.request(1);
+      completeFetch(1, true);
+
+      assertThat(subscriber.getItems()).hasSize(2);
+      assertThat(fetches).hasSize(2);
+    }
+
+    @Test
+    public void bytesLimit() {
+      // any page is over the limit
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(4, 1);
+
+      subscriber.request(1);
+      completeFetch(0, true);
+      subscriber.request(1);
+      completeFetch(1, true);
+      completeFetch(2, true);
+      subscriber.request(2);
+      completeFetch(3, true);
+
+      // lookahead is two pages, but the fifth page is over the limit, so no sixth page
+      assertThat(fetches).hasSize(5);
+      completeFetch(4, true);
+      assertThat(fetches).hasSize(5);
+
+      // once consumed, fetching ahead continues
+      subscriber.request(1);
+      assertThat(subscriber.getItems()).hasSize(5);
+      assertThat(fetches).hasSize(6);
+    }
+  }
+
+  @Nested
+  class Termination {
+
+    @Test
+    public void completed() {
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(4, Long.MAX_VALUE);
+
+      subscriber.request(Long.MAX_VALUE);
+      completeFetch(0, true);
+      completeFetch(1, false);
+
+      subscriber.assertCompleted().assertItems(page(true), page(false));
+      assertThat(fetches).hasSize(2);
+    }
+
+    @Test
+    public void failed() {
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(4, Long.MAX_VALUE);
+
+      subscriber.request(Long.MAX_VALUE);
+      completeFetch(0, true);
+      fetches.get(1).fail(new IllegalStateException("Bridge failed."));
+
+      subscriber.assertFailedWith(IllegalStateException.class, "Bridge failed.");
+      assertThat(subscriber.getItems()).hasSize(1);
+      assertThat(fetches).hasSize(2);
+    }
+
+    @Test
+    public void cancelled() {
+      AssertSubscriber<QueryOuterClass.ResultSet> subscriber = subscribe(4, Long.MAX_VALUE);
+
+      subscriber.request(1);
+      completeFetch(0, true);
+      subscriber.request(1);
+      assertThat(fetches).hasSize(2);
+
+      // first fetch completed, in-flight one is cancelled and never emitted
+      subscriber.cancel();
+      assertThat(terminatedFetches.get()).isEqualTo(2);
+      completeFetch(1, true);
+
+      subscriber.assertNotTerminated();
+      assertThat(subscriber.getItems()).hasSize(1);
+      assertThat(fetches).hasSize(2);
+    }
+  }
+}
@@ -282,9 +282,10 @@ class QueryExecutorTest extends AbstractValidatingStargateBridgeTest {
       // request one more, total requested here == pageSize - 1
       // One more row is requested from upstream to detect doc boundaries, which ends page 1
       // and causes page 2 to be executed
+      // as the consumer had to wait for page 2, page 3 is prefetched right after
       lastItem = assertSubscriber.awaitNextItems(1).getLastItem();
       assertThat(lastItem.id()).isEqualTo(String.valueOf(pageSize - 2));
-      queryAssert.assertExecuteCount().isEqualTo(2);
+      queryAssert.assertExecuteCount().isEqualTo(3);
     }
 
     @ParameterizedTest
@@ -33,6 +33,7 @@ import io.stargate.sgv2.docsapi.service.query.condition.BaseCondition;
 import io.stargate.sgv2.docsapi.testprofiles.MaxDepth4TestProfile;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import javax.inject.Inject;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -111,4 +112,59 @@ class DocumentsSearchQueryBuilderTest {
           .containsExactly(Values.of("field"), Values.of("field"), Values.of(""), documentIdValue);
     }
   }
+
+  @Nested
+  class BuildBatchQuery {
+
+    @Mock BaseCondition condition;
+
+    @BeforeEach
+    public void init() {
+      MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void happyPath() {
+      QueryOuterClass.Value documentIdsValue = Values.of(List.of(Values.of("1"), Values.of("2")));
+      FilterPath filterPath = ImmutableFilterPath.of(Collections.singletonList("field"));
+      when(filterExpression.getFilterPath()).thenReturn(filterPath);
+      when(filterExpression.getCondition()).thenReturn(condition);
+      when(condition.getBuiltCondition()).thenReturn(Optional.empty());
+
+      FilterExpressionSearchQueryBuilder builder =
+          new DocumentBatchSearchQueryBuilder(
+              documentProperties, Collections.singletonList(filterExpression));
+      QueryOuterClass.Query query =
+          builder.bindWithValues(
+              builder.buildQuery(KEYSPACE_NAME, COLLECTION_NAME), documentIdsValue);
+
+      String expected =
+          String.format(
+              "SELECT WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND leaf = ? AND p1 = ? AND key IN ? PER PARTITION LIMIT 1 ALLOW FILTERING",
+              KEYSPACE_NAME, COLLECTION_NAME);
+      assertThat(query.getCql()).isEqualTo(expected);
+      assertThat(query.getValues().getValuesList())
+          .containsExactly(Values.of("field"), Values.of("field"), Values.of(""), documentIdsValue);
+    }
+
+    @Test
+    public void globPath() {
+      FilterPath filterPath = ImmutableFilterPath.of(Arrays.asList("*", "field"));
+      when(filterExpression.getFilterPath()).thenReturn(filterPath);
+      when(filterExpression.getCondition()).thenReturn(condition);
+      when(condition.getBuiltCondition()).thenReturn(Optional.empty());
+
+      FilterExpressionSearchQueryBuilder builder =
+          new DocumentBatchSearchQueryBuilder(
+              documentProperties, Collections.singletonList(filterExpression));
+      QueryOuterClass.Query query = builder.buildQuery(KEYSPACE_NAME, COLLECTION_NAME);
+
+      // all rows of each document are needed
+      String expected =
+          String.format(
+              "SELECT WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 > ? AND p1 = ? AND leaf = ? AND p2 = ? AND key IN ? ALLOW FILTERING",
+              KEYSPACE_NAME, COLLECTION_NAME);
+      assertThat(query.getCql()).isEqualTo(expected);
+    }
+  }
 }
@@ -189,6 +189,8 @@ class InMemoryCandidatesFilterTest extends AbstractValidatingStargateBridgeTest
 
     @Mock RawDocument rawDocument;
 
+    @Mock RawDocument rawDocument2;
+
     @Mock BaseCondition baseCondition;
 
     @Mock FilterExpression filterExpression;
@@ -265,6 +267,55 @@ class InMemoryCandidatesFilterTest extends AbstractValidatingStargateBridgeTest
                           }));
     }
 
+    @Test
+    public void fixedPathBatch() {
+      // fixed path has per partition limit on the batch query
+      FilterPath filterPath = ImmutableFilterPath.of(Collections.singleton("field"));
+      when(filterExpression.getFilterPath()).thenReturn(filterPath);
+      when(filterExpression.getCondition()).thenReturn(baseCondition);
+      when(filterExpression.getDescription()).thenReturn("field EQ something");
+      when(filterExpression.test(anyList())).thenReturn(true);
+      when(rawDocument.id()).thenReturn("1");
+      when(rawDocument2.id()).thenReturn("2");
+
+      ValidatingStargateBridge.QueryAssert queryAssert =
+          withQuery(
+                  "SELECT key, p0, p1, leaf, text_value, dbl_value, bool_value, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND leaf = ? AND p1 = ? AND key IN ? PER PARTITION LIMIT 1 ALLOW FILTERING"
+                      .formatted(KEYSPACE_NAME, COLLECTION_NAME),
+                  Values.of("field"),
+                  Values.of("field"),
+                  Values.of(""),
+                  Values.of(List.of(Values.of("1"), Values.of("2"))))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .withColumnSpec(schemaProvider.allColumnSpec())
+              .returning(List.of(List.of(Values.of("1"))));
+
+      CandidatesFilter filter =
+          InMemoryCandidatesFilter.forExpression(filterExpression, documentProperties)
+              .apply(executionContext);
+      filter
+          .prepareBatchQuery(KEYSPACE_NAME, COLLECTION_NAME)
+          .flatMap(
+              query ->
+                  filter.bindAndFilter(queryExecutor, query, List.of(rawDocument, rawDocument2)))
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitItem()
+          .assertItem(List.of(true, false))
+          .assertCompleted();
+
+      // single query for both documents, only the first one has rows to test
+      queryAssert.assertExecuteCount().isEqualTo(1);
+      verify(filterExpression, times(1)).test(testRowsCaptor.capture());
+      assertThat(testRowsCaptor.getAllValues())
+          .singleElement()
+          .satisfies(
+              rows ->
+                  assertThat(rows)
+                      .singleElement()
+                      .satisfies(r -> assertThat(r.getString("key")).isEqualTo("1")));
+    }
+
     @Test
     public void globPathMultipleExpressions() {
       // glob path has no limits and glob px has GT as condition
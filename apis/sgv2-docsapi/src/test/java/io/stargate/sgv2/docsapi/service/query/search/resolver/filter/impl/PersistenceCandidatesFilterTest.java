@@ -190,6 +190,8 @@ class PersistenceCandidatesFilterTest extends AbstractValidatingStargateBridgeTe
 
     @Mock RawDocument rawDocument;
 
+    @Mock RawDocument rawDocument2;
+
     @Mock FilterExpression filterExpression;
 
     @Mock FilterExpression filterExpression2;
@@ -251,6 +253,62 @@ class PersistenceCandidatesFilterTest extends AbstractValidatingStargateBridgeTe
       verifyNoMoreInteractions(rawDocument);
     }
 
+    @Test
+    public void fixedPathBatch() {
+      // fixed path has per partition limit on the batch query
+      FilterPath filterPath = ImmutableFilterPath.of(Collections.singleton("field"));
+      BaseCondition condition =
+          ImmutableStringCondition.of(EqFilterOperation.of(), "query-value", documentProperties);
+      when(filterExpression.getFilterPath()).thenReturn(filterPath);
+      when(filterExpression.getCondition()).thenReturn(condition);
+      when(filterExpression.getDescription()).thenReturn("field EQ something");
+      when(rawDocument.id()).thenReturn("1");
+      when(rawDocument2.id()).thenReturn("2");
+
+      ValidatingStargateBridge.QueryAssert queryAssert =
+          withQuery(
+                  "SELECT key, leaf, WRITETIME(leaf) FROM \"%s\".\"%s\" WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? AND key IN ? PER PARTITION LIMIT 1 ALLOW FILTERING"
+                      .formatted(KEYSPACE_NAME, COLLECTION_NAME),
+                  Values.of("field"),
+                  Values.of("field"),
+                  Values.of(""),
+                  Values.of("query-value"),
+                  Values.of(List.of(Values.of("1"), Values.of("2"))))
+              .withPageSize(documentProperties.maxSearchPageSize())
+              .withColumnSpec(schemaProvider.allColumnSpec())
+              .returning(List.of(List.of(Values.of("2"))));
+
+      CandidatesFilter filter =
+          PersistenceCandidatesFilter.forExpression(filterExpression, documentProperties)
+              .apply(executionContext);
+      filter
+          .prepareBatchQuery(KEYSPACE_NAME, COLLECTION_NAME)
+          .flatMap(
+              query ->
+                  filter.bindAndFilter(queryExecutor, query, List.of(rawDocument, rawDocument2)))
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitItem()
+          .assertItem(List.of(false, true))
+          .assertCompleted();
+
+      // single query for both documents
+      queryAssert.assertExecuteCount().isEqualTo(1);
+      assertThat(executionContext.toProfile().nested())
+          .singleElement()
+          .satisfies(
+              nested -> {
+                assertThat(nested.description()).isEqualTo("FILTER: field EQ something");
+                assertThat(nested.queries())
+                    .singleElement()
+                    .satisfies(
+                        queryInfo -> {
+                          assertThat(queryInfo.executionCount()).isEqualTo(1);
+                          assertThat(queryInfo.rowCount()).isEqualTo(1);
+                        });
+              });
+    }
+
     @Test
     public void globPathMultipleExpressions() {
       // glob path has no limits and glob px has GT as condition
@@ -40,6 +40,8 @@ import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.DocumentsResolver;
 import io.stargate.sgv2.docsapi.service.query.search.resolver.filter.CandidatesFilter;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import javax.inject.Inject;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -249,4 +251,129 @@ class AnyFiltersResolverTest extends AbstractValidatingStargateBridgeTest {
       verifyNoMoreInteractions(candidatesFilter, candidatesFilter2);
     }
   }
+
+  @Nested
+  class GetDocumentsBatched implements OpenMocksTest {
+
+    @Mock CandidatesFilter candidatesFilter;
+
+    @Mock CandidatesFilter candidatesFilter2;
+
+    @Mock RawDocument rawDocument;
+
+    @Mock RawDocument rawDocument2;
+
+    @Mock RawDocument rawDocument3;
+
+    Uni<QueryOuterClass.Query> query1;
+
+    Uni<QueryOuterClass.Query> query2;
+
+    @BeforeEach
+    public void initQueries() {
+      query1 =
+          Uni.createFrom()
+              .item(
+                  () ->
+                      new QueryBuilder()
+                          .select()
+                          .column("text_value")
+                          .from(COLLECTION_NAME)
+                          .build())
+              .memoize()
+              .indefinitely();
+
+      query2 =
+          Uni.createFrom()
+              .item(
+                  () ->
+                      new QueryBuilder().select().column("dbl_value").from(COLLECTION_NAME).build())
+              .memoize()
+              .indefinitely();
+    }
+
+    @Test
+    public void multipleDocumentsPerBatch() {
+      withAnySelectFrom(KEYSPACE_NAME, COLLECTION_NAME).returningNothing();
+      QueryOuterClass.Query query1Final = query1.await().indefinitely();
+      QueryOuterClass.Query query2Final = query2.await().indefinitely();
+      List<RawDocument> batch1 = Arrays.asList(rawDocument, rawDocument2);
+      List<RawDocument> batch2 = Collections.singletonList(rawDocument3);
+
+      doAnswer(i -> query1)
+          .when(candidatesFilter)
+          .prepareBatchQuery(KEYSPACE_NAME, COLLECTION_NAME);
+      doAnswer(i -> query2)
+          .when(candidatesFilter2)
+          .prepareBatchQuery(KEYSPACE_NAME, COLLECTION_NAME);
+      // first batch matches partially, second one not at all
+      doAnswer(i -> Uni.createFrom().item(Arrays.asList(false, true)))
+          .when(candidatesFilter)
+          .bindAndFilter(queryExecutor, query1Final, batch1);
+      doAnswer(i -> Uni.createFrom().item(Arrays.asList(false, false)))
+          .when(candidatesFilter2)
+          .bindAndFilter(queryExecutor, query2Final, batch1);
+      doAnswer(i -> Uni.createFrom().item(Collections.singletonList(false)))
+          .when(candidatesFilter)
+          .bindAndFilter(queryExecutor, query1Final, batch2);
+      doAnswer(i -> Uni.createFrom().item(Collections.singletonList(false)))
+          .when(candidatesFilter2)
+          .bindAndFilter(queryExecutor, query2Final, batch2);
+      DocumentsResolver candidatesResolver =
+          (queryExecutor1, keyspace, collection, paginator) ->
+              Multi.createFrom().items(rawDocument, rawDocument2, rawDocument3);
+
+      DocumentsResolver resolver =
+          new AnyFiltersResolver(
+              Arrays.asList((c) -> candidatesFilter, (c) -> candidatesFilter2),
+              executionContext,
+              candidatesResolver,
+              2);
+
+      resolver
+          .getDocuments(queryExecutor, KEYSPACE_NAME, COLLECTION_NAME, new Paginator(null, 1))
+          .subscribe()
+          .withSubscriber(AssertSubscriber.create(3))
+          .awaitCompletion()
+          .assertCompleted()
+          .assertItems(rawDocument2);
+
+      resetExpectations();
+
+      verify(candidatesFilter).prepareBatchQuery(KEYSPACE_NAME, COLLECTION_NAME);
+      verify(candidatesFilter2).prepareBatchQuery(KEYSPACE_NAME, COLLECTION_NAME);
+      verify(candidatesFilter).bindAndFilter(queryExecutor, query1Final, batch1);
+      verify(candidatesFilter2).bindAndFilter(queryExecutor, query2Final, batch1);
+      verify(candidatesFilter).bindAndFilter(queryExecutor, query1Final, batch2);
+      verify(candidatesFilter2).bindAndFilter(queryExecutor, query2Final, batch2);
+      verifyNoMoreInteractions(candidatesFilter, candidatesFilter2);
+    }
+
+    @Test
+    public void noCandidates() {
+      withAnySelectFrom(KEYSPACE_NAME, COLLECTION_NAME).returningNothing();
+
+      DocumentsResolver candidatesResolver =
+          (queryExecutor1, keyspace, collection, paginator) -> Multi.createFrom().empty();
+
+      DocumentsResolver resolver =
+          new AnyFiltersResolver(
+              Arrays.asList((c) -> candidatesFilter, (c) -> candidatesFilter2),
+              executionContext,
+              candidatesResolver,
+              2);
+
+      resolver
+          .getDocuments(queryExecutor, KEYSPACE_NAME, COLLECTION_NAME, new Paginator(null, 1))
+          .subscribe()
+          .withSubscriber(AssertSubscriber.create(1))
+          .awaitCompletion()
+          .assertCompleted()
+          .assertHasNotReceivedAnyItem();
+
+      resetExpectations();
+      // no batch, so no queries
+      verifyNoMoreInteractions(candidatesFilter, candidatesFilter2);
+    }
+  }
 }
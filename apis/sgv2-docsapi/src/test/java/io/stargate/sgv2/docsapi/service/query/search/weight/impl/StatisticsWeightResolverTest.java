@@ -0,0 +1,163 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.search.weight.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.stargate.sgv2.docsapi.service.query.FilterExpression;
+import io.stargate.sgv2.docsapi.service.query.condition.BaseCondition;
+import io.stargate.sgv2.docsapi.service.query.statistics.CollectionStatistics;
+import java.util.List;
+import java.util.OptionalDouble;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class StatisticsWeightResolverTest {
+
+  @Nested
+  class Compare {
+
+    @Mock CollectionStatistics statistics;
+
+    @Mock FilterExpression e1;
+
+    @Mock FilterExpression e2;
+
+    @Mock BaseCondition condition1;
+
+    @Mock BaseCondition condition2;
+
+    StatisticsWeightResolver resolver;
+
+    @BeforeEach
+    public void init() {
+      MockitoAnnotations.openMocks(this);
+      resolver = new StatisticsWeightResolver(statistics);
+      lenient().when(e1.getCondition()).thenReturn(condition1);
+      lenient().when(e2.getCondition()).thenReturn(condition2);
+      lenient().when(e1.getSelectivity()).thenReturn(1.0);
+      lenient().when(e2.getSelectivity()).thenReturn(1.0);
+      lenient().when(e1.getOrderIndex()).thenReturn(0);
+      lenient().when(e2.getOrderIndex()).thenReturn(1);
+      lenient().when(e1.getDescription()).thenReturn("e1");
+      lenient().when(e2.getDescription()).thenReturn("e2");
+    }
+
+    @Test
+    public void mostSelectiveFirst() {
+      when(statistics.estimateSelectivity(e1)).thenReturn(OptionalDouble.of(0.9));
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.of(0.01));
+
+      FilterExpression result = resolver.single().apply(e1, e2);
+      FilterExpression resultReversed = resolver.single().apply(e2, e1);
+
+      assertThat(result).isEqualTo(e2);
+      assertThat(resultReversed).isEqualTo(e2);
+
+      // estimates are cached
+      verify(statistics, times(1)).estimateSelectivity(e1);
+      verify(statistics, times(1)).estimateSelectivity(e2);
+    }
+
+    @Test
+    public void persistenceConditionsFirst() {
+      when(condition1.isPersistenceCondition()).thenReturn(true);
+      when(statistics.estimateSelectivity(e1)).thenReturn(OptionalDouble.of(0.9));
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.of(0.01));
+
+      FilterExpression result = resolver.single().apply(e1, e2);
+
+      assertThat(result).isEqualTo(e1);
+    }
+
+    @Test
+    public void userHintRespected() {
+      when(e1.getSelectivity()).thenReturn(0.5);
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.of(0.6));
+
+      FilterExpression result = resolver.single().apply(e2, e1);
+
+      assertThat(result).isEqualTo(e1);
+    }
+
+    @Test
+    public void noEstimateUserOrder() {
+      when(statistics.estimateSelectivity(e1)).thenReturn(OptionalDouble.empty());
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.empty());
+
+      FilterExpression result = resolver.single().apply(e2, e1);
+
+      assertThat(result).isEqualTo(e1);
+    }
+
+    @Test
+    public void collections() {
+      when(statistics.estimateSelectivity(e1)).thenReturn(OptionalDouble.of(0.9));
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.of(0.01));
+
+      List<FilterExpression> c1 = List.of(e1);
+      List<FilterExpression> c2 = List.of(e2);
+
+      assertThat(resolver.collection().apply(c1, c2)).isEqualTo(c2);
+      assertThat(resolver.collection().apply(c2, c1)).isEqualTo(c2);
+    }
+
+    @Test
+    public void hintsSkipStatistics() {
+      when(e1.getSelectivity()).thenReturn(0.5);
+      when(e2.getSelectivity()).thenReturn(0.1);
+
+      FilterExpression result = resolver.single().apply(e1, e2);
+
+      assertThat(result).isEqualTo(e2);
+      verifyNoInteractions(statistics);
+    }
+
+    @Test
+    public void planReplayed() {
+      when(statistics.estimateSelectivity(e1)).thenReturn(OptionalDouble.of(0.9));
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.of(0.01));
+      resolver.single().apply(e1, e2);
+
+      StatisticsWeightResolver replay = new StatisticsWeightResolver(resolver.getPlan());
+      FilterExpression result = replay.single().apply(e1, e2);
+
+      assertThat(resolver.getPlan())
+          .containsOnlyKeys(
+              StatisticsWeightResolver.planKey(e1), StatisticsWeightResolver.planKey(e2));
+      assertThat(result).isEqualTo(e2);
+    }
+
+    @Test
+    public void planWithoutEstimates() {
+      when(statistics.estimateSelectivity(e1)).thenReturn(OptionalDouble.empty());
+      when(statistics.estimateSelectivity(e2)).thenReturn(OptionalDouble.of(1.0));
+      resolver.single().apply(e1, e2);
+
+      assertThat(resolver.getPlan()).isEmpty();
+    }
+  }
+}
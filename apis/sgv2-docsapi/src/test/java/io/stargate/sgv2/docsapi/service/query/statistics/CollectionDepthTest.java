@@ -0,0 +1,144 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.stargate.bridge.grpc.Values;
+import io.stargate.bridge.proto.QueryOuterClass;
+import io.stargate.sgv2.docsapi.DocsApiTestSchemaProvider;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentTableProperties;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
+import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.testprofiles.MaxDepth4TestProfile;
+import java.util.Arrays;
+import javax.inject.Inject;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestProfile(MaxDepth4TestProfile.class)
+class CollectionDepthTest {
+
+  @Inject DocsApiTestSchemaProvider schemaProvider;
+
+  @Inject DocumentProperties documentProperties;
+
+  // row with the path columns limited to the projection depth
+  RowWrapper row(int projectionDepth, String... path) {
+    DocumentTableProperties tableProperties = documentProperties.tableProperties();
+    ImmutableMap.Builder<String, QueryOuterClass.Value> values = ImmutableMap.builder();
+    for (int i = 0; i < projectionDepth; i++) {
+      String segment = i < path.length ? path[i] : "";
+      values.put(tableProperties.pathColumnName(i), Values.of(segment));
+    }
+    values.put(tableProperties.leafColumnName(), Values.of(path[path.length - 1]));
+    return schemaProvider.getRow(values.build());
+  }
+
+  RawDocument document(RowWrapper... rows) {
+    RawDocument document = mock(RawDocument.class);
+    when(document.rows()).thenReturn(Arrays.asList(rows));
+    return document;
+  }
+
+  @Nested
+  class ProjectionDepth {
+
+    @Test
+    public void unknown() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+
+      assertThat(depth.projectionDepth()).isEqualTo(documentProperties.maxDepth());
+    }
+
+    @Test
+    public void known() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+
+      depth.record(2);
+      depth.record(1);
+
+      assertThat(depth.projectionDepth()).isEqualTo(3);
+    }
+
+    @Test
+    public void knownMaxDepth() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+
+      depth.record(documentProperties.maxDepth());
+
+      assertThat(depth.projectionDepth()).isEqualTo(documentProperties.maxDepth());
+    }
+  }
+
+  @Nested
+  class Record {
+
+    @Test
+    public void fullProjection() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+      int maxDepth = documentProperties.maxDepth();
+      RawDocument document = document(row(maxDepth, "a"), row(maxDepth, "b", "c"));
+
+      boolean result = depth.record(document, maxDepth);
+
+      assertThat(result).isTrue();
+      assertThat(depth.projectionDepth()).isEqualTo(3);
+    }
+
+    @Test
+    public void withinProjection() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+      depth.record(2);
+      RawDocument document = document(row(3, "a"), row(3, "b", "c"));
+
+      boolean result = depth.record(document, 3);
+
+      assertThat(result).isTrue();
+      assertThat(depth.projectionDepth()).isEqualTo(3);
+    }
+
+    @Test
+    public void deeperThanProjection() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+      depth.record(1);
+      RawDocument document = document(row(2, "a"), row(2, "b", "c", "d"));
+
+      boolean result = depth.record(document, 2);
+
+      assertThat(result).isFalse();
+      assertThat(depth.projectionDepth()).isEqualTo(2);
+    }
+
+    @Test
+    public void emptyDocument() {
+      CollectionDepth depth = new CollectionDepth(documentProperties);
+
+      boolean result = depth.record(document(), 1);
+
+      assertThat(result).isTrue();
+      assertThat(depth.projectionDepth()).isEqualTo(documentProperties.maxDepth());
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.stargate.bridge.grpc.Values;
+import io.stargate.bridge.proto.QueryOuterClass;
+import io.stargate.sgv2.docsapi.DocsApiTestSchemaProvider;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentProperties;
+import io.stargate.sgv2.docsapi.api.properties.document.DocumentTableProperties;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
+import io.stargate.sgv2.docsapi.service.query.FilterExpression;
+import io.stargate.sgv2.docsapi.service.query.ImmutableFilterExpression;
+import io.stargate.sgv2.docsapi.service.query.ImmutableFilterPath;
+import io.stargate.sgv2.docsapi.service.query.condition.impl.ImmutableStringCondition;
+import io.stargate.sgv2.docsapi.service.query.filter.operation.impl.EqFilterOperation;
+import io.stargate.sgv2.docsapi.service.query.filter.operation.impl.NeFilterOperation;
+import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.testprofiles.MaxDepth4TestProfile;
+import java.util.List;
+import java.util.OptionalDouble;
+import javax.inject.Inject;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestProfile(MaxDepth4TestProfile.class)
+class CollectionStatisticsTest {
+
+  @Inject DocsApiTestSchemaProvider schemaProvider;
+
+  @Inject DocumentProperties documentProperties;
+
+  RowWrapper row(String value, String... path) {
+    DocumentTableProperties tableProperties = documentProperties.tableProperties();
+    ImmutableMap.Builder<String, QueryOuterClass.Value> values = ImmutableMap.builder();
+    for (int i = 0; i < documentProperties.maxDepth(); i++) {
+      String segment = i < path.length ? path[i] : "";
+      values.put(tableProperties.pathColumnName(i), Values.of(segment));
+    }
+    values.put(tableProperties.leafColumnName(), Values.of(path[path.length - 1]));
+    values.put(tableProperties.stringValueColumnName(), Values.of(value));
+    values.put(tableProperties.doubleValueColumnName(), Values.NULL);
+    values.put(tableProperties.booleanValueColumnName(), Values.NULL);
+    return schemaProvider.getRow(values.build());
+  }
+
+  // document with a unique id field and the same status field
+  RawDocument document(int index) {
+    RawDocument document = mock(RawDocument.class);
+    when(document.rows()).thenReturn(List.of(row("id-" + index, "id"), row("active", "status")));
+    return document;
+  }
+
+  CollectionStatistics statistics(int sampleRate, int documents) {
+    CollectionStatistics statistics = new CollectionStatistics(documentProperties, sampleRate);
+    for (int i = 0; i < documents; i++) {
+      statistics.record(document(i));
+    }
+    return statistics;
+  }
+
+  FilterExpression eq(String value, String... path) {
+    return ImmutableFilterExpression.of(
+        ImmutableFilterPath.of(List.of(path)),
+        ImmutableStringCondition.of(EqFilterOperation.of(), value, documentProperties),
+        0);
+  }
+
+  @Nested
+  class EstimateSelectivity {
+
+    @Test
+    public void selectiveFilter() {
+      CollectionStatistics statistics = statistics(1, CollectionStatistics.MIN_DOCUMENTS);
+
+      OptionalDouble result = statistics.estimateSelectivity(eq("id-3", "id"));
+
+      assertThat(result).isPresent();
+      assertThat(result.getAsDouble())
+          .isCloseTo(1d / CollectionStatistics.MIN_DOCUMENTS, within(0.02));
+    }
+
+    @Test
+    public void nonSelectiveFilter() {
+      CollectionStatistics statistics = statistics(1, CollectionStatistics.MIN_DOCUMENTS);
+
+      OptionalDouble result = statistics.estimateSelectivity(eq("active", "status"));
+
+      assertThat(result).hasValue(1d);
+    }
+
+    @Test
+    public void missingPath() {
+      CollectionStatistics statistics = statistics(1, CollectionStatistics.MIN_DOCUMENTS);
+
+      OptionalDouble result = statistics.estimateSelectivity(eq("value", "other"));
+
+      // never zero, as documents outside of the sample could match
+      assertThat(result).hasValue(1d / (CollectionStatistics.MIN_DOCUMENTS + 1));
+    }
+
+    @Test
+    public void missingPathEvaluateOnMissing() {
+      CollectionStatistics statistics = statistics(1, CollectionStatistics.MIN_DOCUMENTS);
+      FilterExpression expression =
+          ImmutableFilterExpression.of(
+              ImmutableFilterPath.of(List.of("other")),
+              ImmutableStringCondition.of(NeFilterOperation.of(), "value", documentProperties),
+              0);
+
+      OptionalDouble result = statistics.estimateSelectivity(expression);
+
+      assertThat(result).hasValue(1d);
+    }
+
+    @Test
+    public void globPath() {
+      CollectionStatistics statistics = statistics(1, CollectionStatistics.MIN_DOCUMENTS);
+
+      OptionalDouble result = statistics.estimateSelectivity(eq("id-3", "*", "id"));
+
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void notEnoughDocuments() {
+      CollectionStatistics statistics = statistics(1, CollectionStatistics.MIN_DOCUMENTS - 1);
+
+      OptionalDouble result = statistics.estimateSelectivity(eq("id-3", "id"));
+
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void sampleRate() {
+      CollectionStatistics notSampled = statistics(2, CollectionStatistics.MIN_DOCUMENTS * 2 - 2);
+      CollectionStatistics sampled = statistics(2, CollectionStatistics.MIN_DOCUMENTS * 2 - 1);
+
+      assertThat(notSampled.estimateSelectivity(eq("id-3", "id"))).isEmpty();
+      assertThat(sampled.estimateSelectivity(eq("active", "status"))).hasValue(1d);
+    }
+
+    @Test
+    public void disabled() {
+      CollectionStatistics statistics = statistics(0, CollectionStatistics.WINDOW_DOCUMENTS);
+
+      OptionalDouble result = statistics.estimateSelectivity(eq("active", "status"));
+
+      assertThat(result).isEmpty();
+    }
+  }
+}
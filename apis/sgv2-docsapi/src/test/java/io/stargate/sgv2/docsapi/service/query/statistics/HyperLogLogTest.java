@@ -0,0 +1,64 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.sgv2.docsapi.service.query.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+  long hash(int value) {
+    return Hashing.murmur3_128().hashInt(value).asLong();
+  }
+
+  @Nested
+  class Estimate {
+
+    @Test
+    public void empty() {
+      HyperLogLog hyperLogLog = new HyperLogLog();
+
+      assertThat(hyperLogLog.estimate()).isZero();
+    }
+
+    @Test
+    public void duplicatesCountedOnce() {
+      HyperLogLog hyperLogLog = new HyperLogLog();
+      for (int i = 0; i < 1000; i++) {
+        hyperLogLog.add(hash(i % 10));
+      }
+
+      assertThat(hyperLogLog.estimate()).isEqualTo(10);
+    }
+
+    @Test
+    public void largeCardinality() {
+      HyperLogLog hyperLogLog = new HyperLogLog();
+      for (int i = 0; i < 100000; i++) {
+        hyperLogLog.add(hash(i));
+      }
+
+      // standard error is about 6.5%
+      assertThat(hyperLogLog.estimate()).isCloseTo(100000L, withinPercentage(20));
+    }
+  }
+}
@@ -159,6 +159,21 @@ class JsonSchemaManagerTest extends BridgeTest {
       result.awaitItem().assertItem(null).assertCompleted();
     }
 
+    @Test
+    public void cached() {
+      String title = RandomStringUtils.randomAlphanumeric(16);
+      String comment = "{\"schema\": {\"title\": \"%s\"}}".formatted(title);
+      table = Schema.CqlTable.newBuilder().putOptions("comment", comment).build();
+
+      JsonNode first =
+          jsonSchemaManager.getJsonSchema(Uni.createFrom().item(table)).await().indefinitely();
+      JsonNode second =
+          jsonSchemaManager.getJsonSchema(Uni.createFrom().item(table)).await().indefinitely();
+
+      assertThat(first.get("title").asText()).isEqualTo(title);
+      assertThat(second).isSameAs(first);
+    }
+
     @Test
     public void malformedJsonSchema() {
       table = Schema.CqlTable.newBuilder().putOptions("comment", "lorem ipsum").build();
@@ -31,6 +31,7 @@ import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.bridge.proto.QueryOuterClass.Batch;
 import io.stargate.sgv2.api.common.config.QueriesConfig;
 import io.stargate.sgv2.api.common.properties.datastore.DataStoreProperties;
+import io.stargate.sgv2.api.common.properties.datastore.impl.DataStorePropertiesImpl;
 import io.stargate.sgv2.docsapi.DocsApiTestSchemaProvider;
 import io.stargate.sgv2.docsapi.api.exception.ErrorCode;
 import io.stargate.sgv2.docsapi.api.exception.ErrorCodeRuntimeException;
@@ -40,6 +41,7 @@ import io.stargate.sgv2.docsapi.bridge.ValidatingStargateBridge;
 import io.stargate.sgv2.docsapi.service.ExecutionContext;
 import io.stargate.sgv2.docsapi.service.ImmutableJsonShreddedRow;
 import io.stargate.sgv2.docsapi.service.JsonShreddedRow;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.json.DeadLeaf;
 import io.stargate.sgv2.docsapi.service.json.ImmutableDeadLeaf;
 import io.stargate.sgv2.docsapi.service.util.TimeSource;
@@ -175,6 +177,94 @@ class WriteBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
               });
     }
 
+    @Test
+    public void happyPathWithCqlIndex() {
+      DataStoreProperties cqlIndexProperties =
+          new DataStorePropertiesImpl(
+              dataStoreProperties.secondaryIndexesEnabled(),
+              dataStoreProperties.saiEnabled(),
+              dataStoreProperties.loggedBatchesEnabled(),
+              false,
+              false,
+              true);
+      service =
+          new WriteBridgeService(
+              bridge, timeSource, cqlIndexProperties, documentProperties, queriesConfig);
+      JsonShreddedRow row1 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("key1")
+              .stringValue("value1")
+              .build();
+      JsonShreddedRow row2 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("key2")
+              .doubleValue(2.2d)
+              .build();
+      List<JsonShreddedRow> rows = Arrays.asList(row1, row2);
+
+      String insertCql =
+          String.format(
+              "INSERT INTO %s.%s "
+                  + "(key, p0, p1, p2, p3, leaf, text_value, dbl_value, bool_value) "
+                  + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) USING TIMESTAMP ?",
+              keyspaceName, tableName);
+      ValidatingStargateBridge.QueryAssert row1QueryAssert =
+          withQuery(
+                  insertCql,
+                  Values.of(documentId),
+                  Values.of("key1"),
+                  Values.of(""),
+                  Values.of(""),
+                  Values.of(""),
+                  Values.of("key1"),
+                  Values.of("value1"),
+                  Values.NULL,
+                  Values.NULL,
+                  Values.of(timestamp))
+              .inBatch(expectedBatchType)
+              .returningNothing();
+      ValidatingStargateBridge.QueryAssert row2QueryAssert =
+          withQuery(
+                  insertCql,
+                  Values.of(documentId),
+                  Values.of("key2"),
+                  Values.of(""),
+                  Values.of(""),
+                  Values.of(""),
+                  Values.of("key2"),
+                  Values.NULL,
+                  Values.of(2.2d),
+                  Values.NULL,
+                  Values.of(timestamp))
+              .inBatch(expectedBatchType)
+              .returningNothing();
+
+      service
+          .writeDocument(keyspaceName, tableName, documentId, rows, null, context)
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitItem()
+          .assertCompleted();
+
+      // the validating bridge resolves the index of the second row to the CQL of the first one
+      row1QueryAssert.assertExecuteCount().isEqualTo(1);
+      row2QueryAssert.assertExecuteCount().isEqualTo(1);
+
+      assertThat(context.toProfile().nested())
+          .singleElement()
+          .satisfies(
+              nested ->
+                  assertThat(nested.queries())
+                      .singleElement()
+                      .satisfies(
+                          queryInfo -> {
+                            assertThat(queryInfo.cql()).isEqualTo(insertCql);
+                            assertThat(queryInfo.executionCount()).isEqualTo(2);
+                          }));
+    }
+
     @Test
     public void happyPathWithTtl() {
       JsonShreddedRow row1 =
@@ -609,6 +699,174 @@ class WriteBridgeServiceTest extends AbstractValidatingStargateBridgeTest {
     }
   }
 
+  @Nested
+  class UpdateDocumentDiff {
+
+    RowWrapper existingRow(QueryOuterClass.Value value, String valueColumn, String... path) {
+      ImmutableMap.Builder<String, QueryOuterClass.Value> values = ImmutableMap.builder();
+      values.put("key", Values.of(documentId));
+      for (int i = 0; i < documentProperties.maxDepth(); i++) {
+        values.put("p" + i, Values.of(i < path.length ? path[i] : ""));
+      }
+      values.put("leaf", Values.of(path[path.length - 1]));
+      values.put("text_value", "text_value".equals(valueColumn) ? value : Values.NULL);
+      values.put("dbl_value", "dbl_value".equals(valueColumn) ? value : Values.NULL);
+      values.put("bool_value", Values.NULL);
+      return schemaProvider.getRow(values.build());
+    }
+
+    @Test
+    public void happyPath() {
+      JsonShreddedRow row1 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("key1")
+              .stringValue("value1")
+              .build();
+      JsonShreddedRow row2 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("key2")
+              .addPath("nested")
+              .doubleValue(2.2d)
+              .build();
+      List<JsonShreddedRow> rows = Arrays.asList(row1, row2);
+      List<RowWrapper> existingRows =
+          Arrays.asList(
+              existingRow(Values.of("value1"), "text_value", "key1"),
+              existingRow(Values.of(1.1d), "dbl_value", "key2", "nested"),
+              existingRow(Values.of("value3"), "text_value", "key3"));
+
+      String insertCql =
+          String.format(
+              "INSERT INTO %s.%s (key, p0, p1, p2, p3, leaf, text_value, dbl_value, bool_value) "
+                  + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) USING TIMESTAMP ?",
+              keyspaceName, tableName);
+      ValidatingStargateBridge.QueryAssert row2QueryAssert =
+          withQuery(
+                  insertCql,
+                  Values.of(documentId),
+                  Values.of("key2"),
+                  Values.of("nested"),
+                  Values.of(""),
+                  Values.of(""),
+                  Values.of("nested"),
+                  Values.NULL,
+                  Values.of(2.2d),
+                  Values.NULL,
+                  Values.of(timestamp))
+              .inBatch(expectedBatchType)
+              .returningNothing();
+
+      String deleteCql =
+          String.format(
+              "DELETE FROM %s.%s USING TIMESTAMP ? WHERE key = ? AND p0 = ? AND p1 = ? AND p2 = ? AND p3 = ?",
+              keyspaceName, tableName);
+      ValidatingStargateBridge.QueryAssert deleteQueryAssert =
+          withQuery(
+                  deleteCql,
+                  Values.of(timestamp - 1),
+                  Values.of(documentId),
+                  Values.of("key3"),
+                  Values.of(""),
+                  Values.of(""),
+                  Values.of(""))
+              .inBatch(expectedBatchType)
+              .returningNothing();
+
+      service
+          .updateDocumentDiff(
+              keyspaceName,
+              tableName,
+              documentId,
+              Collections.emptyList(),
+              rows,
+              existingRows,
+              null,
+              context)
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitItem()
+          .assertCompleted();
+
+      // unchanged row1 is not written
+      row2QueryAssert.assertExecuteCount().isEqualTo(1);
+      deleteQueryAssert.assertExecuteCount().isEqualTo(1);
+
+      // execution context
+      assertThat(context.toProfile().nested())
+          .singleElement()
+          .satisfies(
+              nested -> {
+                assertThat(nested.description()).isEqualTo("ASYNC UPDATE");
+                assertThat(nested.queries()).hasSize(2);
+              });
+    }
+
+    @Test
+    public void nothingChanged() {
+      JsonShreddedRow row1 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("key1")
+              .stringValue("value1")
+              .build();
+      List<JsonShreddedRow> rows = Collections.singletonList(row1);
+      List<RowWrapper> existingRows =
+          Collections.singletonList(existingRow(Values.of("value1"), "text_value", "key1"));
+
+      service
+          .updateDocumentDiff(
+              keyspaceName,
+              tableName,
+              documentId,
+              Collections.emptyList(),
+              rows,
+              existingRows,
+              null,
+              context)
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitItem()
+          .assertCompleted();
+
+      // no queries executed at all
+      assertThat(context.toProfile().nested()).isEmpty();
+    }
+
+    @Test
+    public void updateSubPathRowsNotMatching() {
+      List<String> subDocumentPath = Collections.singletonList("key1");
+      JsonShreddedRow row1 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("key2")
+              .stringValue("value1")
+              .build();
+
+      List<JsonShreddedRow> rows = Collections.singletonList(row1);
+
+      service
+          .updateDocumentDiff(
+              keyspaceName,
+              tableName,
+              documentId,
+              subDocumentPath,
+              rows,
+              Collections.emptyList(),
+              null,
+              context)
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitFailure(
+              throwable ->
+                  assertThat(throwable)
+                      .isInstanceOf(ErrorCodeRuntimeException.class)
+                      .hasFieldOrPropertyWithValue(
+                          "errorCode", ErrorCode.DOCS_API_UPDATE_PATH_NOT_MATCHING));
+    }
+  }
+
   @Nested
   class PatchDocument {
 
@@ -0,0 +1,467 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.stargate.sgv2.docsapi.service.write;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.junit.mockito.InjectMock;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.stargate.bridge.proto.QueryOuterClass.ResultSet;
+import io.stargate.bridge.proto.Schema;
+import io.stargate.sgv2.common.testprofiles.NoGlobalResourcesTestProfile;
+import io.stargate.sgv2.docsapi.OpenMocksTest;
+import io.stargate.sgv2.docsapi.api.v2.model.dto.DocumentResponseWrapper;
+import io.stargate.sgv2.docsapi.api.v2.model.dto.MultiDocsResponse;
+import io.stargate.sgv2.docsapi.service.ExecutionContext;
+import io.stargate.sgv2.docsapi.service.JsonDocumentShredder;
+import io.stargate.sgv2.docsapi.service.JsonShreddedRow;
+import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
+import io.stargate.sgv2.docsapi.service.query.ReadBridgeService;
+import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
+import io.stargate.sgv2.docsapi.service.schema.JsonSchemaManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+@QuarkusTest
+@TestProfile(WriteDocumentsServiceDiffUpdatesTest.Profile.class)
+public class WriteDocumentsServiceDiffUpdatesTest {
+
+  public static class Profile implements NoGlobalResourcesTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return ImmutableMap.<String, String>builder()
+          .put("stargate.document.max-depth", "3")
+          .put("stargate.document.max-array-length", "2")
+          .put("stargate.document.diff-updates-enabled", "true")
+          .build();
+    }
+  }
+
+  @InjectMock WriteBridgeService writeBridgeService;
+
+  @InjectMock ReadBridgeService readBridgeService;
+
+  @InjectMock JsonDocumentShredder jsonDocumentShredder;
+
+  @InjectMock JsonSchemaManager jsonSchemaManager;
+
+  @Inject WriteDocumentsService documentWriteService;
+
+  @Inject ObjectMapper objectMapper;
+
+  static InputStream stream(String payload) {
+    return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Nested
+  class UpdateDocument implements OpenMocksTest {
+
+    @Mock RowWrapper row;
+    @Mock RawDocument rawDocument;
+    @Mock List<JsonShreddedRow> rows;
+
+    @BeforeEach
+    public void setup() {
+      when(rawDocument.rows()).thenReturn(List.of(row));
+    }
+
+    @Test
+    public void happyPath() {
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      InputStream payload = stream("{}");
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
+      when(readBridgeService.getDocumentWithTtlInfo(
+              namespace, collection, documentId, Collections.emptyList(), context))
+          .thenReturn(Uni.createFrom().item(rawDocument));
+      when(writeBridgeService.updateDocumentDiff(
+              namespace,
+              collection,
+              documentId,
+              Collections.emptyList(),
+              rows,
+              List.of(row),
+              null,
+              context))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      DocumentResponseWrapper<Void> result =
+          documentWriteService
+              .updateDocument(
+                  Uni.createFrom().item(table),
+                  namespace,
+                  collection,
+                  documentId,
+                  payload,
+                  null,
+                  context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentId()).isEqualTo(documentId);
+      assertThat(result.profile()).isEqualTo(context.toProfile());
+
+      verify(readBridgeService)
+          .getDocumentWithTtlInfo(
+              namespace, collection, documentId, Collections.emptyList(), context);
+      verify(writeBridgeService)
+          .updateDocumentDiff(
+              namespace,
+              collection,
+              documentId,
+              Collections.emptyList(),
+              rows,
+              List.of(row),
+              null,
+              context);
+      verifyNoMoreInteractions(writeBridgeService, readBridgeService);
+    }
+
+    @Test
+    public void documentNotExisting() {
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      InputStream payload = stream("{}");
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
+      when(readBridgeService.getDocumentWithTtlInfo(
+              namespace, collection, documentId, Collections.emptyList(), context))
+          .thenReturn(Uni.createFrom().nullItem());
+      when(writeBridgeService.updateDocumentDiff(
+              namespace,
+              collection,
+              documentId,
+              Collections.emptyList(),
+              rows,
+              Collections.emptyList(),
+              null,
+              context))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      DocumentResponseWrapper<Void> result =
+          documentWriteService
+              .updateDocument(
+                  Uni.createFrom().item(table),
+                  namespace,
+                  collection,
+                  documentId,
+                  payload,
+                  null,
+                  context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentId()).isEqualTo(documentId);
+
+      verify(readBridgeService)
+          .getDocumentWithTtlInfo(
+              namespace, collection, documentId, Collections.emptyList(), context);
+      verify(writeBridgeService)
+          .updateDocumentDiff(
+              namespace,
+              collection,
+              documentId,
+              Collections.emptyList(),
+              rows,
+              Collections.emptyList(),
+              null,
+              context);
+      verifyNoMoreInteractions(writeBridgeService, readBridgeService);
+    }
+
+    @Test
+    public void withTtlNotDiffed() {
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      InputStream payload = stream("{}");
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
+      when(writeBridgeService.updateDocument(namespace, collection, documentId, rows, 100, context))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      DocumentResponseWrapper<Void> result =
+          documentWriteService
+              .updateDocument(
+                  Uni.createFrom().item(table),
+                  namespace,
+                  collection,
+                  documentId,
+                  payload,
+                  100,
+                  context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentId()).isEqualTo(documentId);
+
+      verify(writeBridgeService)
+          .updateDocument(namespace, collection, documentId, rows, 100, context);
+      verifyNoMoreInteractions(writeBridgeService);
+      verifyNoInteractions(readBridgeService);
+    }
+
+    @Test
+    public void subDocument() throws Exception {
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      List<String> subPath = Collections.singletonList(RandomStringUtils.randomAlphanumeric(16));
+      ExecutionContext context = ExecutionContext.create(true);
+      JsonNode obj = objectMapper.readTree("{}");
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(jsonDocumentShredder.shred(obj, subPath)).thenReturn(rows);
+      when(readBridgeService.getDocumentWithTtlInfo(
+              namespace, collection, documentId, subPath, context))
+          .thenReturn(Uni.createFrom().item(rawDocument));
+      when(writeBridgeService.updateDocumentDiff(
+              namespace, collection, documentId, subPath, rows, List.of(row), 0, context))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      DocumentResponseWrapper<Void> result =
+          documentWriteService
+              .updateSubDocument(
+                  Uni.createFrom().item(table),
+                  namespace,
+                  collection,
+                  documentId,
+                  subPath,
+                  obj,
+                  false,
+                  context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentId()).isEqualTo(documentId);
+
+      verify(readBridgeService)
+          .getDocumentWithTtlInfo(namespace, collection, documentId, subPath, context);
+      verify(writeBridgeService)
+          .updateDocumentDiff(
+              namespace, collection, documentId, subPath, rows, List.of(row), 0, context);
+      verifyNoMoreInteractions(writeBridgeService, readBridgeService);
+    }
+
+    @Test
+    public void subDocumentTtlAutoNotDiffed() throws Exception {
+      int ttl = RandomUtils.nextInt(1, 100);
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      List<String> subPath = Collections.singletonList(RandomStringUtils.randomAlphanumeric(16));
+      ExecutionContext context = ExecutionContext.create(true);
+      JsonNode obj = objectMapper.readTree("{}");
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(row.getLong("ttl(leaf)")).thenReturn((long) ttl);
+      when(jsonDocumentShredder.shred(obj, subPath)).thenReturn(rows);
+      when(readBridgeService.getDocumentTtlInfo(namespace, collection, documentId, context))
+          .thenReturn(Uni.createFrom().item(rawDocument));
+      when(writeBridgeService.updateDocument(
+              namespace, collection, documentId, subPath, rows, ttl, context))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      DocumentResponseWrapper<Void> result =
+          documentWriteService
+              .updateSubDocument(
+                  Uni.createFrom().item(table),
+                  namespace,
+                  collection,
+                  documentId,
+                  subPath,
+                  obj,
+                  true,
+                  context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentId()).isEqualTo(documentId);
+
+      verify(readBridgeService).getDocumentTtlInfo(namespace, collection, documentId, context);
+      verify(writeBridgeService)
+          .updateDocument(namespace, collection, documentId, subPath, rows, ttl, context);
+      verifyNoMoreInteractions(writeBridgeService, readBridgeService);
+    }
+  }
+
+  @Nested
+  class WriteDocuments implements OpenMocksTest {
+
+    @Mock RawDocument rawDocument;
+    @Mock List<JsonShreddedRow> rows1;
+    @Mock List<JsonShreddedRow> rows2;
+
+    @BeforeEach
+    public void setup() {
+      when(rawDocument.rows()).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void happyPathWithIdExtraction() throws Exception {
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      String doc1Payload = "{\"id\": \"1\"}";
+      String doc2Payload = "{\"id\": \"2\"}";
+      String payload = String.format("[%s,%s]", doc1Payload, doc2Payload);
+      JsonNode obj = objectMapper.readTree(payload);
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(jsonDocumentShredder.shred(objectMapper.readTree(doc1Payload), Collections.emptyList()))
+          .thenReturn(rows1);
+      when(jsonDocumentShredder.shred(objectMapper.readTree(doc2Payload), Collections.emptyList()))
+          .thenReturn(rows2);
+      when(readBridgeService.getDocumentWithTtlInfo(
+              eq(namespace), eq(collection), anyString(), eq(Collections.emptyList()), eq(context)))
+          .thenReturn(Uni.createFrom().item(rawDocument));
+      when(writeBridgeService.updateDocumentDiff(
+              eq(namespace),
+              eq(collection),
+              anyString(),
+              eq(Collections.emptyList()),
+              any(),
+              eq(Collections.emptyList()),
+              any(),
+              eq(context)))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      MultiDocsResponse result =
+          documentWriteService
+              .writeDocuments(
+                  Uni.createFrom().item(table), namespace, collection, obj, "id", null, context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentIds()).containsExactlyInAnyOrder("1", "2");
+
+      verify(readBridgeService, times(2))
+          .getDocumentWithTtlInfo(
+              eq(namespace), eq(collection), anyString(), eq(Collections.emptyList()), eq(context));
+      verify(writeBridgeService)
+          .updateDocumentDiff(
+              namespace,
+              collection,
+              "1",
+              Collections.emptyList(),
+              rows1,
+              Collections.emptyList(),
+              null,
+              context);
+      verify(writeBridgeService)
+          .updateDocumentDiff(
+              namespace,
+              collection,
+              "2",
+              Collections.emptyList(),
+              rows2,
+              Collections.emptyList(),
+              null,
+              context);
+      verify(jsonSchemaManager, times(2)).validateJsonDocument(any(), any(), anyBoolean());
+      verifyNoMoreInteractions(writeBridgeService, readBridgeService, jsonSchemaManager);
+    }
+
+    @Test
+    public void withTtlNotDiffed() throws Exception {
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      ExecutionContext context = ExecutionContext.create(true);
+      String doc1Payload = "{\"id\": \"1\"}";
+      String payload = String.format("[%s]", doc1Payload);
+      JsonNode obj = objectMapper.readTree(payload);
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+
+      when(jsonDocumentShredder.shred(objectMapper.readTree(doc1Payload), Collections.emptyList()))
+          .thenReturn(rows1);
+      when(writeBridgeService.updateDocument(namespace, collection, "1", rows1, 100, context))
+          .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
+
+      MultiDocsResponse result =
+          documentWriteService
+              .writeDocuments(
+                  Uni.createFrom().item(table), namespace, collection, obj, "id", 100, context)
+              .subscribe()
+              .withSubscriber(UniAssertSubscriber.create())
+              .awaitItem()
+              .assertCompleted()
+              .getItem();
+
+      assertThat(result.documentIds()).containsExactly("1");
+
+      verify(writeBridgeService).updateDocument(namespace, collection, "1", rows1, 100, context);
+      verifyNoMoreInteractions(writeBridgeService);
+      verifyNoInteractions(readBridgeService);
+    }
+  }
+}
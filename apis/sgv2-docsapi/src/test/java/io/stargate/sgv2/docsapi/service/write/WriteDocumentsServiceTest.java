@@ -52,7 +52,10 @@ import io.stargate.sgv2.docsapi.service.common.model.RowWrapper;
 import io.stargate.sgv2.docsapi.service.query.ReadBridgeService;
 import io.stargate.sgv2.docsapi.service.query.model.RawDocument;
 import io.stargate.sgv2.docsapi.service.schema.JsonSchemaManager;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -91,6 +94,10 @@ public class WriteDocumentsServiceTest {
 
   @Inject ObjectMapper objectMapper;
 
+  static InputStream stream(String payload) {
+    return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
   @Nested
   class WriteDocument implements OpenMocksTest {
 
@@ -100,23 +107,19 @@ public class WriteDocumentsServiceTest {
     public void happyPath() throws Exception {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
       String collection = RandomStringUtils.randomAlphanumeric(16);
-      ExecutionContext context = ExecutionContext.create(true);
-      String payload = "{}";
-      JsonNode obj = objectMapper.readTree(payload);
-
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
-
-      when(jsonDocumentShredder.shred(obj, Collections.emptyList())).thenReturn(rows);
+      ExecutionContext context = ExecutionContext.create(true);
+      InputStream payload = stream("{\"key\": \"value\"}");
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
       when(writeBridgeService.writeDocument(
               eq(namespace), eq(collection), anyString(), eq(rows), any(), eq(context)))
           .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
-      when(jsonSchemaManager.validateJsonDocument(any(), any(), anyBoolean()))
-          .thenReturn(Uni.createFrom().item(true));
 
       DocumentResponseWrapper<Void> result =
           documentWriteService
               .writeDocument(
-                  Uni.createFrom().item(table), namespace, collection, obj, null, context)
+                  Uni.createFrom().item(table), namespace, collection, payload, null, context)
               .subscribe()
               .withSubscriber(UniAssertSubscriber.create())
               .awaitItem()
@@ -130,7 +133,9 @@ public class WriteDocumentsServiceTest {
 
       verify(writeBridgeService)
           .writeDocument(namespace, collection, result.documentId(), rows, null, context);
-      verifyNoMoreInteractions(writeBridgeService);
+      verify(jsonSchemaManager).getJsonSchema(any());
+      verify(jsonDocumentShredder).shred(payload, Collections.emptyList());
+      verifyNoMoreInteractions(writeBridgeService, jsonSchemaManager, jsonDocumentShredder);
     }
 
     @Test
@@ -138,20 +143,19 @@ public class WriteDocumentsServiceTest {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
       String collection = RandomStringUtils.randomAlphanumeric(16);
       ExecutionContext context = ExecutionContext.create(true);
-      String payload = "{}";
-      JsonNode obj = objectMapper.readTree(payload);
+      InputStream payload = stream("{}");
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
 
-      when(jsonDocumentShredder.shred(obj, Collections.emptyList())).thenReturn(rows);
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
       when(writeBridgeService.writeDocument(
               eq(namespace), eq(collection), anyString(), eq(rows), any(), eq(context)))
           .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
-      when(jsonSchemaManager.validateJsonDocument(any(), any(), anyBoolean()))
-          .thenReturn(Uni.createFrom().item(true));
 
       DocumentResponseWrapper<Void> result =
           documentWriteService
-              .writeDocument(Uni.createFrom().item(table), namespace, collection, obj, 100, context)
+              .writeDocument(
+                  Uni.createFrom().item(table), namespace, collection, payload, 100, context)
               .subscribe()
               .withSubscriber(UniAssertSubscriber.create())
               .awaitItem()
@@ -171,12 +175,13 @@ public class WriteDocumentsServiceTest {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
       String collection = RandomStringUtils.randomAlphanumeric(16);
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
-      Uni<Schema.CqlTable> tableUni = Uni.createFrom().item(table);
       ExecutionContext context = ExecutionContext.create(true);
-      String payload = "{}";
+      String payload = "{\"key\": \"value\"}";
       JsonNode schema = objectMapper.createObjectNode();
       JsonNode document = objectMapper.readTree(payload);
       when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().item(schema));
+      when(jsonSchemaManager.validateJsonDocument(any(), eq(document), eq(false)))
+          .thenReturn(Uni.createFrom().item(true));
       when(jsonDocumentShredder.shred(document, Collections.emptyList())).thenReturn(rows);
       when(writeBridgeService.writeDocument(
               eq(namespace), eq(collection), anyString(), eq(rows), any(), eq(context)))
@@ -184,7 +189,13 @@ public class WriteDocumentsServiceTest {
 
       DocumentResponseWrapper<Void> result =
           documentWriteService
-              .writeDocument(tableUni, namespace, collection, document, null, context)
+              .writeDocument(
+                  Uni.createFrom().item(table),
+                  namespace,
+                  collection,
+                  stream(payload),
+                  null,
+                  context)
               .subscribe()
               .withSubscriber(UniAssertSubscriber.create())
               .awaitItem()
@@ -197,8 +208,31 @@ public class WriteDocumentsServiceTest {
 
       verify(writeBridgeService)
           .writeDocument(namespace, collection, result.documentId(), rows, null, context);
-      verify(jsonSchemaManager).validateJsonDocument(tableUni, document, false);
-      verifyNoMoreInteractions(writeBridgeService, jsonSchemaManager);
+      verify(jsonSchemaManager).getJsonSchema(any());
+      verify(jsonSchemaManager).validateJsonDocument(any(), eq(document), eq(false));
+      verify(jsonDocumentShredder).shred(document, Collections.emptyList());
+      verifyNoMoreInteractions(writeBridgeService, jsonSchemaManager, jsonDocumentShredder);
+    }
+
+    @Test
+    public void malformedStringPayloadWithSchemaCheck() {
+      String namespace = RandomStringUtils.randomAlphanumeric(16);
+      String collection = RandomStringUtils.randomAlphanumeric(16);
+      Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
+      ExecutionContext context = ExecutionContext.create(true);
+      String payload = "{\"key\": ";
+      JsonNode schema = objectMapper.createObjectNode();
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().item(schema));
+
+      documentWriteService
+          .writeDocument(
+              Uni.createFrom().item(table), namespace, collection, stream(payload), null, context)
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitFailure()
+          .assertFailedWith(JsonProcessingException.class);
+
+      verifyNoMoreInteractions(writeBridgeService, jsonDocumentShredder);
     }
   }
 
@@ -483,13 +517,13 @@ public class WriteDocumentsServiceTest {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
       String collection = RandomStringUtils.randomAlphanumeric(16);
       ExecutionContext context = ExecutionContext.create(true);
-      String payload = "{}";
-      JsonNode obj = objectMapper.readTree(payload);
+      InputStream payload = stream("{}");
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
 
-      when(jsonDocumentShredder.shred(obj, Collections.emptyList())).thenReturn(rows);
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
       when(writeBridgeService.updateDocument(
-              namespace, collection, documentId, Collections.emptyList(), rows, null, context))
+              namespace, collection, documentId, rows, null, context))
           .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
 
       DocumentResponseWrapper<Void> result =
@@ -499,7 +533,7 @@ public class WriteDocumentsServiceTest {
                   namespace,
                   collection,
                   documentId,
-                  obj,
+                  payload,
                   null,
                   context)
               .subscribe()
@@ -514,9 +548,8 @@ public class WriteDocumentsServiceTest {
       assertThat(result.profile()).isEqualTo(context.toProfile());
 
       verify(writeBridgeService)
-          .updateDocument(
-              namespace, collection, documentId, Collections.emptyList(), rows, null, context);
-      verify(jsonSchemaManager).validateJsonDocument(any(), any(), anyBoolean());
+          .updateDocument(namespace, collection, documentId, rows, null, context);
+      verify(jsonSchemaManager).getJsonSchema(any());
       verifyNoMoreInteractions(writeBridgeService, jsonSchemaManager);
     }
 
@@ -526,13 +559,12 @@ public class WriteDocumentsServiceTest {
       String namespace = RandomStringUtils.randomAlphanumeric(16);
       String collection = RandomStringUtils.randomAlphanumeric(16);
       ExecutionContext context = ExecutionContext.create(true);
-      String payload = "{}";
-      JsonNode obj = objectMapper.readTree(payload);
+      InputStream payload = stream("{}");
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
 
-      when(jsonDocumentShredder.shred(obj, Collections.emptyList())).thenReturn(rows);
-      when(writeBridgeService.updateDocument(
-              namespace, collection, documentId, Collections.emptyList(), rows, 100, context))
+      when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().nullItem());
+      when(jsonDocumentShredder.shred(payload, Collections.emptyList())).thenReturn(rows);
+      when(writeBridgeService.updateDocument(namespace, collection, documentId, rows, 100, context))
           .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
 
       DocumentResponseWrapper<Void> result =
@@ -542,7 +574,7 @@ public class WriteDocumentsServiceTest {
                   namespace,
                   collection,
                   documentId,
-                  obj,
+                  payload,
                   100,
                   context)
               .subscribe()
@@ -557,9 +589,8 @@ public class WriteDocumentsServiceTest {
       assertThat(result.profile()).isEqualTo(context.toProfile());
 
       verify(writeBridgeService)
-          .updateDocument(
-              namespace, collection, documentId, Collections.emptyList(), rows, 100, context);
-      verify(jsonSchemaManager).validateJsonDocument(any(), any(), anyBoolean());
+          .updateDocument(namespace, collection, documentId, rows, 100, context);
+      verify(jsonSchemaManager).getJsonSchema(any());
       verifyNoMoreInteractions(writeBridgeService, jsonSchemaManager);
     }
 
@@ -669,9 +700,11 @@ public class WriteDocumentsServiceTest {
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
 
       when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().item(schema));
+      when(jsonSchemaManager.validateJsonDocument(any(), eq(document), eq(false)))
+          .thenReturn(Uni.createFrom().item(true));
       when(jsonDocumentShredder.shred(document, Collections.emptyList())).thenReturn(rows);
       when(writeBridgeService.updateDocument(
-              namespace, collection, documentId, Collections.emptyList(), rows, null, context))
+              namespace, collection, documentId, rows, null, context))
           .thenReturn(Uni.createFrom().item(ResultSet.getDefaultInstance()));
 
       DocumentResponseWrapper<Void> result =
@@ -681,7 +714,7 @@ public class WriteDocumentsServiceTest {
                   namespace,
                   collection,
                   documentId,
-                  document,
+                  stream(payload),
                   null,
                   context)
               .subscribe()
@@ -696,9 +729,9 @@ public class WriteDocumentsServiceTest {
       assertThat(result.profile()).isEqualTo(context.toProfile());
 
       verify(writeBridgeService)
-          .updateDocument(
-              namespace, collection, documentId, Collections.emptyList(), rows, null, context);
-      verify(jsonSchemaManager).validateJsonDocument(any(), any(), anyBoolean());
+          .updateDocument(namespace, collection, documentId, rows, null, context);
+      verify(jsonSchemaManager).getJsonSchema(any());
+      verify(jsonSchemaManager).validateJsonDocument(any(), eq(document), eq(false));
       verifyNoMoreInteractions(writeBridgeService, jsonSchemaManager);
     }
 
@@ -734,14 +767,13 @@ public class WriteDocumentsServiceTest {
     }
 
     @Test
-    public void schemaCheckFailed() throws JsonProcessingException {
+    public void schemaCheckFailed() {
       String documentId = RandomStringUtils.randomAlphanumeric(16);
       String namespace = RandomStringUtils.randomAlphanumeric(16);
       String collection = RandomStringUtils.randomAlphanumeric(16);
       Schema.CqlTable table = Schema.CqlTable.newBuilder().build();
       ExecutionContext context = ExecutionContext.create(true);
       String payload = "{}";
-      JsonNode obj = objectMapper.readTree(payload);
       JsonNode schema = objectMapper.createObjectNode();
 
       ErrorCodeRuntimeException exception =
@@ -749,17 +781,21 @@ public class WriteDocumentsServiceTest {
       when(jsonSchemaManager.getJsonSchema(any())).thenReturn(Uni.createFrom().item(schema));
       when(jsonSchemaManager.validateJsonDocument(any(), any(), anyBoolean())).thenThrow(exception);
 
-      assertThatThrownBy(
-              () ->
-                  documentWriteService.updateDocument(
-                      Uni.createFrom().item(table),
-                      namespace,
-                      collection,
-                      documentId,
-                      obj,
-                      null,
-                      context))
-          .isInstanceOf(ErrorCodeRuntimeException.class);
+      documentWriteService
+          .updateDocument(
+              Uni.createFrom().item(table),
+              namespace,
+              collection,
+              documentId,
+              stream(payload),
+              null,
+              context)
+          .subscribe()
+          .withSubscriber(UniAssertSubscriber.create())
+          .awaitFailure()
+          .assertFailedWith(ErrorCodeRuntimeException.class);
+
+      verifyNoMoreInteractions(writeBridgeService, jsonDocumentShredder);
     }
   }
 
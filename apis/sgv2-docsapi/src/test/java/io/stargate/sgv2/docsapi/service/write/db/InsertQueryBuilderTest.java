@@ -190,6 +190,35 @@ class InsertQueryBuilderTest {
               Values.of(timestamp));
     }
 
+    @Test
+    public void sharedCql() {
+      InsertQueryBuilder queryBuilder = new InsertQueryBuilder(documentProperties);
+      BatchQuery query =
+          queryBuilder.buildQuery(
+              schemaProvider.getKeyspace().getName(), schemaProvider.getTable().getName(), null);
+
+      long timestamp = RandomUtils.nextLong();
+      String documentId = RandomStringUtils.randomAlphanumeric(16);
+      JsonShreddedRow row1 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("first")
+              .stringValue("value")
+              .build();
+      JsonShreddedRow row2 =
+          ImmutableJsonShreddedRow.builder()
+              .maxDepth(documentProperties.maxDepth())
+              .addPath("second")
+              .doubleValue(1d)
+              .build();
+
+      BatchQuery bound1 = queryBuilder.bind(query, documentId, row1, null, timestamp, false);
+      BatchQuery bound2 = queryBuilder.bind(query, documentId, row2, null, timestamp, false);
+
+      // encoded CQL is not copied per row
+      assertThat(bound1.getCqlBytes()).isSameAs(bound2.getCqlBytes());
+    }
+
     @Test
     public void maxDepthDifferent() {
       InsertQueryBuilder queryBuilder = new InsertQueryBuilder(documentProperties);
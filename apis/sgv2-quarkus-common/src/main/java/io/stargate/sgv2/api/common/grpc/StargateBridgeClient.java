@@ -161,6 +161,9 @@ public interface StargateBridgeClient {
   /**
    * Checks whether this client is authorized to describe a set of schema elements.
    *
+   * <p>If the bridge reports that it does not authorize schema reads, this completes immediately
+   * without calling it.
+   *
    * @see SchemaReads
    */
   CompletionStage<List<Boolean>> authorizeSchemaReadsAsync(List<SchemaRead> schemaReads);
@@ -108,11 +108,8 @@ public class StargateBridgeClientImpl implements StargateBridgeClient {
   @Override
   public CompletionStage<List<Boolean>> authorizeSchemaReadsAsync(
       List<Schema.SchemaRead> schemaReads) {
-    return requestInfo
-        .getStargateBridge()
-        .authorizeSchemaReads(
-            Schema.AuthorizeSchemaReadsRequest.newBuilder().addAllSchemaReads(schemaReads).build())
-        .map(Schema.AuthorizeSchemaReadsResponse::getAuthorizedList)
+    return schemaManager
+        .authorizeSchemaReads(requestInfo.getStargateBridge(), schemaReads)
         .subscribeAsCompletionStage();
   }
 
@@ -36,4 +36,28 @@ public interface DataStoreProperties {
   default boolean treatBooleansAsNumeric() {
     return saiEnabled();
   }
+
+  /**
+   * @return If the bridge lets every client read every schema element, in which case schema read
+   *     authorization requests can be skipped. Defaults to <code>false</code>.
+   */
+  default boolean schemaReadAuthorizationSkipped() {
+    return false;
+  }
+
+  /**
+   * @return If the bridge can describe a keyspace with only the tables the client is authorized to
+   *     read. Defaults to <code>false</code>.
+   */
+  default boolean filteredDescribeKeyspaceSupported() {
+    return false;
+  }
+
+  /**
+   * @return If the bridge lets a batch query reuse the CQL of an earlier query in the same batch,
+   *     instead of sending it again. Defaults to <code>false</code>.
+   */
+  default boolean batchQueryCqlIndexSupported() {
+    return false;
+  }
 }
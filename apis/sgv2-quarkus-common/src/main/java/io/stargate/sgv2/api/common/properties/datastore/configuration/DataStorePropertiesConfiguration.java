@@ -68,7 +68,10 @@ public class DataStorePropertiesConfiguration {
           new DataStorePropertiesImpl(
               supportedFeatures.getSecondaryIndexes(),
               supportedFeatures.getSai(),
-              supportedFeatures.getLoggedBatches());
+              supportedFeatures.getLoggedBatches(),
+              supportedFeatures.getSkipSchemaReadAuthorization(),
+              supportedFeatures.getFilteredDescribeKeyspace(),
+              supportedFeatures.getBatchQueryCqlIndex());
       LOG.info("Successfully fetched data store metadata ({} retries)", callCount.get() - 1);
       return props;
     } catch (Exception e) {
@@ -24,5 +24,16 @@ import io.stargate.sgv2.api.common.properties.datastore.DataStoreProperties;
  * @see DataStoreProperties
  */
 public record DataStorePropertiesImpl(
-    boolean secondaryIndexesEnabled, boolean saiEnabled, boolean loggedBatchesEnabled)
-    implements DataStoreProperties {}
+    boolean secondaryIndexesEnabled,
+    boolean saiEnabled,
+    boolean loggedBatchesEnabled,
+    boolean schemaReadAuthorizationSkipped,
+    boolean filteredDescribeKeyspaceSupported,
+    boolean batchQueryCqlIndexSupported)
+    implements DataStoreProperties {
+
+  public DataStorePropertiesImpl(
+      boolean secondaryIndexesEnabled, boolean saiEnabled, boolean loggedBatchesEnabled) {
+    this(secondaryIndexesEnabled, saiEnabled, loggedBatchesEnabled, false, false, false);
+  }
+}
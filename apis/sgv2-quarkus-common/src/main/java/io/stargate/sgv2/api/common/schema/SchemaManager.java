@@ -38,6 +38,7 @@ import io.stargate.sgv2.api.common.StargateRequestInfo;
 import io.stargate.sgv2.api.common.grpc.UnauthorizedKeyspaceException;
 import io.stargate.sgv2.api.common.grpc.UnauthorizedTableException;
 import io.stargate.sgv2.api.common.grpc.proto.SchemaReads;
+import io.stargate.sgv2.api.common.properties.datastore.DataStoreProperties;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -60,6 +61,8 @@ public class SchemaManager {
 
   @Inject StargateRequestInfo requestInfo;
 
+  @Inject DataStoreProperties dataStoreProperties;
+
   /**
    * Get the keyspace from the bridge. Note that this method is not doing any authorization.
    *
@@ -206,20 +209,14 @@ public class SchemaManager {
                       .map(n -> SchemaReads.keyspace(n, sourceApi))
                       .collect(Collectors.toList());
 
-              Schema.AuthorizeSchemaReadsRequest request =
-                  Schema.AuthorizeSchemaReadsRequest.newBuilder().addAllSchemaReads(reads).build();
-
               // execute request
-              return bridge
-                  .authorizeSchemaReads(request)
+              return authorizeSchemaReads(bridge, reads)
 
                   // on response filter out
                   .onItem()
-                  .ifNotNull()
                   .transformToMulti(
-                      response -> {
+                      authorizedList -> {
                         List<String> authorizedKeyspaces = new ArrayList<>(keyspaceNames.size());
-                        List<Boolean> authorizedList = response.getAuthorizedList();
                         for (int i = 0; i < authorizedList.size(); i++) {
                           if (authorizedList.get(i)) {
                             authorizedKeyspaces.add(keyspaceNames.get(i));
@@ -281,10 +278,15 @@ public class SchemaManager {
   /**
    * Get all authorized tables from the bridge.
    *
+   * <p>If the bridge supports it, the tables are filtered by the bridge itself, in the same call
+   * that describes the keyspace. Otherwise, the keyspace is described, and then its tables are
+   * authorized with a separate request, unless the bridge does not authorize schema reads at all.
+   *
    * <p>Emits a failure in case:
    *
    * <ol>
-   *   <li>Not authorized, with {@link UnauthorizedTableException}
+   *   <li>Not authorized to read the keyspace, with {@link UnauthorizedKeyspaceException} (only
+   *       when filtered by the bridge)
    * </ol>
    *
    * @param keyspace Keyspace name
@@ -298,8 +300,18 @@ public class SchemaManager {
       Function<String, Uni<? extends Schema.CqlKeyspaceDescribe>> missingKeyspace) {
     StargateBridge bridge = requestInfo.getStargateBridge();
 
+    // let the bridge filter if it needs to and can, saves the authorization round trip
+    boolean filterInBridge =
+        !dataStoreProperties.schemaReadAuthorizationSkipped()
+            && dataStoreProperties.filteredDescribeKeyspaceSupported();
+
     // get keyspace
-    return getKeyspaceInternal(bridge, keyspace)
+    Uni<Schema.CqlKeyspaceDescribe> keyspaceDescribe =
+        filterInBridge
+            ? getAuthorizedKeyspaceInternal(bridge, keyspace)
+            : getKeyspaceInternal(bridge, keyspace);
+
+    return keyspaceDescribe
 
         // if keyspace not found switch to function
         .onItem()
@@ -310,35 +322,28 @@ public class SchemaManager {
         .onItem()
         .ifNotNull()
         .transformToMulti(
-            keyspaceDescribe -> {
-
-              // create schema reads for all tables
-              List<Schema.CqlTable> tables = keyspaceDescribe.getTablesList();
+            describe -> {
+              List<Schema.CqlTable> tables = describe.getTablesList();
 
-              // if empty break immediately
-              if (tables.isEmpty()) {
-                return Multi.createFrom().empty();
+              // if empty or already filtered break immediately
+              if (tables.isEmpty() || filterInBridge) {
+                return Multi.createFrom().iterable(tables);
               }
 
+              // create schema reads for all tables
               List<Schema.SchemaRead> reads =
                   tables.stream()
                       .map(t -> SchemaReads.table(keyspace, t.getName(), sourceApi))
                       .collect(Collectors.toList());
 
-              Schema.AuthorizeSchemaReadsRequest request =
-                  Schema.AuthorizeSchemaReadsRequest.newBuilder().addAllSchemaReads(reads).build();
-
               // execute request
-              return bridge
-                  .authorizeSchemaReads(request)
+              return authorizeSchemaReads(bridge, reads)
 
                   // on response filter out
                   .onItem()
-                  .ifNotNull()
                   .transformToMulti(
-                      response -> {
+                      authorizedList -> {
                         List<Schema.CqlTable> authorizedTables = new ArrayList<>(tables.size());
-                        List<Boolean> authorizedList = response.getAuthorizedList();
                         for (int i = 0; i < authorizedList.size(); i++) {
                           if (authorizedList.get(i)) {
                             authorizedTables.add(tables.get(i));
@@ -366,18 +371,65 @@ public class SchemaManager {
 
   // authorizes a single schema read
   public Uni<Boolean> authorizeInternal(StargateBridge bridge, Schema.SchemaRead schemaRead) {
+    return authorizeSchemaReads(bridge, Collections.singletonList(schemaRead))
+
+        // we have only one schema read request
+        .map(authorizedList -> authorizedList.get(0));
+  }
+
+  /**
+   * Authorizes the given schema reads. If the bridge does not authorize schema reads at all,
+   * returns immediately without calling it.
+   *
+   * @param bridge Bridge to call
+   * @param schemaReads Schema reads to authorize
+   * @return Uni containing whether each schema read is authorized, in order
+   */
+  public Uni<List<Boolean>> authorizeSchemaReads(
+      StargateBridge bridge, List<Schema.SchemaRead> schemaReads) {
+    if (dataStoreProperties.schemaReadAuthorizationSkipped()) {
+      return Uni.createFrom().item(Collections.nCopies(schemaReads.size(), true));
+    }
+
     Schema.AuthorizeSchemaReadsRequest request =
-        Schema.AuthorizeSchemaReadsRequest.newBuilder().addSchemaReads(schemaRead).build();
+        Schema.AuthorizeSchemaReadsRequest.newBuilder().addAllSchemaReads(schemaReads).build();
 
     // call bridge to authorize
     return bridge
         .authorizeSchemaReads(request)
+        .map(Schema.AuthorizeSchemaReadsResponse::getAuthorizedList);
+  }
 
-        // on result
-        .map(
-            response -> {
-              // we have only one schema read request
-              return response.getAuthorizedList().iterator().next();
+  // gets a keyspace by provided name, with only the tables the caller is authorized to read
+  // not cached, as the result depends on the caller
+  private Uni<Schema.CqlKeyspaceDescribe> getAuthorizedKeyspaceInternal(
+      StargateBridge bridge, String keyspaceName) {
+    Schema.DescribeKeyspaceQuery request =
+        Schema.DescribeKeyspaceQuery.newBuilder()
+            .setKeyspaceName(keyspaceName)
+            .setAuthorizedOnly(true)
+            .setSourceApi(sourceApi)
+            .build();
+
+    return bridge
+        .describeKeyspace(request)
+
+        // in case of failure, map not found to null and permission denied to our exception
+        .onFailure()
+        .recoverWithUni(
+            t -> {
+              if (t instanceof StatusRuntimeException sre) {
+                Status.Code code = sre.getStatus().getCode();
+                if (Objects.equals(code, Status.Code.NOT_FOUND)) {
+                  return Uni.createFrom().nullItem();
+                }
+                if (Objects.equals(code, Status.Code.PERMISSION_DENIED)) {
+                  RuntimeException unauthorized = new UnauthorizedKeyspaceException(keyspaceName);
+                  return Uni.createFrom().failure(unauthorized);
+                }
+              }
+
+              return Uni.createFrom().failure(t);
             });
   }
 
@@ -49,6 +49,8 @@ class BridgeDataStorePropertiesConfigurationTest extends BridgeTest {
             .setSecondaryIndexes(false)
             .setSai(true)
             .setLoggedBatches(false)
+            .setSkipSchemaReadAuthorization(true)
+            .setFilteredDescribeKeyspace(true)
             .build();
 
     doAnswer(
@@ -74,5 +76,7 @@ class BridgeDataStorePropertiesConfigurationTest extends BridgeTest {
     assertThat(dataStoreProperties.secondaryIndexesEnabled()).isFalse();
     assertThat(dataStoreProperties.saiEnabled()).isTrue();
     assertThat(dataStoreProperties.loggedBatchesEnabled()).isFalse();
+    assertThat(dataStoreProperties.schemaReadAuthorizationSkipped()).isTrue();
+    assertThat(dataStoreProperties.filteredDescribeKeyspaceSupported()).isTrue();
   }
 }
@@ -47,6 +47,7 @@ import io.stargate.sgv2.api.common.BridgeTest;
 import io.stargate.sgv2.api.common.StargateRequestInfo;
 import io.stargate.sgv2.api.common.grpc.UnauthorizedKeyspaceException;
 import io.stargate.sgv2.api.common.grpc.UnauthorizedTableException;
+import io.stargate.sgv2.api.common.properties.datastore.DataStoreProperties;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -80,6 +81,8 @@ class SchemaManagerTest extends BridgeTest {
 
   @InjectMock StargateRequestInfo requestInfo;
 
+  @InjectMock DataStoreProperties dataStoreProperties;
+
   ArgumentCaptor<Schema.DescribeKeyspaceQuery> describeKeyspaceCaptor;
 
   ArgumentCaptor<Schema.AuthorizeSchemaReadsRequest> schemaReadsCaptor;
@@ -1306,5 +1309,109 @@ class SchemaManagerTest extends BridgeTest {
                                 .isEqualTo(Schema.SchemaRead.ElementType.TABLE);
                           }));
     }
+
+    @Test
+    public void authorizationSkipped() {
+      String keyspace = RandomStringUtils.randomAlphanumeric(16);
+      Schema.CqlKeyspace cqlKeyspace = Schema.CqlKeyspace.newBuilder().setName(keyspace).build();
+      Schema.CqlTable cqlTable = Schema.CqlTable.newBuilder().setName("table").build();
+      Schema.CqlKeyspaceDescribe response =
+          Schema.CqlKeyspaceDescribe.newBuilder()
+              .setCqlKeyspace(cqlKeyspace)
+              .addTables(cqlTable)
+              .build();
+      when(dataStoreProperties.schemaReadAuthorizationSkipped()).thenReturn(true);
+      when(dataStoreProperties.filteredDescribeKeyspaceSupported()).thenReturn(true);
+
+      doAnswer(
+              invocationOnMock -> {
+                StreamObserver<Schema.CqlKeyspaceDescribe> observer =
+                    invocationOnMock.getArgument(1);
+                observer.onNext(response);
+                observer.onCompleted();
+                return null;
+              })
+          .when(bridgeService)
+          .describeKeyspace(any(), any());
+
+      schemaManager
+          .getTablesAuthorized(keyspace, (k) -> Uni.createFrom().nothing())
+          .subscribe()
+          .withSubscriber(AssertSubscriber.create())
+          .awaitNextItem()
+          .assertItems(cqlTable)
+          .awaitCompletion()
+          .assertCompleted();
+
+      // no authorization request, and the regular cached describe
+      verify(bridgeService).describeKeyspace(describeKeyspaceCaptor.capture(), any());
+      verifyNoMoreInteractions(bridgeService);
+      assertThat(describeKeyspaceCaptor.getValue().getAuthorizedOnly()).isFalse();
+    }
+
+    @Test
+    public void filteredByBridge() {
+      String keyspace = RandomStringUtils.randomAlphanumeric(16);
+      Schema.CqlKeyspace cqlKeyspace = Schema.CqlKeyspace.newBuilder().setName(keyspace).build();
+      Schema.CqlTable cqlTable = Schema.CqlTable.newBuilder().setName("table").build();
+      Schema.CqlKeyspaceDescribe response =
+          Schema.CqlKeyspaceDescribe.newBuilder()
+              .setCqlKeyspace(cqlKeyspace)
+              .addTables(cqlTable)
+              .build();
+      when(dataStoreProperties.filteredDescribeKeyspaceSupported()).thenReturn(true);
+
+      doAnswer(
+              invocationOnMock -> {
+                StreamObserver<Schema.CqlKeyspaceDescribe> observer =
+                    invocationOnMock.getArgument(1);
+                observer.onNext(response);
+                observer.onCompleted();
+                return null;
+              })
+          .when(bridgeService)
+          .describeKeyspace(any(), any());
+
+      schemaManager
+          .getTablesAuthorized(keyspace, (k) -> Uni.createFrom().nothing())
+          .subscribe()
+          .withSubscriber(AssertSubscriber.create())
+          .awaitNextItem()
+          .assertItems(cqlTable)
+          .awaitCompletion()
+          .assertCompleted();
+
+      // a single filtered describe, not cached
+      verify(bridgeService).describeKeyspace(describeKeyspaceCaptor.capture(), any());
+      verifyNoMoreInteractions(bridgeService);
+      assertThat(describeKeyspaceCaptor.getValue().getAuthorizedOnly()).isTrue();
+      assertThat(describeKeyspaceCaptor.getValue().getSourceApi())
+          .isEqualTo(Schema.SchemaRead.SourceApi.REST);
+      assertThat(keyspaceCache.as(CaffeineCache.class).keySet())
+          .doesNotContain(new CompositeCacheKey(keyspace, Optional.empty()));
+    }
+
+    @Test
+    public void filteredByBridgeNotAuthorized() {
+      String keyspace = RandomStringUtils.randomAlphanumeric(16);
+      when(dataStoreProperties.filteredDescribeKeyspaceSupported()).thenReturn(true);
+
+      doAnswer(
+              invocationOnMock -> {
+                StreamObserver<Schema.CqlKeyspaceDescribe> observer =
+                    invocationOnMock.getArgument(1);
+                observer.onError(new StatusRuntimeException(Status.PERMISSION_DENIED));
+                return null;
+              })
+          .when(bridgeService)
+          .describeKeyspace(any(), any());
+
+      schemaManager
+          .getTablesAuthorized(keyspace, (k) -> Uni.createFrom().nothing())
+          .subscribe()
+          .withSubscriber(AssertSubscriber.create())
+          .awaitFailure()
+          .assertFailedWith(UnauthorizedKeyspaceException.class);
+    }
   }
 }
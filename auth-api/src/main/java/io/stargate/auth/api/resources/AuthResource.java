@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
@@ -87,7 +88,8 @@ public class AuthResource {
         @ApiResponse(code = 201, message = "resource created", response = AuthTokenResponse.class),
         @ApiResponse(code = 400, message = "Bad Request", response = AuthApiError.class),
         @ApiResponse(code = 401, message = "Unauthorized", response = AuthApiError.class),
-        @ApiResponse(code = 500, message = "Internal server error", response = AuthApiError.class)
+        @ApiResponse(code = 500, message = "Internal server error", response = AuthApiError.class),
+        @ApiResponse(code = 503, message = "Service unavailable", response = AuthApiError.class)
       })
   public Response createToken(
       @ApiParam(value = "", required = true) Secret secret, @Context HttpServletRequest request) {
@@ -120,6 +122,11 @@ public class AuthResource {
           .entity(new AuthApiError("Failed to create token: " + e.getMessage()))
           .cacheControl(cacheControlNoStore)
           .build();
+    } catch (RejectedExecutionException e) {
+      return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+          .entity(new AuthApiError("Failed to create token: " + e.getMessage()))
+          .cacheControl(cacheControlNoStore)
+          .build();
     } catch (Exception e) {
       logger.error("Failed to create token", e);
       return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -146,7 +153,8 @@ public class AuthResource {
         @ApiResponse(code = 201, message = "resource created", response = AuthTokenResponse.class),
         @ApiResponse(code = 400, message = "Bad Request", response = AuthApiError.class),
         @ApiResponse(code = 401, message = "Unauthorized", response = AuthApiError.class),
-        @ApiResponse(code = 500, message = "Internal server error", response = AuthApiError.class)
+        @ApiResponse(code = 500, message = "Internal server error", response = AuthApiError.class),
+        @ApiResponse(code = 503, message = "Service unavailable", response = AuthApiError.class)
       })
   public Response createToken(
       @ApiParam(value = "", required = true) Credentials credentials,
@@ -182,6 +190,11 @@ public class AuthResource {
           .entity(new AuthApiError("Failed to create token: " + e.getMessage()))
           .cacheControl(cacheControlNoStore)
           .build();
+    } catch (RejectedExecutionException e) {
+      return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+          .entity(new AuthApiError("Failed to create token: " + e.getMessage()))
+          .cacheControl(cacheControlNoStore)
+          .build();
     } catch (Exception e) {
       logger.error("Failed to create token, internal error: " + e, e);
       return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
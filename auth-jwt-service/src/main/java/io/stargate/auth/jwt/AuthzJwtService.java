@@ -167,6 +167,12 @@ public class AuthzJwtService implements AuthorizationService {
     // Cannot perform authorization with a JWT token so just return
   }
 
+  /** Schema reads are never checked, see {@link #authorizeSchemaRead}. */
+  @Override
+  public boolean enforcesSchemaReads() {
+    return false;
+  }
+
   /**
    * Authorization for schema resource access is not provided by JWTs so all authorization will be
    * deferred to the underlying permissions assigned to the role the JWT maps to.
@@ -18,6 +18,7 @@ package io.stargate.auth.table;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.AuthorizationService;
 import io.stargate.core.activator.BaseActivator;
+import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.datastore.DataStoreFactory;
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,6 +32,7 @@ public class AuthTableBasedServiceActivator extends BaseActivator {
 
   private final ServicePointer<DataStoreFactory> dataStoreFactory =
       ServicePointer.create(DataStoreFactory.class);
+  private final ServicePointer<Metrics> metrics = ServicePointer.create(Metrics.class);
   public static final String AUTH_TABLE_IDENTIFIER = "AuthTableBasedService";
 
   static {
@@ -54,6 +56,7 @@ public class AuthTableBasedServiceActivator extends BaseActivator {
     if (AUTH_TABLE_IDENTIFIER.equals(
         System.getProperty("stargate.auth_id", AUTH_TABLE_IDENTIFIER))) {
       authnTableBasedService.setDataStoreFactory(dataStoreFactory.get());
+      authnTableBasedService.setMeterRegistry(metrics.get().getMeterRegistry());
 
       return Arrays.asList(
           new ServiceAndProperties(authnTableBasedService, AuthenticationService.class, props),
@@ -64,6 +67,6 @@ public class AuthTableBasedServiceActivator extends BaseActivator {
 
   @Override
   protected List<ServicePointer<?>> dependencies() {
-    return Collections.singletonList(dataStoreFactory);
+    return Arrays.asList(dataStoreFactory, metrics);
   }
 }
@@ -15,8 +15,11 @@
  */
 package io.stargate.auth.table;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.UnauthorizedException;
@@ -34,9 +37,13 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
-import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +55,18 @@ public class AuthnTableBasedService implements AuthenticationService {
       Integer.getInteger("stargate.auth_tablebased.token_cache_ttl_seconds", 60);
   private static final int CACHE_MAX_SIZE =
       Integer.getInteger("stargate.auth_tablebased.token_cache_max_size", 100_000);
+  // tokens used after that delay are re-validated in the background, while the cached subject is
+  // still returned
+  private static final int CACHE_REFRESH_SECONDS =
+      Integer.getInteger(
+          "stargate.auth_tablebased.token_cache_refresh_seconds", CACHE_TTL_SECONDS / 2);
+  // how long an invalid token is remembered as such, to avoid reading the table on each use
+  private static final int NEGATIVE_CACHE_TTL_SECONDS =
+      Integer.getInteger("stargate.auth_tablebased.token_negative_cache_ttl_seconds", 5);
+  // the TTL of a token in the table is extended at most once per that interval
+  private static final int TTL_EXTENSION_INTERVAL_SECONDS =
+      Integer.getInteger(
+          "stargate.auth_tablebased.token_ttl_extension_interval_seconds", CACHE_TTL_SECONDS);
 
   private static final String AUTH_KEYSPACE =
       System.getProperty("stargate.auth_keyspace", "data_endpoint_auth");
@@ -57,14 +76,33 @@ public class AuthnTableBasedService implements AuthenticationService {
   private static final boolean shouldInitializeAuthKeyspace =
       Boolean.parseBoolean(System.getProperty("stargate.auth_tablebased_init", "true"));
 
-  private final Cache<String, AuthenticationSubject> tokenCache =
-      Caffeine.newBuilder()
-          .expireAfterWrite(Duration.ofSeconds(CACHE_TTL_SECONDS))
-          .maximumSize(CACHE_MAX_SIZE)
-          .build();
+  private final AsyncLoadingCache<String, AuthenticationSubject> tokenCache =
+      cacheBuilder(CACHE_TTL_SECONDS)
+          .refreshAfterWrite(Duration.ofSeconds(Math.max(1, CACHE_REFRESH_SECONDS)))
+          .buildAsync(new TokenLoader());
+
+  // the failure messages of the tokens that were recently found to be invalid
+  private final Cache<String, String> invalidTokens =
+      cacheBuilder(NEGATIVE_CACHE_TTL_SECONDS).build();
+
+  // the tokens which TTL was recently extended
+  private final Cache<UUID, Boolean> extendedTokens =
+      cacheBuilder(TTL_EXTENSION_INTERVAL_SECONDS).build();
+
+  private final CredentialsVerifier credentialsVerifier = new CredentialsVerifier();
 
   private DataStore dataStore;
 
+  private static Caffeine<Object, Object> cacheBuilder(int ttlSeconds) {
+    return Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .maximumSize(CACHE_MAX_SIZE);
+  }
+
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    credentialsVerifier.setMeterRegistry(meterRegistry);
+  }
+
   public void setDataStoreFactory(DataStoreFactory dataStoreFactory) {
     this.dataStore = dataStoreFactory.createInternal();
 
@@ -116,7 +154,7 @@ public class AuthnTableBasedService implements AuthenticationService {
     } catch (Exception e) {
       throw new UnauthorizedException(e.getMessage());
     }
-    if (hash == null || hash.isEmpty() || !checkpw(secret, hash)) {
+    if (hash == null || hash.isEmpty() || !credentialsVerifier.verify(key, secret, hash)) {
       throw new UnauthorizedException(
           String.format("Provided username %s and/or password are incorrect", key));
     }
@@ -171,6 +209,8 @@ public class AuthnTableBasedService implements AuthenticationService {
           .execute(ConsistencyLevel.LOCAL_QUORUM)
           .get();
 
+      invalidTokens.invalidate(token.toString());
+      extendedTokens.put(token, Boolean.TRUE);
     } catch (Exception e) {
       logger.error("Failed to add new token", e);
       throw new RuntimeException(e);
@@ -178,7 +218,8 @@ public class AuthnTableBasedService implements AuthenticationService {
   }
 
   private String queryUsername(String key) throws ExecutionException, InterruptedException {
-    ResultSet resultSet =
+    Row row;
+    try (ResultSet resultSet =
         dataStore
             .queryBuilder()
             .select()
@@ -187,13 +228,15 @@ public class AuthnTableBasedService implements AuthenticationService {
             .where("role", Predicate.EQ, key)
             .build()
             .execute()
-            .get();
+            .get()) {
 
-    if (resultSet.hasNoMoreFetchedRows()) {
-      throw new RuntimeException(String.format("Provided username %s is incorrect", key));
+      if (resultSet.hasNoMoreFetchedRows()) {
+        throw new RuntimeException(String.format("Provided username %s is incorrect", key));
+      }
+
+      row = resultSet.one();
     }
 
-    Row row = resultSet.one();
     if (row.isNull("role")) {
       throw new RuntimeException(String.format("Provided username %s is incorrect", key));
     }
@@ -202,7 +245,8 @@ public class AuthnTableBasedService implements AuthenticationService {
   }
 
   private String queryHashedPassword(String key) throws ExecutionException, InterruptedException {
-    ResultSet resultSet =
+    Row row;
+    try (ResultSet resultSet =
         dataStore
             .queryBuilder()
             .select()
@@ -211,14 +255,16 @@ public class AuthnTableBasedService implements AuthenticationService {
             .where("role", Predicate.EQ, key)
             .build()
             .execute()
-            .get();
+            .get()) {
 
-    if (resultSet.hasNoMoreFetchedRows()) {
-      throw new RuntimeException(
-          String.format("Provided username %s and/or password are incorrect", key));
+      if (resultSet.hasNoMoreFetchedRows()) {
+        throw new RuntimeException(
+            String.format("Provided username %s and/or password are incorrect", key));
+      }
+
+      row = resultSet.one();
     }
 
-    Row row = resultSet.one();
     if (row.isNull("salted_hash")) {
       throw new RuntimeException(
           String.format("Provided username %s and/or password are incorrect", key));
@@ -227,37 +273,20 @@ public class AuthnTableBasedService implements AuthenticationService {
     return row.getString("salted_hash");
   }
 
-  protected static boolean checkpw(String password, String hash) {
-    try {
-      return BCrypt.checkpw(password, hash);
-    } catch (Exception e) {
-      // Improperly formatted hashes may cause BCrypt.checkpw to throw, so trap any other exception
-      // as a failure
-      logger.warn("Error: invalid password hash encountered, rejecting user", e);
-      return false;
-    }
+  @Override
+  public CompletionStage<AuthenticationSubject> validateTokenAsync(
+      String token, Map<String, String> headers) {
+    return lookupToken(token);
   }
 
   @Override
   public AuthenticationSubject validateToken(String token) throws UnauthorizedException {
-    // if not there fail fast
-    if ((token == null) || token.isEmpty()) {
-      throw new UnauthorizedException("authorization failed - missing token");
-    }
-
-    // otherwise, look in the cache and optionally fetch if missing
+    // only a token that is not cached yet waits for the data store, callers that must not block
+    // should use validateTokenAsync instead
     try {
-      return tokenCache.get(
-          token,
-          v -> {
-            try {
-              return getAuthenticationSubject(v);
-            } catch (UnauthorizedException e) {
-              throw new RuntimeException(e);
-            }
-          });
-    } catch (RuntimeException e) {
-      // properly inspect the cause of the execution exception
+      return lookupToken(token).join();
+    } catch (CompletionException e) {
+      // properly inspect the cause of the completion exception
       // and re-throw if UnauthorizedException or RuntimeException
       // otherwise wrap in the RuntimeException
       Throwable cause = e.getCause();
@@ -266,60 +295,141 @@ public class AuthnTableBasedService implements AuthenticationService {
       } else if (cause instanceof RuntimeException) {
         throw (RuntimeException) cause;
       } else {
-        throw e;
+        throw new RuntimeException(cause);
       }
     }
   }
 
+  private CompletableFuture<AuthenticationSubject> lookupToken(String token) {
+    // if not there fail fast
+    if ((token == null) || token.isEmpty()) {
+      return failed(new UnauthorizedException("authorization failed - missing token"));
+    }
+
+    String failure = invalidTokens.getIfPresent(token);
+    if (failure != null) {
+      return failed(new UnauthorizedException(failure));
+    }
+
+    // otherwise, look in the cache and fetch if missing, cached tokens are refreshed in the
+    // background. The cached future is not handed out, so that callers can't complete it.
+    return tokenCache.get(token).thenApply(Function.identity());
+  }
+
   // fetches the authentication subject from the data store
-  private AuthenticationSubject getAuthenticationSubject(String token)
-      throws UnauthorizedException {
+  private CompletableFuture<AuthenticationSubject> getAuthenticationSubject(String token) {
     UUID uuid;
     try {
       uuid = UUID.fromString(token);
     } catch (IllegalArgumentException exception) {
-      throw new UnauthorizedException("authorization failed - bad token");
+      return invalidToken(token, "authorization failed - bad token");
     }
 
-    try {
-      ResultSet resultSet =
-          dataStore
-              .queryBuilder()
-              .select()
-              .star()
-              .from(AUTH_KEYSPACE, AUTH_TABLE)
-              .where("auth_token", Predicate.EQ, uuid)
-              .build()
-              .execute(ConsistencyLevel.LOCAL_QUORUM)
-              .get();
+    return dataStore
+        .queryBuilder()
+        .select()
+        .star()
+        .from(AUTH_KEYSPACE, AUTH_TABLE)
+        .where("auth_token", Predicate.EQ, uuid)
+        .build()
+        .execute(ConsistencyLevel.LOCAL_QUORUM)
+        .thenCompose(
+            resultSet -> {
+              Row row;
+              try (ResultSet rs = resultSet) {
+                if (rs.hasNoMoreFetchedRows()) {
+                  return invalidToken(token, "authorization failed");
+                }
+
+                row = rs.one();
+              }
+
+              if (row.isNull("username")) {
+                throw new RuntimeException("unable to get username from token table");
+              }
+
+              int timestamp = row.getInt("created_timestamp");
+              String username = row.getString("username");
+              maybeExtendTtl(uuid, username, timestamp);
+              return CompletableFuture.completedFuture(AuthenticationSubject.of(token, username));
+            })
+        .whenComplete(
+            (subject, error) -> {
+              if (error != null && !(unwrap(error) instanceof UnauthorizedException)) {
+                logger.error("Failed to validate token", error);
+              }
+            });
+  }
 
-      if (resultSet.hasNoMoreFetchedRows()) {
-        throw new UnauthorizedException("authorization failed");
-      }
+  private CompletableFuture<AuthenticationSubject> invalidToken(String token, String message) {
+    invalidTokens.put(token, message);
+    return failed(new UnauthorizedException(message));
+  }
 
-      Row row = resultSet.one();
-      if (row.isNull("username")) {
-        throw new RuntimeException("unable to get username from token table");
-      }
+  private static CompletableFuture<AuthenticationSubject> failed(Throwable error) {
+    CompletableFuture<AuthenticationSubject> future = new CompletableFuture<>();
+    future.completeExceptionally(error);
+    return future;
+  }
 
-      int timestamp = row.getInt("created_timestamp");
-      String username = row.getString("username");
+  /**
+   * Extends the TTL of a token in the table, unless that was already done in the last {@link
+   * #TTL_EXTENSION_INTERVAL_SECONDS}, so that concurrent and frequent validations of the same token
+   * result in a single write.
+   */
+  private void maybeExtendTtl(UUID uuid, String username, int timestamp) {
+    if (extendedTokens.asMap().putIfAbsent(uuid, Boolean.TRUE) != null) {
+      return;
+    }
 
-      // update of the TTL can be done in the async way
-      dataStore
-          .queryBuilder()
-          .update(AUTH_KEYSPACE, AUTH_TABLE)
-          .ttl(tokenTTL)
-          .value("username", username)
-          .value("created_timestamp", timestamp)
-          .where("auth_token", Predicate.EQ, uuid)
-          .build()
-          .execute(ConsistencyLevel.LOCAL_QUORUM);
+    // update of the TTL can be done in the async way
+    dataStore
+        .queryBuilder()
+        .update(AUTH_KEYSPACE, AUTH_TABLE)
+        .ttl(tokenTTL)
+        .value("username", username)
+        .value("created_timestamp", timestamp)
+        .where("auth_token", Predicate.EQ, uuid)
+        .build()
+        .execute(ConsistencyLevel.LOCAL_QUORUM)
+        .whenComplete(
+            (rs, error) -> {
+              if (error != null) {
+                // let the next validation try again
+                extendedTokens.invalidate(uuid);
+                logger.warn("Failed to extend the TTL of a token", error);
+              }
+            });
+  }
 
-      return AuthenticationSubject.of(token, username);
-    } catch (InterruptedException | ExecutionException e) {
-      logger.error("Failed to validate token", e);
-      throw new RuntimeException(e);
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  private class TokenLoader implements AsyncCacheLoader<String, AuthenticationSubject> {
+    @Override
+    public CompletableFuture<AuthenticationSubject> asyncLoad(String token, Executor executor) {
+      return getAuthenticationSubject(token);
+    }
+
+    @Override
+    public CompletableFuture<AuthenticationSubject> asyncReload(
+        String token, AuthenticationSubject oldValue, Executor executor) {
+      // a token that became invalid is removed from the cache (by completing with null), while
+      // other failures keep the current subject until it expires
+      return getAuthenticationSubject(token)
+          .handle(
+              (subject, error) -> {
+                if (error == null) {
+                  return subject;
+                }
+                if (unwrap(error) instanceof UnauthorizedException) {
+                  return null;
+                }
+                throw new CompletionException(unwrap(error));
+              });
     }
   }
 
@@ -116,6 +116,12 @@ public class AuthzTableBasedService implements AuthorizationService {
     // Cannot perform authorization with a table based token so just return
   }
 
+  /** Schema reads are never checked, see {@link #authorizeSchemaRead}. */
+  @Override
+  public boolean enforcesSchemaReads() {
+    return false;
+  }
+
   /**
    * Authorization for schema resource access is not provided by table based tokens so all
    * authorization will be deferred to the underlying permissions assigned to the role the token
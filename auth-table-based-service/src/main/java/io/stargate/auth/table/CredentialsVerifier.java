@@ -0,0 +1,240 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.auth.table;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verifies passwords against their BCrypt hashes.
+ *
+ * <p>BCrypt is deliberately expensive (tens of milliseconds of CPU per check), so the checks run on
+ * a dedicated, bounded pool of threads rather than on the threads serving the requests. When more
+ * checks than {@link #QUEUE_SIZE_PROPERTY} are already waiting, new ones are rejected right away
+ * with a {@link RejectedExecutionException} instead of piling up. By default the queue holds a few
+ * checks per thread, so that a burst of logins is rejected quickly rather than leaving clients to
+ * wait for seconds; and callers never wait more than {@link #TIMEOUT_PROPERTY} (one second by
+ * default) for a result. With the default queue size a check normally completes well within that
+ * time, so a request thread is only held for about the duration of a few BCrypt checks.
+ *
+ * <p>Successful checks are remembered for a short time (see {@link #CACHE_TTL_PROPERTY}), so that
+ * clients logging in repeatedly with the same credentials don't pay for BCrypt each time. Entries
+ * are keyed by username and only hold a salted SHA-256 digest of the password along with the hash
+ * it was checked against, so a password change invalidates them.
+ */
+class CredentialsVerifier {
+  private static final Logger logger = LoggerFactory.getLogger(CredentialsVerifier.class);
+
+  static final String THREADS_PROPERTY = "stargate.auth_tablebased.bcrypt_threads";
+  static final String QUEUE_SIZE_PROPERTY = "stargate.auth_tablebased.bcrypt_queue_size";
+  static final String TIMEOUT_PROPERTY = "stargate.auth_tablebased.bcrypt_timeout_ms";
+  static final String CACHE_TTL_PROPERTY = "stargate.auth_tablebased.credentials_cache_ttl_seconds";
+  static final String CACHE_MAX_SIZE_PROPERTY =
+      "stargate.auth_tablebased.credentials_cache_max_size";
+
+  static final String QUEUE_TIMER_METRIC = "auth.tablebased.bcrypt.queue";
+  static final String VERIFY_TIMER_METRIC = "auth.tablebased.bcrypt.verify";
+  static final String CACHE_HITS_METRIC = "auth.tablebased.credentials.cache.hits";
+  static final String REJECTED_METRIC = "auth.tablebased.bcrypt.rejected";
+  static final String PENDING_GAUGE_METRIC = "auth.tablebased.bcrypt.pending";
+
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMillis;
+  private final Cache<String, Verified> verified;
+  private final byte[] salt = new byte[16];
+
+  private volatile Meters meters;
+
+  CredentialsVerifier() {
+    this(
+        Integer.getInteger(
+            THREADS_PROPERTY, Math.max(1, Runtime.getRuntime().availableProcessors())));
+  }
+
+  private CredentialsVerifier(int threads) {
+    this(
+        threads,
+        Integer.getInteger(QUEUE_SIZE_PROPERTY, 4 * threads),
+        Long.getLong(TIMEOUT_PROPERTY, 1_000),
+        Integer.getInteger(CACHE_TTL_PROPERTY, 30),
+        Integer.getInteger(CACHE_MAX_SIZE_PROPERTY, 10_000));
+  }
+
+  CredentialsVerifier(
+      int threads, int queueSize, long timeoutMillis, int cacheTtlSeconds, int cacheMaxSize) {
+    this.timeoutMillis = timeoutMillis;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            r -> {
+              Thread thread = new Thread(r, "auth-bcrypt-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+    this.verified =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(Math.max(0, cacheTtlSeconds)))
+            .maximumSize(cacheMaxSize)
+            .build();
+    new SecureRandom().nextBytes(salt);
+  }
+
+  /** Starts exporting the queue and verification times, and the cache hits, to the registry. */
+  void setMeterRegistry(MeterRegistry registry) {
+    this.meters = registry == null ? null : new Meters(registry);
+  }
+
+  /**
+   * Checks that the password matches the hash, blocking until the check is done.
+   *
+   * @throws RejectedExecutionException if too many checks are already pending, or if the check did
+   *     not complete within the configured timeout.
+   */
+  boolean verify(String username, String password, String hash) {
+    byte[] digest = digest(password);
+    Verified previous = verified.getIfPresent(username);
+    Meters meters = this.meters;
+    if (previous != null && previous.matches(hash, digest)) {
+      if (meters != null) {
+        meters.cacheHits.increment();
+      }
+      return true;
+    }
+
+    long submittedAt = System.nanoTime();
+    Future<Boolean> result;
+    try {
+      result =
+          executor.submit(
+              () -> {
+                long startedAt = System.nanoTime();
+                try {
+                  return checkpw(password, hash);
+                } finally {
+                  if (meters != null) {
+                    meters.queue.record(Duration.ofNanos(startedAt - submittedAt));
+                    meters.verify.record(Duration.ofNanos(System.nanoTime() - startedAt));
+                  }
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      if (meters != null) {
+        meters.rejected.increment();
+      }
+      throw new RejectedExecutionException("Too many concurrent credential checks, retry later");
+    }
+
+    boolean matches;
+    try {
+      matches = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      if (meters != null) {
+        meters.rejected.increment();
+      }
+      throw new RejectedExecutionException("Credential check timed out, retry later");
+    }
+
+    if (matches) {
+      verified.put(username, new Verified(hash, digest));
+    }
+    return matches;
+  }
+
+  static boolean checkpw(String password, String hash) {
+    try {
+      return BCrypt.checkpw(password, hash);
+    } catch (Exception e) {
+      // Improperly formatted hashes may cause BCrypt.checkpw to throw, so trap any other exception
+      // as a failure
+      logger.warn("Error: invalid password hash encountered, rejecting user", e);
+      return false;
+    }
+  }
+
+  private byte[] digest(String password) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      sha256.update(salt);
+      return sha256.digest(password.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      // every JVM is required to support SHA-256
+      throw new AssertionError(e);
+    }
+  }
+
+  private static class Verified {
+    private final String hash;
+    private final byte[] passwordDigest;
+
+    private Verified(String hash, byte[] passwordDigest) {
+      this.hash = hash;
+      this.passwordDigest = passwordDigest;
+    }
+
+    private boolean matches(String hash, byte[] passwordDigest) {
+      return this.hash.equals(hash) && MessageDigest.isEqual(this.passwordDigest, passwordDigest);
+    }
+  }
+
+  private class Meters {
+    private final Timer queue;
+    private final Timer verify;
+    private final Counter cacheHits;
+    private final Counter rejected;
+
+    private Meters(MeterRegistry registry) {
+      queue = Timer.builder(QUEUE_TIMER_METRIC).publishPercentileHistogram().register(registry);
+      verify = Timer.builder(VERIFY_TIMER_METRIC).publishPercentileHistogram().register(registry);
+      cacheHits = registry.counter(CACHE_HITS_METRIC);
+      rejected = registry.counter(REJECTED_METRIC);
+      registry.gauge(PENDING_GAUGE_METRIC, Tags.empty(), executor, e -> e.getQueue().size());
+    }
+  }
+}
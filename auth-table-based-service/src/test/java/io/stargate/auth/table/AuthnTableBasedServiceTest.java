@@ -0,0 +1,152 @@
+package io.stargate.auth.table;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.stargate.auth.AuthenticationSubject;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.DataStoreFactory;
+import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.query.BoundSelect;
+import io.stargate.db.query.TypedValue;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.ImmutableColumn;
+import io.stargate.db.schema.ImmutableKeyspace;
+import io.stargate.db.schema.ImmutableSchema;
+import io.stargate.db.schema.ImmutableTable;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthnTableBasedServiceTest {
+
+  private final String token = UUID.randomUUID().toString();
+
+  private DataStore dataStore;
+  private CompletableFuture<ResultSet> selectResult;
+  private AuthnTableBasedService service;
+
+  @BeforeEach
+  public void setup() {
+    dataStore = mock(DataStore.class, CALLS_REAL_METHODS);
+    doReturn(
+            ImmutableSchema.create(
+                Collections.singletonList(
+                    ImmutableKeyspace.builder()
+                        .name("data_endpoint_auth")
+                        .addTables(
+                            ImmutableTable.builder()
+                                .keyspace("data_endpoint_auth")
+                                .name("token")
+                                .addColumns(
+                                    ImmutableColumn.create(
+                                        "auth_token", Column.Kind.PartitionKey, Column.Type.Uuid),
+                                    ImmutableColumn.create(
+                                        "username", Column.Kind.Regular, Column.Type.Text),
+                                    ImmutableColumn.create(
+                                        "created_timestamp", Column.Kind.Regular, Column.Type.Int))
+                                .build())
+                        .build())))
+        .when(dataStore)
+        .schema();
+    doReturn(TypedValue.Codec.testCodec()).when(dataStore).valueCodec();
+    selectResult = new CompletableFuture<>();
+    // the token lookups get selectResult, everything else (schema creation, TTL extension) succeeds
+    doAnswer(
+            invocation ->
+                invocation.getArgument(0) instanceof BoundSelect
+                    ? selectResult
+                    : CompletableFuture.completedFuture(mock(ResultSet.class)))
+        .when(dataStore)
+        .execute(any(), any(UnaryOperator.class));
+
+    DataStoreFactory dataStoreFactory = mock(DataStoreFactory.class);
+    when(dataStoreFactory.createInternal()).thenReturn(dataStore);
+    service = new AuthnTableBasedService();
+    service.setDataStoreFactory(dataStoreFactory);
+  }
+
+  @Test
+  public void validateTokenAsyncMiss() {
+    CompletionStage<AuthenticationSubject> result = service.validateTokenAsync(token, null);
+
+    // waits for the data store without blocking the caller
+    assertThat(result.toCompletableFuture()).isNotDone();
+
+    selectResult.complete(tokenRow("user1"));
+    assertThat(result.toCompletableFuture().join().roleName()).isEqualTo("user1");
+  }
+
+  @Test
+  public void validateTokenAsyncHit() {
+    selectResult.complete(tokenRow("user1"));
+    service.validateTokenAsync(token, null).toCompletableFuture().join();
+
+    CompletionStage<AuthenticationSubject> result = service.validateTokenAsync(token, null);
+
+    assertThat(result.toCompletableFuture()).isCompleted();
+    assertThat(result.toCompletableFuture().join().roleName()).isEqualTo("user1");
+    verify(dataStore, times(1)).execute(isA(BoundSelect.class), any(UnaryOperator.class));
+  }
+
+  @Test
+  public void validateTokenAsyncUnknownToken() {
+    ResultSet empty = mock(ResultSet.class);
+    when(empty.hasNoMoreFetchedRows()).thenReturn(true);
+    selectResult.complete(empty);
+
+    assertThatThrownBy(() -> service.validateTokenAsync(token, null).toCompletableFuture().join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(UnauthorizedException.class);
+    // remembered as invalid, without reading the table again
+    assertThatThrownBy(() -> service.validateToken(token))
+        .isInstanceOf(UnauthorizedException.class)
+        .hasMessage("authorization failed");
+    verify(dataStore, times(1)).execute(isA(BoundSelect.class), any(UnaryOperator.class));
+  }
+
+  @Test
+  public void validateTokenAsyncDataStoreFailure() throws UnauthorizedException {
+    selectResult.completeExceptionally(new IllegalStateException("read timeout"));
+
+    assertThatThrownBy(() -> service.validateTokenAsync(token, null).toCompletableFuture().join())
+        .isInstanceOf(CompletionException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+
+    // failures other than invalid tokens are not cached
+    selectResult = CompletableFuture.completedFuture(tokenRow("user1"));
+    assertThat(service.validateToken(token).roleName()).isEqualTo("user1");
+  }
+
+  @Test
+  public void validateTokenAsyncMissingToken() {
+    assertThatThrownBy(() -> service.validateTokenAsync("", null).toCompletableFuture().join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(UnauthorizedException.class);
+  }
+
+  private static ResultSet tokenRow(String username) {
+    Row row = mock(Row.class);
+    when(row.getString("username")).thenReturn(username);
+    when(row.getInt("created_timestamp")).thenReturn(1);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.one()).thenReturn(row);
+    return resultSet;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.auth.table;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+class CredentialsVerifierTest {
+
+  private static final String HASH = BCrypt.hashpw("secret", BCrypt.gensalt(4));
+
+  @Test
+  public void shouldVerifyPasswords() {
+    CredentialsVerifier verifier = new CredentialsVerifier(1, 10, 10_000, 30, 100);
+
+    assertThat(verifier.verify("user", "secret", HASH)).isTrue();
+    assertThat(verifier.verify("user", "wrong", HASH)).isFalse();
+    assertThat(verifier.verify("user", "secret", "not a hash")).isFalse();
+  }
+
+  @Test
+  public void shouldSkipBCryptForRecentlyVerifiedCredentials() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CredentialsVerifier verifier = new CredentialsVerifier(1, 10, 10_000, 30, 100);
+    verifier.setMeterRegistry(registry);
+
+    assertThat(verifier.verify("user", "secret", HASH)).isTrue();
+    assertThat(verifier.verify("user", "secret", HASH)).isTrue();
+    // a different password or hash must go through BCrypt again
+    assertThat(verifier.verify("user", "wrong", HASH)).isFalse();
+    String newHash = BCrypt.hashpw("other", BCrypt.gensalt(4));
+    assertThat(verifier.verify("user", "secret", newHash)).isFalse();
+
+    assertThat(registry.counter(CredentialsVerifier.CACHE_HITS_METRIC).count()).isEqualTo(1);
+    assertThat(registry.timer(CredentialsVerifier.VERIFY_TIMER_METRIC).count()).isEqualTo(3);
+    assertThat(registry.timer(CredentialsVerifier.QUEUE_TIMER_METRIC).count()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldNotCacheWhenTtlIsZero() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CredentialsVerifier verifier = new CredentialsVerifier(1, 10, 10_000, 0, 100);
+    verifier.setMeterRegistry(registry);
+
+    assertThat(verifier.verify("user", "secret", HASH)).isTrue();
+    assertThat(verifier.verify("user", "secret", HASH)).isTrue();
+
+    assertThat(registry.counter(CredentialsVerifier.CACHE_HITS_METRIC).count()).isZero();
+    assertThat(registry.timer(CredentialsVerifier.VERIFY_TIMER_METRIC).count()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldRejectChecksThatTimeOut() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CredentialsVerifier verifier = new CredentialsVerifier(1, 10, 1, 30, 100);
+    verifier.setMeterRegistry(registry);
+    String slowHash = BCrypt.hashpw("secret", BCrypt.gensalt(12));
+
+    assertThatThrownBy(() -> verifier.verify("user", "secret", slowHash))
+        .isInstanceOf(RejectedExecutionException.class)
+        .hasMessageContaining("timed out");
+    assertThat(registry.counter(CredentialsVerifier.REJECTED_METRIC).count()).isEqualTo(1);
+  }
+}
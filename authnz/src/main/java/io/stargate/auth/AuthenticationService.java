@@ -18,6 +18,8 @@ package io.stargate.auth;
 import io.stargate.db.Authenticator.SaslNegotiator;
 import io.stargate.db.ClientInfo;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 public interface AuthenticationService {
 
@@ -38,5 +40,25 @@ public interface AuthenticationService {
     return validateToken(token);
   }
 
+  /**
+   * Validates a token without blocking the calling thread, which callers running on I/O threads
+   * should prefer. Validation failures complete the returned stage exceptionally with an {@link
+   * UnauthorizedException} (possibly wrapped in a {@link
+   * java.util.concurrent.CompletionException}).
+   *
+   * <p>The default implementation calls {@link #validateToken(String, Map)} on the calling thread,
+   * implementations that have to wait for I/O should override it.
+   */
+  default CompletionStage<AuthenticationSubject> validateTokenAsync(
+      String token, Map<String, String> headers) {
+    CompletableFuture<AuthenticationSubject> result = new CompletableFuture<>();
+    try {
+      result.complete(validateToken(token, headers));
+    } catch (UnauthorizedException | RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
   SaslNegotiator getSaslNegotiator(SaslNegotiator wrapped, ClientInfo clientInfo);
 }
@@ -123,6 +123,15 @@ public interface AuthorizationService {
       ResourceKind resource)
       throws UnauthorizedException;
 
+  /**
+   * Whether {@link #authorizeSchemaRead} can ever fail. Services that let every user read every
+   * schema element return {@code false}, which allows clients to skip the schema read checks
+   * altogether.
+   */
+  default boolean enforcesSchemaReads() {
+    return true;
+  }
+
   /**
    * Using the provided token will perform pre-authorization where possible and if not successful
    * throws an exception.
@@ -0,0 +1,249 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.bridge.impl;
+
+import io.grpc.internal.GrpcUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * The thread pools of the bridge:
+ *
+ * <ul>
+ *   <li>a small scheduler, for delayed tasks such as the schema agreement polling ({@link
+ *       #SCHEDULER_SIZE_PROPERTY}).
+ *   <li>a worker pool, for the work that continues a request outside of the gRPC and persistence
+ *       threads: building schema responses... ({@link #EXECUTOR_SIZE_PROPERTY}, one thread per core
+ *       by default).
+ *   <li>a small pool that authenticates new tokens and creates their connections ({@link
+ *       #AUTH_EXECUTOR_SIZE_PROPERTY}). Its queue is bounded ({@link
+ *       #AUTH_EXECUTOR_QUEUE_SIZE_PROPERTY}), so a burst of new tokens fails fast instead of
+ *       delaying the rest of the work.
+ *   <li>optionally, a work-stealing {@link ForkJoinPool} to run the gRPC server callbacks, instead
+ *       of running them directly on the transport threads ({@link #SERVER_EXECUTOR_PROPERTY}).
+ * </ul>
+ *
+ * <p>Each pool exports the standard Micrometer executor metrics ({@code executor.queued}, {@code
+ * executor.active}, {@code executor.completed}, task execution and idle times...) tagged with its
+ * name, as well as its utilization, i.e. the fraction of its threads that are busy.
+ */
+public class BridgeExecutors {
+
+  public static final String SCHEDULER_SIZE_PROPERTY = "stargate.bridge.scheduler_size";
+  public static final String EXECUTOR_SIZE_PROPERTY = "stargate.bridge.executor_size";
+  public static final String AUTH_EXECUTOR_SIZE_PROPERTY = "stargate.bridge.auth_executor_size";
+  public static final String AUTH_EXECUTOR_QUEUE_SIZE_PROPERTY =
+      "stargate.bridge.auth_executor_queue_size";
+  /** Either {@code direct} (the default) or {@code fork_join}. */
+  public static final String SERVER_EXECUTOR_PROPERTY = "stargate.bridge.server_executor";
+
+  public static final String SERVER_EXECUTOR_PARALLELISM_PROPERTY =
+      "stargate.bridge.server_executor_parallelism";
+  public static final String METRICS_ENABLED_PROPERTY = "stargate.bridge.executor_metrics_enabled";
+
+  public static final String UTILIZATION_METRIC = "executor.utilization";
+
+  public enum ServerExecutor {
+    /** Runs the gRPC callbacks on the transport threads. */
+    DIRECT,
+    /** Runs the gRPC callbacks on a dedicated work-stealing pool. */
+    FORK_JOIN,
+  }
+
+  private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService executor;
+  private final ExecutorService authExecutor;
+  @Nullable private final ExecutorService serverExecutor;
+
+  /** Creates the executors as configured by the system properties. */
+  public BridgeExecutors(@Nullable MeterRegistry registry) {
+    this(
+        Integer.getInteger(SCHEDULER_SIZE_PROPERTY, 2),
+        Integer.getInteger(EXECUTOR_SIZE_PROPERTY, Math.max(8, CORES)),
+        Integer.getInteger(AUTH_EXECUTOR_SIZE_PROPERTY, Math.max(2, CORES / 2)),
+        Integer.getInteger(AUTH_EXECUTOR_QUEUE_SIZE_PROPERTY, 1000),
+        ServerExecutor.valueOf(
+            System.getProperty(SERVER_EXECUTOR_PROPERTY, "direct").toUpperCase(Locale.ROOT)),
+        Integer.getInteger(SERVER_EXECUTOR_PARALLELISM_PROPERTY, CORES),
+        Boolean.parseBoolean(System.getProperty(METRICS_ENABLED_PROPERTY, "true"))
+            ? registry
+            : null);
+  }
+
+  public BridgeExecutors(
+      int schedulerSize,
+      int executorSize,
+      ServerExecutor serverExecutorType,
+      int serverExecutorParallelism,
+      @Nullable MeterRegistry registry) {
+    this(
+        schedulerSize,
+        executorSize,
+        Math.max(2, CORES / 2),
+        1000,
+        serverExecutorType,
+        serverExecutorParallelism,
+        registry);
+  }
+
+  public BridgeExecutors(
+      int schedulerSize,
+      int executorSize,
+      int authExecutorSize,
+      int authExecutorQueueSize,
+      ServerExecutor serverExecutorType,
+      int serverExecutorParallelism,
+      @Nullable MeterRegistry registry) {
+    ScheduledThreadPoolExecutor scheduler =
+        new ScheduledThreadPoolExecutor(
+            schedulerSize, GrpcUtil.getThreadFactory("bridge-scheduler-%d", true));
+    // Don't keep the schema agreement polls of cancelled requests around
+    scheduler.setRemoveOnCancelPolicy(true);
+
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            executorSize,
+            executorSize,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            GrpcUtil.getThreadFactory("bridge-stargate-executor-%d", true));
+
+    ThreadPoolExecutor authExecutor =
+        new ThreadPoolExecutor(
+            authExecutorSize,
+            authExecutorSize,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, authExecutorQueueSize)),
+            GrpcUtil.getThreadFactory("bridge-auth-%d", true),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    ForkJoinPool serverExecutor =
+        serverExecutorType == ServerExecutor.FORK_JOIN
+            ? new ForkJoinPool(
+                serverExecutorParallelism,
+                pool -> {
+                  ForkJoinWorkerThread thread =
+                      ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                  thread.setName("bridge-grpc-" + thread.getPoolIndex());
+                  thread.setDaemon(true);
+                  return thread;
+                },
+                null,
+                // FIFO scheduling, better suited to event-style tasks that are never joined
+                true)
+            : null;
+
+    if (registry == null) {
+      this.scheduler = scheduler;
+      this.executor = executor;
+      this.authExecutor = authExecutor;
+      this.serverExecutor = serverExecutor;
+    } else {
+      this.scheduler = ExecutorServiceMetrics.monitor(registry, scheduler, "bridge-scheduler");
+      utilization(registry, "bridge-scheduler", scheduler);
+      this.executor = ExecutorServiceMetrics.monitor(registry, executor, "bridge-executor");
+      utilization(registry, "bridge-executor", executor);
+      this.authExecutor = ExecutorServiceMetrics.monitor(registry, authExecutor, "bridge-auth");
+      utilization(registry, "bridge-auth", authExecutor);
+      if (serverExecutor == null) {
+        this.serverExecutor = null;
+      } else {
+        this.serverExecutor =
+            ExecutorServiceMetrics.monitor(registry, serverExecutor, "bridge-server");
+        Gauge.builder(
+                UTILIZATION_METRIC,
+                serverExecutor,
+                pool -> (double) pool.getActiveThreadCount() / pool.getParallelism())
+            .tag("name", "bridge-server")
+            .register(registry);
+      }
+    }
+  }
+
+  private static void utilization(MeterRegistry registry, String name, ThreadPoolExecutor pool) {
+    Gauge.builder(
+            UTILIZATION_METRIC,
+            pool,
+            p -> (double) p.getActiveCount() / Math.max(1, p.getMaximumPoolSize()))
+        .tag("name", name)
+        .register(registry);
+  }
+
+  /** The executor for delayed tasks. */
+  public ScheduledExecutorService scheduler() {
+    return scheduler;
+  }
+
+  /** The executor for the work that continues requests. */
+  public ExecutorService executor() {
+    return executor;
+  }
+
+  /**
+   * The executor that authenticates new tokens. It rejects tasks with a {@link
+   * java.util.concurrent.RejectedExecutionException} when its queue is full.
+   */
+  public ExecutorService authExecutor() {
+    return authExecutor;
+  }
+
+  /**
+   * The executor for the gRPC server callbacks, or {@code null} if they should run directly on the
+   * transport threads.
+   */
+  @Nullable
+  public ExecutorService serverExecutor() {
+    return serverExecutor;
+  }
+
+  public void shutdown() {
+    scheduler.shutdown();
+    executor.shutdown();
+    authExecutor.shutdown();
+    if (serverExecutor != null) {
+      serverExecutor.shutdown();
+    }
+  }
+
+  /** @return whether all the executors terminated before the timeout. */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (ExecutorService service :
+        new ExecutorService[] {scheduler, executor, authExecutor, serverExecutor}) {
+      if (service != null
+          && !service.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
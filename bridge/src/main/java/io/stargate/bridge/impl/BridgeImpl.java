@@ -16,11 +16,11 @@
 package io.stargate.bridge.impl;
 
 import io.grpc.Server;
-import io.grpc.internal.GrpcUtil;
 import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import io.micrometer.core.instrument.binder.grpc.MetricCollectingServerInterceptor;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.AuthorizationService;
+import io.stargate.bridge.metrics.BridgeMetrics;
 import io.stargate.bridge.service.BridgeService;
 import io.stargate.bridge.service.interceptors.NewConnectionInterceptor;
 import io.stargate.core.metrics.api.Metrics;
@@ -30,21 +30,17 @@ import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class BridgeImpl {
   private static final Logger logger = LoggerFactory.getLogger(BridgeImpl.class);
-  private static final Integer EXECUTOR_SIZE =
-      Integer.getInteger("stargate.bridge.executor_size", 8);
   private static final Integer SHUTDOWN_TIMEOUT_SECONDS =
       Integer.getInteger("stargate.bridge.shutdown_timeout_seconds", 60);
 
   private final Server server;
-  private final ScheduledExecutorService executor;
+  private final BridgeExecutors executors;
 
   public BridgeImpl(
       Persistence persistence,
@@ -66,17 +62,30 @@ public class BridgeImpl {
 
     int port = Integer.getInteger("stargate.bridge.port", 8091);
 
-    executor =
-        Executors.newScheduledThreadPool(
-            EXECUTOR_SIZE, GrpcUtil.getThreadFactory("bridge-stargate-executor", true));
+    executors = new BridgeExecutors(metrics.getMeterRegistry());
+    BridgeMetrics bridgeMetrics = new BridgeMetrics(metrics.getMeterRegistry());
+    NettyServerBuilder builder =
+        NettyServerBuilder.forAddress(new InetSocketAddress(listenAddress, port));
+    if (executors.serverExecutor() == null) {
+      // `Persistence` operations are done asynchronously so there isn't a need for a separate
+      // thread pool for handling gRPC callbacks in `GrpcService`.
+      builder.directExecutor();
+    } else {
+      builder.executor(executors.serverExecutor());
+    }
     server =
-        NettyServerBuilder.forAddress(new InetSocketAddress(listenAddress, port))
-            // `Persistence` operations are done asynchronously so there isn't a need for a separate
-            // thread pool for handling gRPC callbacks in `GrpcService`.
-            .directExecutor()
-            .intercept(new NewConnectionInterceptor(persistence, authenticationService))
+        builder
+            .intercept(
+                new NewConnectionInterceptor(
+                    persistence, authenticationService, bridgeMetrics, executors.authExecutor()))
             .intercept(new MetricCollectingServerInterceptor(metrics.getMeterRegistry()))
-            .addService(new BridgeService(persistence, authorizationService, executor))
+            .addService(
+                new BridgeService(
+                    persistence,
+                    authorizationService,
+                    executors.scheduler(),
+                    executors.executor(),
+                    bridgeMetrics))
             .build();
   }
 
@@ -91,16 +100,16 @@ public class BridgeImpl {
   public void stop() {
     try {
       server.shutdown();
-      // Since we provided our own executor, it's our responsibility to shut it down.
+      // Since we provided our own executors, it's our responsibility to shut them down.
       // Note that we don't handle restarts because GrpcActivator never reuses an existing instance
       // (and that wouldn't work anyway, because Server doesn't support it either).
-      executor.shutdown();
+      executors.shutdown();
 
       long timeoutMillis = TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS);
       long start = System.currentTimeMillis();
 
       if (!server.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)
-          || !executor.awaitTermination(
+          || !executors.awaitTermination(
               timeoutMillis - (System.currentTimeMillis() - start), TimeUnit.MILLISECONDS)) {
         logger.warn("Timed out while waiting for executor shutdown");
       }
@@ -0,0 +1,156 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.bridge.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the latency of the individual phases of a bridge request (authentication, prepare, bind,
+ * execution and response building), as well as the hit rate of the prepared statement cache.
+ *
+ * <p>All timers are tagged with the RPC name and the outcome of the phase. Meters are resolved once
+ * per RPC and then reused, so that recording a phase is only a {@link System#nanoTime()} call and
+ * an array lookup. When disabled (see {@link #ENABLED_PROPERTY}), nothing is recorded and {@link
+ * #startTimer()} does not even read the clock.
+ */
+public class BridgeMetrics {
+
+  public static final String ENABLED_PROPERTY = "stargate.bridge.phase_metrics_enabled";
+
+  public static final String PHASE_TIMER_METRIC = "bridge.request.phase";
+  public static final String PREPARE_CACHE_METRIC = "bridge.prepare.cache";
+
+  public static final String RPC_TAG = "rpc";
+  public static final String PHASE_TAG = "phase";
+  public static final String OUTCOME_TAG = "outcome";
+  public static final String RESULT_TAG = "result";
+
+  /** An instance that never records anything. */
+  public static final BridgeMetrics DISABLED = new BridgeMetrics(null, false);
+
+  public enum Phase {
+    AUTHENTICATION,
+    PREPARE,
+    BIND,
+    EXECUTE,
+    BUILD_RESPONSE;
+
+    private final String tagValue = name().toLowerCase(Locale.ROOT);
+  }
+
+  private static final String SUCCESS = "success";
+  private static final String FAILURE = "failure";
+
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final Map<String, RpcMeters> metersByRpc = new ConcurrentHashMap<>();
+
+  public BridgeMetrics(MeterRegistry meterRegistry) {
+    this(meterRegistry, Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")));
+  }
+
+  public BridgeMetrics(MeterRegistry meterRegistry, boolean enabled) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled && meterRegistry != null;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the start time to pass to {@link #record(String, Phase, long, boolean)}, or 0 if the
+   * metrics are disabled.
+   */
+  public long startTimer() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /** Records the time elapsed since {@code startNanos} for the given RPC and phase. */
+  public void record(String rpc, Phase phase, long startNanos, boolean success) {
+    if (enabled) {
+      metersFor(rpc).timer(phase, success).record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+  }
+
+  /**
+   * Records the given phase when the stage completes.
+   *
+   * @return the same stage, for chaining.
+   */
+  public <T> CompletionStage<T> record(
+      String rpc, Phase phase, long startNanos, CompletionStage<T> stage) {
+    if (enabled) {
+      stage.whenComplete((__, error) -> record(rpc, phase, startNanos, error == null));
+    }
+    return stage;
+  }
+
+  public void markPrepareCacheHit(String rpc) {
+    if (enabled) {
+      metersFor(rpc).prepareCacheHits.increment();
+    }
+  }
+
+  public void markPrepareCacheMiss(String rpc) {
+    if (enabled) {
+      metersFor(rpc).prepareCacheMisses.increment();
+    }
+  }
+
+  private RpcMeters metersFor(String rpc) {
+    RpcMeters meters = metersByRpc.get(rpc);
+    return meters != null ? meters : metersByRpc.computeIfAbsent(rpc, RpcMeters::new);
+  }
+
+  private class RpcMeters {
+
+    private final Timer[] successTimers = new Timer[Phase.values().length];
+    private final Timer[] failureTimers = new Timer[Phase.values().length];
+    private final Counter prepareCacheHits;
+    private final Counter prepareCacheMisses;
+
+    RpcMeters(String rpc) {
+      for (Phase phase : Phase.values()) {
+        successTimers[phase.ordinal()] = timer(rpc, phase, SUCCESS);
+        failureTimers[phase.ordinal()] = timer(rpc, phase, FAILURE);
+      }
+      prepareCacheHits =
+          meterRegistry.counter(PREPARE_CACHE_METRIC, Tags.of(RPC_TAG, rpc, RESULT_TAG, "hit"));
+      prepareCacheMisses =
+          meterRegistry.counter(PREPARE_CACHE_METRIC, Tags.of(RPC_TAG, rpc, RESULT_TAG, "miss"));
+    }
+
+    Timer timer(Phase phase, boolean success) {
+      return success ? successTimers[phase.ordinal()] : failureTimers[phase.ordinal()];
+    }
+
+    private Timer timer(String rpc, Phase phase, String outcome) {
+      return Timer.builder(PHASE_TIMER_METRIC)
+          .tags(RPC_TAG, rpc, PHASE_TAG, phase.tagValue, OUTCOME_TAG, outcome)
+          .publishPercentileHistogram()
+          .register(meterRegistry);
+    }
+  }
+}
@@ -72,6 +72,10 @@ class AuthorizationHandler {
   }
 
   private AuthenticationSubject getSubject() {
+    return getSubject(connection);
+  }
+
+  static AuthenticationSubject getSubject(Connection connection) {
     return connection
         .loggedUser()
         .map(AuthenticationSubject::of)
@@ -102,7 +106,7 @@ class AuthorizationHandler {
     }
   }
 
-  private SourceAPI convertApi(SchemaRead.SourceApi sourceApi) {
+  static SourceAPI convertApi(SchemaRead.SourceApi sourceApi) {
     switch (sourceApi) {
       case GRAPHQL:
         return SourceAPI.GRAPHQL;
@@ -17,6 +17,7 @@ package io.stargate.bridge.service;
 
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import io.stargate.bridge.metrics.BridgeMetrics;
 import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.bridge.proto.QueryOuterClass.Batch;
 import io.stargate.bridge.proto.QueryOuterClass.BatchParameters;
@@ -29,8 +30,10 @@ import io.stargate.db.Parameters;
 import io.stargate.db.Persistence;
 import io.stargate.db.Persistence.Connection;
 import io.stargate.db.Result;
+import io.stargate.db.Result.Prepared;
 import io.stargate.db.Statement;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,13 +41,16 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 
 public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIdempotencyInfo> {
 
+  static final String RPC_NAME = "ExecuteBatch";
+
   /** The maximum number of batch queries to prepare simultaneously. */
   private static final int MAX_CONCURRENT_PREPARES_FOR_BATCH =
       Math.max(Integer.getInteger("stargate.grpc.max_concurrent_prepares_for_batch", 1), 1);
@@ -55,8 +61,9 @@ public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIde
       Batch batch,
       Connection connection,
       Persistence persistence,
+      BridgeMetrics metrics,
       StreamObserver<Response> responseObserver) {
-    super(batch, connection, persistence, responseObserver);
+    super(batch, connection, persistence, metrics, RPC_NAME, responseObserver);
     BatchParameters batchParameters = batch.getParameters();
     this.decoratedKeyspace =
         batchParameters.hasKeyspace()
@@ -70,6 +77,24 @@ public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIde
     if (message.getQueriesCount() == 0) {
       throw Status.INVALID_ARGUMENT.withDescription("No queries in batch").asException();
     }
+    for (int i = 0; i < message.getQueriesCount(); ++i) {
+      BatchQuery query = message.getQueries(i);
+      if (query.hasCqlIndex()) {
+        int cqlIndex = query.getCqlIndex().getValue();
+        if (!query.getCql().isEmpty()
+            || cqlIndex < 0
+            || cqlIndex >= i
+            || message.getQueries(cqlIndex).hasCqlIndex()) {
+          throw Status.INVALID_ARGUMENT
+              .withDescription(
+                  String.format(
+                      "Query %d in batch must have an empty cql and a cql_index pointing to an "
+                          + "earlier query with its own cql (got %d)",
+                      i, cqlIndex))
+              .asException();
+        }
+      }
+    }
   }
 
   @Override
@@ -82,10 +107,9 @@ public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIde
     long queryStartNanoTime = System.nanoTime();
     BatchParameters parameters = message.getParameters();
     try {
-      return connection.batch(
-          preparedBatch.batch,
-          makeParameters(parameters, connection.clientInfo()),
-          queryStartNanoTime);
+      Parameters batchParameters = makeParameters(parameters, connection.clientInfo());
+      return timedExecute(
+          () -> connection.batch(preparedBatch.batch, batchParameters, queryStartNanoTime));
     } catch (Exception e) {
       return failedFuture(e, preparedBatch.isIdempotent);
     }
@@ -165,12 +189,16 @@ public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIde
 
   /**
    * Concurrently prepares queries in a batch. It'll prepare up to {@link
-   * #MAX_CONCURRENT_PREPARES_FOR_BATCH} queries simultaneously.
+   * #MAX_CONCURRENT_PREPARES_FOR_BATCH} queries simultaneously. Queries with the same CQL string
+   * (or referring to the same one with {@code cql_index}) are only prepared once per batch.
    */
   class BatchPreparer {
 
     private final AtomicInteger queryIndex = new AtomicInteger();
-    private final List<Statement> statements = new CopyOnWriteArrayList<>();
+    private final AtomicInteger boundCount = new AtomicInteger();
+    private final AtomicReferenceArray<Statement> statements =
+        new AtomicReferenceArray<>(message.getQueriesCount());
+    private final Map<String, CompletionStage<Prepared>> preparedByCql = new ConcurrentHashMap<>();
     private final CompletableFuture<BatchAndIdempotencyInfo> future = new CompletableFuture<>();
     private final AtomicBoolean isIdempotent = new AtomicBoolean(true);
 
@@ -192,20 +220,20 @@ public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIde
     /** Asynchronously prepares the next query in the batch. */
     private void next() {
       int index = this.queryIndex.getAndIncrement();
-      // When there are no more queries to prepare then construct the batch with the prepared
-      // statements and complete the future.
+      // When there are no more queries to prepare, the remaining ones are still being prepared by
+      // the other concurrent prepares, and the last one to finish completes the future.
       if (index >= message.getQueriesCount()) {
-        future.complete(
-            new BatchAndIdempotencyInfo(
-                new io.stargate.db.Batch(BatchType.fromId(message.getTypeValue()), statements),
-                isIdempotent.get()));
         return;
       }
 
       BatchQuery query = message.getQueries(index);
 
-      BatchHandler.this
-          .prepare(query.getCql(), decoratedKeyspace)
+      String cql =
+          query.hasCqlIndex()
+              ? message.getQueries(query.getCqlIndex().getValue()).getCql()
+              : query.getCql();
+
+      prepare(cql)
           .whenComplete(
               (prepared, t) -> {
                 if (t != null) {
@@ -215,14 +243,44 @@ public class BatchHandler extends MessageHandler<Batch, BatchHandler.BatchAndIde
                     // if any statement in a batch is non idempotent, then all statements are non
                     // idempotent
                     isIdempotent.compareAndSet(true, prepared.isIdempotent);
-                    statements.add(bindValues(prepared, query.getValues()));
-                    next(); // Prepare the next query in the batch
+                    statements.set(index, bindValues(prepared, query.getValues()));
+                    if (boundCount.incrementAndGet() == message.getQueriesCount()) {
+                      complete();
+                    } else {
+                      next(); // Prepare the next query in the batch
+                    }
                   } catch (Throwable th) {
                     future.completeExceptionally(th);
                   }
                 }
               });
     }
+
+    /**
+     * Constructs the batch with the bound statements, in the order of the queries in the message,
+     * and completes the future.
+     */
+    private void complete() {
+      List<Statement> batchStatements = new ArrayList<>(statements.length());
+      for (int i = 0; i < statements.length(); ++i) {
+        batchStatements.add(statements.get(i));
+      }
+      future.complete(
+          new BatchAndIdempotencyInfo(
+              new io.stargate.db.Batch(BatchType.fromId(message.getTypeValue()), batchStatements),
+              isIdempotent.get()));
+    }
+
+    /** Prepares the query, or reuses the statement prepared for the same CQL in this batch. */
+    private CompletionStage<Prepared> prepare(String cql) {
+      CompletionStage<Prepared> prepared = preparedByCql.get(cql);
+      if (prepared != null) {
+        metrics.markPrepareCacheHit(rpc);
+        return prepared;
+      }
+      return preparedByCql.computeIfAbsent(
+          cql, c -> BatchHandler.this.prepare(c, decoratedKeyspace));
+    }
   }
 
   static class BatchAndIdempotencyInfo {
@@ -19,6 +19,7 @@ import io.grpc.Context;
 import io.grpc.StatusException;
 import io.grpc.stub.StreamObserver;
 import io.stargate.auth.AuthorizationService;
+import io.stargate.bridge.metrics.BridgeMetrics;
 import io.stargate.bridge.proto.QueryOuterClass.Batch;
 import io.stargate.bridge.proto.QueryOuterClass.Query;
 import io.stargate.bridge.proto.QueryOuterClass.Response;
@@ -29,6 +30,7 @@ import io.stargate.db.Result;
 import io.stargate.db.schema.Keyspace;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
@@ -45,15 +47,30 @@ public class BridgeService extends StargateBridgeGrpc.StargateBridgeImplBase {
   private final Persistence persistence;
   private final AuthorizationService authorizationService;
 
-  private final ScheduledExecutorService executor;
+  private final ScheduledExecutorService scheduler;
+  private final Executor executor;
   private final int schemaAgreementRetries;
+  private final BridgeMetrics metrics;
   private final Schema.SupportedFeaturesResponse supportedFeaturesResponse;
 
   public BridgeService(
       Persistence persistence,
       AuthorizationService authorizationService,
       ScheduledExecutorService executor) {
-    this(persistence, authorizationService, executor, Persistence.SCHEMA_AGREEMENT_WAIT_RETRIES);
+    this(persistence, authorizationService, executor, BridgeMetrics.DISABLED);
+  }
+
+  public BridgeService(
+      Persistence persistence,
+      AuthorizationService authorizationService,
+      ScheduledExecutorService executor,
+      BridgeMetrics metrics) {
+    this(
+        persistence,
+        authorizationService,
+        executor,
+        Persistence.SCHEMA_AGREEMENT_WAIT_RETRIES,
+        metrics);
   }
 
   BridgeService(
@@ -61,15 +78,63 @@ public class BridgeService extends StargateBridgeGrpc.StargateBridgeImplBase {
       AuthorizationService authorizationService,
       ScheduledExecutorService executor,
       int schemaAgreementRetries) {
+    this(
+        persistence,
+        authorizationService,
+        executor,
+        schemaAgreementRetries,
+        BridgeMetrics.DISABLED);
+  }
+
+  /**
+   * @param scheduler the executor for delayed tasks (schema agreement polling).
+   * @param executor the executor for the work that continues requests (building responses).
+   */
+  public BridgeService(
+      Persistence persistence,
+      AuthorizationService authorizationService,
+      ScheduledExecutorService scheduler,
+      Executor executor,
+      BridgeMetrics metrics) {
+    this(
+        persistence,
+        authorizationService,
+        scheduler,
+        executor,
+        Persistence.SCHEMA_AGREEMENT_WAIT_RETRIES,
+        metrics);
+  }
+
+  BridgeService(
+      Persistence persistence,
+      AuthorizationService authorizationService,
+      ScheduledExecutorService executor,
+      int schemaAgreementRetries,
+      BridgeMetrics metrics) {
+    this(persistence, authorizationService, executor, executor, schemaAgreementRetries, metrics);
+  }
+
+  BridgeService(
+      Persistence persistence,
+      AuthorizationService authorizationService,
+      ScheduledExecutorService scheduler,
+      Executor executor,
+      int schemaAgreementRetries,
+      BridgeMetrics metrics) {
     this.persistence = persistence;
     this.authorizationService = authorizationService;
+    this.scheduler = scheduler;
     this.executor = executor;
     this.schemaAgreementRetries = schemaAgreementRetries;
+    this.metrics = metrics;
     this.supportedFeaturesResponse =
         Schema.SupportedFeaturesResponse.newBuilder()
             .setSecondaryIndexes(persistence.supportsSecondaryIndex())
             .setSai(persistence.supportsSAI())
             .setLoggedBatches(persistence.supportsLoggedBatches())
+            .setSkipSchemaReadAuthorization(!authorizationService.enforcesSchemaReads())
+            .setFilteredDescribeKeyspace(true)
+            .setBatchQueryCqlIndex(true)
             .build();
   }
 
@@ -81,8 +146,9 @@ public class BridgeService extends StargateBridgeGrpc.StargateBridgeImplBase {
             query,
             CONNECTION_KEY.get(),
             persistence,
-            executor,
+            scheduler,
             schemaAgreementRetries,
+            metrics,
             synchronizedStreamObserver)
         .handle();
   }
@@ -148,14 +214,21 @@ public class BridgeService extends StargateBridgeGrpc.StargateBridgeImplBase {
   public void executeBatch(Batch batch, StreamObserver<Response> responseObserver) {
     SynchronizedStreamObserver<Response> synchronizedStreamObserver =
         new SynchronizedStreamObserver<>(responseObserver);
-    new BatchHandler(batch, CONNECTION_KEY.get(), persistence, synchronizedStreamObserver).handle();
+    new BatchHandler(batch, CONNECTION_KEY.get(), persistence, metrics, synchronizedStreamObserver)
+        .handle();
   }
 
   @Override
   public void describeKeyspace(
       Schema.DescribeKeyspaceQuery request,
       StreamObserver<Schema.CqlKeyspaceDescribe> responseObserver) {
-    executor.execute(() -> SchemaHandler.describeKeyspace(request, persistence, responseObserver));
+    // Propagate the gRPC context, SchemaHandler reads the connection and headers from it
+    executor.execute(
+        Context.current()
+            .wrap(
+                () ->
+                    SchemaHandler.describeKeyspace(
+                        request, persistence, authorizationService, responseObserver)));
   }
 
   @Override
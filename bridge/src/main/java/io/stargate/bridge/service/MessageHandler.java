@@ -21,6 +21,8 @@ import io.grpc.Status;
 import io.grpc.StatusException;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
+import io.stargate.bridge.metrics.BridgeMetrics;
+import io.stargate.bridge.metrics.BridgeMetrics.Phase;
 import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.bridge.proto.QueryOuterClass.Response;
 import io.stargate.bridge.proto.QueryOuterClass.Values;
@@ -43,6 +45,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.apache.cassandra.stargate.exceptions.PersistenceException;
@@ -64,15 +67,22 @@ public abstract class MessageHandler<MessageT extends GeneratedMessageV3, Prepar
   private final DefaultRetryPolicy retryPolicy;
   protected final StreamObserver<QueryOuterClass.Response> responseObserver;
   private final ExceptionHandler exceptionHandler;
+  protected final BridgeMetrics metrics;
+  /** The name of the RPC being handled, used to tag the phase metrics. */
+  protected final String rpc;
 
   protected MessageHandler(
       MessageT message,
       Connection connection,
       Persistence persistence,
+      BridgeMetrics metrics,
+      String rpc,
       StreamObserver<Response> responseObserver) {
     this.message = message;
     this.connection = connection;
     this.persistence = persistence;
+    this.metrics = metrics;
+    this.rpc = rpc;
     this.retryPolicy = new DefaultRetryPolicy();
     this.responseObserver = responseObserver;
     this.exceptionHandler = new ExceptionHandler(responseObserver);
@@ -112,12 +122,26 @@ public abstract class MessageHandler<MessageT extends GeneratedMessageV3, Prepar
   }
 
   private CompletionStage<Response> executeQuery() {
-    CompletionStage<Result> resultFuture = prepare().thenCompose(this::executePrepared);
+    long prepareStart = metrics.startTimer();
+    CompletionStage<Result> resultFuture =
+        metrics
+            .record(rpc, Phase.PREPARE, prepareStart, prepare())
+            .thenCompose(this::executePrepared);
     return handleUnprepared(resultFuture)
-        .thenCompose(this::buildResponse)
+        .thenCompose(this::timedBuildResponse)
         .thenCompose(this::executeTracingQueryIfNeeded);
   }
 
+  private CompletionStage<BridgeService.ResponseAndTraceId> timedBuildResponse(Result result) {
+    long start = metrics.startTimer();
+    try {
+      return metrics.record(rpc, Phase.BUILD_RESPONSE, start, buildResponse(result));
+    } catch (RuntimeException e) {
+      metrics.record(rpc, Phase.BUILD_RESPONSE, start, false);
+      throw e;
+    }
+  }
+
   private RetryDecision shouldRetry(Throwable throwable, int retryCount) {
     Optional<PersistenceException> cause = unwrapCause(throwable);
     if (!cause.isPresent()) {
@@ -190,9 +214,29 @@ public abstract class MessageHandler<MessageT extends GeneratedMessageV3, Prepar
   protected abstract ConsistencyLevel getTracingConsistency();
 
   protected BoundStatement bindValues(Prepared prepared, Values values) throws Exception {
-    return values.getValuesCount() > 0
-        ? ValuesHelper.bindValues(prepared, values, persistence.unsetValue())
-        : new BoundStatement(prepared.statementId, Collections.emptyList(), null);
+    long start = metrics.startTimer();
+    boolean success = false;
+    try {
+      BoundStatement statement =
+          values.getValuesCount() > 0
+              ? ValuesHelper.bindValues(prepared, values, persistence.unsetValue())
+              : new BoundStatement(prepared.statementId, Collections.emptyList(), null);
+      success = true;
+      return statement;
+    } finally {
+      metrics.record(rpc, Phase.BIND, start, success);
+    }
+  }
+
+  /** Executes the given persistence operation, recording it as the {@link Phase#EXECUTE} phase. */
+  protected CompletionStage<Result> timedExecute(Supplier<CompletionStage<Result>> execution) {
+    long start = metrics.startTimer();
+    try {
+      return metrics.record(rpc, Phase.EXECUTE, start, execution.get());
+    } catch (RuntimeException e) {
+      metrics.record(rpc, Phase.EXECUTE, start, false);
+      throw e;
+    }
   }
 
   protected CompletionStage<Prepared> prepare(String cql, @Nullable String keyspace) {
@@ -215,9 +259,12 @@ public abstract class MessageHandler<MessageT extends GeneratedMessageV3, Prepar
             : ImmutableParameters.builder().defaultKeyspace(keyspace).build();
 
     Prepared preparedInCache = connection.getPrepared(cql, parameters);
-    return preparedInCache != null
-        ? CompletableFuture.completedFuture(preparedInCache)
-        : connection.prepare(cql, parameters);
+    if (preparedInCache != null) {
+      metrics.markPrepareCacheHit(rpc);
+      return CompletableFuture.completedFuture(preparedInCache);
+    }
+    metrics.markPrepareCacheMiss(rpc);
+    return connection.prepare(cql, parameters);
   }
 
   /**
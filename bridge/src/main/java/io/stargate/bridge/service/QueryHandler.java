@@ -18,11 +18,13 @@ package io.stargate.bridge.service;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import io.stargate.bridge.metrics.BridgeMetrics;
 import io.stargate.bridge.proto.QueryOuterClass;
 import io.stargate.bridge.proto.QueryOuterClass.Query;
 import io.stargate.bridge.proto.QueryOuterClass.QueryParameters;
 import io.stargate.bridge.proto.QueryOuterClass.Response;
 import io.stargate.bridge.proto.QueryOuterClass.SchemaChange;
+import io.stargate.db.BoundStatement;
 import io.stargate.db.ClientInfo;
 import io.stargate.db.ImmutableParameters;
 import io.stargate.db.PagingPosition;
@@ -48,6 +50,8 @@ import org.apache.cassandra.stargate.db.ConsistencyLevel;
 
 public class QueryHandler extends MessageHandler<Query, Prepared> {
 
+  static final String RPC_NAME = "ExecuteQuery";
+
   private final String decoratedKeyspace;
   private final SchemaAgreementHelper schemaAgreementHelper;
   private final boolean enrichResponse;
@@ -60,8 +64,9 @@ public class QueryHandler extends MessageHandler<Query, Prepared> {
       Persistence persistence,
       ScheduledExecutorService executor,
       int schemaAgreementRetries,
+      BridgeMetrics metrics,
       StreamObserver<Response> responseObserver) {
-    super(query, connection, persistence, responseObserver);
+    super(query, connection, persistence, metrics, RPC_NAME, responseObserver);
     this.schemaAgreementHelper =
         new SchemaAgreementHelper(connection, schemaAgreementRetries, executor);
     QueryParameters queryParameters = query.getParameters();
@@ -90,8 +95,8 @@ public class QueryHandler extends MessageHandler<Query, Prepared> {
     QueryParameters parameters = message.getParameters();
     try {
       this.parameters = makeParameters(parameters, connection.clientInfo());
-      return connection.execute(
-          bindValues(prepared, message.getValues()), this.parameters, queryStartNanoTime);
+      BoundStatement statement = bindValues(prepared, message.getValues());
+      return timedExecute(() -> connection.execute(statement, this.parameters, queryStartNanoTime));
     } catch (Exception e) {
       return failedFuture(e, prepared.isIdempotent);
     }
@@ -20,6 +20,11 @@ import com.google.protobuf.StringValue;
 import io.grpc.Status;
 import io.grpc.StatusException;
 import io.grpc.stub.StreamObserver;
+import io.stargate.auth.AuthenticationSubject;
+import io.stargate.auth.AuthorizationService;
+import io.stargate.auth.SourceAPI;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.auth.entity.ResourceKind;
 import io.stargate.bridge.proto.QueryOuterClass.ColumnSpec;
 import io.stargate.bridge.proto.QueryOuterClass.TypeSpec.Udt;
 import io.stargate.bridge.proto.Schema;
@@ -40,9 +45,12 @@ import io.stargate.db.schema.MaterializedView;
 import io.stargate.db.schema.SecondaryIndex;
 import io.stargate.db.schema.Table;
 import io.stargate.db.schema.UserDefinedType;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import org.jetbrains.annotations.NotNull;
 
 class SchemaHandler {
@@ -53,6 +61,7 @@ class SchemaHandler {
   public static void describeKeyspace(
       DescribeKeyspaceQuery query,
       Persistence persistence,
+      AuthorizationService authorizationService,
       StreamObserver<CqlKeyspaceDescribe> responseObserver) {
 
     // The name that the client asked for, e.g. "ks".
@@ -66,24 +75,100 @@ class SchemaHandler {
     if (keyspace == null) {
       responseObserver.onError(
           Status.NOT_FOUND.withDescription("Keyspace not found").asException());
-    } else if (query.hasHash() && query.getHash().getValue() == keyspace.schemaHashCode()) {
-      // Client already has the latest version, don't resend
-      responseObserver.onNext(EMPTY_KEYSPACE_DESCRIPTION);
-      responseObserver.onCompleted();
-    } else {
-      try {
-        CqlKeyspaceDescribe description =
-            SchemaHandler.buildKeyspaceDescription(keyspace, simpleName, decoratedName);
-        responseObserver.onNext(description);
-        responseObserver.onCompleted();
-      } catch (StatusException e) {
-        responseObserver.onError(e);
+      return;
+    }
+    try {
+      if (query.getAuthorizedOnly() && authorizationService.enforcesSchemaReads()) {
+        // The response depends on the client, so never use the hash
+        responseObserver.onNext(
+            buildAuthorizedKeyspaceDescription(
+                keyspace,
+                simpleName,
+                decoratedName,
+                authorizationService,
+                AuthorizationHandler.getSubject(BridgeService.CONNECTION_KEY.get()),
+                AuthorizationHandler.convertApi(query.getSourceApi())));
+      } else if (query.hasHash() && query.getHash().getValue() == keyspace.schemaHashCode()) {
+        // Client already has the latest version, don't resend
+        responseObserver.onNext(EMPTY_KEYSPACE_DESCRIPTION);
+      } else {
+        responseObserver.onNext(buildKeyspaceDescription(keyspace, simpleName, decoratedName));
       }
+      responseObserver.onCompleted();
+    } catch (StatusException e) {
+      responseObserver.onError(e);
+    } catch (IllegalArgumentException e) {
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asException());
+    }
+  }
+
+  /**
+   * Same as {@link #buildKeyspaceDescription}, but only with the tables that the subject is allowed
+   * to read, and without a hash.
+   *
+   * @throws StatusException with {@link Status#PERMISSION_DENIED} if the subject can't read the
+   *     keyspace.
+   */
+  private static CqlKeyspaceDescribe buildAuthorizedKeyspaceDescription(
+      Keyspace keyspace,
+      String simpleName,
+      String decoratedName,
+      AuthorizationService authorizationService,
+      AuthenticationSubject subject,
+      SourceAPI sourceApi)
+      throws StatusException {
+    List<String> keyspaceNames = Collections.singletonList(simpleName);
+    if (!isAuthorized(
+        authorizationService,
+        subject,
+        keyspaceNames,
+        Collections.emptyList(),
+        sourceApi,
+        ResourceKind.KEYSPACE)) {
+      throw Status.PERMISSION_DENIED
+          .withDescription("Not authorized to read keyspace " + simpleName)
+          .asException();
+    }
+    return buildKeyspaceDescription(
+            keyspace,
+            simpleName,
+            decoratedName,
+            table ->
+                isAuthorized(
+                    authorizationService,
+                    subject,
+                    keyspaceNames,
+                    Collections.singletonList(table.name()),
+                    sourceApi,
+                    ResourceKind.TABLE))
+        .clearHash()
+        .build();
+  }
+
+  private static boolean isAuthorized(
+      AuthorizationService authorizationService,
+      AuthenticationSubject subject,
+      List<String> keyspaceNames,
+      List<String> tableNames,
+      SourceAPI sourceApi,
+      ResourceKind kind) {
+    try {
+      authorizationService.authorizeSchemaRead(subject, keyspaceNames, tableNames, sourceApi, kind);
+      return true;
+    } catch (UnauthorizedException e) {
+      return false;
     }
   }
 
   static CqlKeyspaceDescribe buildKeyspaceDescription(
       Keyspace keyspace, String simpleName, String decoratedName) throws StatusException {
+    return buildKeyspaceDescription(keyspace, simpleName, decoratedName, table -> true).build();
+  }
+
+  private static CqlKeyspaceDescribe.Builder buildKeyspaceDescription(
+      Keyspace keyspace, String simpleName, String decoratedName, Predicate<Table> includeTable)
+      throws StatusException {
 
     CqlKeyspaceDescribe.Builder describeResultBuilder =
         CqlKeyspaceDescribe.newBuilder().setHash(Int32Value.of(keyspace.schemaHashCode()));
@@ -125,10 +210,12 @@ class SchemaHandler {
     }
 
     for (Table table : keyspace.tables()) {
-      describeResultBuilder.addTables(buildCqlTable(table));
+      if (includeTable.test(table)) {
+        describeResultBuilder.addTables(buildCqlTable(table));
+      }
     }
 
-    return describeResultBuilder.build();
+    return describeResultBuilder;
   }
 
   @NotNull
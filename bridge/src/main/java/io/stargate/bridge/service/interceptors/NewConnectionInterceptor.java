@@ -1,13 +1,14 @@
 package io.stargate.bridge.service.interceptors;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.protobuf.Descriptors;
 import io.grpc.Context;
 import io.grpc.Contexts;
 import io.grpc.Grpc;
 import io.grpc.Metadata;
 import io.grpc.Metadata.Key;
+import io.grpc.MethodDescriptor;
 import io.grpc.ServerCall;
 import io.grpc.ServerCall.Listener;
 import io.grpc.ServerCallHandler;
@@ -16,6 +17,8 @@ import io.grpc.Status;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.UnauthorizedException;
+import io.stargate.bridge.metrics.BridgeMetrics;
+import io.stargate.bridge.metrics.BridgeMetrics.Phase;
 import io.stargate.bridge.proto.Bridge;
 import io.stargate.bridge.service.BridgeService;
 import io.stargate.db.AuthenticatedUser;
@@ -25,9 +28,20 @@ import io.stargate.db.Persistence.Connection;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.apache.cassandra.stargate.exceptions.UnhandledClientException;
 import org.immutables.value.Value;
@@ -48,31 +62,114 @@ public class NewConnectionInterceptor implements ServerInterceptor {
       Integer.getInteger("stargate.grpc.connection_cache_ttl_seconds", 60);
   private static final int CACHE_MAX_SIZE =
       Integer.getInteger("stargate.grpc.connection_cache_max_size", 10_000);
+  private static final int AUTH_CACHE_TTL_SECS =
+      Integer.getInteger("stargate.grpc.auth_cache_ttl_seconds", CACHE_TTL_SECS);
+
+  /**
+   * The comma-separated names of the headers that distinguish connections. Only these are part of
+   * the cache keys, and only these are passed to the authentication service and to the connections
+   * (as custom properties), so that a cached entry never depends on a header that isn't in its key.
+   * {@code *} selects all the headers.
+   */
+  public static final String KEY_HEADERS_PROPERTY = "stargate.grpc.connection_cache_key_headers";
+
+  /**
+   * Whether connections are also cached per client address. If not, connections don't get the
+   * client address (it's usually the address of the API service calling the bridge anyway).
+   */
+  public static final String KEY_REMOTE_ADDRESS_PROPERTY =
+      "stargate.grpc.connection_cache_key_remote_address";
+
+  private static final Set<String> KEY_HEADERS =
+      parseKeyHeaders(System.getProperty(KEY_HEADERS_PROPERTY, "host,x-tenant-id,user-agent"));
+  private static final boolean KEY_REMOTE_ADDRESS = Boolean.getBoolean(KEY_REMOTE_ADDRESS_PROPERTY);
 
   protected final Persistence persistence;
   private final AuthenticationService authenticationService;
-  private final LoadingCache<RequestInfo, Connection> connectionCache =
-      Caffeine.newBuilder()
-          .expireAfterWrite(Duration.ofSeconds(CACHE_TTL_SECS))
-          .maximumSize(CACHE_MAX_SIZE)
-          .build(this::newConnection);
+  private final BridgeMetrics metrics;
+  @Nullable private final Set<String> keyHeaders;
+  private final boolean keyRemoteAddress;
+  // Authentication results are cached on their own, so that they survive the eviction of the
+  // connections, and are shared by the connections of different clients if the address is part of
+  // the key.
+  private final AsyncLoadingCache<RequestInfo, AuthenticationSubject> authenticationCache;
+  private final AsyncLoadingCache<RequestInfo, Connection> connectionCache;
 
+  /**
+   * The subset of a request that determines its connection. Requests with equal infos share the
+   * same connection, so the authentication and the connection must only depend on these fields.
+   */
   @Value.Immutable
   public interface RequestInfo {
 
     @Nullable
     String token();
 
+    /** The headers that are part of the key, see {@link #KEY_HEADERS_PROPERTY}. */
     Map<String, String> headers();
 
+    /** The client address if it is part of the key, see {@link #KEY_REMOTE_ADDRESS_PROPERTY}. */
     @Nullable
     SocketAddress remoteAddress();
   }
 
+  /**
+   * Creates an interceptor that authenticates on the calling thread, which is only suitable for
+   * authentication services that don't block.
+   */
   public NewConnectionInterceptor(
       Persistence persistence, AuthenticationService authenticationService) {
+    this(persistence, authenticationService, BridgeMetrics.DISABLED, Runnable::run);
+  }
+
+  public NewConnectionInterceptor(
+      Persistence persistence,
+      AuthenticationService authenticationService,
+      BridgeMetrics metrics,
+      Executor executor) {
+    this(persistence, authenticationService, metrics, executor, KEY_HEADERS, KEY_REMOTE_ADDRESS);
+  }
+
+  /**
+   * @param executor the executor that authenticates tokens and creates connections. It should be
+   *     dedicated and bounded, so that a burst of new tokens can't delay other work.
+   * @param keyHeaders the names of the headers that affect connections, or {@code null} for all.
+   * @param keyRemoteAddress whether connections are also cached per client address.
+   */
+  public NewConnectionInterceptor(
+      Persistence persistence,
+      AuthenticationService authenticationService,
+      BridgeMetrics metrics,
+      Executor executor,
+      @Nullable Set<String> keyHeaders,
+      boolean keyRemoteAddress) {
     this.persistence = persistence;
     this.authenticationService = authenticationService;
+    this.metrics = metrics;
+    this.keyHeaders = keyHeaders;
+    this.keyRemoteAddress = keyRemoteAddress;
+    // Loads are asynchronous and single-flight: concurrent requests for the same key wait for the
+    // same future, so a token is authenticated once however many requests first use it. They start
+    // on the executor, so that authentication services that validate tokens synchronously don't
+    // run on the gRPC threads.
+    this.authenticationCache =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(AUTH_CACHE_TTL_SECS))
+            .maximumSize(CACHE_MAX_SIZE)
+            .executor(executor)
+            .buildAsync(
+                (info, e) ->
+                    CompletableFuture.supplyAsync(() -> info, e).thenCompose(this::authenticate));
+    this.connectionCache =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(CACHE_TTL_SECS))
+            .maximumSize(CACHE_MAX_SIZE)
+            .executor(executor)
+            .buildAsync(
+                (info, e) ->
+                    authenticationCache
+                        .get(ImmutableRequestInfo.copyOf(info).withRemoteAddress(null))
+                        .thenApplyAsync(subject -> newConnection(info, subject), e));
   }
 
   @Override
@@ -103,50 +200,104 @@ public class NewConnectionInterceptor implements ServerInterceptor {
         RequestInfo info =
             ImmutableRequestInfo.builder()
                 .token(token)
-                .headers(stringHeaders)
-                .remoteAddress(call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR))
+                .headers(filterKeyHeaders(stringHeaders))
+                .remoteAddress(
+                    keyRemoteAddress
+                        ? call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR)
+                        : null)
                 .build();
 
-        Connection connection = connectionCache.get(info);
-        context =
-            context
-                .withValue(BridgeService.HEADERS_KEY, stringHeaders)
-                .withValue(BridgeService.CONNECTION_KEY, connection);
+        Context headersContext = context.withValue(BridgeService.HEADERS_KEY, stringHeaders);
+        CompletableFuture<Connection> connection = getConnection(call, info);
+        if (connection.isDone()) {
+          // Common case, the connection is cached
+          context = headersContext.withValue(BridgeService.CONNECTION_KEY, connection.join());
+        } else {
+          // Don't block the calling thread (which may be a gRPC transport thread) while the token
+          // is
+          // authenticated: start the call once the connection is ready, and until then hold on to
+          // the events that gRPC reports for it.
+          DeferredListener<ReqT> listener = new DeferredListener<>();
+          connection.whenComplete(
+              (c, error) -> {
+                Listener<ReqT> delegate = new NopListener<>();
+                if (error != null) {
+                  closeOnError(call, error);
+                } else {
+                  try {
+                    delegate =
+                        Contexts.interceptCall(
+                            headersContext.withValue(BridgeService.CONNECTION_KEY, c),
+                            call,
+                            headers,
+                            next);
+                  } catch (Exception e) {
+                    closeOnError(call, e);
+                  }
+                }
+                listener.setDelegate(delegate);
+              });
+          return listener;
+        }
       }
       return Contexts.interceptCall(context, call, headers, next);
     } catch (Exception e) {
-      Throwable cause = e;
-      if (cause instanceof CompletionException) {
-        cause = e.getCause();
-      }
-      if (cause instanceof UnauthorizedException) {
-        call.close(
-            Status.UNAUTHENTICATED.withDescription("Invalid token").withCause(e), new Metadata());
-      } else if (cause instanceof UnhandledClientException) {
-        call.close(Status.UNAVAILABLE.withDescription(e.getMessage()).withCause(e), new Metadata());
-      } else {
-        final String message = "Error attempting to create connection to persistence";
-        logger.error(message, cause);
-        call.close(Status.INTERNAL.withDescription(message).withCause(e), new Metadata());
-      }
+      closeOnError(call, e);
     }
     return new NopListener<>();
   }
 
+  private void closeOnError(ServerCall<?, ?> call, Throwable e) {
+    Throwable cause = e;
+    if (cause instanceof CompletionException) {
+      cause = e.getCause();
+    }
+    if (cause instanceof UnauthorizedException) {
+      call.close(
+          Status.UNAUTHENTICATED.withDescription("Invalid token").withCause(e), new Metadata());
+    } else if (cause instanceof UnhandledClientException) {
+      call.close(Status.UNAVAILABLE.withDescription(e.getMessage()).withCause(e), new Metadata());
+    } else if (cause instanceof RejectedExecutionException) {
+      // The executor is saturated with new tokens
+      call.close(
+          Status.UNAVAILABLE.withDescription("Too many pending authentications").withCause(e),
+          new Metadata());
+    } else {
+      final String message = "Error attempting to create connection to persistence";
+      logger.error(message, cause);
+      call.close(Status.INTERNAL.withDescription(message).withCause(e), new Metadata());
+    }
+  }
+
+  private CompletableFuture<Connection> getConnection(ServerCall<?, ?> call, RequestInfo info) {
+    long start = metrics.startTimer();
+    CompletableFuture<Connection> connection = connectionCache.get(info);
+    if (metrics.isEnabled()) {
+      String rpc =
+          MethodDescriptor.extractBareMethodName(call.getMethodDescriptor().getFullMethodName());
+      connection.whenComplete(
+          (c, error) -> metrics.record(rpc, Phase.AUTHENTICATION, start, error == null));
+    }
+    return connection;
+  }
+
   private boolean shouldCreateConnection(ServerCall<?, ?> call) {
     return !GET_SUPPORTED_FEATURES_NAME.equals(call.getMethodDescriptor().getFullMethodName());
   }
 
-  protected Connection newConnection(RequestInfo info) throws UnauthorizedException {
-    AuthenticationSubject authenticationSubject =
-        authenticationService.validateToken(info.token(), info.headers());
+  protected CompletionStage<AuthenticationSubject> authenticate(RequestInfo info) {
+    return authenticationService.validateTokenAsync(info.token(), info.headers());
+  }
 
+  protected Connection newConnection(
+      RequestInfo info, AuthenticationSubject authenticationSubject) {
     AuthenticatedUser user = authenticationSubject.asUser();
 
     SocketAddress remoteAddress = info.remoteAddress();
-    // This is best effort attempt to set the remote address, if the remote address is not the
-    // correct type then use a dummy value. Note: `remoteAddress` is almost always a
-    // `InetSocketAddress`.
+    // This is best effort attempt to set the remote address, if the remote address is not part of
+    // the key or not the correct type then use a dummy value. Note: `remoteAddress` is almost
+    // always
+    // a `InetSocketAddress`.
     InetSocketAddress inetSocketAddress =
         remoteAddress instanceof InetSocketAddress
             ? (InetSocketAddress) remoteAddress
@@ -161,6 +312,31 @@ public class NewConnectionInterceptor implements ServerInterceptor {
     return connection;
   }
 
+  private Map<String, String> filterKeyHeaders(Map<String, String> headers) {
+    if (keyHeaders == null) {
+      return headers;
+    }
+    Map<String, String> filtered = new HashMap<>();
+    for (String name : keyHeaders) {
+      String value = headers.get(name);
+      if (value != null) {
+        filtered.put(name, value);
+      }
+    }
+    return filtered;
+  }
+
+  private static Set<String> parseKeyHeaders(String names) {
+    if (names.trim().equals("*")) {
+      return null;
+    }
+    // gRPC header names are always lower case
+    return Arrays.stream(names.split(","))
+        .map(name -> name.trim().toLowerCase(Locale.ROOT))
+        .filter(name -> !name.isEmpty())
+        .collect(Collectors.toSet());
+  }
+
   private static Map<String, String> convertAndFilterHeaders(Metadata headers) {
     Map<String, String> stringHeaders = new HashMap<>();
     for (String key : headers.keys()) {
@@ -185,4 +361,66 @@ public class NewConnectionInterceptor implements ServerInterceptor {
   }
 
   private static class NopListener<ReqT> extends Listener<ReqT> {}
+
+  /** Queues the events of a call until the listener that handles them is known. */
+  private static class DeferredListener<ReqT> extends Listener<ReqT> {
+    private Listener<ReqT> delegate;
+    private List<Consumer<Listener<ReqT>>> pending = new ArrayList<>();
+
+    void setDelegate(Listener<ReqT> delegate) {
+      while (true) {
+        List<Consumer<Listener<ReqT>>> events;
+        synchronized (this) {
+          if (pending.isEmpty()) {
+            this.delegate = delegate;
+            pending = null;
+            return;
+          }
+          events = pending;
+          pending = new ArrayList<>();
+        }
+        // Replay outside of the lock, events that arrive meanwhile are picked up by the next loop
+        for (Consumer<Listener<ReqT>> event : events) {
+          event.accept(delegate);
+        }
+      }
+    }
+
+    private void dispatch(Consumer<Listener<ReqT>> event) {
+      Listener<ReqT> delegate;
+      synchronized (this) {
+        if (this.delegate == null) {
+          pending.add(event);
+          return;
+        }
+        delegate = this.delegate;
+      }
+      event.accept(delegate);
+    }
+
+    @Override
+    public void onMessage(ReqT message) {
+      dispatch(l -> l.onMessage(message));
+    }
+
+    @Override
+    public void onHalfClose() {
+      dispatch(Listener::onHalfClose);
+    }
+
+    @Override
+    public void onCancel() {
+      dispatch(Listener::onCancel);
+    }
+
+    @Override
+    public void onComplete() {
+      dispatch(Listener::onComplete);
+    }
+
+    @Override
+    public void onReady() {
+      dispatch(Listener::onReady);
+    }
+  }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.bridge.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.stargate.auth.AuthorizationService;
+import io.stargate.bridge.impl.BridgeExecutors.ServerExecutor;
+import io.stargate.bridge.metrics.BridgeMetrics;
+import io.stargate.bridge.proto.Schema.DescribeKeyspaceQuery;
+import io.stargate.bridge.proto.StargateBridgeGrpc;
+import io.stargate.bridge.proto.StargateBridgeGrpc.StargateBridgeBlockingStub;
+import io.stargate.bridge.service.BridgeService;
+import io.stargate.db.Persistence;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.ImmutableColumn;
+import io.stargate.db.schema.Keyspace;
+import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.Table;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how the throughput of the bridge scales with the size of its worker pool (see {@link
+ * BridgeExecutors}), on {@code DescribeKeyspace} requests for a large keyspace, which are built
+ * entirely on the worker pool. The persistence is mocked, so that only the bridge is measured.
+ *
+ * <p>This is not run as part of the build. To run it locally:
+ *
+ * <pre>
+ * mvn -pl bridge test -Dtest=BridgeExecutorsBenchmarkTest -Dstargate.bridge.benchmark=true \
+ *   [-Dstargate.bridge.benchmark.clients=64] [-Dstargate.bridge.benchmark.seconds=5]
+ * </pre>
+ *
+ * The worker pool size doubles from 1 to the number of cores, once with the gRPC callbacks run
+ * directly and once on a {@link java.util.concurrent.ForkJoinPool}.
+ */
+@EnabledIfSystemProperty(named = "stargate.bridge.benchmark", matches = "true")
+public class BridgeExecutorsBenchmarkTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(BridgeExecutorsBenchmarkTest.class);
+
+  private static final int CLIENTS = Integer.getInteger("stargate.bridge.benchmark.clients", 64);
+  private static final int SECONDS = Integer.getInteger("stargate.bridge.benchmark.seconds", 5);
+  private static final int WARMUP_SECONDS =
+      Integer.getInteger("stargate.bridge.benchmark.warmup_seconds", 2);
+
+  private static final String KEYSPACE = "ks";
+
+  @Test
+  public void compareExecutorSizes() throws Exception {
+    Persistence persistence = mockPersistence();
+    int cores = Runtime.getRuntime().availableProcessors();
+
+    List<Integer> sizes = new ArrayList<>();
+    for (int size = 1; size < cores; size *= 2) {
+      sizes.add(size);
+    }
+    sizes.add(cores);
+
+    List<String> report = new ArrayList<>();
+    for (ServerExecutor serverExecutor : ServerExecutor.values()) {
+      for (int size : sizes) {
+        BridgeExecutors executors = new BridgeExecutors(1, size, serverExecutor, cores, null);
+        report.add(
+            String.format(
+                "%-9s %3d threads  %,10.0f req/s",
+                serverExecutor, size, run(persistence, executors)));
+      }
+    }
+    logger.info(
+        "Bridge executor scaling ({} cores, {} clients, {}s per run):{}",
+        cores,
+        CLIENTS,
+        SECONDS,
+        String.format("%n  %s", String.join(String.format("%n  "), report)));
+  }
+
+  private double run(Persistence persistence, BridgeExecutors executors) throws Exception {
+    String name = "BridgeExecutorsBenchmark-" + System.nanoTime();
+    InProcessServerBuilder builder = InProcessServerBuilder.forName(name);
+    if (executors.serverExecutor() == null) {
+      builder.directExecutor();
+    } else {
+      builder.executor(executors.serverExecutor());
+    }
+    Server server =
+        builder
+            .addService(
+                new BridgeService(
+                    persistence,
+                    mock(AuthorizationService.class),
+                    executors.scheduler(),
+                    executors.executor(),
+                    BridgeMetrics.DISABLED))
+            .build()
+            .start();
+    ManagedChannel channel = InProcessChannelBuilder.forName(name).usePlaintext().build();
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      StargateBridgeBlockingStub stub = StargateBridgeGrpc.newBlockingStub(channel);
+      load(clients, stub, WARMUP_SECONDS);
+      return (double) load(clients, stub, SECONDS) / SECONDS;
+    } finally {
+      clients.shutdownNow();
+      channel.shutdownNow();
+      server.shutdownNow().awaitTermination();
+      executors.shutdown();
+      executors.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private long load(ExecutorService clients, StargateBridgeBlockingStub stub, int seconds)
+      throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    DescribeKeyspaceQuery query =
+        DescribeKeyspaceQuery.newBuilder().setKeyspaceName(KEYSPACE).build();
+    List<Future<Long>> futures = new ArrayList<>(CLIENTS);
+    for (int i = 0; i < CLIENTS; i++) {
+      futures.add(
+          clients.submit(
+              () -> {
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                  assertThat(stub.describeKeyspace(query).getTablesCount()).isPositive();
+                  count += 1;
+                }
+                return count;
+              }));
+    }
+    long total = 0;
+    for (Future<Long> future : futures) {
+      total += future.get();
+    }
+    return total;
+  }
+
+  private static Persistence mockPersistence() {
+    List<Table> tables = new ArrayList<>();
+    for (int t = 0; t < 50; t++) {
+      String table = "t" + t;
+      List<Column> columns = new ArrayList<>();
+      columns.add(column(table, "pk", Column.Kind.PartitionKey, Column.Type.Text));
+      columns.add(column(table, "ck", Column.Kind.Clustering, Column.Type.Timestamp));
+      for (int c = 0; c < 20; c++) {
+        columns.add(
+            column(
+                table,
+                "c" + c,
+                Column.Kind.Regular,
+                c % 2 == 0 ? Column.Type.Text : Column.Type.Bigint));
+      }
+      tables.add(Table.create(KEYSPACE, table, columns, Collections.emptyList()));
+    }
+    Schema schema =
+        Schema.create(
+            Collections.singleton(
+                Keyspace.create(
+                    KEYSPACE,
+                    tables,
+                    Collections.emptyList(),
+                    Collections.singletonMap("class", "SimpleStrategy"),
+                    Optional.empty())));
+
+    Persistence persistence = mock(Persistence.class);
+    when(persistence.decorateKeyspaceName(any(String.class), any())).thenReturn(KEYSPACE);
+    when(persistence.schema()).thenReturn(schema);
+    return persistence;
+  }
+
+  private static Column column(
+      String table, String name, Column.Kind kind, Column.ColumnType type) {
+    return ImmutableColumn.builder()
+        .keyspace(KEYSPACE)
+        .table(table)
+        .name(name)
+        .kind(kind)
+        .type(type)
+        .order(kind == Column.Kind.Clustering ? Column.Order.ASC : null)
+        .build();
+  }
+}
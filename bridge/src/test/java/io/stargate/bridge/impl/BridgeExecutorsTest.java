@@ -0,0 +1,81 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.bridge.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.stargate.bridge.impl.BridgeExecutors.ServerExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BridgeExecutorsTest {
+
+  @Test
+  public void shouldNotCreateServerExecutorWhenDirect() throws InterruptedException {
+    BridgeExecutors executors = new BridgeExecutors(1, 2, ServerExecutor.DIRECT, 2, null);
+    try {
+      assertThat(executors.serverExecutor()).isNull();
+      assertThat(executors.executor()).isNotSameAs(executors.scheduler());
+    } finally {
+      executors.shutdown();
+      assertThat(executors.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+  }
+
+  @Test
+  public void shouldExportMetricsPerExecutor() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    BridgeExecutors executors = new BridgeExecutors(1, 2, ServerExecutor.FORK_JOIN, 2, registry);
+    try {
+      CountDownLatch running = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      executors
+          .executor()
+          .execute(
+              () -> {
+                running.countDown();
+                try {
+                  release.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      running.await();
+
+      assertThat(
+              registry
+                  .get(BridgeExecutors.UTILIZATION_METRIC)
+                  .tag("name", "bridge-executor")
+                  .gauge()
+                  .value())
+          .isEqualTo(0.5);
+      release.countDown();
+
+      for (String name :
+          new String[] {"bridge-scheduler", "bridge-executor", "bridge-auth", "bridge-server"}) {
+        assertThat(registry.get("executor.queued").tag("name", name).gauge()).isNotNull();
+        assertThat(registry.get(BridgeExecutors.UTILIZATION_METRIC).tag("name", name).gauge())
+            .isNotNull();
+      }
+      executors.serverExecutor().submit(() -> null).get();
+    } finally {
+      executors.shutdown();
+      assertThat(executors.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.bridge.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.stargate.bridge.metrics.BridgeMetrics.Phase;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class BridgeMetricsTest {
+
+  @Test
+  public void shouldRecordPhaseByRpcAndOutcome() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    BridgeMetrics metrics = new BridgeMetrics(registry, true);
+
+    metrics.record("ExecuteQuery", Phase.PREPARE, metrics.startTimer(), true);
+    metrics.record("ExecuteQuery", Phase.PREPARE, metrics.startTimer(), true);
+    metrics.record("ExecuteQuery", Phase.PREPARE, metrics.startTimer(), false);
+    metrics.record("ExecuteBatch", Phase.BIND, metrics.startTimer(), true);
+
+    assertThat(phaseTimer(registry, "ExecuteQuery", "prepare", "success").count()).isEqualTo(2);
+    assertThat(phaseTimer(registry, "ExecuteQuery", "prepare", "failure").count()).isEqualTo(1);
+    assertThat(phaseTimer(registry, "ExecuteBatch", "bind", "success").count()).isEqualTo(1);
+    assertThat(phaseTimer(registry, "ExecuteQuery", "execute", "success").count()).isZero();
+  }
+
+  @Test
+  public void shouldRecordStageOnCompletion() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    BridgeMetrics metrics = new BridgeMetrics(registry, true);
+
+    CompletableFuture<String> success = new CompletableFuture<>();
+    CompletableFuture<String> failure = new CompletableFuture<>();
+    assertThat(metrics.record("ExecuteQuery", Phase.EXECUTE, metrics.startTimer(), success))
+        .isSameAs(success);
+    metrics.record("ExecuteQuery", Phase.EXECUTE, metrics.startTimer(), failure);
+
+    assertThat(registry.find(BridgeMetrics.PHASE_TIMER_METRIC).timers()).isEmpty();
+
+    success.complete("done");
+    failure.completeExceptionally(new RuntimeException("mock"));
+
+    assertThat(phaseTimer(registry, "ExecuteQuery", "execute", "success").count()).isEqualTo(1);
+    assertThat(phaseTimer(registry, "ExecuteQuery", "execute", "failure").count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldCountPrepareCacheHitsAndMisses() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    BridgeMetrics metrics = new BridgeMetrics(registry, true);
+
+    metrics.markPrepareCacheHit("ExecuteQuery");
+    metrics.markPrepareCacheHit("ExecuteQuery");
+    metrics.markPrepareCacheMiss("ExecuteQuery");
+
+    assertThat(prepareCacheCount(registry, "hit")).isEqualTo(2);
+    assertThat(prepareCacheCount(registry, "miss")).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotRecordWhenDisabled() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    BridgeMetrics metrics = new BridgeMetrics(registry, false);
+
+    assertThat(metrics.startTimer()).isZero();
+    metrics.record("ExecuteQuery", Phase.PREPARE, metrics.startTimer(), true);
+    metrics.markPrepareCacheHit("ExecuteQuery");
+
+    assertThat(registry.getMeters()).isEmpty();
+  }
+
+  private Timer phaseTimer(MeterRegistry registry, String rpc, String phase, String outcome) {
+    return registry
+        .get(BridgeMetrics.PHASE_TIMER_METRIC)
+        .tag(BridgeMetrics.RPC_TAG, rpc)
+        .tag(BridgeMetrics.PHASE_TAG, phase)
+        .tag(BridgeMetrics.OUTCOME_TAG, outcome)
+        .timer();
+  }
+
+  private double prepareCacheCount(MeterRegistry registry, String result) {
+    return registry
+        .get(BridgeMetrics.PREPARE_CACHE_METRIC)
+        .tag(BridgeMetrics.RESULT_TAG, result)
+        .counter()
+        .count();
+  }
+}
@@ -21,8 +21,11 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.protobuf.Int32Value;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.stargate.bridge.Utils;
@@ -108,6 +111,140 @@ public class ExecuteBatchTest extends BaseBridgeServiceTest {
     assertThat(response.hasResultSet()).isFalse();
   }
 
+  @Test
+  public void sameQueryPreparedOnce() {
+    String insert = "INSERT INTO test (k, v) VALUES (?, ?)";
+    String update = "UPDATE test SET v = ? WHERE k = ?";
+    Prepared prepared =
+        new Prepared(
+            Utils.STATEMENT_ID,
+            Utils.RESULT_METADATA_ID,
+            Utils.makeResultMetadata(),
+            Utils.makePreparedMetadata(Column.create("k", Type.Text), Column.create("v", Type.Int)),
+            false,
+            false);
+    // complete the prepares on another thread, so that the batch has to wait for them
+    when(connection.prepare(anyString(), any(Parameters.class)))
+        .then(invocation -> CompletableFuture.supplyAsync(() -> prepared));
+
+    when(connection.batch(any(Batch.class), any(Parameters.class), anyLong()))
+        .then(
+            invocation -> {
+              Batch batch = invocation.getArgument(0, Batch.class);
+
+              assertThat(batch.size()).isEqualTo(3);
+
+              assertStatement(prepared, batch.statements().get(0), Values.of("a"), Values.of(1));
+              assertStatement(prepared, batch.statements().get(1), Values.of("b"), Values.of(2));
+              assertStatement(prepared, batch.statements().get(2), Values.of("c"), Values.of(3));
+
+              return CompletableFuture.completedFuture(new Result.Void());
+            });
+
+    when(persistence.newConnection()).thenReturn(connection);
+
+    startServer(persistence);
+
+    StargateBridgeBlockingStub stub = makeBlockingStub();
+
+    QueryOuterClass.Response response =
+        stub.executeBatch(
+            QueryOuterClass.Batch.newBuilder()
+                .addQueries(cqlBatchQuery(insert, Values.of("a"), Values.of(1)))
+                .addQueries(cqlBatchQuery(insert, Values.of("b"), Values.of(2)))
+                .addQueries(cqlBatchQuery(update, Values.of("c"), Values.of(3)))
+                .build());
+
+    assertThat(response.hasResultSet()).isFalse();
+    verify(connection).prepare(eq(insert), any(Parameters.class));
+    verify(connection).prepare(eq(update), any(Parameters.class));
+  }
+
+  @Test
+  public void cqlIndexPreparedOnce() {
+    String insert = "INSERT INTO test (k, v) VALUES (?, ?)";
+    Prepared prepared =
+        new Prepared(
+            Utils.STATEMENT_ID,
+            Utils.RESULT_METADATA_ID,
+            Utils.makeResultMetadata(),
+            Utils.makePreparedMetadata(Column.create("k", Type.Text), Column.create("v", Type.Int)),
+            false,
+            false);
+    when(connection.prepare(anyString(), any(Parameters.class)))
+        .then(invocation -> CompletableFuture.supplyAsync(() -> prepared));
+
+    when(connection.batch(any(Batch.class), any(Parameters.class), anyLong()))
+        .then(
+            invocation -> {
+              Batch batch = invocation.getArgument(0, Batch.class);
+
+              assertThat(batch.size()).isEqualTo(3);
+
+              assertStatement(prepared, batch.statements().get(0), Values.of("a"), Values.of(1));
+              assertStatement(prepared, batch.statements().get(1), Values.of("b"), Values.of(2));
+              assertStatement(prepared, batch.statements().get(2), Values.of("c"), Values.of(3));
+
+              return CompletableFuture.completedFuture(new Result.Void());
+            });
+
+    when(persistence.newConnection()).thenReturn(connection);
+
+    startServer(persistence);
+
+    StargateBridgeBlockingStub stub = makeBlockingStub();
+
+    QueryOuterClass.Response response =
+        stub.executeBatch(
+            QueryOuterClass.Batch.newBuilder()
+                .addQueries(cqlBatchQuery(insert, Values.of("a"), Values.of(1)))
+                .addQueries(cqlIndexBatchQuery(0, Values.of("b"), Values.of(2)))
+                .addQueries(cqlIndexBatchQuery(0, Values.of("c"), Values.of(3)))
+                .build());
+
+    assertThat(response.hasResultSet()).isFalse();
+    verify(connection).prepare(eq(insert), any(Parameters.class));
+  }
+
+  @ParameterizedTest
+  @MethodSource({"invalidCqlIndexes"})
+  public void invalidCqlIndex(QueryOuterClass.BatchQuery query) {
+    when(persistence.newConnection()).thenReturn(connection);
+
+    startServer(persistence);
+
+    StargateBridgeBlockingStub stub = makeBlockingStub();
+
+    assertThatThrownBy(
+            () ->
+                stub.executeBatch(
+                    QueryOuterClass.Batch.newBuilder()
+                        .addQueries(cqlBatchQuery("INSERT INTO test (k, v) VALUES ('a', 1)"))
+                        .addQueries(cqlIndexBatchQuery(0))
+                        .addQueries(query)
+                        .build()))
+        .isInstanceOf(StatusRuntimeException.class)
+        .extracting("status")
+        .extracting("code")
+        .isEqualTo(Status.INVALID_ARGUMENT.getCode());
+  }
+
+  public static Stream<Arguments> invalidCqlIndexes() {
+    return Stream.of(
+        // Negative, itself and later query
+        arguments(cqlIndexBatchQuery(-1)),
+        arguments(cqlIndexBatchQuery(2)),
+        arguments(cqlIndexBatchQuery(3)),
+        // Query without its own cql
+        arguments(cqlIndexBatchQuery(1)),
+        // Both a cql and an index
+        arguments(
+            cqlBatchQuery("INSERT INTO test (k, v) VALUES ('a', 1)")
+                .toBuilder()
+                .setCqlIndex(Int32Value.of(0))
+                .build()));
+  }
+
   @ParameterizedTest
   @EnumSource(BatchType.class)
   public void batchTypes(BatchType type) {
@@ -211,6 +348,10 @@ public class ExecuteBatchTest extends BaseBridgeServiceTest {
             "Invalid argument at position 1"));
   }
 
+  private static QueryOuterClass.BatchQuery cqlIndexBatchQuery(int cqlIndex, Value... values) {
+    return cqlBatchQuery("", values).toBuilder().setCqlIndex(Int32Value.of(cqlIndex)).build();
+  }
+
   @Test
   public void warnings() {
     Prepared prepared = Utils.makePrepared();
@@ -256,13 +397,11 @@ public class ExecuteBatchTest extends BaseBridgeServiceTest {
     StargateBridgeBlockingStub stub = makeBlockingStub();
 
     assertThatThrownBy(
-            () -> {
-              QueryOuterClass.Response response =
-                  stub.executeBatch(
-                      QueryOuterClass.Batch.newBuilder()
-                          .addQueries(cqlBatchQuery("INSERT INTO test (k, v) VALUES ('a', 1)"))
-                          .build());
-            })
+            () ->
+                stub.executeBatch(
+                    QueryOuterClass.Batch.newBuilder()
+                        .addQueries(cqlBatchQuery("INSERT INTO test (k, v) VALUES ('a', 1)"))
+                        .build()))
         .isInstanceOf(StatusRuntimeException.class)
         .extracting("status")
         .extracting("code")
@@ -19,10 +19,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableSet;
 import io.grpc.Metadata;
 import io.grpc.Metadata.Key;
 import io.stargate.auth.AuthenticationService;
@@ -30,6 +32,7 @@ import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.bridge.Utils;
 import io.stargate.bridge.grpc.StargateBearerToken;
+import io.stargate.bridge.metrics.BridgeMetrics;
 import io.stargate.bridge.proto.StargateBridgeGrpc.StargateBridgeBlockingStub;
 import io.stargate.bridge.service.interceptors.NewConnectionInterceptor;
 import io.stargate.db.AuthenticatedUser;
@@ -52,6 +55,9 @@ public class HeadersTest extends BaseBridgeServiceTest {
   private static final Key<byte[]> HEADER3_KEY_BIN =
       Key.of("header3-bin", Metadata.BINARY_BYTE_MARSHALLER);
 
+  private static final Key<String> HEADER4_KEY =
+      Key.of("header4", Metadata.ASCII_STRING_MARSHALLER);
+
   @Captor private ArgumentCaptor<Map<String, String>> propertiesCaptor;
 
   @Test
@@ -64,6 +70,7 @@ public class HeadersTest extends BaseBridgeServiceTest {
                   headers.put(HEADER1_KEY, "value1");
                   headers.put(HEADER2_KEY, "value2");
                   headers.put(HEADER3_KEY_BIN, new byte[] {});
+                  headers.put(HEADER4_KEY, "value4");
                 })
             .withCallCredentials(new StargateBearerToken("token"));
     mockAnyQueryAsVoid();
@@ -74,11 +81,19 @@ public class HeadersTest extends BaseBridgeServiceTest {
     AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
     when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
 
-    AuthenticationService authenticationService = mock(AuthenticationService.class);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
     when(authenticationService.validateToken(anyString(), any(Map.class)))
         .thenReturn(authenticationSubject);
 
-    startServer(new NewConnectionInterceptor(persistence, authenticationService));
+    startServer(
+        new NewConnectionInterceptor(
+            persistence,
+            authenticationService,
+            BridgeMetrics.DISABLED,
+            Runnable::run,
+            ImmutableSet.of(HEADER1_KEY.name(), HEADER2_KEY.name(), HEADER3_KEY_BIN.name()),
+            false));
 
     // When
     executeQuery(stub, "mock query");
@@ -88,7 +103,9 @@ public class HeadersTest extends BaseBridgeServiceTest {
     assertThat(propertiesCaptor.getValue())
         .containsEntry(HEADER1_KEY.name(), "value1")
         .containsEntry(HEADER2_KEY.name(), "value2")
-        .doesNotContainKey(HEADER3_KEY_BIN.name());
+        .doesNotContainKey(HEADER3_KEY_BIN.name())
+        // not one of the headers that affect connections
+        .doesNotContainKey(HEADER4_KEY.name());
   }
 
   private void mockAnyQueryAsVoid() {
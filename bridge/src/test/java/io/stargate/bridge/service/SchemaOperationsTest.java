@@ -20,15 +20,28 @@ import static io.stargate.db.schema.Column.Kind.PartitionKey;
 import static io.stargate.db.schema.Column.Kind.Static;
 import static io.stargate.db.schema.Column.Order.DESC;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
+import com.google.protobuf.Int32Value;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.stargate.auth.SourceAPI;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.auth.entity.ResourceKind;
 import io.stargate.bridge.proto.QueryOuterClass.ColumnSpec;
 import io.stargate.bridge.proto.QueryOuterClass.TypeSpec;
 import io.stargate.bridge.proto.Schema;
 import io.stargate.bridge.proto.StargateBridgeGrpc;
+import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.schema.Column;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.DisplayName;
@@ -221,4 +234,93 @@ public class SchemaOperationsTest extends BaseBridgeTest {
     assertThat(response.getMaterializedViews(0).getColumnsCount() == 1).isTrue();
     assertThat(response.getMaterializedViews(0).getColumns(0).getName().equals("c")).isTrue();
   }
+
+  @Test
+  @DisplayName("Describe keyspace with only the tables that the client is authorized to read")
+  public void schemaDescribeAuthorizedOnly() throws Exception {
+    // Given
+    StargateBridgeGrpc.StargateBridgeBlockingStub stub = makeBlockingStub();
+    when(persistence.decorateKeyspaceName(any(String.class), any())).thenReturn("ks");
+    when(persistence.newConnection()).thenReturn(connection);
+    when(connection.loggedUser()).thenReturn(Optional.of(AuthenticatedUser.of("user")));
+    when(authorizationService.enforcesSchemaReads()).thenReturn(true);
+    // lenient: the other reads are authorized, i.e. don't match this stub
+    lenient()
+        .doThrow(new UnauthorizedException("denied"))
+        .when(authorizationService)
+        .authorizeSchemaRead(
+            any(),
+            eq(Collections.singletonList("ks")),
+            eq(Collections.singletonList("secret")),
+            eq(SourceAPI.REST),
+            eq(ResourceKind.TABLE));
+
+    io.stargate.db.schema.Schema schema =
+        io.stargate.db.schema.Schema.build()
+            .keyspace("ks")
+            .table("public")
+            .column("a", Column.Type.Int, PartitionKey)
+            .table("secret")
+            .column("a", Column.Type.Int, PartitionKey)
+            .build();
+
+    when(persistence.schema()).thenReturn(schema);
+    startServer(persistence);
+
+    // When
+    Schema.CqlKeyspaceDescribe response =
+        stub.describeKeyspace(
+            Schema.DescribeKeyspaceQuery.newBuilder()
+                .setKeyspaceName("ks")
+                .setAuthorizedOnly(true)
+                .setSourceApi(Schema.SchemaRead.SourceApi.REST)
+                .setHash(Int32Value.of(schema.keyspace("ks").schemaHashCode()))
+                .build());
+
+    // Then
+    assertThat(response.hasHash()).isFalse();
+    assertThat(response.getTablesList())
+        .extracting(Schema.CqlTable::getName)
+        .containsExactly("public");
+  }
+
+  @Test
+  @DisplayName("Describe keyspace that the client is not authorized to read")
+  public void schemaDescribeAuthorizedOnlyDenied() throws Exception {
+    // Given
+    StargateBridgeGrpc.StargateBridgeBlockingStub stub = makeBlockingStub();
+    when(persistence.decorateKeyspaceName(any(String.class), any())).thenReturn("ks");
+    when(persistence.newConnection()).thenReturn(connection);
+    when(connection.loggedUser()).thenReturn(Optional.of(AuthenticatedUser.of("user")));
+    when(authorizationService.enforcesSchemaReads()).thenReturn(true);
+    doThrow(new UnauthorizedException("denied"))
+        .when(authorizationService)
+        .authorizeSchemaRead(any(), any(), any(), any(), eq(ResourceKind.KEYSPACE));
+
+    when(persistence.schema())
+        .thenReturn(
+            io.stargate.db.schema.Schema.build()
+                .keyspace("ks")
+                .table("tbl")
+                .column("a", Column.Type.Int, PartitionKey)
+                .build());
+    startServer(persistence);
+
+    // When
+    Throwable error =
+        catchThrowable(
+            () ->
+                stub.describeKeyspace(
+                    Schema.DescribeKeyspaceQuery.newBuilder()
+                        .setKeyspaceName("ks")
+                        .setAuthorizedOnly(true)
+                        .setSourceApi(Schema.SchemaRead.SourceApi.GRAPHQL)
+                        .build()));
+
+    // Then
+    assertThat(error)
+        .isInstanceOf(StatusRuntimeException.class)
+        .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+        .isEqualTo(Status.Code.PERMISSION_DENIED);
+  }
 }
@@ -25,6 +25,7 @@ import io.stargate.bridge.proto.StargateBridgeGrpc;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class SupportedFeaturesTest extends BaseBridgeTest {
 
@@ -48,6 +49,25 @@ public class SupportedFeaturesTest extends BaseBridgeTest {
     assertThat(response.getSecondaryIndexes()).isEqualTo(secondaryIndexes);
     assertThat(response.getSai()).isEqualTo(sai);
     assertThat(response.getLoggedBatches()).isEqualTo(loggedBatches);
+    assertThat(response.getFilteredDescribeKeyspace()).isTrue();
+    assertThat(response.getBatchQueryCqlIndex()).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void shouldReportWhetherSchemaReadsAreAuthorized(boolean enforcesSchemaReads) {
+    // Given
+    StargateBridgeGrpc.StargateBridgeBlockingStub stub = makeBlockingStub();
+    when(authorizationService.enforcesSchemaReads()).thenReturn(enforcesSchemaReads);
+
+    startServer(persistence);
+
+    // When
+    SupportedFeaturesResponse response =
+        stub.getSupportedFeatures(SupportedFeaturesRequest.newBuilder().build());
+
+    // Then
+    assertThat(response.getSkipSchemaReadAuthorization()).isEqualTo(!enforcesSchemaReads);
   }
 
   public static Arguments[] getSupportedFeatures() {
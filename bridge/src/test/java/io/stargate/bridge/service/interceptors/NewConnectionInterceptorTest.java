@@ -20,8 +20,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,15 +39,26 @@ import io.grpc.Status;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.UnauthorizedException;
+import io.stargate.bridge.metrics.BridgeMetrics;
 import io.stargate.bridge.service.BridgeService;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.Persistence;
 import io.stargate.db.Persistence.Connection;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.cassandra.stargate.exceptions.UnhandledClientException;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 
 public class NewConnectionInterceptorTest {
 
@@ -56,7 +70,8 @@ public class NewConnectionInterceptorTest {
     AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
     when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
 
-    AuthenticationService authenticationService = mock(AuthenticationService.class);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
     when(authenticationService.validateToken(eq("abc"), any(Map.class)))
         .thenReturn(authenticationSubject);
 
@@ -72,7 +87,8 @@ public class NewConnectionInterceptorTest {
     metadata.put(NewConnectionInterceptor.TOKEN_KEY, "abc");
 
     NewConnectionInterceptor interceptor =
-        new NewConnectionInterceptor(persistence, authenticationService);
+        new NewConnectionInterceptor(
+            persistence, authenticationService, BridgeMetrics.DISABLED, Runnable::run);
     interceptor.interceptCall(
         call,
         metadata,
@@ -91,14 +107,16 @@ public class NewConnectionInterceptorTest {
   public void emptyCredentials() throws UnauthorizedException {
     Persistence persistence = mock(Persistence.class);
 
-    AuthenticationService authenticationService = mock(AuthenticationService.class);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
 
     ServerCallHandler next = mock(ServerCallHandler.class);
     ServerCall call = mockCall();
 
     Metadata metadata = new Metadata();
     NewConnectionInterceptor interceptor =
-        new NewConnectionInterceptor(persistence, authenticationService);
+        new NewConnectionInterceptor(
+            persistence, authenticationService, BridgeMetrics.DISABLED, Runnable::run);
     interceptor.interceptCall(call, metadata, next);
 
     verify(call, times(1))
@@ -116,7 +134,8 @@ public class NewConnectionInterceptorTest {
   public void invalidCredentials() throws UnauthorizedException {
     Persistence persistence = mock(Persistence.class);
 
-    AuthenticationService authenticationService = mock(AuthenticationService.class);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
     when(authenticationService.validateToken(eq("invalid"), any(Map.class)))
         .thenThrow(new UnauthorizedException(""));
 
@@ -126,7 +145,8 @@ public class NewConnectionInterceptorTest {
     Metadata metadata = new Metadata();
     metadata.put(NewConnectionInterceptor.TOKEN_KEY, "invalid");
     NewConnectionInterceptor interceptor =
-        new NewConnectionInterceptor(persistence, authenticationService);
+        new NewConnectionInterceptor(
+            persistence, authenticationService, BridgeMetrics.DISABLED, Runnable::run);
     interceptor.interceptCall(call, metadata, next);
 
     verify(call, times(1))
@@ -144,7 +164,8 @@ public class NewConnectionInterceptorTest {
   public void unhandledClientException() throws UnauthorizedException {
     Persistence persistence = mock(Persistence.class);
 
-    AuthenticationService authenticationService = mock(AuthenticationService.class);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
     when(authenticationService.validateToken(anyString(), any(Map.class)))
         .thenThrow(new UnhandledClientException(""));
 
@@ -154,7 +175,8 @@ public class NewConnectionInterceptorTest {
     Metadata metadata = new Metadata();
     metadata.put(NewConnectionInterceptor.TOKEN_KEY, "someToken");
     NewConnectionInterceptor interceptor =
-        new NewConnectionInterceptor(persistence, authenticationService);
+        new NewConnectionInterceptor(
+            persistence, authenticationService, BridgeMetrics.DISABLED, Runnable::run);
     interceptor.interceptCall(call, metadata, next);
 
     verify(call, times(1))
@@ -171,7 +193,8 @@ public class NewConnectionInterceptorTest {
     AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
     when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
 
-    AuthenticationService authenticationService = mock(AuthenticationService.class);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
     when(authenticationService.validateToken(anyString(), any(Map.class)))
         .then(
             invocation -> {
@@ -194,14 +217,243 @@ public class NewConnectionInterceptorTest {
     Metadata metadata = new Metadata();
     metadata.put(NewConnectionInterceptor.TOKEN_KEY, "someToken");
     NewConnectionInterceptor interceptor =
-        new NewConnectionInterceptor(persistence, authenticationService);
+        new NewConnectionInterceptor(
+            persistence, authenticationService, BridgeMetrics.DISABLED, Runnable::run);
     interceptor.interceptCall(call, metadata, next);
 
     verify(authenticationService, times(1)).validateToken(anyString(), any(Map.class));
   }
 
-  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Test
+  public void reuseConnectionAcrossAddressesAndIrrelevantHeaders() throws UnauthorizedException {
+    AuthenticatedUser authenticatedUser = mock(AuthenticatedUser.class);
+    AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
+    when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
+
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
+    when(authenticationService.validateToken(eq("abc"), any(Map.class)))
+        .thenReturn(authenticationSubject);
+
+    Connection connection = mock(Connection.class);
+    Persistence persistence = mock(Persistence.class);
+    when(persistence.newConnection(any())).thenReturn(connection);
+
+    NewConnectionInterceptor interceptor =
+        new NewConnectionInterceptor(
+            persistence,
+            authenticationService,
+            BridgeMetrics.DISABLED,
+            Runnable::run,
+            Collections.singleton("x-tenant-id"),
+            false);
+
+    interceptor.interceptCall(
+        mockCall(8090), metadata("abc", "tenant1", "request1"), mock(ServerCallHandler.class));
+    interceptor.interceptCall(
+        mockCall(8091), metadata("abc", "tenant1", "request2"), mock(ServerCallHandler.class));
+    interceptor.interceptCall(
+        mockCall(8092), metadata("abc", "tenant2", "request3"), mock(ServerCallHandler.class));
+
+    // one per tenant
+    verify(authenticationService, times(2)).validateToken(eq("abc"), any(Map.class));
+    verify(persistence, times(2)).newConnection(any());
+    // the cached entries must not depend on what is not in the key: neither the authentication nor
+    // the connections see the other headers or the client address
+    ArgumentMatcher<Map<String, String>> keyHeaders =
+        h -> h.size() == 1 && h.containsKey("x-tenant-id");
+    verify(authenticationService, times(2)).validateToken(eq("abc"), argThat(keyHeaders));
+    verify(connection, times(2)).setCustomProperties(argThat(keyHeaders));
+    verify(persistence, never()).newConnection(argThat(c -> c.remoteAddress().getPort() != 9042));
+  }
+
+  @Test
+  public void startCallOnceConnectionIsReady() throws UnauthorizedException {
+    AuthenticatedUser authenticatedUser = mock(AuthenticatedUser.class);
+    AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
+    when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
+
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
+    when(authenticationService.validateToken(eq("abc"), any(Map.class)))
+        .thenReturn(authenticationSubject);
+
+    Connection connection = mock(Connection.class);
+    Persistence persistence = mock(Persistence.class);
+    when(persistence.newConnection(any())).thenReturn(connection);
+
+    Queue<Runnable> tasks = new ArrayDeque<>();
+    NewConnectionInterceptor interceptor =
+        new NewConnectionInterceptor(
+            persistence,
+            authenticationService,
+            BridgeMetrics.DISABLED,
+            tasks::add,
+            Collections.emptySet(),
+            false);
+
+    ServerCall.Listener delegate = mock(ServerCall.Listener.class);
+    ServerCallHandler next = mock(ServerCallHandler.class);
+    when(next.startCall(any(ServerCall.class), any(Metadata.class)))
+        .then(
+            invocation -> {
+              assertThat(BridgeService.CONNECTION_KEY.get()).isSameAs(connection);
+              return delegate;
+            });
+
+    ServerCall.Listener listener =
+        interceptor.interceptCall(mockCall(), metadata("abc", null, null), next);
+    // the call returns before the token is authenticated
+    verify(authenticationService, never()).validateToken(anyString(), any(Map.class));
+    listener.onMessage("message");
+    listener.onHalfClose();
+    verify(next, never()).startCall(any(ServerCall.class), any(Metadata.class));
+
+    while (!tasks.isEmpty()) {
+      tasks.poll().run();
+    }
+    verify(next).startCall(any(ServerCall.class), any(Metadata.class));
+    InOrder inOrder = inOrder(delegate);
+    inOrder.verify(delegate).onMessage("message");
+    inOrder.verify(delegate).onHalfClose();
+
+    listener.onComplete();
+    verify(delegate).onComplete();
+  }
+
+  @Test
+  public void shareAuthenticationBetweenAddresses() throws UnauthorizedException {
+    AuthenticatedUser authenticatedUser = mock(AuthenticatedUser.class);
+    AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
+    when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
+
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
+    when(authenticationService.validateToken(eq("abc"), any(Map.class)))
+        .thenReturn(authenticationSubject);
+
+    Persistence persistence = mock(Persistence.class);
+    when(persistence.newConnection(any())).thenReturn(mock(Connection.class));
+
+    NewConnectionInterceptor interceptor =
+        new NewConnectionInterceptor(
+            persistence,
+            authenticationService,
+            BridgeMetrics.DISABLED,
+            Runnable::run,
+            Collections.emptySet(),
+            true);
+
+    interceptor.interceptCall(
+        mockCall(8090), metadata("abc", "tenant1", "request1"), mock(ServerCallHandler.class));
+    interceptor.interceptCall(
+        mockCall(8091), metadata("abc", "tenant1", "request2"), mock(ServerCallHandler.class));
+
+    verify(authenticationService, times(1)).validateToken(eq("abc"), any(Map.class));
+    verify(persistence, times(2)).newConnection(any());
+    // the address is part of the connection key, so the connections get it
+    verify(persistence).newConnection(argThat(c -> c.remoteAddress().getPort() == 8090));
+    verify(persistence).newConnection(argThat(c -> c.remoteAddress().getPort() == 8091));
+  }
+
+  @Test
+  public void rejectWhenExecutorIsSaturated() throws UnauthorizedException {
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
+    Persistence persistence = mock(Persistence.class);
+
+    NewConnectionInterceptor interceptor =
+        new NewConnectionInterceptor(
+            persistence,
+            authenticationService,
+            BridgeMetrics.DISABLED,
+            task -> {
+              throw new RejectedExecutionException();
+            },
+            Collections.emptySet(),
+            false);
+
+    ServerCallHandler next = mock(ServerCallHandler.class);
+    ServerCall call = mockCall();
+    interceptor.interceptCall(call, metadata("abc", null, null), next);
+
+    verify(call, times(1))
+        .close(argThat(s -> s.getCode() == Status.UNAVAILABLE.getCode()), any(Metadata.class));
+    verify(authenticationService, never()).validateToken(anyString(), any(Map.class));
+    verify(next, never()).startCall(any(ServerCall.class), any(Metadata.class));
+  }
+
+  @Test
+  public void authenticateOnceForConcurrentRequests() throws Exception {
+    AuthenticatedUser authenticatedUser = mock(AuthenticatedUser.class);
+    AuthenticationSubject authenticationSubject = mock(AuthenticationSubject.class);
+    when(authenticationSubject.asUser()).thenReturn(authenticatedUser);
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AuthenticationService authenticationService =
+        mock(AuthenticationService.class, CALLS_REAL_METHODS);
+    when(authenticationService.validateToken(eq("abc"), any(Map.class)))
+        .then(
+            invocation -> {
+              started.countDown();
+              release.await();
+              return authenticationSubject;
+            });
+
+    Persistence persistence = mock(Persistence.class);
+    when(persistence.newConnection(any())).thenReturn(mock(Connection.class));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      NewConnectionInterceptor interceptor =
+          new NewConnectionInterceptor(
+              persistence,
+              authenticationService,
+              BridgeMetrics.DISABLED,
+              executor,
+              Collections.emptySet(),
+              false);
+
+      ServerCallHandler next = mock(ServerCallHandler.class);
+      Future<?> first =
+          executor.submit(
+              () -> interceptor.interceptCall(mockCall(), metadata("abc", null, null), next));
+      started.await();
+      Future<?> second =
+          executor.submit(
+              () -> interceptor.interceptCall(mockCall(), metadata("abc", null, null), next));
+      release.countDown();
+      first.get();
+      second.get();
+
+      // the calls are started once the connection is created on the executor
+      verify(next, timeout(5000).times(2)).startCall(any(ServerCall.class), any(Metadata.class));
+      verify(authenticationService, times(1)).validateToken(eq("abc"), any(Map.class));
+      verify(persistence, times(1)).newConnection(any());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Metadata metadata(String token, String tenantId, String requestId) {
+    Metadata metadata = new Metadata();
+    metadata.put(NewConnectionInterceptor.TOKEN_KEY, token);
+    if (tenantId != null) {
+      metadata.put(Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER), tenantId);
+    }
+    if (requestId != null) {
+      metadata.put(Metadata.Key.of("x-request-id", Metadata.ASCII_STRING_MARSHALLER), requestId);
+    }
+    return metadata;
+  }
+
   private ServerCall mockCall() {
+    return mockCall(8090);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private ServerCall mockCall(int port) {
     ServerCall call = mock(ServerCall.class);
     MethodDescriptor.Marshaller marshaller = mock(MethodDescriptor.Marshaller.class);
     MethodDescriptor methodDescriptor =
@@ -214,7 +466,7 @@ public class NewConnectionInterceptorTest {
     when(call.getMethodDescriptor()).thenReturn(methodDescriptor);
     Attributes attributes =
         Attributes.newBuilder()
-            .set(Grpc.TRANSPORT_ATTR_REMOTE_ADDR, new InetSocketAddress(8090))
+            .set(Grpc.TRANSPORT_ATTR_REMOTE_ADDR, new InetSocketAddress(port))
             .build();
     when(call.getAttributes()).thenReturn(attributes);
     return call;
@@ -128,6 +128,19 @@ public class CqlActivator extends BaseActivator {
           Long.getLong(
               "stargate.cql.native_transport_max_concurrent_requests_in_bytes_per_ip",
               Runtime.getRuntime().maxMemory() / 40);
+      c.native_transport_max_concurrent_requests_per_connection =
+          Long.getLong("stargate.cql.native_transport_max_concurrent_requests_per_connection", -1);
+      c.native_transport_max_concurrent_requests_per_role =
+          Long.getLong("stargate.cql.native_transport_max_concurrent_requests_per_role", -1);
+      c.native_transport_reject_requests_over_limit =
+          Boolean.getBoolean("stargate.cql.native_transport_reject_requests_over_limit");
+      c.native_transport_request_phase_metrics_enabled =
+          Boolean.getBoolean("stargate.cql.native_transport_request_phase_metrics_enabled");
+
+      c.native_transport_epoll_enabled =
+          Boolean.parseBoolean(System.getProperty("stargate.cql.native.epoll.enabled", "true"));
+      c.native_transport_io_uring_enabled =
+          Boolean.getBoolean("stargate.cql.native.io_uring.enabled");
 
       return c;
     } catch (IOException e) {
@@ -16,9 +16,6 @@
 package io.stargate.cql.impl;
 
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.epoll.Epoll;
-import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.Persistence;
@@ -33,8 +30,8 @@ import org.apache.cassandra.stargate.config.Config;
 import org.apache.cassandra.stargate.metrics.ClientMetrics;
 import org.apache.cassandra.stargate.transport.internal.CBUtil;
 import org.apache.cassandra.stargate.transport.internal.CqlServer;
+import org.apache.cassandra.stargate.transport.internal.NativeTransport;
 import org.apache.cassandra.stargate.transport.internal.TransportDescriptor;
-import org.apache.cassandra.utils.NativeLibrary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,13 +63,9 @@ public class CqlImpl {
     this.authentication = authentication;
     this.clientInfoTagProvider = clientInfoTagProvider;
 
-    if (useEpoll()) {
-      workerGroup = new EpollEventLoopGroup();
-      logger.info("Netty using native Epoll event loop");
-    } else {
-      workerGroup = new NioEventLoopGroup();
-      logger.info("Netty using Java NIO event loop");
-    }
+    NativeTransport transport = TransportDescriptor.getNativeTransport();
+    workerGroup = transport.newEventLoopGroup();
+    logger.info("Netty using {} event loop", transport);
   }
 
   public void start() {
@@ -139,7 +132,11 @@ public class CqlImpl {
     double metricsUpdatePeriodSeconds =
         Double.parseDouble(System.getProperty("stargate.cql.metrics.updatePeriodSeconds", "0.1"));
     ClientMetrics.instance.init(
-        servers, metrics.getMeterRegistry(), clientInfoTagProvider, metricsUpdatePeriodSeconds);
+        servers,
+        metrics.getMeterRegistry(),
+        clientInfoTagProvider,
+        metricsUpdatePeriodSeconds,
+        TransportDescriptor.nativeTransportRequestPhaseMetricsEnabled());
     servers.forEach(CqlServer::start);
     persistence.setRpcReady(true);
   }
@@ -149,15 +146,4 @@ public class CqlImpl {
     servers.forEach(CqlServer::stop);
     ClientMetrics.instance.shutdown();
   }
-
-  public static boolean useEpoll() {
-    final boolean enableEpoll =
-        Boolean.parseBoolean(System.getProperty("stargate.cql.native.epoll.enabled", "true"));
-
-    if (enableEpoll && !Epoll.isAvailable() && NativeLibrary.osType == NativeLibrary.OSType.LINUX) {
-      logger.warn("epoll requested but not available", Epoll.unavailabilityCause());
-    }
-
-    return enableEpoll && Epoll.isAvailable();
-  }
 }
@@ -44,9 +44,16 @@ public class Config {
   public volatile boolean native_transport_allow_older_protocols = true;
   public volatile long native_transport_max_concurrent_requests_in_bytes_per_ip = -1L;
   public volatile long native_transport_max_concurrent_requests_in_bytes = -1L;
+  public volatile long native_transport_max_concurrent_requests_per_connection = -1L;
+  public volatile long native_transport_max_concurrent_requests_per_role = -1L;
+  public volatile boolean native_transport_reject_requests_over_limit = false;
+  public volatile boolean native_transport_request_phase_metrics_enabled = false;
 
   public long native_transport_idle_timeout_in_ms = 0L;
 
+  public boolean native_transport_epoll_enabled = true;
+  public boolean native_transport_io_uring_enabled = false;
+
   @JsonSetter(nulls = Nulls.FAIL)
   public EncryptionOptions client_encryption_options = new EncryptionOptions();
 }
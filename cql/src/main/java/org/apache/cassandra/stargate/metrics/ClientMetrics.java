@@ -24,13 +24,16 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.MultiGauge;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.netty.buffer.ByteBufAllocatorMetricProvider;
 import io.stargate.db.ClientInfo;
 import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executors;
@@ -42,6 +45,7 @@ import java.util.stream.Collectors;
 import org.apache.cassandra.metrics.DefaultNameFactory;
 import org.apache.cassandra.stargate.transport.internal.CBUtil;
 import org.apache.cassandra.stargate.transport.internal.CqlServer;
+import org.apache.cassandra.stargate.transport.internal.Message;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +66,7 @@ public final class ClientMetrics {
   private static final String AUTH_SUCCESS_METRIC;
   private static final String AUTH_FAILURE_METRIC;
   private static final String AUTH_ERROR_METRIC;
+  private static final String REQUEST_PHASE_METRIC;
 
   // init to avoid re-computing on each record
   static {
@@ -70,8 +75,30 @@ public final class ClientMetrics {
     AUTH_SUCCESS_METRIC = metric("AuthSuccess");
     AUTH_FAILURE_METRIC = metric("AuthFailure");
     AUTH_ERROR_METRIC = metric("AuthError");
+    REQUEST_PHASE_METRIC = metric("RequestPhase");
   }
 
+  /**
+   * The phases of a request recorded by {@link #recordRequestPhase}, with a histogram per opcode:
+   *
+   * <ul>
+   *   <li>{@link #QUEUE}: from the decoding of the frame to the dispatching of the request.
+   *   <li>{@link #PROCESSING}: from the dispatching of the request to the completion of its
+   *       response by the persistence (for {@code STARTUP} and {@code AUTH_RESPONSE}, this is the
+   *       authentication time).
+   *   <li>{@link #FLUSH}: from the completion of the response to the flush of the channel.
+   * </ul>
+   */
+  public enum RequestPhase {
+    QUEUE,
+    PROCESSING,
+    FLUSH;
+
+    private final String tagValue = name().toLowerCase(Locale.ROOT);
+  }
+
+  private static final int REQUEST_TYPES = Message.Type.values().length;
+
   // initialized state
   private volatile boolean initialized = false;
   // internal executor
@@ -84,12 +111,17 @@ public final class ClientMetrics {
 
   // internal initialized meters
   private AtomicInteger pausedConnections;
+  private Counter requestsThrottledPerConnection;
+  private Counter requestsThrottledPerRole;
   private Counter totalBytesRead;
   private Counter totalBytesWritten;
   private DistributionSummary bytesReceivedPerFrame;
   private DistributionSummary bytesTransmittedPerFrame;
   private MultiGauge connectedNativeClients;
   private MultiGauge connectedNativeClientsByUser;
+  // per phase, flusher and opcode, created on first use
+  private volatile boolean requestPhaseMetricsEnabled;
+  private Timer[] requestPhaseTimers;
 
   private ClientMetrics() {}
 
@@ -101,6 +133,16 @@ public final class ClientMetrics {
     pausedConnections.decrementAndGet();
   }
 
+  /** Marks a request that went over the in-flight requests limit of its connection. */
+  public void markRequestThrottledPerConnection() {
+    requestsThrottledPerConnection.increment();
+  }
+
+  /** Marks a request that went over the in-flight requests limit of its authenticated role. */
+  public void markRequestThrottledPerRole() {
+    requestsThrottledPerRole.increment();
+  }
+
   public void incrementTotalBytesRead(double value) {
     totalBytesRead.increment(value);
   }
@@ -117,6 +159,57 @@ public final class ClientMetrics {
     bytesTransmittedPerFrame.record(value);
   }
 
+  /**
+   * Whether the {@link RequestPhase} histograms are recorded. Callers should not even read the
+   * clock when this returns false.
+   */
+  public boolean isRequestPhaseMetricsEnabled() {
+    return requestPhaseMetricsEnabled;
+  }
+
+  /**
+   * Enables or disables the {@link RequestPhase} histograms at runtime. Requests already in flight
+   * keep the setting they were decoded with. This has no effect until the instance is initialized.
+   */
+  public synchronized void setRequestPhaseMetricsEnabled(boolean enabled) {
+    if (initialized) {
+      requestPhaseMetricsEnabled = enabled;
+    }
+  }
+
+  /**
+   * Records the duration of a phase of a request. Whether to record the phases of a request is
+   * decided once per request by the caller with {@link #isRequestPhaseMetricsEnabled()}, so this
+   * doesn't check it again.
+   *
+   * @param legacyFlusher whether the response is flushed by the legacy (batching) flusher, rather
+   *     than the immediate one.
+   */
+  public void recordRequestPhase(
+      RequestPhase phase, Message.Type type, boolean legacyFlusher, long nanos) {
+    if (!initialized) {
+      return;
+    }
+    int index = ((phase.ordinal() * 2) + (legacyFlusher ? 1 : 0)) * REQUEST_TYPES + type.ordinal();
+    Timer timer = requestPhaseTimers[index];
+    if (timer == null) {
+      // concurrent registrations are fine, the registry returns the same timer
+      timer =
+          Timer.builder(REQUEST_PHASE_METRIC)
+              .tags(
+                  "phase",
+                  phase.tagValue,
+                  "opcode",
+                  type.name(),
+                  "flusher",
+                  legacyFlusher ? "legacy" : "immediate")
+              .publishPercentileHistogram()
+              .register(meterRegistry);
+      requestPhaseTimers[index] = timer;
+    }
+    timer.record(Duration.ofNanos(nanos));
+  }
+
   public ConnectionMetrics connectionMetrics(ClientInfo clientInfo) {
     if (!initialized) {
       throw new IllegalStateException("Client metrics not initialized yet.");
@@ -139,6 +232,25 @@ public final class ClientMetrics {
       MeterRegistry meterRegistry,
       ClientInfoMetricsTagProvider clientInfoTagProvider,
       double updatePeriodSeconds) {
+    init(servers, meterRegistry, clientInfoTagProvider, updatePeriodSeconds, false);
+  }
+
+  /**
+   * Initializes the {@link ClientMetrics} instance.
+   *
+   * @param servers List of servers to get metrics for
+   * @param meterRegistry Micrometer MeterRegistry to report to
+   * @param clientInfoTagProvider Tag provider for the connection
+   * @param updatePeriodSeconds The period for internal metric update in 1/s (f.e. for 10 sec rate,
+   *     use 0.1). If zero or less task will not be scheduled.
+   * @param requestPhaseMetricsEnabled Whether to record the {@link RequestPhase} histograms.
+   */
+  public synchronized void init(
+      Collection<CqlServer> servers,
+      MeterRegistry meterRegistry,
+      ClientInfoMetricsTagProvider clientInfoTagProvider,
+      double updatePeriodSeconds,
+      boolean requestPhaseMetricsEnabled) {
 
     if (initialized) return;
 
@@ -160,6 +272,10 @@ public final class ClientMetrics {
 
     pausedConnections =
         meterRegistry.gauge(metric("PausedConnections"), Tags.empty(), new AtomicInteger(0));
+    requestsThrottledPerConnection =
+        meterRegistry.counter(metric("RequestsThrottled"), Tags.of("limit", "connection"));
+    requestsThrottledPerRole =
+        meterRegistry.counter(metric("RequestsThrottled"), Tags.of("limit", "role"));
 
     totalBytesRead = meterRegistry.counter(metric("TotalBytesRead"));
     totalBytesWritten = meterRegistry.counter(metric("TotalBytesWritten"));
@@ -167,6 +283,9 @@ public final class ClientMetrics {
     bytesReceivedPerFrame = meterRegistry.summary(metric("BytesReceivedPerFrame"));
     bytesTransmittedPerFrame = meterRegistry.summary(metric("BytesTransmittedPerFrame"));
 
+    requestPhaseTimers = new Timer[RequestPhase.values().length * 2 * REQUEST_TYPES];
+    this.requestPhaseMetricsEnabled = requestPhaseMetricsEnabled;
+
     initialized = true;
 
     // if we have the positive period, init the executor service and submit the update task
@@ -210,6 +329,7 @@ public final class ClientMetrics {
       }
     }
 
+    requestPhaseMetricsEnabled = false;
     initialized = false;
   }
 
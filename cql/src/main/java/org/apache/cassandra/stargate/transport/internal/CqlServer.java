@@ -30,12 +30,8 @@ import io.netty.channel.ChannelOutboundInvoker;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.WriteBufferWaterMark;
-import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
@@ -46,7 +42,6 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 import io.netty.util.internal.logging.Slf4JLoggerFactory;
 import io.stargate.auth.AuthenticationService;
-import io.stargate.cql.impl.CqlImpl;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.EventListener;
 import io.stargate.db.EventListenerWithChannelFilter;
@@ -66,6 +61,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import org.apache.cassandra.net.ResourceLimits;
 import org.apache.cassandra.stargate.config.EncryptionOptions;
@@ -74,6 +70,7 @@ import org.apache.cassandra.stargate.metrics.ConnectionMetrics;
 import org.apache.cassandra.stargate.security.SSLFactory;
 import org.apache.cassandra.stargate.transport.ProtocolVersion;
 import org.apache.cassandra.stargate.transport.internal.messages.EventMessage;
+import org.apache.cassandra.stargate.transport.internal.messages.ResultMetadataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,7 +80,6 @@ public class CqlServer {
   }
 
   private static final Logger logger = LoggerFactory.getLogger(CqlServer.class);
-  private static final boolean useEpoll = CqlImpl.useEpoll();
 
   private final ConnectionTracker connectionTracker = new ConnectionTracker();
 
@@ -93,6 +89,7 @@ public class CqlServer {
   public boolean useSSL = false;
   private final AtomicBoolean isRunning = new AtomicBoolean(false);
 
+  private final NativeTransport transport;
   private final EventLoopGroup workerGroup;
 
   private CqlServer(Builder builder) {
@@ -100,11 +97,13 @@ public class CqlServer {
     this.authentication = builder.authentication;
     this.socket = builder.getSocket();
     this.useSSL = builder.useSSL;
+    // A provided event loop group must match the transport, so they should be provided together
+    this.transport =
+        builder.transport != null ? builder.transport : TransportDescriptor.getNativeTransport();
     if (builder.workerGroup != null) {
       workerGroup = builder.workerGroup;
     } else {
-      if (useEpoll) workerGroup = new EpollEventLoopGroup();
-      else workerGroup = new NioEventLoopGroup();
+      workerGroup = transport.newEventLoopGroup();
     }
     this.persistence.registerEventListener(new EventNotifier(this));
   }
@@ -123,7 +122,7 @@ public class CqlServer {
     // Configure the server.
     ServerBootstrap bootstrap =
         new ServerBootstrap()
-            .channel(useEpoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
+            .channel(transport.serverChannelClass())
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childOption(ChannelOption.SO_LINGER, 0)
             .childOption(ChannelOption.SO_KEEPALIVE, TransportDescriptor.getRpcKeepAlive())
@@ -218,6 +217,7 @@ public class CqlServer {
 
     private final Persistence persistence;
     private final AuthenticationService authentication;
+    private NativeTransport transport;
     private EventLoopGroup workerGroup;
     private boolean useSSL = false;
     private InetAddress hostAddr;
@@ -235,6 +235,11 @@ public class CqlServer {
       return this;
     }
 
+    public Builder withNativeTransport(NativeTransport transport) {
+      this.transport = transport;
+      return this;
+    }
+
     public Builder withEventLoopGroup(EventLoopGroup eventLoopGroup) {
       this.workerGroup = eventLoopGroup;
       return this;
@@ -441,6 +446,99 @@ public class CqlServer {
     }
   }
 
+  /**
+   * Tracks the number of requests in flight for an authenticated role, across all the connections
+   * (of all the servers) using that role.
+   *
+   * <p>A tracker only exists while its role has requests in flight: like {@link
+   * EndpointPayloadTracker}, it removes itself from the registry when its last request is released,
+   * so that roles that stop sending requests don't accumulate.
+   */
+  public static class RoleRequestTracker {
+    private static final ConcurrentMap<String, RoleRequestTracker> requestsInFlightPerRole =
+        new ConcurrentHashMap<>();
+
+    private final String role;
+    // -1 once the tracker is removed from the registry, after which it can't be acquired anymore
+    private final AtomicLong requestsInFlight = new AtomicLong();
+
+    private RoleRequestTracker(String role) {
+      this.role = role;
+    }
+
+    public static long getLimit() {
+      return TransportDescriptor.getNativeTransportMaxConcurrentRequestsPerRole();
+    }
+
+    public static void setLimit(long newLimit) {
+      long existingLimit = getLimit();
+      TransportDescriptor.setNativeTransportMaxConcurrentRequestsPerRole(newLimit);
+      logger.info(
+          "Changed native_transport_max_concurrent_requests_per_role from {} to {}",
+          existingLimit,
+          newLimit);
+    }
+
+    /**
+     * Counts a new request in flight for the role if it is below its limit.
+     *
+     * @return the tracker the request must be released from, or {@code null} if the role is at its
+     *     limit and the request was not counted.
+     */
+    static RoleRequestTracker tryAcquire(String role) {
+      return acquire(role, getLimit());
+    }
+
+    /**
+     * Counts a new request in flight for the role regardless of the limit.
+     *
+     * @return the tracker the request must be released from.
+     */
+    static RoleRequestTracker acquire(String role) {
+      return acquire(role, 0);
+    }
+
+    private static RoleRequestTracker acquire(String role, long limit) {
+      while (true) {
+        RoleRequestTracker tracker =
+            requestsInFlightPerRole.computeIfAbsent(role, RoleRequestTracker::new);
+        long current = tracker.requestsInFlight.get();
+        if (current < 0) {
+          // released concurrently, help removing it and retry with a new one
+          requestsInFlightPerRole.remove(role, tracker);
+        } else if (limit > 0 && current >= limit) {
+          return null;
+        } else if (tracker.requestsInFlight.compareAndSet(current, current + 1)) {
+          return tracker;
+        }
+      }
+    }
+
+    /** The number of requests in flight for the role. */
+    static long requestsInFlight(String role) {
+      RoleRequestTracker tracker = requestsInFlightPerRole.get(role);
+      return tracker == null ? 0 : Math.max(0, tracker.requestsInFlight.get());
+    }
+
+    static int trackedRoles() {
+      return requestsInFlightPerRole.size();
+    }
+
+    /**
+     * Stops counting a request in flight.
+     *
+     * @return whether the role is below its limit after the release.
+     */
+    boolean release() {
+      long limit = getLimit();
+      long remaining = requestsInFlight.updateAndGet(i -> i == 1 ? -1 : i - 1);
+      if (remaining < 0) {
+        requestsInFlightPerRole.remove(role, this);
+      }
+      return remaining < limit || limit <= 0;
+    }
+  }
+
   private static class Initializer extends ChannelInitializer<Channel> {
     // Stateless handlers
     private static final Message.ProtocolDecoder messageDecoder = new Message.ProtocolDecoder();
@@ -812,6 +910,8 @@ public class CqlServer {
     @Override
     public void onAlterTable(
         String ksName, String cfName, Predicate<Map<String, String>> headerFilter) {
+      // The columns of the results of prepared statements may have changed
+      ResultMetadataCache.instance.invalidate();
       send(
           new Event.SchemaChange(
               Event.SchemaChange.Change.UPDATED,
@@ -824,6 +924,7 @@ public class CqlServer {
     @Override
     public void onAlterType(
         String ksName, String typeName, Predicate<Map<String, String>> headerFilter) {
+      ResultMetadataCache.instance.invalidate();
       send(
           new Event.SchemaChange(
               Event.SchemaChange.Change.UPDATED,
@@ -867,12 +968,14 @@ public class CqlServer {
 
     @Override
     public void onDropKeyspace(String ksName, Predicate<Map<String, String>> headerFilter) {
+      ResultMetadataCache.instance.invalidate();
       send(new Event.SchemaChange(Event.SchemaChange.Change.DROPPED, ksName, headerFilter));
     }
 
     @Override
     public void onDropTable(
         String ksName, String cfName, Predicate<Map<String, String>> headerFilter) {
+      ResultMetadataCache.instance.invalidate();
       send(
           new Event.SchemaChange(
               Event.SchemaChange.Change.DROPPED,
@@ -885,6 +988,7 @@ public class CqlServer {
     @Override
     public void onDropType(
         String ksName, String typeName, Predicate<Map<String, String>> headerFilter) {
+      ResultMetadataCache.instance.invalidate();
       send(
           new Event.SchemaChange(
               Event.SchemaChange.Change.DROPPED,
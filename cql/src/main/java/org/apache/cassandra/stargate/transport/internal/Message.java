@@ -32,6 +32,7 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.CodecException;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
+import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.ClientInfo;
 import io.stargate.db.ImmutableParameters;
 import io.stargate.db.Parameters;
@@ -231,6 +232,21 @@ public abstract class Message {
   public abstract static class Request extends Message {
     private boolean tracingRequested;
 
+    /**
+     * The tracker of the role this request was counted against by the {@link Dispatcher}, if any.
+     * Captured when the request is received since the role of the connection can change while the
+     * request is in flight (on authentication).
+     */
+    CqlServer.RoleRequestTracker roleRequestTracker;
+
+    /**
+     * When the request was decoded, or 0 if the request phase metrics are disabled (see {@link
+     * ClientMetrics#isRequestPhaseMetricsEnabled()}). The setting is only read once, on decode, and
+     * the later phases are recorded based on this value, so that toggling it while requests are in
+     * flight never records a phase without its start.
+     */
+    long decodedAtNanos;
+
     protected Request(Type type) {
       super(type);
 
@@ -352,6 +368,9 @@ public abstract class Message {
             }
           }
           req.attach(connection);
+          if (ClientMetrics.instance.isRequestPhaseMetricsEnabled()) {
+            req.decodedAtNanos = System.nanoTime();
+          }
           if (isTracing) {
             req.setTracingRequested();
           }
@@ -466,6 +485,13 @@ public abstract class Message {
      */
     private long channelPayloadBytesInFlight;
 
+    /**
+     * Current count of requests that are live on the channel.
+     *
+     * <p>Note: should only be accessed while on the netty event loop.
+     */
+    private long channelRequestsInFlight;
+
     private final CqlServer.EndpointPayloadTracker endpointPayloadTracker;
 
     private boolean paused;
@@ -474,12 +500,23 @@ public abstract class Message {
       final ChannelHandlerContext ctx;
       final Object response;
       final long bodySizeInBytes;
+      final CqlServer.RoleRequestTracker roleRequestTracker;
+      final Type type;
+      // when the response was completed, or 0 if the request phase metrics are disabled
+      final long completedAtNanos;
       final Dispatcher dispatcher;
 
       private FlushItem(
-          ChannelHandlerContext ctx, Object response, long bodySizeInBytes, Dispatcher dispatcher) {
+          ChannelHandlerContext ctx,
+          Object response,
+          Request request,
+          long completedAtNanos,
+          Dispatcher dispatcher) {
         this.ctx = ctx;
-        this.bodySizeInBytes = bodySizeInBytes;
+        this.bodySizeInBytes = request.getSourceFrameBodySizeInBytes();
+        this.roleRequestTracker = request.roleRequestTracker;
+        this.type = request.type;
+        this.completedAtNanos = completedAtNanos;
         this.response = response;
         this.dispatcher = dispatcher;
       }
@@ -612,6 +649,45 @@ public abstract class Message {
      */
     private boolean shouldHandleRequest(ChannelHandlerContext ctx, Request request) {
       long frameSize = request.getSourceFrameBodySizeInBytes();
+      Connection connection = request.connection;
+
+      // check the number of requests in flight on the channel and for the role of the connection
+      String role = limitedRole(connection);
+      boolean overConnectionLimit = isOverConnectionRequestLimit();
+      CqlServer.RoleRequestTracker roleTracker =
+          overConnectionLimit || role == null
+              ? null
+              : CqlServer.RoleRequestTracker.tryAcquire(role);
+      boolean overRoleLimit = !overConnectionLimit && role != null && roleTracker == null;
+      if (overConnectionLimit || overRoleLimit) {
+        if (overConnectionLimit) {
+          ClientMetrics.instance.markRequestThrottledPerConnection();
+        } else {
+          ClientMetrics.instance.markRequestThrottledPerRole();
+        }
+
+        if (connection.isThrowOnOverload()
+            || TransportDescriptor.rejectNativeTransportRequestsOverLimit()) {
+          // discard the request and throw an exception
+          connection.getConnectionMetrics().markRequestDiscarded();
+          logger.trace(
+              "Discarded request over the {} limit. InflightChannelRequests: {}, InflightRoleRequests: {}, Request: {}",
+              overConnectionLimit ? "connection" : "role",
+              channelRequestsInFlight,
+              role == null ? 0 : CqlServer.RoleRequestTracker.requestsInFlight(role),
+              request);
+          throw ErrorMessage.wrap(
+              new OverloadedException(
+                  String.format(
+                      "Too many requests in flight for this %s. Cannot accept more requests at this point",
+                      overConnectionLimit ? "connection" : "role")),
+              request.getStreamId());
+        } else {
+          // set backpressure on the channel, and handle the request
+          if (role != null) roleTracker = CqlServer.RoleRequestTracker.acquire(role);
+          pause(ctx);
+        }
+      }
 
       ResourceLimits.EndpointAndGlobal endpointAndGlobalPayloadsInFlight =
           endpointPayloadTracker.endpointAndGlobalPayloadsInFlight;
@@ -619,7 +695,6 @@ public abstract class Message {
       // check for overloaded state by trying to allocate framesize to inflight payload trackers
       if (endpointAndGlobalPayloadsInFlight.tryAllocate(frameSize)
           != ResourceLimits.Outcome.SUCCESS) {
-        Connection connection = request.connection;
         if (connection.isThrowOnOverload()) {
           // discard the request and throw an exception
           connection.getConnectionMetrics().markRequestDiscarded();
@@ -630,6 +705,7 @@ public abstract class Message {
               endpointAndGlobalPayloadsInFlight.endpoint().using(),
               endpointAndGlobalPayloadsInFlight.global().using(),
               request);
+          if (roleTracker != null) roleTracker.release();
           throw ErrorMessage.wrap(
               new OverloadedException(
                   "Server is in overloaded state. Cannot accept more requests at this point"),
@@ -637,16 +713,45 @@ public abstract class Message {
         } else {
           // set backpressure on the channel, and handle the request
           endpointAndGlobalPayloadsInFlight.allocate(frameSize);
-          ctx.channel().config().setAutoRead(false);
-          ClientMetrics.instance.pauseConnection();
-          paused = true;
+          pause(ctx);
         }
       }
 
       channelPayloadBytesInFlight += frameSize;
+      channelRequestsInFlight++;
+      request.roleRequestTracker = roleTracker;
       return true;
     }
 
+    /**
+     * Returns the role the request should be counted against, or {@code null} if there is no
+     * per-role limit or the connection is not authenticated yet.
+     */
+    private static String limitedRole(Connection connection) {
+      if (CqlServer.RoleRequestTracker.getLimit() <= 0
+          || !(connection instanceof ServerConnection)) {
+        return null;
+      }
+      return ((ServerConnection) connection)
+          .persistenceConnection()
+          .loggedUser()
+          .map(AuthenticatedUser::name)
+          .orElse(null);
+    }
+
+    private boolean isOverConnectionRequestLimit() {
+      long limit = TransportDescriptor.getNativeTransportMaxConcurrentRequestsPerConnection();
+      return limit > 0 && channelRequestsInFlight >= limit;
+    }
+
+    private void pause(ChannelHandlerContext ctx) {
+      if (!paused) {
+        ctx.channel().config().setAutoRead(false);
+        ClientMetrics.instance.pauseConnection();
+        paused = true;
+      }
+    }
+
     /**
      * Note: this method will be used in the {@link Flusher#run()}, which executes on the netty
      * event loop ({@link Dispatcher#flusherLookup}). Thus, we assume the semantics and visibility
@@ -655,21 +760,37 @@ public abstract class Message {
     private void releaseItem(FlushItem item) {
       long itemSize = item.bodySizeInBytes;
 
+      if (item.completedAtNanos != 0) {
+        ClientMetrics.instance.recordRequestPhase(
+            ClientMetrics.RequestPhase.FLUSH,
+            item.type,
+            useLegacyFlusher,
+            System.nanoTime() - item.completedAtNanos);
+      }
+
       // since the request has been processed, decrement inflight payload at channel, endpoint and
       // global levels
       channelPayloadBytesInFlight -= itemSize;
       ResourceLimits.Outcome endpointGlobalReleaseOutcome =
           endpointPayloadTracker.endpointAndGlobalPayloadsInFlight.release(itemSize);
 
+      // same for the request counts at channel and role levels
+      channelRequestsInFlight--;
+      boolean roleBelowLimit = item.roleRequestTracker == null || item.roleRequestTracker.release();
+
       // now check to see if we need to reenable the channel's autoRead.
-      // If the current payload side is zero, we must reenable autoread as
+      // If there are no more requests in flight, we must reenable autoread as
       // 1) we allow no other thread/channel to do it, and
-      // 2) there's no other events following this one (becuase we're at zero bytes in flight),
-      // so no successive to trigger the other clause in this if-block
+      // 2) there's no other events following this one (becuase we're at zero requests in
+      // flight), so no successive to trigger the other clause in this if-block
+      // Note that this means that a role over its limit because of other connections only pauses
+      // each connection until its own requests complete.
       ChannelConfig config = item.ctx.channel().config();
       if (paused
-          && (channelPayloadBytesInFlight == 0
-              || endpointGlobalReleaseOutcome == ResourceLimits.Outcome.BELOW_LIMIT)) {
+          && (channelRequestsInFlight == 0
+              || (endpointGlobalReleaseOutcome == ResourceLimits.Outcome.BELOW_LIMIT
+                  && !isOverConnectionRequestLimit()
+                  && roleBelowLimit))) {
         paused = false;
         ClientMetrics.instance.unpauseConnection();
         config.setAutoRead(true);
@@ -680,6 +801,13 @@ public abstract class Message {
     void processRequest(ChannelHandlerContext ctx, Request request) {
       final ServerConnection connection;
       long queryStartNanoTime = System.nanoTime();
+      if (request.decodedAtNanos != 0) {
+        ClientMetrics.instance.recordRequestPhase(
+            ClientMetrics.RequestPhase.QUEUE,
+            request.type,
+            useLegacyFlusher,
+            queryStartNanoTime - request.decodedAtNanos);
+      }
 
       try {
         assert request.connection() instanceof ServerConnection;
@@ -696,8 +824,9 @@ public abstract class Message {
 
         req.whenComplete(
             (response, err) -> {
+              long completedAtNanos = recordProcessing(request, queryStartNanoTime);
               if (err != null) {
-                handleError(ctx, request, err);
+                handleError(ctx, request, err, completedAtNanos);
               } else {
                 try {
                   response.setStreamId(request.getStreamId());
@@ -705,8 +834,7 @@ public abstract class Message {
                   connection.applyStateTransition(request.type, response.type);
 
                   logger.trace("Responding: {}, v={}", response, connection.getVersion());
-                  flush(
-                      new FlushItem(ctx, response, request.getSourceFrameBodySizeInBytes(), this));
+                  flush(new FlushItem(ctx, response, request, completedAtNanos, this));
                 } catch (Throwable t) {
                   // after adding the item to the queue
                   // JVMStabilityInspector.inspectThrowable(t); // TODO
@@ -718,11 +846,33 @@ public abstract class Message {
               }
             });
       } catch (Throwable t) {
-        handleError(ctx, request, t);
+        handleError(ctx, request, t, recordProcessing(request, queryStartNanoTime));
+      }
+    }
+
+    /**
+     * Records the processing phase of the request if the request phase metrics are enabled.
+     *
+     * @return the completion time of the request, or 0 if the metrics are disabled.
+     */
+    private long recordProcessing(Request request, long queryStartNanoTime) {
+      if (request.decodedAtNanos == 0) {
+        return 0;
       }
+      long completedAtNanos = System.nanoTime();
+      ClientMetrics.instance.recordRequestPhase(
+          ClientMetrics.RequestPhase.PROCESSING,
+          request.type,
+          useLegacyFlusher,
+          completedAtNanos - queryStartNanoTime);
+      return completedAtNanos;
     }
 
-    private void handleError(ChannelHandlerContext ctx, Message.Request request, Throwable error) {
+    private void handleError(
+        ChannelHandlerContext ctx,
+        Message.Request request,
+        Throwable error,
+        long completedAtNanos) {
       try {
         if (logger.isTraceEnabled())
           logger.trace(
@@ -747,7 +897,8 @@ public abstract class Message {
             new Message.Dispatcher.FlushItem(
                 ctx,
                 ErrorMessage.fromException(error, handler).setStreamId(request.getStreamId()),
-                request.getSourceFrameBodySizeInBytes(),
+                request,
+                completedAtNanos,
                 this));
       } catch (Throwable t) {
         // adding the item to the queue
@@ -0,0 +1,143 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import org.apache.cassandra.utils.NativeLibrary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Netty transports the CQL server can run on, from the most to the least efficient.
+ *
+ * <p>io_uring is opt-in (it relies on Netty's incubator transport and a recent Linux kernel), epoll
+ * is used by default on Linux, and NIO is the portable fallback.
+ */
+public enum NativeTransport {
+  IO_URING {
+    @Override
+    public boolean isAvailable() {
+      try {
+        return IOUring.isAvailable();
+      } catch (LinkageError e) {
+        return false;
+      }
+    }
+
+    @Override
+    Throwable unavailabilityCause() {
+      try {
+        return IOUring.unavailabilityCause();
+      } catch (LinkageError e) {
+        return e;
+      }
+    }
+
+    @Override
+    public EventLoopGroup newEventLoopGroup() {
+      return new IOUringEventLoopGroup();
+    }
+
+    @Override
+    public Class<? extends ServerChannel> serverChannelClass() {
+      return IOUringServerSocketChannel.class;
+    }
+  },
+  EPOLL {
+    @Override
+    public boolean isAvailable() {
+      return Epoll.isAvailable();
+    }
+
+    @Override
+    Throwable unavailabilityCause() {
+      return Epoll.unavailabilityCause();
+    }
+
+    @Override
+    public EventLoopGroup newEventLoopGroup() {
+      return new EpollEventLoopGroup();
+    }
+
+    @Override
+    public Class<? extends ServerChannel> serverChannelClass() {
+      return EpollServerSocketChannel.class;
+    }
+  },
+  NIO {
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+
+    @Override
+    Throwable unavailabilityCause() {
+      return null;
+    }
+
+    @Override
+    public EventLoopGroup newEventLoopGroup() {
+      return new NioEventLoopGroup();
+    }
+
+    @Override
+    public Class<? extends ServerChannel> serverChannelClass() {
+      return NioServerSocketChannel.class;
+    }
+  };
+
+  private static final Logger logger = LoggerFactory.getLogger(NativeTransport.class);
+
+  public abstract boolean isAvailable();
+
+  abstract Throwable unavailabilityCause();
+
+  public abstract EventLoopGroup newEventLoopGroup();
+
+  public abstract Class<? extends ServerChannel> serverChannelClass();
+
+  /**
+   * Picks the most efficient enabled transport that is available on this platform, falling back
+   * from io_uring to epoll, and from epoll to NIO.
+   */
+  public static NativeTransport select(boolean ioUringEnabled, boolean epollEnabled) {
+    if (ioUringEnabled) {
+      if (IO_URING.isAvailable()) {
+        return IO_URING;
+      }
+      logger.warn(
+          "io_uring requested but not available, falling back", IO_URING.unavailabilityCause());
+    }
+    if (epollEnabled) {
+      if (EPOLL.isAvailable()) {
+        return EPOLL;
+      }
+      if (NativeLibrary.osType == NativeLibrary.OSType.LINUX) {
+        logger.warn("epoll requested but not available", EPOLL.unavailabilityCause());
+      }
+    }
+    return NIO;
+  }
+}
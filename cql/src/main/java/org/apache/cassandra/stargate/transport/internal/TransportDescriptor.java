@@ -11,6 +11,7 @@ import java.util.Enumeration;
 import org.apache.cassandra.stargate.config.Config;
 import org.apache.cassandra.stargate.config.EncryptionOptions;
 import org.apache.cassandra.stargate.exceptions.ConfigurationException;
+import org.apache.cassandra.stargate.metrics.ClientMetrics;
 import org.apache.cassandra.stargate.security.SSLFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +24,8 @@ public class TransportDescriptor {
 
   private static InetAddress rpcAddress;
 
+  private static volatile NativeTransport nativeTransport;
+
   private enum ByteUnit {
     KIBI_BYTES(2048 * 1024, 1024),
     MEBI_BYTES(2048, 1024 * 1024);
@@ -50,6 +53,7 @@ public class TransportDescriptor {
 
   public static void daemonInitialization(Config config) {
     conf = config;
+    nativeTransport = null;
 
     applySimpleConfig();
 
@@ -179,6 +183,38 @@ public class TransportDescriptor {
     conf.native_transport_max_concurrent_requests_in_bytes_per_ip = maxConcurrentRequestsInBytes;
   }
 
+  /**
+   * The maximum number of requests in flight on a single connection, or a value <= 0 for no limit.
+   */
+  public static long getNativeTransportMaxConcurrentRequestsPerConnection() {
+    return conf.native_transport_max_concurrent_requests_per_connection;
+  }
+
+  public static void setNativeTransportMaxConcurrentRequestsPerConnection(long maxRequests) {
+    conf.native_transport_max_concurrent_requests_per_connection = maxRequests;
+  }
+
+  /**
+   * The maximum number of requests in flight across all the connections authenticated with the same
+   * role, or a value <= 0 for no limit.
+   */
+  public static long getNativeTransportMaxConcurrentRequestsPerRole() {
+    return conf.native_transport_max_concurrent_requests_per_role;
+  }
+
+  public static void setNativeTransportMaxConcurrentRequestsPerRole(long maxRequests) {
+    conf.native_transport_max_concurrent_requests_per_role = maxRequests;
+  }
+
+  /**
+   * Whether requests over the per-connection or per-role limits are rejected with an {@code
+   * OverloadedException} rather than applying backpressure on the connection. Clients can also
+   * request this for their connection with the {@code THROW_ON_OVERLOAD} startup option.
+   */
+  public static boolean rejectNativeTransportRequestsOverLimit() {
+    return conf.native_transport_reject_requests_over_limit;
+  }
+
   public static long getNativeTransportMaxConcurrentConnections() {
     return conf.native_transport_max_concurrent_connections;
   }
@@ -191,6 +227,34 @@ public class TransportDescriptor {
     return conf.native_transport_idle_timeout_in_ms;
   }
 
+  /**
+   * The Netty transport to use for the CQL server: the most efficient of the enabled transports
+   * that is available on this platform.
+   */
+  public static NativeTransport getNativeTransport() {
+    NativeTransport transport = nativeTransport;
+    if (transport == null) {
+      transport =
+          NativeTransport.select(
+              conf.native_transport_io_uring_enabled, conf.native_transport_epoll_enabled);
+      nativeTransport = transport;
+    }
+    return transport;
+  }
+
+  /**
+   * Whether to record histograms of the queue, processing and flush time of the requests, per
+   * opcode. This reads the clock a few more times per request, so it is disabled by default.
+   */
+  public static boolean nativeTransportRequestPhaseMetricsEnabled() {
+    return conf.native_transport_request_phase_metrics_enabled;
+  }
+
+  public static void setNativeTransportRequestPhaseMetricsEnabled(boolean enabled) {
+    conf.native_transport_request_phase_metrics_enabled = enabled;
+    ClientMetrics.instance.setRequestPhaseMetricsEnabled(enabled);
+  }
+
   public static boolean useNativeTransportLegacyFlusher() {
     return conf.native_transport_flush_in_batches_legacy;
   }
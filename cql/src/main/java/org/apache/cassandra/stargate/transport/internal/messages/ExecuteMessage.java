@@ -95,7 +95,7 @@ public class ExecuteMessage extends Message.Request {
     CompletableFuture<? extends Result> future =
         persistenceConnection().execute(statement, makeParameters(options), queryStartNanoTime);
     return SchemaAgreement.maybeWaitForAgreement(future, persistenceConnection())
-        .thenApply(ResultMessage::new);
+        .thenApply(result -> new ResultMessage(result, statementId));
   }
 
   @Override
@@ -84,7 +84,7 @@ public class PrepareMessage extends Message.Request {
   protected CompletableFuture<? extends Response> execute(long queryStartNanoTime) {
     CompletableFuture<Result.Prepared> future =
         persistenceConnection().prepare(query, makeParameters());
-    return future.thenApply(ResultMessage::new);
+    return future.thenApply(prepared -> new ResultMessage(prepared, prepared.statementId));
   }
 
   @Override
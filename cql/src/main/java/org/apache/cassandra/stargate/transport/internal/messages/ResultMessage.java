@@ -45,11 +45,24 @@ public class ResultMessage extends Message.Response {
         @Override
         public void encode(ResultMessage msg, ByteBuf dest, ProtocolVersion version) {
           dest.writeInt(msg.result.kind.id);
-          SUBCODECS.get(msg.result.kind).encode(msg.result, dest, version);
+          byte[] cached = msg.cachedEncoding(version);
+          if (msg.result.kind == Result.Kind.Rows && msg.statementId != null) {
+            RowsSubCodec.encode((Result.Rows) msg.result, cached, dest, version);
+          } else if (cached != null) {
+            dest.writeBytes(cached);
+          } else {
+            SUBCODECS.get(msg.result.kind).encode(msg.result, dest, version);
+          }
         }
 
         @Override
         public int encodedSize(ResultMessage msg, ProtocolVersion version) {
+          byte[] cached = msg.cachedEncoding(version);
+          if (msg.result.kind == Result.Kind.Rows && msg.statementId != null) {
+            return 4 + RowsSubCodec.encodedSize((Result.Rows) msg.result, cached, version);
+          } else if (cached != null) {
+            return 4 + cached.length;
+          }
           return 4 + SUBCODECS.get(msg.result.kind).encodedSize(msg.result, version);
         }
       };
@@ -60,19 +73,55 @@ public class ResultMessage extends Message.Response {
     SUBCODECS.put(Result.Kind.Void, new VoidSubCodec());
     SUBCODECS.put(Result.Kind.SetKeyspace, new SetKeyspaceSubCodec());
     SUBCODECS.put(Result.Kind.Rows, new RowsSubCodec());
-    SUBCODECS.put(Result.Kind.Prepared, new PreparedSubCodec());
+    SUBCODECS.put(Result.Kind.Prepared, PreparedSubCodec.instance);
     SUBCODECS.put(Result.Kind.SchemaChange, new SchemaChangeSubCodec());
   }
 
   public final Result result;
 
+  /**
+   * The ID of the prepared statement this is a result of, if any. When set, the encoded metadata of
+   * the result is cached (see {@link ResultMetadataCache}).
+   */
+  private final MD5Digest statementId;
+
+  // The cached encoding of the result for cachedVersion, looked up once for both encodedSize() and
+  // encode(): the column specs of ROWS results, or the whole body of PREPARED results.
+  private ProtocolVersion cachedVersion;
+  private byte[] cachedEncoding;
+
   protected ResultMessage(Result result) {
+    this(result, null);
+  }
+
+  protected ResultMessage(Result result, MD5Digest statementId) {
     super(Message.Type.RESULT);
     this.result = result;
+    this.statementId = statementId;
     this.tracingId = result.getTracingId();
     this.warnings = result.getWarnings();
   }
 
+  private byte[] cachedEncoding(ProtocolVersion version) {
+    if (statementId == null) {
+      return null;
+    }
+    if (cachedVersion != version) {
+      if (result.kind == Result.Kind.Rows) {
+        cachedEncoding =
+            ResultMetadataCache.instance.rowsColumnSpecs(
+                statementId, version, ((Result.Rows) result).resultMetadata);
+      } else if (result.kind == Result.Kind.Prepared) {
+        cachedEncoding =
+            ResultMetadataCache.instance.preparedBody((Result.Prepared) result, version);
+      } else {
+        cachedEncoding = null;
+      }
+      cachedVersion = version;
+    }
+    return cachedEncoding;
+  }
+
   public static class VoidSubCodec implements CBCodec<Result> {
     @Override
     public Result decode(ByteBuf body, ProtocolVersion version) {
@@ -160,69 +209,102 @@ public class ResultMessage extends Message.Response {
           @Override
           public void encode(
               Result.ResultMetadata metadata, ByteBuf dest, ProtocolVersion version) {
-            boolean noMetadata = metadata.flags.contains(Result.Flag.NO_METADATA);
-            boolean globalTablesSpec = metadata.flags.contains(Result.Flag.GLOBAL_TABLES_SPEC);
-            boolean hasMorePages = metadata.flags.contains(Result.Flag.HAS_MORE_PAGES);
-            boolean metadataChanged = metadata.flags.contains(Result.Flag.METADATA_CHANGED);
-            assert version.isGreaterThan(ProtocolVersion.V1) || (!hasMorePages && !noMetadata)
-                : "version = " + version + ", flags = " + metadata.flags;
+            encodeMetadata(metadata, null, dest, version);
+          }
 
-            dest.writeInt(Result.Flag.serialize(metadata.flags));
-            dest.writeInt(metadata.columnCount);
+          @Override
+          public int encodedSize(Result.ResultMetadata metadata, ProtocolVersion version) {
+            return sizeOfMetadata(metadata, null, version);
+          }
+        };
 
-            if (hasMorePages) CBUtil.writeValue(metadata.pagingState, dest);
+    /**
+     * Encodes the metadata of a result.
+     *
+     * @param columnSpecs the pre-encoded column specifications (see {@link
+     *     #encodeColumnSpecs(Result.ResultMetadata, ByteBuf, ProtocolVersion)}), or {@code null} to
+     *     encode them.
+     */
+    private static void encodeMetadata(
+        Result.ResultMetadata metadata, byte[] columnSpecs, ByteBuf dest, ProtocolVersion version) {
+      boolean noMetadata = metadata.flags.contains(Result.Flag.NO_METADATA);
+      boolean hasMorePages = metadata.flags.contains(Result.Flag.HAS_MORE_PAGES);
+      boolean metadataChanged = metadata.flags.contains(Result.Flag.METADATA_CHANGED);
+      assert version.isGreaterThan(ProtocolVersion.V1) || (!hasMorePages && !noMetadata)
+          : "version = " + version + ", flags = " + metadata.flags;
+
+      dest.writeInt(Result.Flag.serialize(metadata.flags));
+      dest.writeInt(metadata.columnCount);
+
+      if (hasMorePages) CBUtil.writeValue(metadata.pagingState, dest);
+
+      if (version.isGreaterOrEqualTo(ProtocolVersion.V5) && metadataChanged) {
+        assert !noMetadata : "MetadataChanged and NoMetadata are mutually exclusive flags";
+        CBUtil.writeBytes(metadata.resultMetadataId.bytes, dest);
+      }
 
-            if (version.isGreaterOrEqualTo(ProtocolVersion.V5) && metadataChanged) {
-              assert !noMetadata : "MetadataChanged and NoMetadata are mutually exclusive flags";
-              CBUtil.writeBytes(metadata.resultMetadataId.bytes, dest);
-            }
+      if (!noMetadata) {
+        if (columnSpecs != null) dest.writeBytes(columnSpecs);
+        else encodeColumnSpecs(metadata, dest, version);
+      }
+    }
 
-            if (!noMetadata) {
-              if (globalTablesSpec) {
-                CBUtil.writeAsciiString(metadata.columns.get(0).keyspace(), dest);
-                CBUtil.writeAsciiString(metadata.columns.get(0).table(), dest);
-              }
+    private static int sizeOfMetadata(
+        Result.ResultMetadata metadata, byte[] columnSpecs, ProtocolVersion version) {
+      boolean noMetadata = metadata.flags.contains(Result.Flag.NO_METADATA);
+      boolean hasMorePages = metadata.flags.contains(Result.Flag.HAS_MORE_PAGES);
+      boolean metadataChanged = metadata.flags.contains(Result.Flag.METADATA_CHANGED);
 
-              for (Column c : metadata.columns) {
-                if (!globalTablesSpec) {
-                  CBUtil.writeAsciiString(c.keyspace(), dest);
-                  CBUtil.writeAsciiString(c.table(), dest);
-                }
-                ColumnUtils.encodeColumn(c, dest, version);
-              }
-            }
-          }
+      int size = 8;
+      if (hasMorePages) size += CBUtil.sizeOfValue(metadata.pagingState);
 
-          @Override
-          public int encodedSize(Result.ResultMetadata metadata, ProtocolVersion version) {
-            boolean noMetadata = metadata.flags.contains(Result.Flag.NO_METADATA);
-            boolean globalTablesSpec = metadata.flags.contains(Result.Flag.GLOBAL_TABLES_SPEC);
-            boolean hasMorePages = metadata.flags.contains(Result.Flag.HAS_MORE_PAGES);
-            boolean metadataChanged = metadata.flags.contains(Result.Flag.METADATA_CHANGED);
+      if (version.isGreaterOrEqualTo(ProtocolVersion.V5) && metadataChanged)
+        size += CBUtil.sizeOfBytes(metadata.resultMetadataId.bytes);
 
-            int size = 8;
-            if (hasMorePages) size += CBUtil.sizeOfValue(metadata.pagingState);
+      if (!noMetadata) {
+        size += columnSpecs != null ? columnSpecs.length : sizeOfColumnSpecs(metadata, version);
+      }
+      return size;
+    }
 
-            if (version.isGreaterOrEqualTo(ProtocolVersion.V5) && metadataChanged)
-              size += CBUtil.sizeOfBytes(metadata.resultMetadataId.bytes);
+    /**
+     * Encodes the part of the metadata that only depends on the columns: their keyspace, table,
+     * name and type.
+     */
+    static void encodeColumnSpecs(
+        Result.ResultMetadata metadata, ByteBuf dest, ProtocolVersion version) {
+      boolean globalTablesSpec = metadata.flags.contains(Result.Flag.GLOBAL_TABLES_SPEC);
+      if (globalTablesSpec) {
+        CBUtil.writeAsciiString(metadata.columns.get(0).keyspace(), dest);
+        CBUtil.writeAsciiString(metadata.columns.get(0).table(), dest);
+      }
 
-            if (!noMetadata) {
-              if (globalTablesSpec) {
-                size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).keyspace());
-                size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).table());
-              }
+      for (Column c : metadata.columns) {
+        if (!globalTablesSpec) {
+          CBUtil.writeAsciiString(c.keyspace(), dest);
+          CBUtil.writeAsciiString(c.table(), dest);
+        }
+        ColumnUtils.encodeColumn(c, dest, version);
+      }
+    }
 
-              for (Column c : metadata.columns) {
-                if (!globalTablesSpec) {
-                  size += CBUtil.sizeOfAsciiString(c.keyspace());
-                  size += CBUtil.sizeOfAsciiString(c.table());
-                }
-                size += ColumnUtils.encodeSizeColumn(c, version);
-              }
-            }
-            return size;
-          }
-        };
+    static int sizeOfColumnSpecs(Result.ResultMetadata metadata, ProtocolVersion version) {
+      boolean globalTablesSpec = metadata.flags.contains(Result.Flag.GLOBAL_TABLES_SPEC);
+      int size = 0;
+      if (globalTablesSpec) {
+        size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).keyspace());
+        size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).table());
+      }
+
+      for (Column c : metadata.columns) {
+        if (!globalTablesSpec) {
+          size += CBUtil.sizeOfAsciiString(c.keyspace());
+          size += CBUtil.sizeOfAsciiString(c.table());
+        }
+        size += ColumnUtils.encodeSizeColumn(c, version);
+      }
+      return size;
+    }
 
     @Override
     public Result decode(ByteBuf body, ProtocolVersion version) {
@@ -244,8 +326,12 @@ public class ResultMessage extends Message.Response {
     @Override
     public void encode(Result result, ByteBuf dest, ProtocolVersion version) {
       assert result instanceof Result.Rows;
-      Result.Rows rows = (Result.Rows) result;
-      METADATA_CODEC.encode(rows.resultMetadata, dest, version);
+      encode((Result.Rows) result, null, dest, version);
+    }
+
+    static void encode(
+        Result.Rows rows, byte[] columnSpecs, ByteBuf dest, ProtocolVersion version) {
+      encodeMetadata(rows.resultMetadata, columnSpecs, dest, version);
       dest.writeInt(rows.rows.size());
       for (List<ByteBuffer> row : rows.rows) {
         for (int i = 0; i < rows.resultMetadata.columnCount; ++i)
@@ -256,8 +342,11 @@ public class ResultMessage extends Message.Response {
     @Override
     public int encodedSize(Result result, ProtocolVersion version) {
       assert result instanceof Result.Rows;
-      Result.Rows rows = (Result.Rows) result;
-      int size = METADATA_CODEC.encodedSize(rows.resultMetadata, version);
+      return encodedSize((Result.Rows) result, null, version);
+    }
+
+    static int encodedSize(Result.Rows rows, byte[] columnSpecs, ProtocolVersion version) {
+      int size = sizeOfMetadata(rows.resultMetadata, columnSpecs, version);
       for (List<ByteBuffer> row : rows.rows) {
         for (int i = 0; i < rows.resultMetadata.columnCount; ++i)
           size += CBUtil.sizeOfValue(row.get(i));
@@ -267,6 +356,8 @@ public class ResultMessage extends Message.Response {
   }
 
   public static class PreparedSubCodec implements CBCodec<Result> {
+    static final PreparedSubCodec instance = new PreparedSubCodec();
+
     public static final CBCodec<Result.PreparedMetadata> METADATA_CODEC =
         new CBCodec<Result.PreparedMetadata>() {
           @Override
@@ -0,0 +1,250 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal.messages;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.stargate.db.Result;
+import io.stargate.db.schema.Column;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+
+/**
+ * Caches the encoded metadata of the results of prepared statements, per statement ID and protocol
+ * version, so that the column specifications (keyspace, table and column names, and types) are not
+ * re-encoded on every execution and every page. Two things are cached:
+ *
+ * <ul>
+ *   <li>the column specifications of the {@code ROWS} results of {@code EXECUTE} requests that do
+ *       not skip the metadata. The flags, column count and paging state, which can change between
+ *       executions, are still encoded for each response.
+ *   <li>the whole body of the {@code PREPARED} results, which drivers get again every time they
+ *       re-prepare a statement (on every new connection for instance).
+ * </ul>
+ *
+ * <p>The cache is cleared on every schema change that could alter the columns of a result (see
+ * {@link #invalidate()}). Since such a change may be applied before the corresponding event is
+ * delivered, each entry also records the columns (names and types), the flags and the result
+ * metadata ID (when the persistence provides it, which not all of them do) of the metadata it was
+ * encoded from, and is only used for metadata that match them.
+ */
+public class ResultMetadataCache {
+
+  public static final String ENABLED_PROPERTY = "stargate.cql.result_metadata_cache.enabled";
+  public static final String MAX_ENTRIES_PROPERTY =
+      "stargate.cql.result_metadata_cache.max_entries";
+
+  public static final ResultMetadataCache instance =
+      new ResultMetadataCache(
+          Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")),
+          Integer.getInteger(MAX_ENTRIES_PROPERTY, 10_000));
+
+  private final boolean enabled;
+  private final int maxEntries;
+  private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+  // incremented on every invalidation, so that entries encoded before it are not put back after it
+  private final AtomicLong generation = new AtomicLong();
+
+  ResultMetadataCache(boolean enabled, int maxEntries) {
+    this.enabled = enabled;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Returns the encoded column specifications of the {@code ROWS} results of a prepared statement,
+   * or {@code null} if they should be encoded as usual.
+   */
+  byte[] rowsColumnSpecs(
+      MD5Digest statementId, ProtocolVersion version, Result.ResultMetadata metadata) {
+    if (!enabled || metadata.flags.contains(Result.Flag.NO_METADATA)) {
+      return null;
+    }
+    boolean globalTablesSpec = metadata.flags.contains(Result.Flag.GLOBAL_TABLES_SPEC);
+    Key key = new Key(false, statementId, version);
+    Entry entry = entries.get(key);
+    if (entry != null
+        && entry.columnCount == metadata.columnCount
+        && entry.globalTablesSpec == globalTablesSpec
+        && Objects.equals(entry.resultMetadataId, metadata.resultMetadataId)
+        && sameColumns(entry.columns, metadata.columns)) {
+      return entry.bytes;
+    }
+
+    long generation = this.generation.get();
+    byte[] bytes =
+        encode(
+            ResultMessage.RowsSubCodec.sizeOfColumnSpecs(metadata, version),
+            dest -> ResultMessage.RowsSubCodec.encodeColumnSpecs(metadata, dest, version));
+    put(
+        key,
+        new Entry(
+            bytes,
+            metadata.columnCount,
+            metadata.columns,
+            globalTablesSpec,
+            metadata.resultMetadataId,
+            null),
+        generation);
+    return bytes;
+  }
+
+  /**
+   * Returns the encoded body of a {@code PREPARED} result, or {@code null} if it should be encoded
+   * as usual.
+   */
+  byte[] preparedBody(Result.Prepared prepared, ProtocolVersion version) {
+    if (!enabled) {
+      return null;
+    }
+    Key key = new Key(true, prepared.statementId, version);
+    Entry entry = entries.get(key);
+    if (entry != null
+        && entry.columnCount == prepared.resultMetadata.columnCount
+        && Objects.equals(entry.resultMetadataId, prepared.resultMetadataId)
+        && entry.flags.equals(prepared.metadata.flags)
+        && entry.bindColumnCount == prepared.metadata.columns.size()
+        && Arrays.equals(entry.partitionKeyBindIndexes, prepared.metadata.partitionKeyBindIndexes)
+        && sameColumns(entry.columns, prepared.resultMetadata.columns)
+        && sameColumns(entry.bindColumns, prepared.metadata.columns)) {
+      return entry.bytes;
+    }
+
+    long generation = this.generation.get();
+    ResultMessage.PreparedSubCodec codec = ResultMessage.PreparedSubCodec.instance;
+    byte[] bytes =
+        encode(codec.encodedSize(prepared, version), dest -> codec.encode(prepared, dest, version));
+    put(
+        key,
+        new Entry(
+            bytes,
+            prepared.resultMetadata.columnCount,
+            prepared.resultMetadata.columns,
+            false,
+            prepared.resultMetadataId,
+            prepared.metadata),
+        generation);
+    return bytes;
+  }
+
+  /** Drops all the cached metadata. Must be called on every table, type or keyspace change. */
+  public void invalidate() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  private void put(Key key, Entry entry, long encodedAtGeneration) {
+    if (entries.size() < maxEntries || entries.containsKey(key)) {
+      entries.put(key, entry);
+      // An invalidation that happened while encoding may have cleared the map before the put
+      if (generation.get() != encodedAtGeneration) {
+        entries.remove(key, entry);
+      }
+    }
+  }
+
+  /**
+   * Whether the columns an entry was encoded from are the same (keyspace, table, name and type) as
+   * the provided ones. Persistences usually return the same list instance for a given prepared
+   * statement, so this is normally just a reference check.
+   */
+  private static boolean sameColumns(List<Column> cached, List<Column> columns) {
+    return cached == columns || (cached != null && cached.equals(columns));
+  }
+
+  private static byte[] encode(int size, Consumer<ByteBuf> encoder) {
+    byte[] bytes = new byte[size];
+    ByteBuf dest = Unpooled.wrappedBuffer(bytes);
+    dest.writerIndex(0);
+    encoder.accept(dest);
+    assert dest.writerIndex() == size : "encoded " + dest.writerIndex() + " bytes out of " + size;
+    return bytes;
+  }
+
+  private static final class Key {
+    private final boolean prepared;
+    private final MD5Digest statementId;
+    private final ProtocolVersion version;
+
+    private Key(boolean prepared, MD5Digest statementId, ProtocolVersion version) {
+      this.prepared = prepared;
+      this.statementId = statementId;
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return prepared == that.prepared
+          && statementId.equals(that.statementId)
+          && version == that.version;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * Boolean.hashCode(prepared) + statementId.hashCode()) + version.hashCode();
+    }
+  }
+
+  private static final class Entry {
+    private final byte[] bytes;
+    private final int columnCount;
+    private final List<Column> columns;
+    private final boolean globalTablesSpec;
+    private final MD5Digest resultMetadataId;
+    // only for PREPARED results
+    private final EnumSet<Result.Flag> flags;
+    private final int bindColumnCount;
+    private final List<Column> bindColumns;
+    private final short[] partitionKeyBindIndexes;
+
+    private Entry(
+        byte[] bytes,
+        int columnCount,
+        List<Column> columns,
+        boolean globalTablesSpec,
+        MD5Digest resultMetadataId,
+        Result.PreparedMetadata bindMetadata) {
+      this.bytes = bytes;
+      this.columnCount = columnCount;
+      this.columns = columns;
+      this.globalTablesSpec = globalTablesSpec;
+      this.resultMetadataId = resultMetadataId;
+      this.flags = bindMetadata == null ? null : bindMetadata.flags;
+      this.bindColumnCount = bindMetadata == null ? 0 : bindMetadata.columns.size();
+      this.bindColumns = bindMetadata == null ? null : bindMetadata.columns;
+      this.partitionKeyBindIndexes =
+          bindMetadata == null ? null : bindMetadata.partitionKeyBindIndexes;
+    }
+  }
+}
@@ -27,6 +27,7 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.search.MeterNotFoundException;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.stargate.db.ClientInfo;
@@ -36,7 +37,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.cassandra.stargate.transport.internal.CqlServer;
+import org.apache.cassandra.stargate.transport.internal.Message;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -68,7 +71,7 @@ class ClientMetricsTest {
     when(clientTagProvider.getClientInfoTags(clientInfo2)).thenReturn(Tags.of("client", "two"));
 
     List<CqlServer> servers = Arrays.asList(server1, server2);
-    clientMetrics.init(servers, meterRegistry, clientTagProvider, 0d);
+    clientMetrics.init(servers, meterRegistry, clientTagProvider, 0d, true);
   }
 
   @Nested
@@ -228,6 +231,78 @@ class ClientMetricsTest {
     }
   }
 
+  @Nested
+  class MarkRequestThrottled {
+
+    @Test
+    public void happyPath() {
+      clientMetrics.markRequestThrottledPerConnection();
+      clientMetrics.markRequestThrottledPerConnection();
+      clientMetrics.markRequestThrottledPerRole();
+
+      Counter c1 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestsThrottled")
+              .tag("limit", "connection")
+              .counter();
+      Counter c2 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestsThrottled")
+              .tag("limit", "role")
+              .counter();
+
+      assertThat(c1.count()).isEqualTo(2d);
+      assertThat(c2.count()).isEqualTo(1d);
+    }
+  }
+
+  @Nested
+  class RecordRequestPhase {
+
+    @Test
+    public void happyPath() {
+      clientMetrics.recordRequestPhase(
+          ClientMetrics.RequestPhase.QUEUE, Message.Type.QUERY, false, 1000);
+      clientMetrics.recordRequestPhase(
+          ClientMetrics.RequestPhase.PROCESSING, Message.Type.QUERY, false, 2000);
+      clientMetrics.recordRequestPhase(
+          ClientMetrics.RequestPhase.PROCESSING, Message.Type.QUERY, false, 4000);
+      clientMetrics.recordRequestPhase(
+          ClientMetrics.RequestPhase.FLUSH, Message.Type.EXECUTE, true, 3000);
+
+      Timer t1 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestPhase")
+              .tags("phase", "queue", "opcode", "QUERY", "flusher", "immediate")
+              .timer();
+      Timer t2 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestPhase")
+              .tags("phase", "processing", "opcode", "QUERY", "flusher", "immediate")
+              .timer();
+      Timer t3 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestPhase")
+              .tags("phase", "flush", "opcode", "EXECUTE", "flusher", "legacy")
+              .timer();
+
+      assertThat(clientMetrics.isRequestPhaseMetricsEnabled()).isTrue();
+      assertThat(t1.count()).isEqualTo(1);
+      assertThat(t2.count()).isEqualTo(2);
+      assertThat(t2.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(6000d);
+      assertThat(t3.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void toggledAtRuntime() {
+      clientMetrics.setRequestPhaseMetricsEnabled(false);
+      assertThat(clientMetrics.isRequestPhaseMetricsEnabled()).isFalse();
+
+      clientMetrics.setRequestPhaseMetricsEnabled(true);
+      assertThat(clientMetrics.isRequestPhaseMetricsEnabled()).isTrue();
+    }
+  }
+
   @Nested
   class IncrementTotalBytesRead {
 
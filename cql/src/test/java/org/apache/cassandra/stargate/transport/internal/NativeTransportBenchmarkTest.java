@@ -0,0 +1,313 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.stargate.db.Authenticator;
+import io.stargate.db.ClientInfo;
+import io.stargate.db.Persistence;
+import io.stargate.db.Result;
+import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.config.Config;
+import org.apache.cassandra.stargate.metrics.ClientMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the throughput and latency of the CQL server on each {@link NativeTransport} available
+ * on this machine, against a mocked {@link Persistence} that completes every query immediately (so
+ * that only the transport and the request dispatching are measured).
+ *
+ * <p>This is not run as part of the build. To run it locally:
+ *
+ * <pre>
+ * mvn -pl cql test -Dtest=NativeTransportBenchmarkTest -Dstargate.cql.benchmark=true \
+ *   [-Dstargate.cql.benchmark.clients=64] [-Dstargate.cql.benchmark.seconds=10]
+ * </pre>
+ *
+ * Each client is a blocking socket with a single request in flight, sending small QUERY frames,
+ * which is the many-small-frames pattern where the transport overhead matters the most.
+ */
+@EnabledIfSystemProperty(named = "stargate.cql.benchmark", matches = "true")
+public class NativeTransportBenchmarkTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(NativeTransportBenchmarkTest.class);
+
+  private static final int CLIENTS = Integer.getInteger("stargate.cql.benchmark.clients", 64);
+  private static final int SECONDS = Integer.getInteger("stargate.cql.benchmark.seconds", 10);
+  private static final int WARMUP_SECONDS =
+      Integer.getInteger("stargate.cql.benchmark.warmup_seconds", 3);
+
+  private static final byte PROTOCOL_V4 = 0x04;
+  private static final byte OPCODE_ERROR = 0x00;
+  private static final byte OPCODE_STARTUP = 0x01;
+  private static final byte OPCODE_READY = 0x02;
+  private static final byte OPCODE_QUERY = 0x07;
+  private static final byte OPCODE_RESULT = 0x08;
+
+  @Test
+  public void compareTransports() throws Exception {
+    Config config = new Config();
+    config.rpc_address = "127.0.0.1";
+    TransportDescriptor.daemonInitialization(config);
+
+    List<String> report = new ArrayList<>();
+    for (NativeTransport transport : NativeTransport.values()) {
+      if (!transport.isAvailable()) {
+        report.add(String.format("%-8s not available on this machine", transport));
+        continue;
+      }
+      report.add(String.format("%-8s %s", transport, run(transport)));
+    }
+    logger.info(
+        "CQL transport comparison ({} clients, {}s per transport):{}",
+        CLIENTS,
+        SECONDS,
+        String.format("%n  %s", String.join(String.format("%n  "), report)));
+  }
+
+  private Stats run(NativeTransport transport) throws Exception {
+    int port = freePort();
+    EventLoopGroup group = transport.newEventLoopGroup();
+    CqlServer server =
+        new CqlServer.Builder(mockPersistence(), null)
+            .withNativeTransport(transport)
+            .withEventLoopGroup(group)
+            .withHost(InetAddress.getLoopbackAddress())
+            .withPort(port)
+            .build();
+    ClientMetrics.instance.init(
+        Collections.singletonList(server),
+        new SimpleMeterRegistry(),
+        ClientInfoMetricsTagProvider.DEFAULT,
+        0);
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      server.start();
+      load(clients, port, WARMUP_SECONDS);
+      return load(clients, port, SECONDS);
+    } finally {
+      clients.shutdownNow();
+      server.stop();
+      ClientMetrics.instance.shutdown();
+      group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+  }
+
+  private Stats load(ExecutorService clients, int port, int seconds) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+    for (int i = 0; i < CLIENTS; i++) {
+      futures.add(clients.submit(() -> runClient(port, deadline)));
+    }
+    List<long[]> latencies = new ArrayList<>(CLIENTS);
+    for (Future<long[]> future : futures) {
+      latencies.add(future.get());
+    }
+    return Stats.of(latencies, seconds);
+  }
+
+  private static long[] runClient(int port, long deadline) throws IOException {
+    long[] latencies = new long[1024];
+    int count = 0;
+    byte[] query = queryFrame("SELECT v FROM ks.tbl WHERE k = 1");
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      OutputStream out = socket.getOutputStream();
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+
+      out.write(startupFrame());
+      out.flush();
+      assertThat(readFrame(in)).isEqualTo(OPCODE_READY);
+
+      while (System.nanoTime() < deadline) {
+        long start = System.nanoTime();
+        out.write(query);
+        out.flush();
+        assertThat(readFrame(in)).isEqualTo(OPCODE_RESULT);
+        if (count == latencies.length) {
+          latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = System.nanoTime() - start;
+      }
+    }
+    return Arrays.copyOf(latencies, count);
+  }
+
+  private static byte[] startupFrame() throws IOException {
+    return frame(
+        OPCODE_STARTUP,
+        body -> {
+          body.writeShort(1);
+          writeString(body, "CQL_VERSION");
+          writeString(body, "3.0.0");
+        });
+  }
+
+  private static byte[] queryFrame(String query) throws IOException {
+    return frame(
+        OPCODE_QUERY,
+        body -> {
+          byte[] bytes = query.getBytes(StandardCharsets.UTF_8);
+          body.writeInt(bytes.length);
+          body.write(bytes);
+          body.writeShort(0x0001); // ONE
+          body.writeByte(0); // no flags
+        });
+  }
+
+  private static byte[] frame(byte opcode, BodyWriter writer) throws IOException {
+    ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    writer.write(new DataOutputStream(bodyBytes));
+    ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(frame);
+    out.writeByte(PROTOCOL_V4);
+    out.writeByte(0); // flags
+    out.writeShort(0); // stream id
+    out.writeByte(opcode);
+    out.writeInt(bodyBytes.size());
+    bodyBytes.writeTo(out);
+    return frame.toByteArray();
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  /** Reads a whole response frame and returns its opcode. */
+  private static byte readFrame(DataInputStream in) throws IOException {
+    in.readByte(); // version
+    in.readByte(); // flags
+    in.readShort(); // stream id
+    byte opcode = in.readByte();
+    int length = in.readInt();
+    if (opcode == OPCODE_ERROR) {
+      in.readInt(); // error code
+      byte[] message = new byte[in.readUnsignedShort()];
+      in.readFully(message);
+      throw new IOException("Server error: " + new String(message, StandardCharsets.UTF_8));
+    }
+    skipFully(in, length);
+    return opcode;
+  }
+
+  private static void skipFully(InputStream in, int length) throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          throw new IOException("Connection closed");
+        }
+        skipped = 1;
+      }
+      remaining -= skipped;
+    }
+  }
+
+  private static Persistence mockPersistence() {
+    Persistence persistence = mock(Persistence.class);
+    Authenticator authenticator = mock(Authenticator.class);
+    when(authenticator.requireAuthentication()).thenReturn(false);
+    when(persistence.getAuthenticator()).thenReturn(authenticator);
+
+    Persistence.Connection connection = mock(Persistence.Connection.class);
+    when(connection.persistence()).thenReturn(persistence);
+    when(connection.execute(any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(new Result.Void()));
+    when(persistence.newConnection(any(ClientInfo.class))).thenReturn(connection);
+    return persistence;
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  @FunctionalInterface
+  private interface BodyWriter {
+    void write(DataOutputStream body) throws IOException;
+  }
+
+  private static class Stats {
+    private final double throughput;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+
+    private Stats(double throughput, long p50Micros, long p99Micros, long p999Micros) {
+      this.throughput = throughput;
+      this.p50Micros = p50Micros;
+      this.p99Micros = p99Micros;
+      this.p999Micros = p999Micros;
+    }
+
+    static Stats of(List<long[]> perClient, int seconds) {
+      long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+      if (all.length == 0) {
+        return new Stats(0, 0, 0, 0);
+      }
+      return new Stats(
+          (double) all.length / seconds,
+          percentileMicros(all, 0.5),
+          percentileMicros(all, 0.99),
+          percentileMicros(all, 0.999));
+    }
+
+    private static long percentileMicros(long[] sorted, double quantile) {
+      int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+      return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, index)]);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%,10.0f req/s   p50 %5dus   p99 %5dus   p99.9 %5dus",
+          throughput, p50Micros, p99Micros, p999Micros);
+    }
+  }
+}
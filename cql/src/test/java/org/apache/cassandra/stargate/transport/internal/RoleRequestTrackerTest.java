@@ -0,0 +1,93 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.cassandra.stargate.config.Config;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class RoleRequestTrackerTest {
+
+  @BeforeAll
+  public static void initConfig() {
+    Config config = new Config();
+    config.rpc_address = "127.0.0.1";
+    TransportDescriptor.daemonInitialization(config);
+  }
+
+  @Test
+  public void shouldEnforceLimitPerRole() {
+    CqlServer.RoleRequestTracker.setLimit(2);
+
+    CqlServer.RoleRequestTracker tracker = CqlServer.RoleRequestTracker.tryAcquire("limited");
+    assertThat(tracker).isNotNull();
+    assertThat(CqlServer.RoleRequestTracker.tryAcquire("limited")).isSameAs(tracker);
+    assertThat(CqlServer.RoleRequestTracker.tryAcquire("limited")).isNull();
+    CqlServer.RoleRequestTracker other = CqlServer.RoleRequestTracker.tryAcquire("other");
+    assertThat(other).isNotNull();
+
+    // backpressure still counts the request
+    assertThat(CqlServer.RoleRequestTracker.acquire("limited")).isSameAs(tracker);
+    assertThat(CqlServer.RoleRequestTracker.requestsInFlight("limited")).isEqualTo(3);
+
+    assertThat(tracker.release()).isFalse();
+    assertThat(tracker.release()).isTrue();
+    assertThat(CqlServer.RoleRequestTracker.tryAcquire("limited")).isSameAs(tracker);
+
+    tracker.release();
+    tracker.release();
+    other.release();
+  }
+
+  @Test
+  public void shouldNotLimitWithoutLimit() {
+    CqlServer.RoleRequestTracker.setLimit(-1);
+
+    CqlServer.RoleRequestTracker tracker = null;
+    for (int i = 0; i < 1000; i++) {
+      tracker = CqlServer.RoleRequestTracker.tryAcquire("unlimited");
+      assertThat(tracker).isNotNull();
+    }
+    assertThat(tracker.release()).isTrue();
+    for (int i = 1; i < 1000; i++) {
+      tracker.release();
+    }
+  }
+
+  @Test
+  public void shouldForgetRolesWithoutRequestsInFlight() {
+    CqlServer.RoleRequestTracker.setLimit(10);
+    int tracked = CqlServer.RoleRequestTracker.trackedRoles();
+
+    CqlServer.RoleRequestTracker tracker = CqlServer.RoleRequestTracker.tryAcquire("idle");
+    CqlServer.RoleRequestTracker.tryAcquire("idle");
+    assertThat(CqlServer.RoleRequestTracker.trackedRoles()).isEqualTo(tracked + 1);
+
+    tracker.release();
+    assertThat(CqlServer.RoleRequestTracker.trackedRoles()).isEqualTo(tracked + 1);
+    tracker.release();
+    assertThat(CqlServer.RoleRequestTracker.trackedRoles()).isEqualTo(tracked);
+    assertThat(CqlServer.RoleRequestTracker.requestsInFlight("idle")).isZero();
+
+    // a released tracker is never reused
+    CqlServer.RoleRequestTracker next = CqlServer.RoleRequestTracker.tryAcquire("idle");
+    assertThat(next).isNotSameAs(tracker);
+    assertThat(CqlServer.RoleRequestTracker.requestsInFlight("idle")).isEqualTo(1);
+    next.release();
+  }
+}
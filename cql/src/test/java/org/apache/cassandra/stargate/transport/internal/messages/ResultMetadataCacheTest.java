@@ -0,0 +1,171 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.stargate.db.Result;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.ImmutableColumn;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ResultMetadataCacheTest {
+
+  private static final MD5Digest STATEMENT_ID =
+      MD5Digest.compute("SELECT * FROM ks.tbl".getBytes(StandardCharsets.UTF_8));
+
+  @BeforeEach
+  public void clearCache() {
+    ResultMetadataCache.instance.invalidate();
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = ProtocolVersion.class,
+      names = {"V3", "V4"})
+  public void shouldEncodeRowsLikeUncachedCodec(ProtocolVersion version) {
+    Result.Rows rows = rows(columns("k", "v"), ByteBuffer.wrap(new byte[] {1, 2}));
+
+    byte[] expected = encode(new ResultMessage(rows), version);
+    // twice: the first encoding populates the cache, the second uses it
+    assertThat(encode(new ResultMessage(rows, STATEMENT_ID), version)).isEqualTo(expected);
+    assertThat(encode(new ResultMessage(rows, STATEMENT_ID), version)).isEqualTo(expected);
+    assertThat(ResultMetadataCache.instance.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotCacheSkippedMetadata() {
+    Result.Rows rows =
+        new Result.Rows(
+            Collections.emptyList(),
+            new Result.ResultMetadata(EnumSet.of(Result.Flag.NO_METADATA), 2, null, null, null));
+
+    byte[] expected = encode(new ResultMessage(rows), ProtocolVersion.V4);
+    assertThat(encode(new ResultMessage(rows, STATEMENT_ID), ProtocolVersion.V4))
+        .isEqualTo(expected);
+    assertThat(ResultMetadataCache.instance.size()).isZero();
+  }
+
+  @Test
+  public void shouldReencodeWhenColumnsChange() {
+    encode(new ResultMessage(rows(columns("k", "v"), null), STATEMENT_ID), ProtocolVersion.V4);
+
+    Result.Rows altered = rows(columns("k", "v", "w"), null);
+    assertThat(encode(new ResultMessage(altered, STATEMENT_ID), ProtocolVersion.V4))
+        .isEqualTo(encode(new ResultMessage(altered), ProtocolVersion.V4));
+  }
+
+  @Test
+  public void shouldReencodeWhenColumnTypesChange() {
+    encode(new ResultMessage(rows(columns("k", "v"), null), STATEMENT_ID), ProtocolVersion.V4);
+
+    // same column count and no result metadata ID, like with persistences that don't provide it
+    Result.Rows altered = rows(columns(Column.Type.Text, "k", "v"), null);
+    assertThat(encode(new ResultMessage(altered, STATEMENT_ID), ProtocolVersion.V4))
+        .isEqualTo(encode(new ResultMessage(altered), ProtocolVersion.V4));
+  }
+
+  @Test
+  public void shouldLookUpCacheOncePerMessage() {
+    Result.Rows rows = rows(columns("k", "v"), null);
+    ResultMessage message = new ResultMessage(rows, STATEMENT_ID);
+    int size = ResultMessage.codec.encodedSize(message, ProtocolVersion.V4);
+    ResultMetadataCache.instance.invalidate();
+
+    // encode() reuses what encodedSize() resolved instead of populating the cache again
+    ByteBuf dest = Unpooled.buffer(size);
+    ResultMessage.codec.encode(message, dest, ProtocolVersion.V4);
+    assertThat(ByteBufUtil.getBytes(dest))
+        .isEqualTo(encode(new ResultMessage(rows), ProtocolVersion.V4));
+    assertThat(ResultMetadataCache.instance.size()).isZero();
+  }
+
+  @Test
+  public void shouldEncodePreparedLikeUncachedCodec() {
+    Result.Prepared prepared =
+        new Result.Prepared(
+            STATEMENT_ID,
+            null,
+            new Result.ResultMetadata(
+                EnumSet.of(Result.Flag.GLOBAL_TABLES_SPEC), columns("k", "v"), null, null),
+            new Result.PreparedMetadata(
+                EnumSet.of(Result.Flag.GLOBAL_TABLES_SPEC), columns("k"), new short[] {0}),
+            false,
+            false);
+
+    byte[] expected = encode(new ResultMessage(prepared), ProtocolVersion.V4);
+    assertThat(encode(new ResultMessage(prepared, STATEMENT_ID), ProtocolVersion.V4))
+        .isEqualTo(expected);
+    assertThat(encode(new ResultMessage(prepared, STATEMENT_ID), ProtocolVersion.V4))
+        .isEqualTo(expected);
+    assertThat(ResultMetadataCache.instance.size()).isEqualTo(1);
+
+    ResultMetadataCache.instance.invalidate();
+    assertThat(ResultMetadataCache.instance.size()).isZero();
+  }
+
+  private static byte[] encode(ResultMessage message, ProtocolVersion version) {
+    int size = ResultMessage.codec.encodedSize(message, version);
+    ByteBuf dest = Unpooled.buffer(size);
+    ResultMessage.codec.encode(message, dest, version);
+    return ByteBufUtil.getBytes(dest);
+  }
+
+  private static Result.Rows rows(List<Column> columns, ByteBuffer pagingState) {
+    EnumSet<Result.Flag> flags = EnumSet.of(Result.Flag.GLOBAL_TABLES_SPEC);
+    if (pagingState != null) {
+      flags.add(Result.Flag.HAS_MORE_PAGES);
+    }
+    List<ByteBuffer> row = Collections.nCopies(columns.size(), ByteBuffer.allocate(4));
+    return new Result.Rows(
+        Collections.singletonList(row),
+        new Result.ResultMetadata(flags, columns, null, pagingState));
+  }
+
+  private static List<Column> columns(String... names) {
+    return columns(Column.Type.Int, names);
+  }
+
+  private static List<Column> columns(Column.Type type, String... names) {
+    return Arrays.stream(names)
+        .map(
+            name ->
+                (Column)
+                    ImmutableColumn.builder()
+                        .keyspace("ks")
+                        .table("tbl")
+                        .name(name)
+                        .type(type)
+                        .kind(Column.Kind.Regular)
+                        .build())
+        .collect(Collectors.toList());
+  }
+}
@@ -120,10 +120,13 @@ public class SchemaSourceDao {
     } else {
       resultSet = dataStore.execute(schemaQuery(keyspace)).get();
     }
-    if (!resultSet.iterator().hasNext()) {
-      return null;
+    // We only read the most recent version, release any other page that was requested
+    try (ResultSet rs = resultSet) {
+      if (!rs.iterator().hasNext()) {
+        return null;
+      }
+      return toSchemaSource(keyspace, rs.one());
     }
-    return toSchemaSource(keyspace, resultSet.one());
   }
 
   public SchemaSource getLatestVersion(String keyspace) throws Exception {
@@ -282,7 +282,10 @@ abstract class DeployedFetcher<ResultT> extends CassandraFetcher<ResultT> {
   }
 
   protected Map<String, Object> toSingleEntity(ResultSet resultSet, EntityModel entity) {
-    return resultSet.hasNoMoreFetchedRows() ? null : toEntity(resultSet.one(), entity);
+    // Only the first row is used, release any other page that was requested
+    try (ResultSet rs = resultSet) {
+      return rs.hasNoMoreFetchedRows() ? null : toEntity(rs.one(), entity);
+    }
   }
 
   protected List<Map<String, Object>> toEntities(ResultSet resultSet, EntityModel entity) {
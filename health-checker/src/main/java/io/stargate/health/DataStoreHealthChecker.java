@@ -49,7 +49,10 @@ public class DataStoreHealthChecker extends HealthCheck {
               .build()
               .execute();
 
-      Row row = rs.get().one();
+      Row row;
+      try (ResultSet resultSet = rs.get()) {
+        row = resultSet.one();
+      }
       String clusterName = row.getString("cluster_name");
       UUID schemaVersion = row.getUuid("schema_version");
 
@@ -98,7 +98,8 @@ public class StorageHealthChecker extends HealthCheck {
           .get();
 
       // select record
-      ResultSet rs =
+      Row row;
+      try (ResultSet rs =
           dataStore
               .execute(
                   dataStore
@@ -110,9 +111,9 @@ public class StorageHealthChecker extends HealthCheck {
                       .build()
                       .bind(),
                   ConsistencyLevel.LOCAL_QUORUM)
-              .get();
-
-      Row row = rs.one();
+              .get()) {
+        row = rs.one();
+      }
       Instant timestampRead = Instant.ofEpochMilli(row.getLong(0));
       if (isGreaterThanOrEqual(timestampRead, writeTimestamp)) {
         return Result.healthy("Storage is operational");
@@ -1,17 +1,19 @@
 package io.stargate.db;
 
 import io.stargate.core.activator.BaseActivator;
+import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.datastore.DataStoreFactory;
 import io.stargate.db.datastore.PersistenceDataStoreFactory;
 import io.stargate.db.limiter.RateLimitingManager;
 import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
+import io.stargate.db.tracking.StatementTracker;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.List;
 
 /**
  * Activator for the {@link DataStoreFactory} service and, if enabled, the {@link
- * RateLimitingPersistence} one.
+ * RateLimitingPersistence} and {@link StatementTrackingPersistence} ones.
  *
  * <p>For rate limiting to be activated, a service implementing {@link RateLimitingManager} first
  * needs to be activated/registered with an "Identifier" property set to some value X, and the
@@ -20,6 +22,9 @@ import java.util.List;
  * RateLimitingManager} is present on the classpath (meaning, setting the {@link
  * #RATE_LIMITING_ID_PROPERTY} acts as a confirmation that this rate limiting needs to indeed be
  * activated).
+ *
+ * <p>Statement tracking is activated by setting the {@link StatementTracker#ENABLED_PROPERTY}
+ * system property to true.
  */
 public class DbActivator extends BaseActivator {
 
@@ -43,6 +48,8 @@ public class DbActivator extends BaseActivator {
   private final ServicePointer<RateLimitingManager> rateLimitingManager =
       ServicePointer.create(RateLimitingManager.class, "Identifier", RATE_LIMITING_IDENTIFIER);
 
+  private final ServicePointer<Metrics> metrics = ServicePointer.create(Metrics.class);
+
   public DbActivator() {
     super("DB services");
   }
@@ -54,6 +61,11 @@ public class DbActivator extends BaseActivator {
   @Override
   protected List<ServiceAndProperties> createServices() {
     Persistence persistence = this.dbPersistence.get();
+    if (StatementTracker.isEnabled()) {
+      persistence =
+          new StatementTrackingPersistence(
+              persistence, StatementTracker.fromSystemProperties(metrics.get().getMeterRegistry()));
+    }
     if (hasRateLimitingEnabled()) {
       RateLimitingManager rateLimiter = rateLimitingManager.get();
       if (rateLimiter == null) {
@@ -94,6 +106,9 @@ public class DbActivator extends BaseActivator {
     if (hasRateLimitingEnabled()) {
       deps.add(rateLimitingManager);
     }
+    if (StatementTracker.isEnabled()) {
+      deps.add(metrics);
+    }
     return deps;
   }
 }
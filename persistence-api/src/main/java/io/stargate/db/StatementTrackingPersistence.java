@@ -0,0 +1,303 @@
+package io.stargate.db;
+
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import io.stargate.db.Result.Prepared;
+import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.TableName;
+import io.stargate.db.tracking.StatementTracker;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.apache.cassandra.stargate.exceptions.AuthenticationException;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Persistence} wrapper that delegates all methods to its wrapped persistence, but records
+ * the latency of every statement in a {@link StatementTracker}.
+ *
+ * <p>Unlike the slow query logging of the underlying storage, this knows which Stargate role and
+ * which API (identified by the {@link #SOURCE_PROPERTY_NAME_PROPERTY} connection property, or the
+ * CQL driver name) issued each statement.
+ *
+ * <p>Statements are identified by their CQL text. For bound statements, the text is remembered when
+ * the statement is prepared through this persistence; statements prepared before (or evicted from
+ * the bounded id-to-query map) are identified by their prepared id.
+ */
+public class StatementTrackingPersistence implements Persistence {
+  private static final Logger logger = LoggerFactory.getLogger(StatementTrackingPersistence.class);
+
+  public static final String SOURCE_PROPERTY_NAME_PROPERTY =
+      "stargate.statement_tracking.source_property";
+
+  private static final String SOURCE_PROPERTY_NAME =
+      System.getProperty(SOURCE_PROPERTY_NAME_PROPERTY, "user-agent");
+
+  private static final int MAX_PREPARED_QUERIES = 10_000;
+
+  private final Persistence persistence;
+  private final StatementTracker tracker;
+  private final Cache<MD5Digest, String> preparedQueries =
+      CacheBuilder.newBuilder().maximumSize(MAX_PREPARED_QUERIES).build();
+
+  public StatementTrackingPersistence(Persistence persistence, StatementTracker tracker) {
+    this.persistence = persistence;
+    this.tracker = tracker;
+    logger.info("Enabling per-statement latency tracking");
+  }
+
+  @Override
+  public String name() {
+    return persistence.name();
+  }
+
+  @Override
+  public Schema schema() {
+    return persistence.schema();
+  }
+
+  @Override
+  public void registerEventListener(EventListener listener) {
+    persistence.registerEventListener(listener);
+  }
+
+  @Override
+  public Authenticator getAuthenticator() {
+    return persistence.getAuthenticator();
+  }
+
+  @Override
+  public void setRpcReady(boolean status) {
+    persistence.setRpcReady(status);
+  }
+
+  @Override
+  public Connection newConnection(ClientInfo clientInfo) {
+    return new TrackedConnection(persistence.newConnection(clientInfo));
+  }
+
+  @Override
+  public Connection newConnection() {
+    return new TrackedConnection(persistence.newConnection());
+  }
+
+  @Override
+  public ByteBuffer unsetValue() {
+    return persistence.unsetValue();
+  }
+
+  @Override
+  public boolean isInSchemaAgreement() {
+    return persistence.isInSchemaAgreement();
+  }
+
+  @Override
+  public boolean isInSchemaAgreementWithStorage() {
+    return persistence.isInSchemaAgreementWithStorage();
+  }
+
+  @Override
+  public boolean isSchemaAgreementAchievable() {
+    return persistence.isSchemaAgreementAchievable();
+  }
+
+  @Override
+  public boolean supportsSecondaryIndex() {
+    return persistence.supportsSecondaryIndex();
+  }
+
+  @Override
+  public boolean supportsSAI() {
+    return persistence.supportsSAI();
+  }
+
+  @Override
+  public boolean supportsLoggedBatches() {
+    return persistence.supportsLoggedBatches();
+  }
+
+  @Override
+  public Map<String, List<String>> cqlSupportedOptions() {
+    return persistence.cqlSupportedOptions();
+  }
+
+  @Override
+  public void executeAuthResponse(Runnable handler) {
+    persistence.executeAuthResponse(handler);
+  }
+
+  @Override
+  public String decorateKeyspaceName(
+      String keyspaceName, Map<String, String> connectionProperties) {
+    return persistence.decorateKeyspaceName(keyspaceName, connectionProperties);
+  }
+
+  private void rememberPrepared(String query, Prepared prepared) {
+    // getPrepared() is called for every execution of a prepared statement, skip the write when
+    // the statement is already known.
+    if (prepared != null && preparedQueries.getIfPresent(prepared.statementId) == null) {
+      preparedQueries.put(prepared.statementId, query);
+    }
+  }
+
+  private String describe(Statement statement) {
+    if (statement instanceof SimpleStatement) {
+      return ((SimpleStatement) statement).queryString();
+    }
+    MD5Digest id = ((BoundStatement) statement).preparedId();
+    String query = preparedQueries.getIfPresent(id);
+    return query == null ? "<prepared " + id + ">" : query;
+  }
+
+  private String describe(Batch batch) {
+    List<Statement> statements = batch.statements();
+    return String.format(
+        "BATCH of %d (%s)",
+        statements.size(), statements.isEmpty() ? "" : describe(statements.get(0)) + ", ...");
+  }
+
+  private class TrackedConnection implements Connection {
+    private final Connection connection;
+    private volatile Map<String, String> customProperties = Collections.emptyMap();
+
+    private TrackedConnection(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Persistence persistence() {
+      return StatementTrackingPersistence.this;
+    }
+
+    @Override
+    public void login(AuthenticatedUser user) throws AuthenticationException {
+      connection.login(user);
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> loggedUser() {
+      return connection.loggedUser();
+    }
+
+    @Override
+    public Optional<ClientInfo> clientInfo() {
+      return connection.clientInfo();
+    }
+
+    @Override
+    public Optional<String> usedKeyspace() {
+      return connection.usedKeyspace();
+    }
+
+    @Override
+    public Prepared getPrepared(String query, Parameters parameters) {
+      Prepared prepared = connection.getPrepared(query, parameters);
+      rememberPrepared(query, prepared);
+      return prepared;
+    }
+
+    @Override
+    public CompletableFuture<Prepared> prepare(String query, Parameters parameters) {
+      return connection
+          .prepare(query, parameters)
+          .whenComplete(
+              (prepared, error) -> {
+                if (error == null) {
+                  rememberPrepared(query, prepared);
+                }
+              });
+    }
+
+    @Override
+    public CompletableFuture<Result> execute(
+        Statement statement, Parameters parameters, long queryStartNanoTime) {
+      long startNanos = System.nanoTime();
+      return track(
+          describe(statement),
+          queryStartNanoTime,
+          startNanos,
+          connection.execute(statement, parameters, queryStartNanoTime));
+    }
+
+    @Override
+    public CompletableFuture<Result> batch(
+        Batch batch, Parameters parameters, long queryStartNanoTime) {
+      long startNanos = System.nanoTime();
+      return track(
+          describe(batch),
+          queryStartNanoTime,
+          startNanos,
+          connection.batch(batch, parameters, queryStartNanoTime));
+    }
+
+    private CompletableFuture<Result> track(
+        String statement,
+        long queryStartNanoTime,
+        long startNanos,
+        CompletableFuture<Result> future) {
+      CompletableFuture<Result> tracked =
+          future.whenComplete(
+              (result, error) ->
+                  tracker.record(
+                      statement,
+                      source(),
+                      role(),
+                      queryStartNanoTime,
+                      startNanos,
+                      System.nanoTime(),
+                      error));
+      // A dependent future doesn't cancel its source, forward it so that the wrapped persistence
+      // can drop the query.
+      tracked.whenComplete(
+          (result, error) -> {
+            if (error instanceof CancellationException) {
+              future.cancel(false);
+            }
+          });
+      return tracked;
+    }
+
+    private String source() {
+      String source = customProperties.get(SOURCE_PROPERTY_NAME);
+      if (source != null) {
+        return source;
+      }
+      Optional<ClientInfo> clientInfo = connection.clientInfo();
+      if (!clientInfo.isPresent()) {
+        return "internal";
+      }
+      return clientInfo.get().driverInfo().map(DriverInfo::name).orElse("unknown");
+    }
+
+    private String role() {
+      return connection.loggedUser().map(AuthenticatedUser::name).orElse("anonymous");
+    }
+
+    @Override
+    public void setCustomProperties(Map<String, String> customProperties) {
+      this.customProperties = customProperties;
+      connection.setCustomProperties(customProperties);
+    }
+
+    @Override
+    public ByteBuffer makePagingState(PagingPosition position, Parameters parameters) {
+      return connection.makePagingState(position, parameters);
+    }
+
+    @Override
+    public RowDecorator makeRowDecorator(TableName table) {
+      return connection.makeRowDecorator(table);
+    }
+
+    @Override
+    public boolean isInSchemaAgreement() {
+      return connection.isInSchemaAgreement();
+    }
+  }
+}
@@ -16,6 +16,9 @@ import org.immutables.value.Value;
 @Value.Immutable(singleton = true)
 public abstract class DataStoreOptions {
 
+  private static final double DEFAULT_PAGE_PREFETCH_THRESHOLD =
+      Double.parseDouble(System.getProperty("stargate.datastore.page_prefetch_threshold", "0"));
+
   public static DataStoreOptions defaults() {
     return ImmutableDataStoreOptions.of();
   }
@@ -60,10 +63,26 @@ public abstract class DataStoreOptions {
     return Collections.emptyMap();
   }
 
+  /**
+   * The fraction of a page (between 0 and 1) that must have been iterated over before the next page
+   * of a result set is requested asynchronously, so that it is (hopefully) available by the time
+   * the current page is exhausted. At most one page is fetched ahead of the consumer.
+   *
+   * <p>A value of 0 or less disables prefetching, meaning that each page is only fetched once the
+   * previous one is fully consumed. Prefetching is disabled by default, as a prefetched page is
+   * wasted whenever the consumer stops early, and can be enabled with the {@code
+   * stargate.datastore.page_prefetch_threshold} system property.
+   */
+  @Value.Default
+  public double pagePrefetchThreshold() {
+    return DEFAULT_PAGE_PREFETCH_THRESHOLD;
+  }
+
   @Override
   public String toString() {
     return String.format(
-        "{defaultParameters: %s, alwaysPrepareQueries: %b, customProperties: %s}",
-        defaultParameters(), alwaysPrepareQueries(), customProperties());
+        "{defaultParameters: %s, alwaysPrepareQueries: %b, customProperties: %s, "
+            + "pagePrefetchThreshold: %s}",
+        defaultParameters(), alwaysPrepareQueries(), customProperties(), pagePrefetchThreshold());
   }
 }
@@ -21,6 +21,7 @@ import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
@@ -36,16 +37,33 @@ class PersistenceBackedResultSet implements ResultSet {
   private final List<Column> columns;
   private final Predicate<Row> authzFilter;
   private final Result.Rows initialPage; // Used for calling withRowInspector()
+  // Fraction of a page to iterate over before requesting the next one, disabled if <= 0.
+  private final double prefetchThreshold;
 
   // Paging state to fetch the next page, or null is we've fetched all pages.
   private ByteBuffer nextPagingState;
+  // The next page, if it has been requested before the current one was exhausted (we never fetch
+  // more than one page ahead). This is not (yet) reflected in fetchedRows and nextPagingState.
+  private @Nullable CompletableFuture<Result> prefetchedPage;
+  // The number of rows left in fetchedRows at which the next page gets prefetched, or -1 if
+  // prefetching is disabled.
+  private int prefetchAtRemainingRows = -1;
 
   PersistenceBackedResultSet(
       Persistence.Connection connection,
       Parameters parameters,
       @Nullable Statement statement,
       Result.Rows initialPage) {
-    this(connection, parameters, statement, initialPage, null);
+    this(connection, parameters, statement, initialPage, 0);
+  }
+
+  PersistenceBackedResultSet(
+      Persistence.Connection connection,
+      Parameters parameters,
+      @Nullable Statement statement,
+      Result.Rows initialPage,
+      double prefetchThreshold) {
+    this(connection, parameters, statement, initialPage, null, prefetchThreshold);
   }
 
   private PersistenceBackedResultSet(
@@ -53,7 +71,8 @@ class PersistenceBackedResultSet implements ResultSet {
       Parameters parameters,
       Statement statement,
       Rows initialPage,
-      Predicate<Row> authzFilter) {
+      Predicate<Row> authzFilter,
+      double prefetchThreshold) {
     this.connection = connection;
     // We get our metadata in our initial page; let's skip it for following pages
     this.parameters = parameters.withoutMetadataInResult();
@@ -62,6 +81,7 @@ class PersistenceBackedResultSet implements ResultSet {
     this.fetchedRows = new ArrayDeque<>(parameters.pageSize().orElse(32));
     this.columns = processColumns(initialPage.resultMetadata.columns);
     this.authzFilter = authzFilter;
+    this.prefetchThreshold = prefetchThreshold;
     processNewPage(initialPage);
     this.initialPage = initialPage;
     if (nextPagingState != null && this.statement == null) {
@@ -74,7 +94,8 @@ class PersistenceBackedResultSet implements ResultSet {
       Persistence.Connection connection,
       Result result,
       @Nullable Statement statement,
-      Parameters executeParameters) {
+      Parameters executeParameters,
+      double prefetchThreshold) {
     switch (result.kind) {
       case Prepared:
         throw new AssertionError("Shouldn't get a 'Prepared' result when executing a statement");
@@ -86,7 +107,7 @@ class PersistenceBackedResultSet implements ResultSet {
         return ResultSet.empty();
       case Rows:
         return new PersistenceBackedResultSet(
-            connection, executeParameters, statement, (Result.Rows) result);
+            connection, executeParameters, statement, (Result.Rows) result, prefetchThreshold);
       default:
         throw new AssertionError("Unhandled result type: " + result.kind);
     }
@@ -132,18 +153,51 @@ class PersistenceBackedResultSet implements ResultSet {
       }
     }
     nextPagingState = page.resultMetadata.pagingState;
+    prefetchAtRemainingRows =
+        prefetchThreshold > 0 && nextPagingState != null
+            ? (int) (fetchedRows.size() * (1 - Math.min(prefetchThreshold, 1)))
+            : -1;
+  }
+
+  private CompletableFuture<Result> requestNextPage() {
+    return connection.execute(
+        statement, parameters.withPagingState(nextPagingState), System.nanoTime());
+  }
+
+  /**
+   * Requests the next page asynchronously if the consumer has gone past the prefetch threshold in
+   * the current page, and it hasn't been requested yet.
+   */
+  private void maybePrefetchNextPage() {
+    if (prefetchedPage == null
+        && nextPagingState != null
+        && fetchedRows.size() <= prefetchAtRemainingRows) {
+      prefetchedPage = requestNextPage();
+    }
+  }
+
+  /**
+   * Drops the prefetched page, if any. This is used when the consumer takes over paging (through
+   * {@link #currentPageRows()} and {@link #getPagingState()}), in which case the prefetched page
+   * would never be used.
+   */
+  private void cancelPrefetchedPage() {
+    if (prefetchedPage != null) {
+      prefetchedPage.cancel(false);
+      prefetchedPage = null;
+    }
   }
 
   private void fetchNextPage() {
     assert nextPagingState != null;
+    CompletableFuture<Result> nextPage =
+        prefetchedPage != null ? prefetchedPage : requestNextPage();
+    prefetchedPage = null;
     try {
       // Note: we could have add a timeout on that get() for security. That said, we don't want
       // to pull a random number, and adding a new config for that should probably be discussed.
       // But it's probably good enough to rely on the persistence layer query timeout.
-      Result result =
-          connection
-              .execute(statement, parameters.withPagingState(nextPagingState), System.nanoTime())
-              .get();
+      Result result = nextPage.get();
 
       switch (result.kind) {
         case Void:
@@ -181,10 +235,13 @@ class PersistenceBackedResultSet implements ResultSet {
     }
   }
 
-  private Row nextRow() {
+  private Row nextRow(boolean prefetch) {
     while (true) {
       Row nextRow = fetchedRows.pollFirst();
       if (nextRow != null) {
+        if (prefetch) {
+          maybePrefetchNextPage();
+        }
         return nextRow;
       }
       if (nextPagingState == null) {
@@ -196,8 +253,14 @@ class PersistenceBackedResultSet implements ResultSet {
 
   @Override
   public ResultSet withRowInspector(Predicate<Row> authzFilter) {
+    cancelPrefetchedPage();
     return new PersistenceBackedResultSet(
-        this.connection, this.parameters, this.statement, this.initialPage, authzFilter);
+        this.connection,
+        this.parameters,
+        this.statement,
+        this.initialPage,
+        authzFilter,
+        this.prefetchThreshold);
   }
 
   @Override
@@ -210,27 +273,30 @@ class PersistenceBackedResultSet implements ResultSet {
 
       @Override
       public Row next() {
-        return nextRow();
+        return nextRow(true);
       }
     };
   }
 
   @Override
   public Row one() {
-    return nextRow();
+    // Callers of one() typically don't look past the first row, don't waste a query on the next
+    // page.
+    return nextRow(false);
   }
 
   @Override
   public List<Row> rows() {
     List<Row> all = new ArrayList<>();
     while (hasNextRow()) {
-      all.add(nextRow());
+      all.add(nextRow(true));
     }
     return all;
   }
 
   @Override
   public List<Row> currentPageRows() {
+    cancelPrefetchedPage();
     List<Row> fetched = new ArrayList<>();
     while (!fetchedRows.isEmpty()) {
       fetched.add(fetchedRows.pollFirst());
@@ -245,6 +311,7 @@ class PersistenceBackedResultSet implements ResultSet {
 
   @Override
   public ByteBuffer getPagingState() {
+    cancelPrefetchedPage();
     return nextPagingState;
   }
 
@@ -262,4 +329,9 @@ class PersistenceBackedResultSet implements ResultSet {
   public boolean waitedForSchemaAgreement() {
     return false;
   }
+
+  @Override
+  public void close() {
+    cancelPrefetchedPage();
+  }
 }
@@ -25,7 +25,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Predicate;
 
-public interface ResultSet extends Iterable<Row> {
+public interface ResultSet extends Iterable<Row>, AutoCloseable {
 
   ResultSet withRowInspector(Predicate<Row> authzFilter);
 
@@ -153,4 +153,12 @@ public interface ResultSet extends Iterable<Row> {
   default boolean waitedForSchemaAgreement() {
     return false;
   }
+
+  /**
+   * Releases any work in flight for this result set, such as a page requested ahead of the
+   * iteration. This should be called when the result set is not iterated until its end, it's a
+   * no-op otherwise.
+   */
+  @Override
+  default void close() {}
 }
@@ -200,7 +200,18 @@ public class AsyncRateLimiter {
       CompletableFuture<T> executionFuture = new CompletableFuture<>();
       executor.schedule(
           () -> {
-            task.get().whenComplete((v, ex) -> complete(executionFuture, v, ex));
+            if (executionFuture.isCancelled()) {
+              // The caller gave up while the task was delayed.
+              return;
+            }
+            CompletableFuture<T> taskFuture = task.get();
+            taskFuture.whenComplete((v, ex) -> complete(executionFuture, v, ex));
+            executionFuture.whenComplete(
+                (v, ex) -> {
+                  if (executionFuture.isCancelled()) {
+                    taskFuture.cancel(false);
+                  }
+                });
           },
           delay,
           TimeUnit.NANOSECONDS);
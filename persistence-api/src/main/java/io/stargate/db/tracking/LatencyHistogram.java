@@ -0,0 +1,63 @@
+package io.stargate.db.tracking;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small, fixed-size, lock-free latency histogram with power-of-two microsecond buckets.
+ *
+ * <p>Percentiles are approximated by the upper bound of the bucket they fall in, so they are at
+ * most 2x off. This is plenty to rank statements, and keeps the footprint low enough to attach one
+ * histogram to every tracked statement.
+ */
+public class LatencyHistogram {
+
+  // Bucket i holds latencies in [2^(i-1), 2^i) microseconds; the last bucket is open-ended (~1h+).
+  private static final int BUCKETS = 33;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+
+  public void record(long latencyNanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, latencyNanos));
+    int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    buckets.incrementAndGet(bucket);
+    count.increment();
+    totalNanos.add(latencyNanos);
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long totalNanos() {
+    return totalNanos.sum();
+  }
+
+  /**
+   * Returns the approximated latency, in nanoseconds, below which the provided fraction of the
+   * recorded latencies fall.
+   */
+  public long percentileNanos(double quantile) {
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(quantile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return TimeUnit.MICROSECONDS.toNanos(1L << i);
+      }
+    }
+    return TimeUnit.MICROSECONDS.toNanos(1L << (BUCKETS - 1));
+  }
+}
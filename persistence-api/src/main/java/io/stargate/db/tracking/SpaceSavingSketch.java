@@ -0,0 +1,183 @@
+package io.stargate.db.tracking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded "space-saving" sketch (Metwally et al.) that keeps track of the heaviest keys of an
+ * unbounded stream of weighted keys.
+ *
+ * <p>At most {@code capacity} keys are tracked. When a new key comes in and the sketch is full, the
+ * key with the lowest weight is evicted and the new key inherits its weight, which is recorded as
+ * the new key {@link Item#error() error}: the actual weight of a key is always between {@code
+ * weight - error} and {@code weight}. Any key whose actual weight is above {@code total weight /
+ * capacity} is guaranteed to be tracked.
+ *
+ * <p>Each tracked key can carry a value created by the provided factory when the key is
+ * (re)inserted, which is used to attach per-key statistics that are reset on eviction.
+ *
+ * <p>This class is thread-safe. To limit contention and the cost of evictions, keys are hashed into
+ * independent stripes that each hold {@code capacity / stripes} keys and have their own lock, so an
+ * eviction only scans one stripe. The guarantee above then holds per stripe: a key is tracked if
+ * its weight is above the total weight of its stripe divided by the stripe capacity.
+ */
+public class SpaceSavingSketch<K, V> {
+
+  // Stripes are only worth it if each one still holds enough keys to rank them meaningfully
+  private static final int MIN_STRIPE_CAPACITY = 16;
+  private static final int MAX_STRIPES = 16;
+
+  private final int capacity;
+  private final Supplier<V> valueFactory;
+  private final Stripe<K, V>[] stripes;
+
+  public SpaceSavingSketch(int capacity, Supplier<V> valueFactory) {
+    this(capacity, defaultStripes(capacity), valueFactory);
+  }
+
+  @SuppressWarnings("unchecked")
+  public SpaceSavingSketch(int capacity, int stripes, Supplier<V> valueFactory) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Invalid sketch capacity: " + capacity);
+    }
+    if (stripes <= 0 || stripes > capacity) {
+      throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+    }
+    this.capacity = capacity;
+    this.valueFactory = valueFactory;
+    this.stripes = new Stripe[stripes];
+    int stripeCapacity = (capacity + stripes - 1) / stripes;
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Stripe<>(stripeCapacity);
+    }
+  }
+
+  private static int defaultStripes(int capacity) {
+    return Math.max(1, Math.min(MAX_STRIPES, capacity / MIN_STRIPE_CAPACITY));
+  }
+
+  /**
+   * Adds the provided weight to the key.
+   *
+   * @return the value attached to the key.
+   */
+  public V add(K key, long weight) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    Stripe<K, V> stripe = stripes[Math.floorMod(hash, stripes.length)];
+    synchronized (stripe) {
+      Slot<V> slot = stripe.slots.get(key);
+      if (slot == null) {
+        slot = stripe.newSlot(key, valueFactory);
+      }
+      slot.weight += weight;
+      slot.count++;
+      return slot.value;
+    }
+  }
+
+  /** Returns a snapshot of the (at most) {@code n} heaviest keys, heaviest first. */
+  public List<Item<K, V>> top(int n) {
+    List<Item<K, V>> items = new ArrayList<>(capacity);
+    for (Stripe<K, V> stripe : stripes) {
+      synchronized (stripe) {
+        for (Map.Entry<K, Slot<V>> entry : stripe.slots.entrySet()) {
+          Slot<V> slot = entry.getValue();
+          items.add(new Item<>(entry.getKey(), slot.weight, slot.error, slot.count, slot.value));
+        }
+      }
+    }
+    items.sort(Comparator.comparingLong((Item<K, V> i) -> i.weight).reversed());
+    return items.size() > n ? items.subList(0, n) : items;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  private static class Stripe<K, V> {
+    private final int capacity;
+    private final Map<K, Slot<V>> slots;
+
+    private Stripe(int capacity) {
+      this.capacity = capacity;
+      this.slots = new HashMap<>(capacity * 2);
+    }
+
+    // Must be called with the stripe lock held
+    private Slot<V> newSlot(K key, Supplier<V> valueFactory) {
+      long error = 0;
+      if (slots.size() >= capacity) {
+        Map.Entry<K, Slot<V>> min = null;
+        for (Map.Entry<K, Slot<V>> entry : slots.entrySet()) {
+          if (min == null || entry.getValue().weight < min.getValue().weight) {
+            min = entry;
+          }
+        }
+        assert min != null;
+        slots.remove(min.getKey());
+        error = min.getValue().weight;
+      }
+      Slot<V> slot = new Slot<>(valueFactory.get(), error);
+      slots.put(key, slot);
+      return slot;
+    }
+  }
+
+  private static class Slot<V> {
+    private final V value;
+    private final long error;
+    private long weight;
+    private long count;
+
+    private Slot(V value, long error) {
+      this.value = value;
+      this.error = error;
+      this.weight = error;
+    }
+  }
+
+  /** A snapshot of a tracked key. */
+  public static class Item<K, V> {
+    private final K key;
+    private final long weight;
+    private final long error;
+    private final long count;
+    private final V value;
+
+    private Item(K key, long weight, long error, long count, V value) {
+      this.key = key;
+      this.weight = weight;
+      this.error = error;
+      this.count = count;
+      this.value = value;
+    }
+
+    public K key() {
+      return key;
+    }
+
+    /** The (over-)estimated total weight of the key. */
+    public long weight() {
+      return weight;
+    }
+
+    /** The maximum over-estimation of {@link #weight()}. */
+    public long error() {
+      return error;
+    }
+
+    /** The number of times the key was added since it was last inserted in the sketch. */
+    public long count() {
+      return count;
+    }
+
+    public V value() {
+      return value;
+    }
+  }
+}
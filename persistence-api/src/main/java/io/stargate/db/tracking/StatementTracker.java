@@ -0,0 +1,257 @@
+package io.stargate.db.tracking;
+
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the latency of the statements executed through the persistence, keeps the statements with
+ * the highest total execution time in a bounded {@link SpaceSavingSketch}, and logs slow queries.
+ *
+ * <p>Statements are aggregated on their {@link #normalize(String) normalized} text, with literals
+ * replaced by bind markers, so that the same query with different values is ranked (and published)
+ * once instead of creating a new tag value for every execution. The normalized text is cached per
+ * statement text, so repeated executions of a prepared statement only normalize it once.
+ *
+ * <p>The top statements are published as gauges tagged by statement, which are refreshed from the
+ * sketch at most once every {@link #PUBLISH_INTERVAL_MS_PROPERTY} milliseconds (on the recording
+ * path, so no background thread is needed).
+ *
+ * <p>Slow query log entries are rate-limited to one every {@link
+ * #SLOW_QUERY_LOG_INTERVAL_MS_PROPERTY} milliseconds. The number of slow queries that were not
+ * logged is reported on the next entry, and all of them are counted in the {@code
+ * persistence.statements.slow} counter.
+ */
+public class StatementTracker {
+  private static final Logger logger = LoggerFactory.getLogger(StatementTracker.class);
+
+  public static final String ENABLED_PROPERTY = "stargate.statement_tracking.enabled";
+  public static final String TOP_N_PROPERTY = "stargate.statement_tracking.top_n";
+  public static final String SLOW_QUERY_THRESHOLD_MS_PROPERTY =
+      "stargate.statement_tracking.slow_query_threshold_ms";
+  public static final String SLOW_QUERY_LOG_INTERVAL_MS_PROPERTY =
+      "stargate.statement_tracking.slow_query_log_interval_ms";
+  public static final String PUBLISH_INTERVAL_MS_PROPERTY =
+      "stargate.statement_tracking.publish_interval_ms";
+
+  static final String TOTAL_TIME_METRIC = "persistence.statements.top.total_time";
+  static final String COUNT_METRIC = "persistence.statements.top.count";
+  static final String LATENCY_METRIC = "persistence.statements.top.latency";
+  static final String SLOW_METRIC = "persistence.statements.slow";
+
+  // Statements are used as tag values, so keep them at a reasonable size
+  private static final int MAX_TAG_LENGTH = 256;
+  private static final int MAX_LOGGED_STATEMENT_LENGTH = 2048;
+  private static final double[] QUANTILES = {0.5, 0.99};
+  private static final int MAX_NORMALIZED_STATEMENTS = 10_000;
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern UUID_LITERAL =
+      Pattern.compile(
+          "\\b\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}\\b");
+  private static final Pattern BLOB_LITERAL = Pattern.compile("\\b0[xX]\\p{XDigit}*\\b");
+  private static final Pattern NUMERIC_LITERAL =
+      Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b");
+  private static final Pattern MARKER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final SpaceSavingSketch<String, LatencyHistogram> sketch;
+  private final int topN;
+  private final long slowQueryThresholdNanos;
+  private final long slowQueryLogIntervalNanos;
+  private final long publishIntervalNanos;
+  // Most statements are prepared and executed many times with the same text, normalize them once
+  private final Cache<String, String> normalizedStatements =
+      CacheBuilder.newBuilder().maximumSize(MAX_NORMALIZED_STATEMENTS).build();
+
+  private final AtomicLong nextSlowQueryLogNanos = new AtomicLong(System.nanoTime());
+  private final AtomicLong suppressedSlowQueries = new AtomicLong();
+  private final AtomicLong nextPublishNanos = new AtomicLong(System.nanoTime());
+
+  private final Counter slowQueries;
+  private final MultiGauge totalTimeGauge;
+  private final MultiGauge countGauge;
+  private final MultiGauge latencyGauge;
+
+  public StatementTracker(
+      MeterRegistry registry,
+      int topN,
+      long slowQueryThresholdMillis,
+      long slowQueryLogIntervalMillis,
+      long publishIntervalMillis) {
+    this.topN = topN;
+    // Track more statements than we publish so that the tail of the published list is accurate
+    this.sketch = new SpaceSavingSketch<>(topN * 4, LatencyHistogram::new);
+    this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    this.slowQueryLogIntervalNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryLogIntervalMillis);
+    this.publishIntervalNanos = TimeUnit.MILLISECONDS.toNanos(publishIntervalMillis);
+
+    this.slowQueries =
+        Counter.builder(SLOW_METRIC)
+            .description("Statements slower than the slow query threshold")
+            .register(registry);
+    this.totalTimeGauge =
+        MultiGauge.builder(TOTAL_TIME_METRIC)
+            .description("Total execution time of the top statements")
+            .baseUnit("seconds")
+            .register(registry);
+    this.countGauge =
+        MultiGauge.builder(COUNT_METRIC)
+            .description("Number of executions of the top statements")
+            .register(registry);
+    this.latencyGauge =
+        MultiGauge.builder(LATENCY_METRIC)
+            .description("Approximate latency percentiles of the top statements")
+            .baseUnit("seconds")
+            .register(registry);
+  }
+
+  /** Creates a tracker configured from the {@code stargate.statement_tracking.*} properties. */
+  public static StatementTracker fromSystemProperties(MeterRegistry registry) {
+    return new StatementTracker(
+        registry,
+        Integer.getInteger(TOP_N_PROPERTY, 25),
+        Long.getLong(SLOW_QUERY_THRESHOLD_MS_PROPERTY, 500),
+        Long.getLong(SLOW_QUERY_LOG_INTERVAL_MS_PROPERTY, 1000),
+        Long.getLong(PUBLISH_INTERVAL_MS_PROPERTY, 10_000));
+  }
+
+  public static boolean isEnabled() {
+    return Boolean.getBoolean(ENABLED_PROPERTY);
+  }
+
+  /**
+   * Records the execution of a statement.
+   *
+   * @param statement a string identifying the statement (normally its CQL text).
+   * @param source the API or client that issued the statement.
+   * @param role the role the statement was executed as.
+   * @param queryStartNanos the start of the query as reported by the caller, which may be earlier
+   *     than when the statement reached the persistence.
+   * @param persistenceStartNanos when the statement reached the persistence.
+   * @param endNanos when the persistence completed the statement.
+   * @param error the failure of the statement, if it failed.
+   */
+  public void record(
+      String statement,
+      String source,
+      String role,
+      long queryStartNanos,
+      long persistenceStartNanos,
+      long endNanos,
+      Throwable error) {
+    long persistenceNanos = endNanos - persistenceStartNanos;
+    sketch.add(normalized(statement), persistenceNanos).record(persistenceNanos);
+
+    long totalNanos = endNanos - Math.min(queryStartNanos, persistenceStartNanos);
+    if (slowQueryThresholdNanos > 0 && totalNanos >= slowQueryThresholdNanos) {
+      slowQueries.increment();
+      maybeLogSlowQuery(
+          statement, source, role, totalNanos, totalNanos - persistenceNanos, error, endNanos);
+    }
+    maybePublish(endNanos);
+  }
+
+  private void maybeLogSlowQuery(
+      String statement,
+      String source,
+      String role,
+      long totalNanos,
+      long beforePersistenceNanos,
+      Throwable error,
+      long now) {
+    long next = nextSlowQueryLogNanos.get();
+    if (now - next < 0
+        || !nextSlowQueryLogNanos.compareAndSet(next, now + slowQueryLogIntervalNanos)) {
+      suppressedSlowQueries.incrementAndGet();
+      return;
+    }
+    long suppressed = suppressedSlowQueries.getAndSet(0);
+    logger.warn(
+        "Slow query from source={} role={}: {} ms total ({} ms before reaching the persistence, "
+            + "{} ms in the persistence){}{}: {}",
+        source,
+        role,
+        TimeUnit.NANOSECONDS.toMillis(totalNanos),
+        TimeUnit.NANOSECONDS.toMillis(beforePersistenceNanos),
+        TimeUnit.NANOSECONDS.toMillis(totalNanos - beforePersistenceNanos),
+        error == null ? "" : ", failed with " + error,
+        suppressed == 0 ? "" : String.format(" [%d other slow queries not logged]", suppressed),
+        truncate(statement, MAX_LOGGED_STATEMENT_LENGTH));
+  }
+
+  private void maybePublish(long now) {
+    long next = nextPublishNanos.get();
+    if (now - next >= 0 && nextPublishNanos.compareAndSet(next, now + publishIntervalNanos)) {
+      publish();
+    }
+  }
+
+  /** Refreshes the top statements gauges from the current state of the sketch. */
+  public void publish() {
+    List<SpaceSavingSketch.Item<String, LatencyHistogram>> top = topStatements();
+    List<MultiGauge.Row<?>> totalTimes = new ArrayList<>(top.size());
+    List<MultiGauge.Row<?>> counts = new ArrayList<>(top.size());
+    List<MultiGauge.Row<?>> latencies = new ArrayList<>(top.size() * QUANTILES.length);
+    for (SpaceSavingSketch.Item<String, LatencyHistogram> item : top) {
+      Tags tags = Tags.of("statement", truncate(item.key(), MAX_TAG_LENGTH));
+      LatencyHistogram histogram = item.value();
+      totalTimes.add(MultiGauge.Row.of(tags, seconds(histogram.totalNanos())));
+      counts.add(MultiGauge.Row.of(tags, histogram.count()));
+      for (double quantile : QUANTILES) {
+        latencies.add(
+            MultiGauge.Row.of(
+                tags.and("quantile", Double.toString(quantile)),
+                seconds(histogram.percentileNanos(quantile))));
+      }
+    }
+    totalTimeGauge.register(totalTimes, true);
+    countGauge.register(counts, true);
+    latencyGauge.register(latencies, true);
+  }
+
+  /** The statements with the highest total execution time, highest first. */
+  public List<SpaceSavingSketch.Item<String, LatencyHistogram>> topStatements() {
+    return sketch.top(topN);
+  }
+
+  private String normalized(String statement) {
+    String normalized = normalizedStatements.getIfPresent(statement);
+    if (normalized == null) {
+      normalized = normalize(statement);
+      normalizedStatements.put(statement, normalized);
+    }
+    return normalized;
+  }
+
+  /**
+   * Replaces the literals of a statement (strings, numbers, UUIDs and blobs) by bind markers,
+   * collapses lists of markers (like {@code IN (?, ?, ?)}) and whitespace.
+   */
+  static String normalize(String statement) {
+    String normalized = STRING_LITERAL.matcher(statement).replaceAll("?");
+    normalized = UUID_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = BLOB_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = MARKER_LIST.matcher(normalized).replaceAll("(?)");
+    return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1e9;
+  }
+
+  private static String truncate(String s, int maxLength) {
+    return s.length() <= maxLength ? s : s.substring(0, maxLength) + "...";
+  }
+}
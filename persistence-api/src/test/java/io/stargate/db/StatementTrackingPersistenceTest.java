@@ -0,0 +1,61 @@
+package io.stargate.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.stargate.db.Persistence.Connection;
+import io.stargate.db.tracking.LatencyHistogram;
+import io.stargate.db.tracking.SpaceSavingSketch;
+import io.stargate.db.tracking.StatementTracker;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class StatementTrackingPersistenceTest {
+
+  @Test
+  public void shouldIncludeSynchronousDelegateTime() {
+    Persistence persistence = mock(Persistence.class);
+    Connection connection = mock(Connection.class);
+    when(persistence.newConnection()).thenReturn(connection);
+    when(connection.execute(any(), any(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              // Work done before the delegate returns its future must be accounted for
+              TimeUnit.MILLISECONDS.sleep(20);
+              return CompletableFuture.completedFuture(null);
+            });
+    StatementTracker tracker = new StatementTracker(new SimpleMeterRegistry(), 10, 0, 0, 0);
+
+    new StatementTrackingPersistence(persistence, tracker)
+        .newConnection()
+        .execute(new SimpleStatement("SELECT * FROM t"), null, System.nanoTime());
+
+    List<SpaceSavingSketch.Item<String, LatencyHistogram>> top = tracker.topStatements();
+    assertThat(top).extracting(SpaceSavingSketch.Item::key).containsExactly("SELECT * FROM t");
+    assertThat(top.get(0).value().totalNanos())
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+  }
+
+  @Test
+  public void shouldPropagateCancellation() {
+    Persistence persistence = mock(Persistence.class);
+    Connection connection = mock(Connection.class);
+    when(persistence.newConnection()).thenReturn(connection);
+    CompletableFuture<Result> pending = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(pending);
+    StatementTracker tracker = new StatementTracker(new SimpleMeterRegistry(), 10, 0, 0, 0);
+
+    new StatementTrackingPersistence(persistence, tracker)
+        .newConnection()
+        .execute(new SimpleStatement("SELECT * FROM t"), null, System.nanoTime())
+        .cancel(false);
+
+    assertThat(pending).isCancelled();
+  }
+}
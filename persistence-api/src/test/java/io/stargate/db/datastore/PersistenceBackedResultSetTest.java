@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
@@ -340,6 +343,135 @@ class PersistenceBackedResultSetTest {
     assertRows(rowsResult, rowsSameUser.rows);
   }
 
+  @Test
+  public void iteratorPrefetchesNextPage() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    CompletableFuture<Result> secondPage = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(secondPage);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser,
+            0.5);
+
+    Iterator<Row> iterator = resultSet.iterator();
+    verify(connection, never()).execute(any(), any(), anyLong());
+
+    // Consuming half of the first page triggers the request for the second one
+    assertRow(iterator.next(), rowsSameUser.rows.get(0));
+    verify(connection, times(1)).execute(any(), any(), anyLong());
+    assertRow(iterator.next(), rowsSameUser.rows.get(1));
+
+    secondPage.complete(rowsDifferentUser);
+    assertRow(iterator.next(), rowsDifferentUser.rows.get(0));
+    assertRow(iterator.next(), rowsDifferentUser.rows.get(1));
+    assertThat(iterator.hasNext()).isFalse();
+    // The second page was fetched only once
+    verify(connection, times(1)).execute(any(), any(), anyLong());
+  }
+
+  @Test
+  public void currentPageRowsCancelsPrefetchedPage() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    CompletableFuture<Result> secondPage = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(secondPage);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser,
+            0.5);
+
+    resultSet.iterator().next();
+    List<Row> remaining = resultSet.currentPageRows();
+
+    assertRows(remaining, rowsSameUser.rows.subList(1, 2));
+    assertThat(secondPage).isCancelled();
+    assertThat(resultSet.getPagingState()).isEqualTo(rowsSameUser.resultMetadata.pagingState);
+  }
+
+  @Test
+  public void getPagingStateCancelsPrefetchedPage() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    CompletableFuture<Result> secondPage = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(secondPage);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser,
+            0.5);
+
+    resultSet.iterator().next();
+    ByteBuffer pagingState = resultSet.getPagingState();
+
+    assertThat(pagingState).isEqualTo(rowsSameUser.resultMetadata.pagingState);
+    assertThat(secondPage).isCancelled();
+  }
+
+  @Test
+  public void closeCancelsPrefetchedPage() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    CompletableFuture<Result> secondPage = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(secondPage);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser,
+            0.5);
+
+    resultSet.iterator().next();
+    resultSet.close();
+
+    assertThat(secondPage).isCancelled();
+  }
+
+  @Test
+  public void prefetchDisabledByDefault() {
+    assertThat(DataStoreOptions.defaults().pagePrefetchThreshold()).isZero();
+  }
+
+  @Test
+  public void oneDoesNotPrefetch() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser,
+            1.0);
+
+    assertRow(resultSet.one(), rowsSameUser.rows.get(0));
+    assertRow(resultSet.one(), rowsSameUser.rows.get(1));
+    verify(connection, never()).execute(any(), any(), anyLong());
+  }
+
   @Test
   public void rowsWithPagingNoClaim() throws ExecutionException, InterruptedException {
     rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
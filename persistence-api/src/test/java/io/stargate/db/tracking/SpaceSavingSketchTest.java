@@ -0,0 +1,81 @@
+package io.stargate.db.tracking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class SpaceSavingSketchTest {
+
+  @Test
+  public void shouldKeepHeaviestKeys() {
+    SpaceSavingSketch<String, Object> sketch = new SpaceSavingSketch<>(3, Object::new);
+
+    for (int i = 0; i < 100; i++) {
+      sketch.add("heavy", 10);
+      sketch.add("medium", 5);
+      sketch.add("light" + i, 1);
+    }
+
+    List<SpaceSavingSketch.Item<String, Object>> top = sketch.top(2);
+    assertThat(top).extracting(SpaceSavingSketch.Item::key).containsExactly("heavy", "medium");
+    assertThat(top.get(0).weight()).isEqualTo(1000);
+    assertThat(top.get(0).error()).isZero();
+    assertThat(top.get(0).count()).isEqualTo(100);
+  }
+
+  @Test
+  public void shouldInheritEvictedWeightAsError() {
+    SpaceSavingSketch<String, Object> sketch = new SpaceSavingSketch<>(2, Object::new);
+
+    sketch.add("a", 10);
+    sketch.add("b", 3);
+    sketch.add("c", 1);
+
+    List<SpaceSavingSketch.Item<String, Object>> top = sketch.top(2);
+    assertThat(top).extracting(SpaceSavingSketch.Item::key).containsExactly("a", "c");
+    assertThat(top.get(1).weight()).isEqualTo(4);
+    assertThat(top.get(1).error()).isEqualTo(3);
+    assertThat(top.get(1).count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldKeepHeaviestKeysOfEveryStripe() {
+    SpaceSavingSketch<String, Object> sketch = new SpaceSavingSketch<>(64, 4, Object::new);
+
+    for (int i = 0; i < 1000; i++) {
+      for (int j = 0; j < 8; j++) {
+        sketch.add("heavy" + j, 100);
+      }
+      sketch.add("light" + i, 1);
+    }
+
+    List<SpaceSavingSketch.Item<String, Object>> top = sketch.top(8);
+    assertThat(top)
+        .extracting(SpaceSavingSketch.Item::key)
+        .containsExactlyInAnyOrder(
+            "heavy0", "heavy1", "heavy2", "heavy3", "heavy4", "heavy5", "heavy6", "heavy7");
+    assertThat(top).allSatisfy(item -> assertThat(item.error()).isZero());
+    assertThat(sketch.top(1000)).hasSizeLessThanOrEqualTo(64);
+  }
+
+  @Test
+  public void shouldRejectInvalidStripes() {
+    assertThatThrownBy(() -> new SpaceSavingSketch<>(4, 5, Object::new))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void shouldCreateNewValueOnEviction() {
+    AtomicInteger created = new AtomicInteger();
+    SpaceSavingSketch<String, Integer> sketch =
+        new SpaceSavingSketch<>(1, created::incrementAndGet);
+
+    assertThat(sketch.add("a", 1)).isEqualTo(1);
+    assertThat(sketch.add("a", 1)).isEqualTo(1);
+    assertThat(sketch.add("b", 1)).isEqualTo(2);
+    assertThat(sketch.top(10)).extracting(SpaceSavingSketch.Item::key).containsExactly("b");
+  }
+}
@@ -0,0 +1,112 @@
+package io.stargate.db.tracking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class StatementTrackerTest {
+
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  public void shouldRankStatementsByTotalTime() {
+    StatementTracker tracker = new StatementTracker(registry, 2, 0, 0, 0);
+    long start = System.nanoTime();
+
+    record(tracker, "SELECT a", start, 5 * MS);
+    record(tracker, "SELECT a", start, 5 * MS);
+    record(tracker, "SELECT b", start, 20 * MS);
+    record(tracker, "SELECT c", start, 1 * MS);
+
+    List<SpaceSavingSketch.Item<String, LatencyHistogram>> top = tracker.topStatements();
+    assertThat(top).extracting(SpaceSavingSketch.Item::key).containsExactly("SELECT b", "SELECT a");
+    assertThat(top.get(1).value().count()).isEqualTo(2);
+    assertThat(top.get(1).value().totalNanos()).isEqualTo(10 * MS);
+  }
+
+  @Test
+  public void shouldPublishTopStatements() {
+    StatementTracker tracker = new StatementTracker(registry, 10, 0, 0, 0);
+    long start = System.nanoTime();
+
+    record(tracker, "SELECT a", start, 5 * MS);
+    record(tracker, "SELECT a", start, 5 * MS);
+    tracker.publish();
+
+    Gauge count = registry.get(StatementTracker.COUNT_METRIC).tag("statement", "SELECT a").gauge();
+    assertThat(count.value()).isEqualTo(2);
+    Gauge totalTime =
+        registry.get(StatementTracker.TOTAL_TIME_METRIC).tag("statement", "SELECT a").gauge();
+    assertThat(totalTime.value()).isEqualTo(0.01);
+    assertThat(
+            registry
+                .get(StatementTracker.LATENCY_METRIC)
+                .tag("statement", "SELECT a")
+                .tag("quantile", "0.99")
+                .gauge()
+                .value())
+        .isBetween(0.005, 0.01);
+  }
+
+  @Test
+  public void shouldCountSlowQueries() {
+    StatementTracker tracker = new StatementTracker(registry, 10, 10, 60_000, 0);
+    long start = System.nanoTime();
+
+    record(tracker, "SELECT a", start, 5 * MS);
+    record(tracker, "SELECT b", start, 50 * MS);
+    // Time spent before reaching the persistence counts toward the slow query threshold
+    tracker.record("SELECT c", "test", "role", start - 20 * MS, start, start + MS, null);
+
+    assertThat(registry.get(StatementTracker.SLOW_METRIC).counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldAggregateStatementsOnNormalizedText() {
+    StatementTracker tracker = new StatementTracker(registry, 10, 0, 0, 0);
+    long start = System.nanoTime();
+
+    record(tracker, "SELECT * FROM t WHERE k = 1 AND c = 'a'", start, MS);
+    record(tracker, "SELECT * FROM t  WHERE k = 2 AND c = 'it''s'", start, MS);
+
+    assertThat(tracker.topStatements())
+        .extracting(SpaceSavingSketch.Item::key)
+        .containsExactly("SELECT * FROM t WHERE k = ? AND c = ?");
+  }
+
+  @Test
+  public void shouldNormalizeLiterals() {
+    assertThat(
+            StatementTracker.normalize(
+                "UPDATE ks.t1 SET v = -1.5e3, b = 0xcafe\n WHERE id = "
+                    + "123e4567-e89b-12d3-a456-426614174000 AND c IN (1, 2, ?) AND d = 'x'"))
+        .isEqualTo("UPDATE ks.t1 SET v = ?, b = ? WHERE id = ? AND c IN (?) AND d = ?");
+    assertThat(StatementTracker.normalize("SELECT \"col2\" FROM system.peers_v2"))
+        .isEqualTo("SELECT \"col2\" FROM system.peers_v2");
+  }
+
+  @Test
+  public void histogramShouldApproximatePercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+    assertThat(histogram.count()).isEqualTo(100);
+    assertThat(histogram.percentileNanos(0.5)).isBetween(100_000L, 200_000L);
+    assertThat(histogram.percentileNanos(0.99)).isBetween(100_000L, 200_000L);
+    assertThat(histogram.percentileNanos(1.0)).isBetween(100 * MS, 200 * MS);
+  }
+
+  private static void record(StatementTracker tracker, String statement, long start, long nanos) {
+    tracker.record(statement, "test", "role", start, start, start + nanos, null);
+  }
+}
@@ -39,6 +39,7 @@ import io.stargate.db.Statement;
 import io.stargate.db.cassandra.impl.interceptors.DefaultQueryInterceptor;
 import io.stargate.db.cassandra.impl.interceptors.QueryInterceptor;
 import io.stargate.db.datastore.common.AbstractCassandraPersistence;
+import io.stargate.db.datastore.common.LoadShedder;
 import io.stargate.db.datastore.common.util.SchemaAgreementAchievableCheck;
 import io.stargate.db.schema.TableName;
 import java.io.IOException;
@@ -76,6 +77,7 @@ import org.apache.cassandra.gms.EndpointState;
 import org.apache.cassandra.gms.Gossiper;
 import org.apache.cassandra.gms.IEndpointStateChangeSubscriber;
 import org.apache.cassandra.gms.VersionedValue;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
 import org.apache.cassandra.schema.IndexMetadata;
 import org.apache.cassandra.schema.KeyspaceMetadata;
 import org.apache.cassandra.service.CassandraDaemon;
@@ -142,6 +144,7 @@ public class Cassandra311Persistence
   private final SchemaCheck schemaCheck = new SchemaCheck();
 
   private LocalAwareExecutorService executor;
+  private LoadShedder loadShedder = LoadShedder.DISABLED;
 
   private CassandraDaemon daemon;
   private Authenticator authenticator;
@@ -188,6 +191,16 @@ public class Cassandra311Persistence
     }
   }
 
+  @Override
+  protected CFMetaData lookupInternalTable(TableName tableName) {
+    return Conversion.toCFMetaData(tableName);
+  }
+
+  @Override
+  protected RowDecorator newRowDecorator(TableName tableName, CFMetaData table) {
+    return new RowDecoratorImpl(tableName, table);
+  }
+
   @Override
   protected void initializePersistence(Config config) {
     // C* picks this property during the static loading of the ClientState class. So we set it
@@ -219,6 +232,7 @@ public class Cassandra311Persistence
             DatabaseDescriptor.getNativeTransportMaxThreads(),
             "transport",
             "Native-Transport-Requests");
+    loadShedder = LoadShedder.fromSystemProperties(CassandraMetricsRegistry.actualRegistry);
 
     // Use special gossip state "X10" to differentiate stargate nodes
     Gossiper.instance.addLocalApplicationState(
@@ -277,36 +291,57 @@ public class Cassandra311Persistence
   }
 
   private <T extends Result> CompletableFuture<T> runOnExecutor(
-      Supplier<T> supplier, boolean captureWarnings) {
+      Supplier<T> supplier, boolean captureWarnings, boolean priority) {
     assert executor != null : "This persistence has not been initialized";
     CompletableFuture<T> future = new CompletableFuture<>();
-    executor.submit(
-        () -> {
-          if (captureWarnings) {
-            ClientWarn.instance.captureWarnings();
-          }
-          try {
-            @SuppressWarnings("unchecked")
-            T resultWithWarnings =
-                (T) supplier.get().setWarnings(ClientWarn.instance.getWarnings());
-            future.complete(resultWithWarnings);
-          } catch (Throwable t) {
-            JVMStabilityInspector.inspectThrowable(t);
-            PersistenceException pe =
-                (t instanceof PersistenceException)
-                    ? (PersistenceException) t
-                    : Conversion.convertInternalException(t);
-            pe.setWarnings(ClientWarn.instance.getWarnings());
-            future.completeExceptionally(pe);
-          } finally {
-            // Note that it's a no-op if we haven't called captureWarnings
-            ClientWarn.instance.resetWarnings();
-          }
-        });
-
+    long admittedNanos;
+    try {
+      admittedNanos = loadShedder.admit(priority);
+    } catch (PersistenceException e) {
+      future.completeExceptionally(e);
+      return future;
+    }
+    try {
+      executor.submit(() -> runAdmitted(supplier, captureWarnings, admittedNanos, future));
+    } catch (RuntimeException e) {
+      loadShedder.released();
+      throw e;
+    }
     return future;
   }
 
+  private <T extends Result> void runAdmitted(
+      Supplier<T> supplier,
+      boolean captureWarnings,
+      long admittedNanos,
+      CompletableFuture<T> future) {
+    loadShedder.started(admittedNanos);
+    if (future.isCancelled()) {
+      // The caller gave up on the result while it was queued (for instance a dropped prefetched
+      // page), don't run the query at all.
+      return;
+    }
+    if (captureWarnings) {
+      ClientWarn.instance.captureWarnings();
+    }
+    try {
+      @SuppressWarnings("unchecked")
+      T resultWithWarnings = (T) supplier.get().setWarnings(ClientWarn.instance.getWarnings());
+      future.complete(resultWithWarnings);
+    } catch (Throwable t) {
+      JVMStabilityInspector.inspectThrowable(t);
+      PersistenceException pe =
+          (t instanceof PersistenceException)
+              ? (PersistenceException) t
+              : Conversion.convertInternalException(t);
+      pe.setWarnings(ClientWarn.instance.getWarnings());
+      future.completeExceptionally(pe);
+    } finally {
+      // Note that it's a no-op if we haven't called captureWarnings
+      ClientWarn.instance.resetWarnings();
+    }
+  }
+
   private static boolean shouldCheckSchema(InetAddress ep) {
     EndpointState epState = Gossiper.instance.getEndpointStateForEndpoint(ep);
     return epState != null && !Gossiper.instance.isDeadState(epState);
@@ -462,7 +497,10 @@ public class Cassandra311Persistence
     }
 
     private <T extends Result> CompletableFuture<T> executeRequestOnExecutor(
-        Parameters parameters, long queryStartNanoTime, Supplier<Request> requestSupplier) {
+        Parameters parameters,
+        long queryStartNanoTime,
+        boolean systemQuery,
+        Supplier<Request> requestSupplier) {
       return runOnExecutor(
           () -> {
             QueryState queryState =
@@ -494,7 +532,9 @@ public class Cassandra311Persistence
                         Conversion.toInternal(parameters.protocolVersion()));
             return result;
           },
-          parameters.protocolVersion().isGreaterOrEqualTo(ProtocolVersion.V4));
+          parameters.protocolVersion().isGreaterOrEqualTo(ProtocolVersion.V4),
+          // Internal requests are issued by Stargate itself (auth, schema, etc.)
+          systemQuery || !clientInfo().isPresent());
     }
 
     private ClientState cloneWithKeyspace(ClientState original, String keyspace) {
@@ -518,6 +558,7 @@ public class Cassandra311Persistence
       return executeRequestOnExecutor(
           parameters,
           queryStartNanoTime,
+          loadShedder.isEnabled() && LoadShedder.isSystemStatement(statement),
           () -> {
             QueryOptions options =
                 Conversion.toInternal(
@@ -540,6 +581,7 @@ public class Cassandra311Persistence
           // The queryStartNanoTime is not used by prepared message, so it doesn't really matter
           // that it's only computed now.
           System.nanoTime(),
+          loadShedder.isEnabled() && LoadShedder.isSystemQuery(query),
           () -> new PrepareMessage(query));
     }
 
@@ -549,6 +591,7 @@ public class Cassandra311Persistence
       return executeRequestOnExecutor(
           parameters,
           queryStartNanoTime,
+          loadShedder.isEnabled() && LoadShedder.isSystemBatch(batch),
           () -> {
             QueryOptions options = Conversion.toInternal(Collections.emptyList(), null, parameters);
             BatchStatement.Type internalBatchType = Conversion.toInternal(batch.type());
@@ -565,12 +608,12 @@ public class Cassandra311Persistence
 
     @Override
     public ByteBuffer makePagingState(PagingPosition position, Parameters parameters) {
-      return Conversion.toPagingState(position, parameters);
+      return Conversion.toPagingState(internalTable(position.tableName()), position, parameters);
     }
 
     @Override
     public RowDecorator makeRowDecorator(TableName tableName) {
-      return new RowDecoratorImpl(tableName);
+      return rowDecorator(tableName);
     }
 
     private Object queryOrId(Statement statement) {
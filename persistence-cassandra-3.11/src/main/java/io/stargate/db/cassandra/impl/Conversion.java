@@ -202,8 +202,8 @@ public class Conversion {
     return cfm;
   }
 
-  public static ByteBuffer toPagingState(PagingPosition pos, Parameters parameters) {
-    CFMetaData cfm = toCFMetaData(pos.tableName());
+  public static ByteBuffer toPagingState(
+      CFMetaData cfm, PagingPosition pos, Parameters parameters) {
 
     Object[] pkValues =
         cfm.partitionKeyColumns().stream()
@@ -40,11 +40,7 @@ public class RowDecoratorImpl extends AbstractRowDecorator {
 
   private final CFMetaData metadata;
 
-  public RowDecoratorImpl(TableName tableName) {
-    this(tableName, Conversion.toCFMetaData(tableName));
-  }
-
-  private RowDecoratorImpl(TableName tableName, CFMetaData tableMetadata) {
+  public RowDecoratorImpl(TableName tableName, CFMetaData tableMetadata) {
     super(
         tableName,
         tableMetadata.partitionKeyColumns().stream()
@@ -31,7 +31,10 @@ import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.cassandra.auth.IResource;
@@ -88,6 +91,7 @@ import org.apache.cassandra.exceptions.InvalidRequestException;
 import org.apache.cassandra.exceptions.RequestExecutionException;
 import org.apache.cassandra.exceptions.RequestValidationException;
 import org.apache.cassandra.exceptions.UnauthorizedException;
+import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.transport.messages.ResultMessage;
 import org.apache.cassandra.transport.messages.ResultMessage.Prepared;
@@ -98,6 +102,14 @@ import org.slf4j.LoggerFactory;
 public class StargateQueryHandler implements QueryHandler {
 
   private static final Logger logger = LoggerFactory.getLogger(StargateQueryHandler.class);
+
+  // Parsed `system.local` and `system.peers` queries, which drivers send unprepared on every new
+  // connection and topology refresh. Reusing their statements saves parsing them again, and allows
+  // the interceptors to cache their results per statement.
+  private static final int MAX_SYSTEM_STATEMENTS = 256;
+  private final ConcurrentMap<SystemQueryKey, ParsedStatement.Prepared> systemStatements =
+      new ConcurrentHashMap<>();
+
   private final List<QueryInterceptor> interceptors = new CopyOnWriteArrayList<>();
   private AtomicReference<AuthorizationService> authorizationService;
 
@@ -131,8 +143,7 @@ public class StargateQueryHandler implements QueryHandler {
       long queryStartNanoTime)
       throws RequestExecutionException, RequestValidationException {
 
-    ParsedStatement.Prepared p =
-        QueryProcessor.getStatement(queryString, queryState.getClientState());
+    ParsedStatement.Prepared p = getStatement(queryString, queryState.getClientState());
     options.prepare(p.boundNames);
     CQLStatement statement = p.statement;
     if (statement.getBoundTerms() != options.getValues().size()) {
@@ -161,6 +172,21 @@ public class StargateQueryHandler implements QueryHandler {
         statement, queryState, options, queryStartNanoTime);
   }
 
+  private ParsedStatement.Prepared getStatement(String queryString, ClientState clientState) {
+    SystemQueryKey key = new SystemQueryKey(clientState.getRawKeyspace(), queryString);
+    ParsedStatement.Prepared p = systemStatements.get(key);
+    if (p != null) {
+      return p;
+    }
+
+    p = QueryProcessor.getStatement(queryString, clientState);
+    if (StargateSystemKeyspace.isSystemLocalOrPeers(p.statement)
+        && systemStatements.size() < MAX_SYSTEM_STATEMENTS) {
+      systemStatements.putIfAbsent(key, p);
+    }
+    return p;
+  }
+
   @Override
   public Prepared prepare(String s, QueryState queryState, Map<String, ByteBuffer> customPayload)
       throws RequestValidationException {
@@ -679,4 +705,32 @@ public class StargateQueryHandler implements QueryHandler {
   public Optional<AuthorizationService> getAuthorizationService() {
     return Optional.ofNullable(authorizationService.get());
   }
+
+  /** A query string, along with the keyspace used to resolve the unqualified tables in it. */
+  private static final class SystemQueryKey {
+    private final String keyspace;
+    private final String query;
+
+    private SystemQueryKey(String keyspace, String query) {
+      this.keyspace = keyspace;
+      this.query = query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SystemQueryKey)) {
+        return false;
+      }
+      SystemQueryKey that = (SystemQueryKey) o;
+      return Objects.equals(keyspace, that.keyspace) && query.equals(that.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(keyspace) + query.hashCode();
+    }
+  }
 }
@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.config.SchemaConstants;
@@ -56,6 +57,9 @@ public class StargateSystemKeyspace {
 
   public static final UUID SCHEMA_VERSION = UUID.fromString("17846767-28a1-4acd-a967-f609ff1375f1");
 
+  // Bumped after every change to the content of the tables, see version()
+  private static final AtomicLong version = new AtomicLong();
+
   public static final CFMetaData Local =
       compile(
           LOCAL_TABLE_NAME,
@@ -116,6 +120,14 @@ public class StargateSystemKeyspace {
         Functions.none());
   }
 
+  /**
+   * A version of the content of the tables, which changes after every write to them. This is used
+   * to invalidate the cached results of queries on these tables.
+   */
+  public static long version() {
+    return version.get();
+  }
+
   public static void persistLocalMetadata() {
     String req =
         "INSERT INTO %s.%s ("
@@ -156,6 +168,7 @@ public class StargateSystemKeyspace {
         generateRandomTokens(
             FBUtilities.getBroadcastRpcAddress(), DatabaseDescriptor.getNumTokens()),
         SCHEMA_VERSION);
+    version.incrementAndGet();
   }
 
   public static boolean isSystemLocal(SelectStatement statement) {
@@ -183,17 +196,17 @@ public class StargateSystemKeyspace {
 
     String req = "INSERT INTO %s.%s (peer, %s) VALUES (?, ?)";
     return executorService.submit(
-        (Runnable)
-            () ->
-                executeInternal(
-                    String.format(req, SYSTEM_KEYSPACE_NAME, PEERS_TABLE_NAME, columnName),
-                    ep,
-                    value));
+        () -> {
+          executeInternal(
+              String.format(req, SYSTEM_KEYSPACE_NAME, PEERS_TABLE_NAME, columnName), ep, value);
+          version.incrementAndGet();
+        });
   }
 
   public static void removeEndpoint(InetAddress ep) {
     String req = "DELETE FROM %s.%s WHERE peer = ?";
     executeInternal(String.format(req, SYSTEM_KEYSPACE_NAME, PEERS_TABLE_NAME), ep);
+    version.incrementAndGet();
     forceBlockingFlush(PEERS_TABLE_NAME);
   }
 
@@ -6,6 +6,7 @@ import static io.stargate.db.cassandra.impl.StargateSystemKeyspace.isSystemLocal
 import com.datastax.oss.driver.shaded.guava.common.collect.Sets;
 import io.stargate.db.EventListener;
 import io.stargate.db.cassandra.impl.StargateSystemKeyspace;
+import io.stargate.db.datastore.common.SystemTablesResultCache;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
@@ -31,6 +32,7 @@ import org.apache.cassandra.gms.IEndpointStateChangeSubscriber;
 import org.apache.cassandra.gms.VersionedValue;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.service.StorageService;
+import org.apache.cassandra.transport.ProtocolVersion;
 import org.apache.cassandra.transport.messages.ResultMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +51,9 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
   // for clients.
   private final Set<InetAddress> endpointsPendingJoinedNotification = ConcurrentHashMap.newKeySet();
 
+  private final SystemTablesResultCache<ResultKey, ResultMessage.Rows> results =
+      new SystemTablesResultCache<>(StargateSystemKeyspace::version);
+
   @Override
   public void initialize() {
     Schema.instance.load(StargateSystemKeyspace.metadata());
@@ -68,6 +73,23 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
     }
 
     SelectStatement selectStatement = (SelectStatement) statement;
+    ResultMessage.Rows rows =
+        options.getPagingState() == null
+            ? results.get(
+                new ResultKey(selectStatement, options),
+                k -> execute(selectStatement, state, options, queryStartNanoTime),
+                r -> r.result.metadata.getPagingState() == null)
+            : execute(selectStatement, state, options, queryStartNanoTime);
+    // The rows may be shared with concurrent queries, but are never modified
+    return new ResultMessage.Rows(
+        new ResultSet(selectStatement.getResultMetadata(), rows.result.rows));
+  }
+
+  private static ResultMessage.Rows execute(
+      SelectStatement selectStatement,
+      QueryState state,
+      QueryOptions options,
+      long queryStartNanoTime) {
     SelectStatement interceptStatement =
         new SelectStatement(
             isSystemLocal(selectStatement)
@@ -82,9 +104,7 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
             null,
             null,
             null);
-    ResultMessage.Rows rows = interceptStatement.execute(state, options, queryStartNanoTime);
-    return new ResultMessage.Rows(
-        new ResultSet(selectStatement.getResultMetadata(), rows.result.rows));
+    return interceptStatement.execute(state, options, queryStartNanoTime);
   }
 
   @Override
@@ -283,4 +303,45 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
     VersionedValue value = epState.getApplicationState(ApplicationState.X10);
     return value != null && value.value.equals("stargate");
   }
+
+  /**
+   * Identifies a cached result. Statements are compared by identity: the query handler reuses the
+   * statements of unprepared queries on these tables, and prepared statements are already reused.
+   */
+  private static final class ResultKey {
+    private final SelectStatement statement;
+    private final ProtocolVersion protocolVersion;
+    private final int pageSize;
+    private final List<ByteBuffer> values;
+
+    private ResultKey(SelectStatement statement, QueryOptions options) {
+      this.statement = statement;
+      this.protocolVersion = options.getProtocolVersion();
+      this.pageSize = options.getPageSize();
+      this.values = options.getValues();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ResultKey)) {
+        return false;
+      }
+      ResultKey that = (ResultKey) o;
+      return statement == that.statement
+          && protocolVersion == that.protocolVersion
+          && pageSize == that.pageSize
+          && values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = System.identityHashCode(statement);
+      result = 31 * result + protocolVersion.hashCode();
+      result = 31 * result + pageSize;
+      return 31 * result + values.hashCode();
+    }
+  }
 }
@@ -133,8 +133,8 @@ public class Conversion {
     return Schema.instance.validateTable(tableName.keyspace(), tableName.name());
   }
 
-  public static ByteBuffer toPagingState(PagingPosition pos, Parameters parameters) {
-    TableMetadata table = toTableMetadata(pos.tableName());
+  public static ByteBuffer toPagingState(
+      TableMetadata table, PagingPosition pos, Parameters parameters) {
 
     Object[] pkValues =
         table.partitionKeyColumns().stream()
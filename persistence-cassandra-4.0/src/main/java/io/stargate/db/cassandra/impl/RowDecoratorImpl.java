@@ -41,11 +41,7 @@ public class RowDecoratorImpl extends AbstractRowDecorator {
 
   private final TableMetadata metadata;
 
-  public RowDecoratorImpl(TableName tableName) {
-    this(tableName, Conversion.toTableMetadata(tableName));
-  }
-
-  private RowDecoratorImpl(TableName tableName, TableMetadata tableMetadata) {
+  public RowDecoratorImpl(TableName tableName, TableMetadata tableMetadata) {
     super(
         tableName,
         tableMetadata.partitionKeyColumns().stream()
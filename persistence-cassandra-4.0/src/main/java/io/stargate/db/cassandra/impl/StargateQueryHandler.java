@@ -31,7 +31,10 @@ import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -104,6 +107,13 @@ public class StargateQueryHandler implements QueryHandler {
           Integer.getInteger(
               "stargate.prepare_lock_count", Runtime.getRuntime().availableProcessors() * 4));
 
+  // Parsed `system.local` and `system.peers` queries, which drivers send unprepared on every new
+  // connection and topology refresh. Reusing their statements saves parsing them again, and allows
+  // the interceptors to cache their results per statement.
+  private static final int MAX_SYSTEM_STATEMENTS = 256;
+  private final ConcurrentMap<SystemQueryKey, CQLStatement> systemStatements =
+      new ConcurrentHashMap<>();
+
   private final List<QueryInterceptor> interceptors = new CopyOnWriteArrayList<>();
   private AtomicReference<AuthorizationService> authorizationService;
 
@@ -130,7 +140,18 @@ public class StargateQueryHandler implements QueryHandler {
 
   @Override
   public CQLStatement parse(String s, QueryState queryState, QueryOptions queryOptions) {
-    return QueryProcessor.instance.parse(s, queryState, queryOptions);
+    SystemQueryKey key = new SystemQueryKey(queryState.getClientState().getRawKeyspace(), s);
+    CQLStatement statement = systemStatements.get(key);
+    if (statement != null) {
+      return statement;
+    }
+
+    statement = QueryProcessor.instance.parse(s, queryState, queryOptions);
+    if (StargateSystemKeyspace.isSystemLocalOrPeers(statement)
+        && systemStatements.size() < MAX_SYSTEM_STATEMENTS) {
+      systemStatements.putIfAbsent(key, statement);
+    }
+    return statement;
   }
 
   @Override
@@ -717,4 +738,32 @@ public class StargateQueryHandler implements QueryHandler {
   public Optional<AuthorizationService> getAuthorizationService() {
     return Optional.ofNullable(authorizationService.get());
   }
+
+  /** A query string, along with the keyspace used to resolve the unqualified tables in it. */
+  private static final class SystemQueryKey {
+    private final String keyspace;
+    private final String query;
+
+    private SystemQueryKey(String keyspace, String query) {
+      this.keyspace = keyspace;
+      this.query = query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SystemQueryKey)) {
+        return false;
+      }
+      SystemQueryKey that = (SystemQueryKey) o;
+      return Objects.equals(keyspace, that.keyspace) && query.equals(that.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(keyspace) + query.hashCode();
+    }
+  }
 }
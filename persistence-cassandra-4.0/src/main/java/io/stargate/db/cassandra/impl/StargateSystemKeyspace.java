@@ -14,6 +14,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.cql3.CQLStatement;
 import org.apache.cassandra.cql3.QueryProcessor;
@@ -50,6 +51,9 @@ public class StargateSystemKeyspace {
 
   public static final UUID SCHEMA_VERSION = UUID.fromString("17846767-28a1-4acd-a967-f609ff1375f1");
 
+  // Bumped after every change to the content of the tables, see version()
+  private static final AtomicLong version = new AtomicLong();
+
   public static final TableMetadata Local =
       parse(
               LOCAL_TABLE_NAME,
@@ -151,6 +155,14 @@ public class StargateSystemKeyspace {
         Functions.none());
   }
 
+  /**
+   * A version of the content of the tables, which changes after every write to them. This is used
+   * to invalidate the cached results of queries on these tables.
+   */
+  public static long version() {
+    return version.get();
+  }
+
   public static void persistLocalMetadata() {
     String req =
         "INSERT INTO %s.%s ("
@@ -195,6 +207,7 @@ public class StargateSystemKeyspace {
         StargateSystemKeyspace.generateRandomTokens(
             FBUtilities.getBroadcastNativeAddressAndPort(), DatabaseDescriptor.getNumTokens()),
         SCHEMA_VERSION);
+    version.incrementAndGet();
   }
 
   public static boolean isSystemPeers(SelectStatement statement) {
@@ -233,6 +246,7 @@ public class StargateSystemKeyspace {
         ep.address,
         ep.port,
         value);
+    version.incrementAndGet();
   }
 
   public static synchronized void updatePeerNativeAddress(
@@ -249,6 +263,7 @@ public class StargateSystemKeyspace {
         ep.port,
         address.address,
         address.port);
+    version.incrementAndGet();
   }
 
   public static synchronized void removeEndpoint(InetAddressAndPort ep) {
@@ -259,6 +274,7 @@ public class StargateSystemKeyspace {
             "DELETE FROM %s.%s WHERE peer = ? AND peer_port = ?",
             SYSTEM_KEYSPACE_NAME, PEERS_V2_TABLE_NAME);
     executeInternal(req, ep.address, ep.port);
+    version.incrementAndGet();
     forceBlockingFlush(PEERS_TABLE_NAME, PEERS_V2_TABLE_NAME);
   }
 
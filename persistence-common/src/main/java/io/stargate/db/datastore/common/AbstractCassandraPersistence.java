@@ -4,10 +4,13 @@ import com.datastax.oss.driver.shaded.guava.common.base.Joiner;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.ClientInfo;
 import io.stargate.db.Persistence;
+import io.stargate.db.RowDecorator;
 import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.TableName;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +44,12 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
   // listener callback.
   private volatile Schema schema;
 
+  // Internal table metadata and row decorators, per table, so that building paging states and row
+  // decorators doesn't require a schema lookup for every query. They are derived from the internal
+  // schema, so the whole map is replaced every time that schema changes (replaced rather than
+  // cleared, so that a concurrent load based on the old schema cannot end up in the new map).
+  private volatile Map<TableName, CachedTable<T>> tables = new ConcurrentHashMap<>();
+
   protected AbstractCassandraPersistence(String name) {
     this.name = name;
     this.schemaConverter = newSchemaConverter();
@@ -80,6 +89,48 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
    */
   protected abstract void destroyPersistence();
 
+  /**
+   * Looks up the internal metadata of the given table in the current internal schema.
+   *
+   * @throws RuntimeException if the table does not exist.
+   */
+  protected abstract T lookupInternalTable(TableName tableName);
+
+  /** Creates a new row decorator for the given table. */
+  protected abstract RowDecorator newRowDecorator(TableName tableName, T table);
+
+  /**
+   * Returns the internal metadata of the given table. This is cached until the next internal schema
+   * change, see {@link #lookupInternalTable(TableName)} for the actual lookup.
+   */
+  protected final T internalTable(TableName tableName) {
+    return cachedTable(tableName).table;
+  }
+
+  /**
+   * Returns the row decorator of the given table. This is cached until the next internal schema
+   * change, see {@link #newRowDecorator(TableName, Object)} for the actual creation.
+   */
+  protected final RowDecorator rowDecorator(TableName tableName) {
+    return cachedTable(tableName).rowDecorator;
+  }
+
+  private CachedTable<T> cachedTable(TableName tableName) {
+    Map<TableName, CachedTable<T>> current = tables;
+    CachedTable<T> cached = current.get(tableName);
+    if (cached == null) {
+      // Note that if the lookup fails, nothing gets cached and the exception is propagated.
+      cached =
+          current.computeIfAbsent(
+              tableName,
+              n -> {
+                T table = lookupInternalTable(n);
+                return new CachedTable<>(table, newRowDecorator(n, table));
+              });
+    }
+    return cached;
+  }
+
   @Override
   public final String name() {
     return name;
@@ -106,7 +157,11 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
     initializePersistence(config);
 
     schema = computeCurrentSchema();
-    registerInternalSchemaListener(() -> schema = computeCurrentSchema());
+    registerInternalSchemaListener(
+        () -> {
+          tables = new ConcurrentHashMap<>();
+          schema = computeCurrentSchema();
+        });
   }
 
   private Schema computeCurrentSchema() {
@@ -123,6 +178,16 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
     return name();
   }
 
+  private static class CachedTable<T> {
+    private final T table;
+    private final RowDecorator rowDecorator;
+
+    private CachedTable(T table, RowDecorator rowDecorator) {
+      this.table = table;
+      this.rowDecorator = rowDecorator;
+    }
+  }
+
   protected abstract static class AbstractConnection implements Connection {
     private final @Nullable ClientInfo clientInfo;
     private volatile @Nullable AuthenticatedUser loggedUser;
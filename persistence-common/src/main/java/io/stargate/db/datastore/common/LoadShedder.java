@@ -0,0 +1,224 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.stargate.db.Batch;
+import io.stargate.db.SimpleStatement;
+import io.stargate.db.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.apache.cassandra.stargate.exceptions.OverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rejects requests up-front when the persistence request queue is past a configurable watermark, so
+ * that an overloaded node fails a fraction of its requests quickly instead of letting every request
+ * queue up until it times out.
+ *
+ * <p>Two watermarks are supported, and either can be disabled by setting it to 0:
+ *
+ * <ul>
+ *   <li>the number of requests that were admitted but have not started executing yet;
+ *   <li>the queue wait of the most recently started request, which only applies while requests are
+ *       still queued (otherwise a stale measurement from the last burst would keep shedding).
+ * </ul>
+ *
+ * Priority requests (internal requests and queries on system keyspaces, see {@link
+ * #isSystemQuery(String)}) are always admitted unless {@link #PRIORITIZE_SYSTEM_PROPERTY} is set to
+ * false, so that drivers can still refresh their metadata and clients can still authenticate while
+ * the node sheds load.
+ *
+ * <p>Callers must pair every successful {@link #admit(boolean)} with exactly one call to either
+ * {@link #started(long)} or {@link #released()}.
+ */
+public class LoadShedder {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadShedder.class);
+
+  public static final String MAX_QUEUE_DEPTH_PROPERTY = "stargate.persistence.max_queue_depth";
+  public static final String MAX_QUEUE_WAIT_MS_PROPERTY = "stargate.persistence.max_queue_wait_ms";
+  public static final String PRIORITIZE_SYSTEM_PROPERTY =
+      "stargate.persistence.shed_prioritize_system";
+
+  public static final String METRIC_PREFIX = "persistence.load_shedding";
+
+  private static final Pattern SYSTEM_KEYSPACE =
+      Pattern.compile(
+          "\\b\"?system(_auth|_schema|_distributed|_traces|_views|_virtual_schema)?\"?\\s*\\.",
+          Pattern.CASE_INSENSITIVE);
+
+  /** A shedder that admits every request and records nothing. */
+  public static final LoadShedder DISABLED = new LoadShedder(0, 0, true, null);
+
+  private final int maxQueueDepth;
+  private final long maxQueueWaitNanos;
+  private final boolean prioritizeSystem;
+
+  private final AtomicInteger queued = new AtomicInteger();
+  private volatile long lastQueueWaitNanos;
+
+  private final Meter shed;
+  private final Counter admittedWithPriority;
+  private final Timer queueWait;
+
+  public LoadShedder(
+      int maxQueueDepth,
+      long maxQueueWaitMillis,
+      boolean prioritizeSystem,
+      MetricRegistry registry) {
+    this.maxQueueDepth = maxQueueDepth;
+    this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis);
+    this.prioritizeSystem = prioritizeSystem;
+    if (registry == null) {
+      this.shed = new Meter();
+      this.admittedWithPriority = new Counter();
+      this.queueWait = new Timer();
+    } else {
+      this.shed = registry.meter(MetricRegistry.name(METRIC_PREFIX, "shed"));
+      this.admittedWithPriority =
+          registry.counter(MetricRegistry.name(METRIC_PREFIX, "admitted_with_priority"));
+      this.queueWait = registry.timer(MetricRegistry.name(METRIC_PREFIX, "queue_wait"));
+      registry.gauge(
+          MetricRegistry.name(METRIC_PREFIX, "queue_depth"), () -> (Gauge<Integer>) queued::get);
+    }
+  }
+
+  /** Creates a shedder configured from the {@code stargate.persistence.*} system properties. */
+  public static LoadShedder fromSystemProperties(MetricRegistry registry) {
+    return new LoadShedder(
+        Integer.getInteger(MAX_QUEUE_DEPTH_PROPERTY, 0),
+        Long.getLong(MAX_QUEUE_WAIT_MS_PROPERTY, 0),
+        Boolean.parseBoolean(System.getProperty(PRIORITIZE_SYSTEM_PROPERTY, "true")),
+        registry);
+  }
+
+  /**
+   * Creates a shedder configured from the {@code stargate.persistence.*} system properties, for
+   * engines that do not expose when a request starts executing (and so never call {@link
+   * #started(long)}). Only the queue depth watermark applies; {@link #MAX_QUEUE_WAIT_MS_PROPERTY}
+   * is ignored.
+   */
+  public static LoadShedder depthOnlyFromSystemProperties(MetricRegistry registry) {
+    if (Long.getLong(MAX_QUEUE_WAIT_MS_PROPERTY, 0) > 0) {
+      logger.warn(
+          "{} is not supported by this persistence backend and will be ignored, use {} instead",
+          MAX_QUEUE_WAIT_MS_PROPERTY,
+          MAX_QUEUE_DEPTH_PROPERTY);
+    }
+    return new LoadShedder(
+        Integer.getInteger(MAX_QUEUE_DEPTH_PROPERTY, 0),
+        0,
+        Boolean.parseBoolean(System.getProperty(PRIORITIZE_SYSTEM_PROPERTY, "true")),
+        registry);
+  }
+
+  /**
+   * Whether the provided query string references one of the Cassandra system keyspaces (driver
+   * metadata and peer queries, role lookups, etc.).
+   */
+  public static boolean isSystemQuery(String query) {
+    return query != null && SYSTEM_KEYSPACE.matcher(query).find();
+  }
+
+  /**
+   * Whether the provided statement is a system query. Only the query string of simple statements
+   * can be inspected; bound statements are treated as regular queries.
+   */
+  public static boolean isSystemStatement(Statement statement) {
+    return statement instanceof SimpleStatement
+        && isSystemQuery(((SimpleStatement) statement).queryString());
+  }
+
+  /** Whether all the statements of the provided batch are system queries. */
+  public static boolean isSystemBatch(Batch batch) {
+    return !batch.statements().isEmpty()
+        && batch.statements().stream().allMatch(LoadShedder::isSystemStatement);
+  }
+
+  /**
+   * Whether any watermark is set. When this is false every request is admitted, so callers can skip
+   * classifying requests with {@link #isSystemStatement(Statement)} and its variants.
+   */
+  public boolean isEnabled() {
+    return maxQueueDepth > 0 || maxQueueWaitNanos > 0;
+  }
+
+  /**
+   * Admits a new request, or rejects it if the queue is past one of the watermarks.
+   *
+   * @param priority whether the request is a system or internal request.
+   * @return the admission timestamp, to be passed to {@link #started(long)}.
+   * @throws OverloadedException if the request is shed.
+   */
+  public long admit(boolean priority) {
+    int depth = queued.incrementAndGet();
+    if (priority && prioritizeSystem) {
+      admittedWithPriority.inc();
+    } else if (isOverloaded(depth)) {
+      queued.decrementAndGet();
+      shed.mark();
+      throw new OverloadedException(
+          String.format(
+              "Request rejected: too many pending requests on this coordinator (%d pending, last "
+                  + "queue wait %dms)",
+              depth - 1, TimeUnit.NANOSECONDS.toMillis(lastQueueWaitNanos)));
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Signals that a request admitted at {@code admittedNanos} has left the queue and is about to be
+   * executed.
+   */
+  public void started(long admittedNanos) {
+    queued.decrementAndGet();
+    long wait = System.nanoTime() - admittedNanos;
+    lastQueueWaitNanos = wait;
+    queueWait.update(Duration.ofNanos(wait));
+  }
+
+  /**
+   * Signals that an admitted request will not be queue-timed, either because it could not be
+   * submitted or because the underlying engine does not expose when it starts executing.
+   */
+  public void released() {
+    queued.decrementAndGet();
+  }
+
+  private boolean isOverloaded(int depth) {
+    if (maxQueueDepth > 0 && depth > maxQueueDepth) {
+      return true;
+    }
+    // depth includes the request being admitted
+    return maxQueueWaitNanos > 0 && depth > 1 && lastQueueWaitNanos > maxQueueWaitNanos;
+  }
+
+  int queued() {
+    return queued.get();
+  }
+
+  long shedCount() {
+    return shed.getCount();
+  }
+}
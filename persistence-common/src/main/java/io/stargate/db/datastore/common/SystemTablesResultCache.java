@@ -0,0 +1,132 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Caches the results of the queries on the Stargate versions of `system.local` and `system.peers`.
+ *
+ * <p>Drivers query those tables on every new connection and on every topology refresh, but their
+ * content only changes on gossip events. Whatever writes to those tables must bump the version
+ * returned by the provided supplier <em>after</em> each change: the cache drops all its entries
+ * when it observes a new version, and never stores a result that was computed while the version
+ * changed.
+ */
+public class SystemTablesResultCache<K, V> {
+
+  public static final String ENABLED_PROPERTY = "stargate.system_tables.cache_results";
+  public static final String MAX_ENTRIES_PROPERTY = "stargate.system_tables.cache_max_entries";
+
+  private static final boolean ENABLED =
+      Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+  private static final int MAX_ENTRIES = Integer.getInteger(MAX_ENTRIES_PROPERTY, 1024);
+
+  private final LongSupplier version;
+  private final boolean enabled;
+  private final int maxEntries;
+  private volatile Generation<K, V> current;
+
+  public SystemTablesResultCache(LongSupplier version) {
+    this(version, ENABLED, MAX_ENTRIES);
+  }
+
+  public SystemTablesResultCache(LongSupplier version, boolean enabled, int maxEntries) {
+    this.version = version;
+    this.enabled = enabled;
+    this.maxEntries = maxEntries;
+    this.current = new Generation<>(version.getAsLong());
+  }
+
+  /**
+   * Returns the cached result for the key, or computes it with the provided loader.
+   *
+   * @param cacheable whether a computed result can be cached (for example, a result that spans
+   *     multiple pages cannot).
+   */
+  public V get(K key, Function<K, V> loader, Predicate<V> cacheable) {
+    if (!enabled) {
+      return loader.apply(key);
+    }
+
+    long version = version();
+    V value = getIfPresent(key);
+    if (value != null) {
+      return value;
+    }
+
+    value = loader.apply(key);
+    if (cacheable.test(value)) {
+      put(key, value, version);
+    }
+    return value;
+  }
+
+  /**
+   * The current version of the tables. Callers that compute results asynchronously must read it
+   * <em>before</em> starting the computation, and pass it to {@link #put}.
+   */
+  public long version() {
+    return version.getAsLong();
+  }
+
+  /** Returns the cached result for the key, or {@code null}. */
+  public V getIfPresent(K key) {
+    if (!enabled) {
+      return null;
+    }
+    return generation(version()).values.get(key);
+  }
+
+  /**
+   * Caches a result, unless the tables changed since the provided version (or the cache is full).
+   */
+  public void put(K key, V value, long version) {
+    if (!enabled || version() != version) {
+      return;
+    }
+    Generation<K, V> generation = generation(version);
+    if (generation.values.size() < maxEntries) {
+      generation.values.put(key, value);
+    }
+  }
+
+  private Generation<K, V> generation(long version) {
+    Generation<K, V> generation = current;
+    if (generation.version != version) {
+      generation = new Generation<>(version);
+      current = generation;
+    }
+    return generation;
+  }
+
+  int size() {
+    return current.values.size();
+  }
+
+  private static class Generation<K, V> {
+    private final long version;
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+
+    private Generation(long version) {
+      this.version = version;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import io.stargate.db.RowDecorator;
+import io.stargate.db.schema.ImmutableTableName;
+import io.stargate.db.schema.TableName;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class AbstractCassandraPersistenceTest {
+
+  private static final TableName TABLE =
+      ImmutableTableName.builder().keyspace("ks").name("tbl").build();
+
+  private TestPersistence persistence;
+
+  @BeforeEach
+  public void setup() {
+    persistence =
+        mock(
+            TestPersistence.class,
+            withSettings().useConstructor().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+    persistence.initialize(new Object());
+  }
+
+  @Test
+  public void shouldCacheTableMetadataAndRowDecorator() {
+    String table = persistence.internalTable(TABLE);
+    RowDecorator rowDecorator = persistence.rowDecorator(TABLE);
+
+    assertThat(table).isEqualTo("ks.tbl#1");
+    assertThat(persistence.internalTable(TABLE)).isSameAs(table);
+    assertThat(persistence.rowDecorator(TABLE)).isSameAs(rowDecorator);
+    assertThat(persistence.lookups.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldInvalidateOnSchemaChange() {
+    RowDecorator rowDecorator = persistence.rowDecorator(TABLE);
+
+    persistence.onSchemaChange.run();
+
+    assertThat(persistence.internalTable(TABLE)).isEqualTo("ks.tbl#2");
+    assertThat(persistence.rowDecorator(TABLE)).isNotSameAs(rowDecorator);
+    assertThat(persistence.lookups.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotCacheFailedLookups() {
+    persistence.failLookups = true;
+    assertThatThrownBy(() -> persistence.rowDecorator(TABLE))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    persistence.failLookups = false;
+    assertThat(persistence.internalTable(TABLE)).isEqualTo("ks.tbl#2");
+  }
+
+  abstract static class TestPersistence
+      extends AbstractCassandraPersistence<Object, Object, String, Object, Object, Object, Object> {
+
+    final AtomicInteger lookups = new AtomicInteger();
+    volatile boolean failLookups;
+    Runnable onSchemaChange;
+
+    TestPersistence() {
+      super("test");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected AbstractCassandraSchemaConverter<Object, String, Object, Object, Object, Object>
+        newSchemaConverter() {
+      return mock(AbstractCassandraSchemaConverter.class);
+    }
+
+    @Override
+    protected Iterable<Object> currentInternalSchema() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    protected void registerInternalSchemaListener(Runnable onSchemaChange) {
+      this.onSchemaChange = onSchemaChange;
+    }
+
+    @Override
+    protected void unregisterInternalSchemaListener() {}
+
+    @Override
+    protected void initializePersistence(Object config) {}
+
+    @Override
+    protected void destroyPersistence() {}
+
+    @Override
+    protected String lookupInternalTable(TableName tableName) {
+      int count = lookups.incrementAndGet();
+      if (failLookups) {
+        throw new IllegalArgumentException("Unknown table " + tableName);
+      }
+      return tableName.keyspace() + "." + tableName.name() + "#" + count;
+    }
+
+    @Override
+    protected RowDecorator newRowDecorator(TableName tableName, String table) {
+      return mock(RowDecorator.class);
+    }
+  }
+}
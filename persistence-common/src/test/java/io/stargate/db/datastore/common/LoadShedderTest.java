@@ -0,0 +1,134 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.exceptions.OverloadedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LoadShedderTest {
+
+  private final MetricRegistry registry = new MetricRegistry();
+
+  @Test
+  public void shouldShedPastQueueDepth() {
+    LoadShedder shedder = new LoadShedder(2, 0, true, registry);
+
+    long first = shedder.admit(false);
+    shedder.admit(false);
+    assertThatThrownBy(() -> shedder.admit(false)).isInstanceOf(OverloadedException.class);
+    assertThat(shedder.queued()).isEqualTo(2);
+    assertThat(registry.meter("persistence.load_shedding.shed").getCount()).isEqualTo(1);
+
+    shedder.started(first);
+    shedder.admit(false);
+    assertThat(shedder.queued()).isEqualTo(2);
+    assertThat(registry.timer("persistence.load_shedding.queue_wait").getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldAdmitPriorityRequests() {
+    LoadShedder shedder = new LoadShedder(1, 0, true, registry);
+
+    shedder.admit(false);
+    shedder.admit(true);
+    assertThat(shedder.queued()).isEqualTo(2);
+    assertThat(shedder.shedCount()).isZero();
+  }
+
+  @Test
+  public void shouldShedPriorityRequestsWhenNotPrioritized() {
+    LoadShedder shedder = new LoadShedder(1, 0, false, registry);
+
+    shedder.admit(false);
+    assertThatThrownBy(() -> shedder.admit(true)).isInstanceOf(OverloadedException.class);
+  }
+
+  @Test
+  public void shouldShedOnQueueWaitOnlyWhileRequestsAreQueued() {
+    LoadShedder shedder = new LoadShedder(0, 10, true, registry);
+
+    long admitted = shedder.admit(false);
+    shedder.started(admitted - TimeUnit.MILLISECONDS.toNanos(50));
+
+    // Nothing is queued anymore, so the last measurement is stale
+    long next = shedder.admit(false);
+    assertThatThrownBy(() -> shedder.admit(false)).isInstanceOf(OverloadedException.class);
+
+    shedder.started(next);
+    shedder.admit(false);
+    shedder.admit(false);
+    assertThat(shedder.shedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldReleaseWithoutRecordingWait() {
+    LoadShedder shedder = new LoadShedder(1, 0, true, registry);
+
+    shedder.admit(false);
+    shedder.released();
+    shedder.admit(false);
+    assertThat(shedder.queued()).isEqualTo(1);
+    assertThat(registry.timer("persistence.load_shedding.queue_wait").getCount()).isZero();
+  }
+
+  @Test
+  public void shouldIgnoreQueueWaitWhenDepthOnly() {
+    System.setProperty(LoadShedder.MAX_QUEUE_DEPTH_PROPERTY, "2");
+    System.setProperty(LoadShedder.MAX_QUEUE_WAIT_MS_PROPERTY, "10");
+    try {
+      LoadShedder shedder = LoadShedder.depthOnlyFromSystemProperties(registry);
+
+      long admitted = shedder.admit(false);
+      shedder.started(admitted - TimeUnit.MILLISECONDS.toNanos(50));
+
+      // Would be shed by the queue wait watermark
+      shedder.admit(false);
+      shedder.admit(false);
+      assertThat(shedder.shedCount()).isZero();
+      assertThatThrownBy(() -> shedder.admit(false)).isInstanceOf(OverloadedException.class);
+    } finally {
+      System.clearProperty(LoadShedder.MAX_QUEUE_DEPTH_PROPERTY);
+      System.clearProperty(LoadShedder.MAX_QUEUE_WAIT_MS_PROPERTY);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "SELECT * FROM system.local",
+        "select peer, rpc_address from system.peers_v2",
+        "SELECT * FROM system_schema.tables WHERE keyspace_name = ?",
+        "SELECT * FROM \"system_auth\".roles",
+        "SELECT * FROM system_schema . columns"
+      })
+  public void shouldDetectSystemQueries(String query) {
+    assertThat(LoadShedder.isSystemQuery(query)).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {"SELECT * FROM ks.system", "SELECT * FROM my_system.tbl", "SELECT * FROM tbl"})
+  public void shouldNotDetectRegularQueries(String query) {
+    assertThat(LoadShedder.isSystemQuery(query)).isFalse();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SystemTablesResultCacheTest {
+
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private String load(String key) {
+    return key + "-" + loads.incrementAndGet();
+  }
+
+  @Test
+  public void shouldCacheUntilVersionChanges() {
+    SystemTablesResultCache<String, String> cache =
+        new SystemTablesResultCache<>(version::get, true, 10);
+
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-1");
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-1");
+    assertThat(cache.get("peers", this::load, v -> true)).isEqualTo("peers-2");
+    assertThat(cache.size()).isEqualTo(2);
+
+    version.incrementAndGet();
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-3");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotCacheResultsLoadedWhileVersionChanged() {
+    SystemTablesResultCache<String, String> cache =
+        new SystemTablesResultCache<>(version::get, true, 10);
+
+    assertThat(
+            cache.get(
+                "local",
+                k -> {
+                  version.incrementAndGet();
+                  return load(k);
+                },
+                v -> true))
+        .isEqualTo("local-1");
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-2");
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-2");
+
+    long before = cache.version();
+    version.incrementAndGet();
+    cache.put("peers", "stale", before);
+    assertThat(cache.getIfPresent("peers")).isNull();
+  }
+
+  @Test
+  public void shouldNotCacheUncacheableResults() {
+    SystemTablesResultCache<String, String> cache =
+        new SystemTablesResultCache<>(version::get, true, 10);
+
+    assertThat(cache.get("local", this::load, v -> false)).isEqualTo("local-1");
+    assertThat(cache.get("local", this::load, v -> false)).isEqualTo("local-2");
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void shouldBoundEntries() {
+    SystemTablesResultCache<String, String> cache =
+        new SystemTablesResultCache<>(version::get, true, 1);
+
+    cache.get("local", this::load, v -> true);
+    cache.get("peers", this::load, v -> true);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getIfPresent("peers")).isNull();
+  }
+
+  @Test
+  public void shouldNotCacheWhenDisabled() {
+    SystemTablesResultCache<String, String> cache =
+        new SystemTablesResultCache<>(version::get, false, 10);
+
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-1");
+    assertThat(cache.get("local", this::load, v -> true)).isEqualTo("local-2");
+    assertThat(cache.getIfPresent("local")).isNull();
+  }
+}
@@ -29,6 +29,7 @@ import io.stargate.db.RowDecorator;
 import io.stargate.db.SimpleStatement;
 import io.stargate.db.Statement;
 import io.stargate.db.datastore.common.AbstractCassandraPersistence;
+import io.stargate.db.datastore.common.LoadShedder;
 import io.stargate.db.dse.impl.idempotency.IdempotencyAnalyzer;
 import io.stargate.db.dse.impl.interceptors.DefaultQueryInterceptor;
 import io.stargate.db.dse.impl.interceptors.ProxyProtocolQueryInterceptor;
@@ -77,6 +78,7 @@ import org.apache.cassandra.exceptions.AuthenticationException;
 import org.apache.cassandra.gms.ApplicationState;
 import org.apache.cassandra.gms.EndpointState;
 import org.apache.cassandra.gms.Gossiper;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
 import org.apache.cassandra.schema.ColumnMetadata;
 import org.apache.cassandra.schema.IndexMetadata;
 import org.apache.cassandra.schema.KeyspaceMetadata;
@@ -141,6 +143,9 @@ public class DsePersistence
 
   private CassandraDaemon cassandraDaemon;
   private Authenticator authenticator;
+  // DSE executes requests on its TPC event loops, which don't expose a queue we could look at, so
+  // the shedder bounds the number of in-flight requests instead.
+  private LoadShedder loadShedder = LoadShedder.DISABLED;
   private QueryInterceptor interceptor;
 
   // C* listener that ensures that our Stargate schema remains up-to-date with the internal C* one.
@@ -185,6 +190,16 @@ public class DsePersistence
     }
   }
 
+  @Override
+  protected TableMetadata lookupInternalTable(TableName tableName) {
+    return SchemaManager.instance.validateTable(tableName.keyspace(), tableName.name());
+  }
+
+  @Override
+  protected RowDecorator newRowDecorator(TableName tableName, TableMetadata table) {
+    return new RowDecoratorImpl(tableName, table);
+  }
+
   @Override
   protected void initializePersistence(Config config) {
     // DSE picks this property during the static loading of the ClientState class. So we set it
@@ -223,6 +238,11 @@ public class DsePersistence
       }
     }
 
+    // DSE runs requests on its TPC threads without telling us when they leave the queue, so only
+    // the queue depth watermark can be enforced.
+    loadShedder =
+        LoadShedder.depthOnlyFromSystemProperties(CassandraMetricsRegistry.actualRegistry);
+
     cassandraDaemon = new CassandraDaemon(true);
 
     // CassandraDaemon.activate() creates a thread that swallows exceptions that occur during
@@ -531,6 +551,25 @@ public class DsePersistence
     }
 
     private <T extends Result> CompletableFuture<T> executeRequest(
+        Parameters parameters,
+        long queryStartNanoTime,
+        boolean systemQuery,
+        Supplier<Request> requestSupplier) {
+      try {
+        // Internal requests are issued by Stargate itself (auth, schema, etc.)
+        loadShedder.admit(systemQuery || !clientInfo().isPresent());
+      } catch (PersistenceException e) {
+        CompletableFuture<T> exceptionalFuture = new CompletableFuture<>();
+        exceptionalFuture.completeExceptionally(e);
+        return exceptionalFuture;
+      }
+      CompletableFuture<T> future =
+          doExecuteRequest(parameters, queryStartNanoTime, requestSupplier);
+      future.whenComplete((r, t) -> loadShedder.released());
+      return future;
+    }
+
+    private <T extends Result> CompletableFuture<T> doExecuteRequest(
         Parameters parameters, long queryStartNanoTime, Supplier<Request> requestSupplier) {
 
       try {
@@ -555,8 +594,7 @@ public class DsePersistence
         request.attach(fakeServerConnection);
 
         CompletableFuture<T> future = new CompletableFuture<>();
-        @SuppressWarnings("unused")
-        Disposable unused =
+        Disposable subscription =
             request
                 .execute(queryState, queryStartNanoTime)
                 .map(
@@ -592,6 +630,14 @@ public class DsePersistence
                       }
                       future.completeExceptionally(ex);
                     });
+        // Cancelling the returned future (for instance a dropped prefetched page) stops the request
+        // if it is still running.
+        future.whenComplete(
+            (r, t) -> {
+              if (future.isCancelled()) {
+                subscription.dispose();
+              }
+            });
         return future;
       } catch (Exception e) {
         CompletableFuture<T> exceptionalFuture = new CompletableFuture<>();
@@ -619,6 +665,7 @@ public class DsePersistence
       return executeRequest(
           parameters,
           queryStartNanoTime,
+          loadShedder.isEnabled() && LoadShedder.isSystemStatement(statement),
           () -> {
             QueryOptions options =
                 Conversion.toInternal(
@@ -669,6 +716,7 @@ public class DsePersistence
           // The queryStartNanoTime is not used by prepared message, so it doesn't really matter
           // that it's only computed now.
           System.nanoTime(),
+          loadShedder.isEnabled() && LoadShedder.isSystemQuery(query),
           () -> new PrepareMessage(query, parameters.defaultKeyspace().orElse(null)));
     }
 
@@ -679,6 +727,7 @@ public class DsePersistence
       return executeRequest(
           parameters,
           queryStartNanoTime,
+          loadShedder.isEnabled() && LoadShedder.isSystemBatch(batch),
           () -> {
             QueryOptions options = Conversion.toInternal(Collections.emptyList(), null, parameters);
             BatchStatement.Type internalBatchType = Conversion.toInternal(batch.type());
@@ -695,16 +744,12 @@ public class DsePersistence
 
     @Override
     public ByteBuffer makePagingState(PagingPosition pos, Parameters parameters) {
-      TableMetadata table =
-          SchemaManager.instance.validateTable(pos.tableName().keyspace(), pos.tableName().name());
-      return Conversion.toPagingState(table, pos, parameters);
+      return Conversion.toPagingState(internalTable(pos.tableName()), pos, parameters);
     }
 
     @Override
     public RowDecorator makeRowDecorator(TableName tableName) {
-      TableMetadata table =
-          SchemaManager.instance.validateTable(tableName.keyspace(), tableName.name());
-      return new RowDecoratorImpl(tableName, table);
+      return rowDecorator(tableName);
     }
 
     private Object queryOrId(Statement statement) {
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.cql3.CQLStatement;
 import org.apache.cassandra.cql3.QueryProcessor;
@@ -36,6 +37,8 @@ public class StargateSystemKeyspace {
 
   private final ConcurrentMap<InetAddress, StargatePeerInfo> peers = new ConcurrentHashMap<>();
   private final StargateLocalInfo local = new StargateLocalInfo();
+  // Bumped after every change to the peers or the local info, see version()
+  private final AtomicLong version = new AtomicLong();
 
   public ConcurrentMap<InetAddress, StargatePeerInfo> getPeers() {
     return peers;
@@ -45,6 +48,19 @@ public class StargateSystemKeyspace {
     return local;
   }
 
+  /**
+   * A version of the content of the tables, which changes after every change to them. This is used
+   * to invalidate the cached results of queries on these tables.
+   */
+  public long version() {
+    return version.get();
+  }
+
+  /** Must be called after every change to the peers or to the local info. */
+  public void contentChanged() {
+    version.incrementAndGet();
+  }
+
   public void persistLocalMetadata() {
     local.setClusterName(DatabaseDescriptor.getClusterName());
     local.setReleaseVersion(ProductVersion.getReleaseVersion().toString());
@@ -65,6 +81,7 @@ public class StargateSystemKeyspace {
     local.setTokens(
         StargateSystemKeyspace.generateRandomTokens(
             FBUtilities.getNativeTransportBroadcastAddress(), DatabaseDescriptor.getNumTokens()));
+    contentChanged();
   }
 
   public static boolean isSystemLocal(SelectStatement statement) {
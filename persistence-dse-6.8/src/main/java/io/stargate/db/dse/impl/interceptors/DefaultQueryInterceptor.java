@@ -6,6 +6,7 @@ import static io.stargate.db.dse.impl.StargateSystemKeyspace.isSystemLocalOrPeer
 import com.datastax.oss.driver.shaded.guava.common.collect.Sets;
 import io.reactivex.Single;
 import io.stargate.db.EventListener;
+import io.stargate.db.datastore.common.SystemTablesResultCache;
 import io.stargate.db.dse.impl.StargateClientState;
 import io.stargate.db.dse.impl.StargatePeerInfo;
 import io.stargate.db.dse.impl.StargateSystemKeyspace;
@@ -14,6 +15,7 @@ import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,7 +24,9 @@ import java.util.function.BiConsumer;
 import org.apache.cassandra.cql3.CQLStatement;
 import org.apache.cassandra.cql3.ColumnIdentifier;
 import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.cql3.PageSize;
 import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.cql3.QueryOptions.PagingOptions;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.cql3.ResultSet;
 import org.apache.cassandra.cql3.statements.SelectStatement;
@@ -34,6 +38,7 @@ import org.apache.cassandra.gms.IEndpointStateChangeSubscriber;
 import org.apache.cassandra.gms.VersionedValue;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.service.StorageService;
+import org.apache.cassandra.transport.ProtocolVersion;
 import org.apache.cassandra.transport.messages.ResultMessage;
 import org.apache.cassandra.utils.FBUtilities;
 import org.slf4j.Logger;
@@ -55,6 +60,9 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
   // for clients.
   private final Set<InetAddress> endpointsPendingJoinedNotification = ConcurrentHashMap.newKeySet();
 
+  private final SystemTablesResultCache<ResultKey, ResultMessage.Rows> results =
+      new SystemTablesResultCache<>(StargateSystemKeyspace.instance::version);
+
   @Override
   public void initialize() {
     StargateSystemKeyspace.initialize();
@@ -80,10 +88,42 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
     listeners.add(listener);
   }
 
-  private static Single<ResultMessage> interceptSystemLocalOrPeers(
+  private Single<ResultMessage> interceptSystemLocalOrPeers(
       CQLStatement statement, QueryState state, QueryOptions options, long queryStartNanoTime) {
     SelectStatement selectStatement = ((SelectStatement) statement);
+    assert state.getClientState() instanceof StargateClientState; // see DseConnection
+    StargateClientState clientState = (StargateClientState) state.getClientState();
+
+    PagingOptions pagingOptions = options.getPagingOptions();
+    if (pagingOptions != null && pagingOptions.state() != null) {
+      return execute(selectStatement, clientState, state, options, queryStartNanoTime)
+          .map(r -> toResult(selectStatement, r));
+    }
 
+    ResultKey key = new ResultKey(selectStatement, options, clientState);
+    ResultMessage.Rows cached = results.getIfPresent(key);
+    if (cached != null) {
+      return Single.just(toResult(selectStatement, cached));
+    }
+
+    long version = results.version();
+    return execute(selectStatement, clientState, state, options, queryStartNanoTime)
+        .map(
+            r -> {
+              if (r.result.metadata.getPagingResult() == null
+                  || r.result.metadata.getPagingResult().state == null) {
+                results.put(key, r, version);
+              }
+              return toResult(selectStatement, r);
+            });
+  }
+
+  private static Single<ResultMessage.Rows> execute(
+      SelectStatement selectStatement,
+      StargateClientState clientState,
+      QueryState state,
+      QueryOptions options,
+      long queryStartNanoTime) {
     // Re-parse so that we can intercept and replace the keyspace.
     SelectStatement.Raw rawStatement =
         (SelectStatement.Raw) QueryProcessor.parseStatement(selectStatement.queryString);
@@ -94,14 +134,17 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
         interceptStatement.execute(state, options, queryStartNanoTime);
     return rows.map(
         r -> {
-          assert state.getClientState() instanceof StargateClientState; // see DseConnection
-          StargateClientState clientState = (StargateClientState) state.getClientState();
           clientState.boundPort().ifPresent(port -> replaceNativeTransportPort(r.result, port));
-          return new ResultMessage.Rows(
-              new ResultSet(selectStatement.getResultMetadata(), r.result.rows));
+          return r;
         });
   }
 
+  private static ResultMessage toResult(SelectStatement selectStatement, ResultMessage.Rows rows) {
+    // The rows may be shared with concurrent queries, but are never modified
+    return new ResultMessage.Rows(
+        new ResultSet(selectStatement.getResultMetadata(), rows.result.rows));
+  }
+
   @Override
   public void onJoin(InetAddress endpoint, EndpointState state) {
     if (!isStargateNode(state)) {
@@ -185,6 +228,7 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
       return;
     }
     StargateSystemKeyspace.instance.getPeers().remove(endpoint);
+    StargateSystemKeyspace.instance.contentChanged();
     InetAddress nativeAddress = getNativeAddress(endpoint);
     for (EventListener listener : listeners) {
       listener.onLeaveCluster(nativeAddress, EventListener.NO_PORT);
@@ -275,6 +319,7 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
               .getPeers()
               .computeIfAbsent(endpoint, StargatePeerInfo::new);
       updater.accept(peer, value);
+      StargateSystemKeyspace.instance.contentChanged();
     }
   }
 
@@ -322,4 +367,48 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
       row.set(index, portBytes);
     }
   }
+
+  /**
+   * Identifies a cached result. The statements of unprepared queries are parsed again on every
+   * execution, so they are compared by query string. The port bound by the client is part of the
+   * key, since it is written in the results.
+   */
+  private static final class ResultKey {
+    private final String queryString;
+    private final ProtocolVersion protocolVersion;
+    private final PageSize pageSize;
+    private final List<ByteBuffer> values;
+    private final Integer boundPort;
+
+    private ResultKey(
+        SelectStatement statement, QueryOptions options, StargateClientState clientState) {
+      this.queryString = statement.queryString;
+      this.protocolVersion = options.getProtocolVersion();
+      PagingOptions pagingOptions = options.getPagingOptions();
+      this.pageSize = pagingOptions == null ? null : pagingOptions.pageSize();
+      this.values = options.getValues();
+      this.boundPort = clientState.boundPort().orElse(null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ResultKey)) {
+        return false;
+      }
+      ResultKey that = (ResultKey) o;
+      return queryString.equals(that.queryString)
+          && protocolVersion == that.protocolVersion
+          && Objects.equals(pageSize, that.pageSize)
+          && values.equals(that.values)
+          && Objects.equals(boundPort, that.boundPort);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(queryString, protocolVersion, pageSize, values, boundPort);
+    }
+  }
 }